@@ -0,0 +1,30 @@
+#!/bin/sh
+#
+# Generates the precompiled PTX resources of the Cuda kernels, one file per architecture.
+#
+# Usage: build-ptx.sh <output directory> <comma separated list of architectures, e.g. sm_52,sm_61,sm_75>
+#
+# The PTX of the kernel file <name>.cu is written to <output directory>/<path>/<name>.<arch>.ptx,
+# where it is found by net.finmath.jcuda.PtxResourceLoader. The compiler flags match those of
+# net.finmath.jcuda.JCudaUtils (the runtime fallback).
+#
+set -e
+
+outputDirectory="$1"
+architectures="$2"
+nvcc="${NVCC:-nvcc}"
+sourceDirectory="$(dirname "$0")/../main/cuda"
+
+if [ -z "$outputDirectory" ] || [ -z "$architectures" ]; then
+	echo "Usage: $0 <output directory> <architectures>" 1>&2
+	exit 1
+fi
+
+for cuFile in $(cd "$sourceDirectory" && find . -name '*.cu'); do
+	name="${cuFile%.cu}"
+	mkdir -p "$outputDirectory/$(dirname "$name")"
+	for arch in $(echo "$architectures" | tr ',' ' '); do
+		echo "Compiling $cuFile for $arch"
+		"$nvcc" -arch "$arch" -fmad false -m64 -ptx "$sourceDirectory/$cuFile" -o "$outputDirectory/$name.$arch.ptx"
+	done
+done
@@ -263,6 +263,24 @@ __global__ void addProduct_vs(int n, float *a, float *b, float c, float *result)
     }
 }
 
+// result = a + b + sum_k factor1[k] * factor2[k] + sum_k factor3[k] * scalars[k] (a may be NULL)
+extern "C"
+__global__ void addSumProduct(int n, float *a, float b, int numberOfProducts, float **factor1, float **factor2, int numberOfScaledVectors, float **factor3, float *scalars, float *result)
+{
+    int i = blockIdx.x * blockDim.x + threadIdx.x;
+    if (i<n)
+    {
+        float sum = (a != NULL ? a[i] : 0.0f) + b;
+        for(int k=0; k<numberOfProducts; k++) {
+            sum += factor1[k][i] * factor2[k][i];
+        }
+        for(int k=0; k<numberOfScaledVectors; k++) {
+            sum += factor3[k][i] * scalars[k];
+        }
+        result[i] = sum;
+    }
+}
+
 extern "C"
 __global__ void addRatio(int n, float *a, float *b, float *c, float *result)
 {
@@ -283,6 +301,21 @@ __global__ void subRatio(int n, float *a, float *b, float *c, float *result)
     }
 }
 
+extern "C"
+__global__ void antithetic(int n, float *a, float *result)
+{
+    int half = (n+1)/2;
+    int i = blockIdx.x * blockDim.x + threadIdx.x;
+    if (i<half)
+    {
+        result[i] = a[i];
+    }
+    else if (i<n)
+    {
+        result[i] = -a[i-half];
+    }
+}
+
 extern "C"
 __global__ void reduceFloatVectorToDoubleScalar(int size, void *data, double *result) {
 	float *fdata = (float*) data;
@@ -347,3 +380,114 @@ __global__ void reducePartial(int size, void *data, void *result) {
 	// write result for this block to global mem
 	if (tid == 0) sum[blockIdx.x] = sdata[0];
 }
+
+/*
+ * Moments of a vector: the accumulator of a sample consists of the fields
+ * (number of values, sum, compensation of the sum, sum of squared deviations from the mean, min, max),
+ * stored with a given stride (structure of arrays). See net.finmath.cuda.montecarlo.backend.MomentsReduction
+ * for a host implementation of the same block/grid logic.
+ */
+#define MOMENTS_FIELDS 6
+
+// Set the accumulator a to the empty sample
+__device__ void clearMoments(double *a, int strideA)
+{
+	a[0] = 0.0;
+	a[strideA] = 0.0;
+	a[2*strideA] = 0.0;
+	a[3*strideA] = 0.0;
+	a[4*strideA] = INFINITY;
+	a[5*strideA] = -INFINITY;
+}
+
+// Combine the accumulator a with the accumulator b (Chan et al. update for the squared deviations, Kahan summation for the sum)
+__device__ void combineMoments(double *a, int strideA, const double *b, int strideB)
+{
+	double nA = a[0];
+	double nB = b[0];
+	if(nB == 0.0) return;
+	if(nA == 0.0) {
+		for(int k=0; k<MOMENTS_FIELDS; k++) a[k*strideA] = b[k*strideB];
+		return;
+	}
+
+	double n = nA + nB;
+	double delta = b[strideB] / nB - a[strideA] / nA;
+	double sumOfSquaredDeviations = a[3*strideA] + b[3*strideB] + delta * delta * (nA * nB / n);
+
+	double value = (b[strideB] - b[2*strideB]) - a[2*strideA];
+	double sum = a[strideA] + value;
+	double error = (sum - a[strideA]) - value;
+
+	a[0] = n;
+	a[strideA] = sum;
+	a[2*strideA] = error;
+	a[3*strideA] = sumOfSquaredDeviations;
+	a[4*strideA] = fmin(a[4*strideA], b[4*strideB]);
+	a[5*strideA] = fmax(a[5*strideA], b[5*strideB]);
+}
+
+// Add a single value to the accumulator a
+__device__ void addMoments(double *a, int strideA, double x)
+{
+	double b[MOMENTS_FIELDS] = { 1.0, x, 0.0, 0.0, x, x };
+	combineMoments(a, strideA, b, 1);
+}
+
+// Reduce the accumulators of the threads of a block in shared memory, the result is in sdata[k*blockDim.x]
+__device__ void reduceMomentsInBlock(double *sdata)
+{
+	unsigned int tid = threadIdx.x;
+	__syncthreads();
+	for (unsigned int s=blockDim.x/2; s>0; s>>=1) {
+		if (tid < s) {
+			combineMoments(sdata + tid, blockDim.x, sdata + tid + s, blockDim.x);
+		}
+		__syncthreads();
+	}
+}
+
+/*
+ * First stage: reduce the vector data of length 'size' to the accumulators of the blocks.
+ * The result has MOMENTS_FIELDS * gridDim.x doubles, field k of block j at result[k * gridDim.x + j].
+ * Requires MOMENTS_FIELDS * blockDim.x doubles of shared memory.
+ */
+extern "C"
+__global__ void reduceMoments(int size, float *data, double *result) {
+	extern __shared__ double sdata[];
+
+	unsigned int tid = threadIdx.x;
+	unsigned int i = blockIdx.x*(blockDim.x*2) + threadIdx.x;
+
+	clearMoments(sdata + tid, blockDim.x);
+	if(i < size) addMoments(sdata + tid, blockDim.x, (double)data[i]);
+	if(i+blockDim.x < size) addMoments(sdata + tid, blockDim.x, (double)data[i+blockDim.x]);
+
+	reduceMomentsInBlock(sdata);
+
+	if (tid == 0) {
+		for(int k=0; k<MOMENTS_FIELDS; k++) result[k * gridDim.x + blockIdx.x] = sdata[k * blockDim.x];
+	}
+}
+
+/*
+ * Second stage (single block): reduce the accumulators of the blocks of the first stage to a single accumulator (MOMENTS_FIELDS doubles).
+ * Requires MOMENTS_FIELDS * blockDim.x doubles of shared memory.
+ */
+extern "C"
+__global__ void reduceMomentsPartials(int numberOfPartials, double *partials, double *result) {
+	extern __shared__ double sdata[];
+
+	unsigned int tid = threadIdx.x;
+
+	clearMoments(sdata + tid, blockDim.x);
+	for(unsigned int j=tid; j<numberOfPartials; j+=blockDim.x) {
+		combineMoments(sdata + tid, blockDim.x, partials + j, numberOfPartials);
+	}
+
+	reduceMomentsInBlock(sdata);
+
+	if (tid == 0) {
+		for(int k=0; k<MOMENTS_FIELDS; k++) result[k] = sdata[k * blockDim.x];
+	}
+}
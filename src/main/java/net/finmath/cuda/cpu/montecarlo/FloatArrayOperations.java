@@ -0,0 +1,204 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+/**
+ * Element-wise operations on float arrays, used by {@link RandomVariableFromFloatArray} if all
+ * stochastic operands are backed by a <code>float[]</code>.
+ *
+ * Each method applies one operation to the index range [from, to) and writes the result to the given
+ * result array (which may be one of the operand arrays, allowing in-place accumulation). The loops are kept free of interface calls, widening conversions and branches, such that
+ * the HotSpot C2 compiler will auto-vectorize them (SIMD, e.g. SSE, AVX2, AVX-512, depending on the hardware).
+ *
+ * Note: We do not use <code>jdk.incubator.vector</code> since the project targets Java 11 and the incubator
+ * module would have to be added to the module path of every application using this library.
+ *
+ * The methods perform float arithmetic and give exactly the same results as the scalar loops in
+ * {@link RandomVariableFromFloatArray}.
+ *
+ * @author Christian Fries
+ */
+final class FloatArrayOperations {
+
+	private FloatArrayOperations() { }
+
+	/*
+	 * Vector-scalar operations
+	 */
+
+	static void add(final float[] a, final float b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] + b;
+		}
+	}
+
+	static void sub(final float[] a, final float b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] - b;
+		}
+	}
+
+	static void bus(final float[] a, final float b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = b - a[i];
+		}
+	}
+
+	static void mult(final float[] a, final float b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] * b;
+		}
+	}
+
+	static void div(final float[] a, final float b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] / b;
+		}
+	}
+
+	static void vid(final float[] a, final float b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = b / a[i];
+		}
+	}
+
+	static void cap(final float[] a, final float b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = Math.min(a[i], b);
+		}
+	}
+
+	static void floor(final float[] a, final float b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = Math.max(a[i], b);
+		}
+	}
+
+	/*
+	 * Vector-vector operations
+	 */
+
+	static void add(final float[] a, final float[] b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] + b[i];
+		}
+	}
+
+	static void sub(final float[] a, final float[] b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] - b[i];
+		}
+	}
+
+	static void mult(final float[] a, final float[] b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] * b[i];
+		}
+	}
+
+	static void div(final float[] a, final float[] b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] / b[i];
+		}
+	}
+
+	static void cap(final float[] a, final float[] b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = Math.min(a[i], b[i]);
+		}
+	}
+
+	static void floor(final float[] a, final float[] b, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = Math.max(a[i], b[i]);
+		}
+	}
+
+	/*
+	 * Compound operations
+	 */
+
+	/**
+	 * result = a * (1 + b * p)
+	 */
+	static void accrue(final float[] a, final float[] b, final float p, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] * (1.0f + b[i] * p);
+		}
+	}
+
+	/**
+	 * result = a * (1 + b * p) for a scalar a
+	 */
+	static void accrue(final float a, final float[] b, final float p, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a * (1.0f + b[i] * p);
+		}
+	}
+
+	/**
+	 * result = a / (1 + b * p)
+	 */
+	static void discount(final float[] a, final float[] b, final float p, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] / (1.0f + b[i] * p);
+		}
+	}
+
+	/**
+	 * result = a / (1 + b * p) for a scalar a
+	 */
+	static void discount(final float a, final float[] b, final float p, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a / (1.0f + b[i] * p);
+		}
+	}
+
+	/**
+	 * result = a + b * c
+	 */
+	static void addProduct(final float[] a, final float[] b, final float c, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] + b[i] * c;
+		}
+	}
+
+	/**
+	 * result = a + b * c for a scalar a
+	 */
+	static void addProduct(final float a, final float[] b, final float c, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a + b[i] * c;
+		}
+	}
+
+	/**
+	 * result = a + b * c
+	 */
+	static void addProduct(final float[] a, final float[] b, final float[] c, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] + b[i] * c[i];
+		}
+	}
+
+	/**
+	 * result = a + b / c
+	 */
+	static void addRatio(final float[] a, final float[] b, final float[] c, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] + b[i] / c[i];
+		}
+	}
+
+	/**
+	 * result = a - b / c
+	 */
+	static void subRatio(final float[] a, final float[] b, final float[] c, final float[] result, final int from, final int to) {
+		for(int i=from; i<to; i++) {
+			result[i] = a[i] - b[i] / c[i];
+		}
+	}
+}
@@ -0,0 +1,595 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * A node of an expression graph (a directed acyclic graph) of element-wise operations on vectors of floats.
+ *
+ * A node is either a leaf, i.e., a vector of floats or a constant, or an operation applied to other nodes.
+ * The graph is evaluated in a single fused pass over the vector: the paths are processed in blocks, and for each block
+ * all nodes of the graph are evaluated into small (cache resident) buffers. Hence, no intermediate vectors of full length are allocated.
+ *
+ * The result of an evaluation is cached. After the evaluation the node becomes a leaf and releases its arguments,
+ * such that the memory of the intermediate vectors can be reclaimed.
+ *
+ * To limit the size of the graph, a node is evaluated upon construction if the number of nodes of its graph exceeds
+ * a maximum, which can be configured via the system property
+ * <code>net.finmath.cuda.cpu.montecarlo.FloatExpression.maxNumberOfNodes</code> (default 128).
+ *
+ * The float arithmetic performed for each operator is the same as the one of the corresponding method of
+ * {@link RandomVariableFromFloatArray}. Operations on constants only are folded using double precision.
+ *
+ * @author Christian Fries
+ */
+public final class FloatExpression implements Serializable {
+
+	private static final long serialVersionUID = -1489203815367210187L;
+
+	private static final int maxNumberOfNodes = Math.max(Integer.getInteger("net.finmath.cuda.cpu.montecarlo.FloatExpression.maxNumberOfNodes", 128), 1);
+
+	private static final int blockSize = 1024;
+
+	/**
+	 * The operators of an expression. The parameter of the node is used by <code>POW</code> (the exponent),
+	 * <code>ACCRUE</code> and <code>DISCOUNT</code> (the period length) and <code>CONSTANT</code> (the value).
+	 */
+	public enum Operator {
+		/** A vector of floats. */
+		VALUES(0),
+		/** A constant. */
+		CONSTANT(0),
+		/** x * x */
+		SQUARED(1),
+		/** sqrt(x) */
+		SQRT(1),
+		/** exp(x) */
+		EXP(1),
+		/** log(x) */
+		LOG(1),
+		/** sin(x) */
+		SIN(1),
+		/** cos(x) */
+		COS(1),
+		/** abs(x) */
+		ABS(1),
+		/** 1 / x */
+		INVERT(1),
+		/** pow(x, parameter) */
+		POW(1),
+		/** a + b */
+		ADD(2),
+		/** a - b */
+		SUB(2),
+		/** a * b */
+		MULT(2),
+		/** a / b */
+		DIV(2),
+		/** min(a, b) */
+		CAP(2),
+		/** max(a, b) */
+		FLOOR(2),
+		/** a * (1 + b * parameter) */
+		ACCRUE(2),
+		/** a / (1 + b * parameter) */
+		DISCOUNT(2),
+		/** a + b * c */
+		ADD_PRODUCT(3),
+		/** a + b / c */
+		ADD_RATIO(3),
+		/** a - b / c */
+		SUB_RATIO(3),
+		/** a &ge; 0 ? b : c */
+		CHOOSE(3);
+
+		private final int numberOfArguments;
+
+		Operator(final int numberOfArguments) {
+			this.numberOfArguments = numberOfArguments;
+		}
+
+		/**
+		 * @return The number of arguments of this operator.
+		 */
+		public int getNumberOfArguments() {
+			return numberOfArguments;
+		}
+	}
+
+	private static final FloatExpression[] noArguments = new FloatExpression[0];
+
+	private final Operator operator;
+	private final double parameter;
+	private final int size;
+
+	private volatile FloatExpression[] arguments;
+	private volatile float[] values;
+	private final int numberOfNodes;
+
+	private FloatExpression(final Operator operator, final double parameter, final int size, final FloatExpression[] arguments, final float[] values, final int numberOfNodes) {
+		this.operator = operator;
+		this.parameter = parameter;
+		this.size = size;
+		this.arguments = arguments;
+		this.values = values;
+		this.numberOfNodes = numberOfNodes;
+	}
+
+	/**
+	 * Create a leaf representing the given vector. The vector is not copied and must not be modified.
+	 *
+	 * @param values The vector.
+	 * @return The leaf.
+	 */
+	public static FloatExpression ofValues(final float[] values) {
+		return new FloatExpression(Operator.VALUES, Double.NaN, values.length, noArguments, values, 1);
+	}
+
+	/**
+	 * Create a leaf representing a constant.
+	 *
+	 * @param value The constant.
+	 * @return The leaf.
+	 */
+	public static FloatExpression ofConstant(final double value) {
+		return new FloatExpression(Operator.CONSTANT, value, 1, noArguments, null, 1);
+	}
+
+	/**
+	 * Create a node applying an operator to the given arguments.
+	 * If all arguments are constants, the result is folded into a constant.
+	 *
+	 * @param operator The operator.
+	 * @param parameter The parameter of the operator (if required by the operator, otherwise ignored).
+	 * @param arguments The arguments.
+	 * @return The node.
+	 */
+	public static FloatExpression of(final Operator operator, final double parameter, final FloatExpression... arguments) {
+		if(operator == Operator.VALUES || operator == Operator.CONSTANT) {
+			throw new IllegalArgumentException("Use ofValues or ofConstant to create leafs.");
+		}
+		if(arguments.length != operator.getNumberOfArguments()) {
+			throw new IllegalArgumentException("Operator " + operator + " requires " + operator.getNumberOfArguments() + " arguments.");
+		}
+
+		boolean isConstant = true;
+		int size = 1;
+		long numberOfNodes = 1;
+		for(final FloatExpression argument : arguments) {
+			if(!argument.isConstant()) {
+				isConstant = false;
+				if(size != 1 && size != argument.size()) {
+					throw new IllegalArgumentException("Arguments have different sizes: " + size + " and " + argument.size() + ".");
+				}
+				size = argument.size();
+			}
+			numberOfNodes += argument.getNumberOfNodes();
+		}
+
+		if(isConstant) {
+			final double[] argumentValues = new double[arguments.length];
+			for(int i=0; i<arguments.length; i++) {
+				argumentValues[i] = arguments[i].getConstantValue();
+			}
+			return ofConstant(applyAsDouble(operator, parameter, argumentValues));
+		}
+
+		final FloatExpression expression = new FloatExpression(operator, parameter, size, arguments.clone(), null, (int)Math.min(numberOfNodes, Integer.MAX_VALUE));
+		if(numberOfNodes > maxNumberOfNodes) {
+			expression.evaluate();
+		}
+		return expression;
+	}
+
+	/**
+	 * @return The operator of this node.
+	 */
+	public Operator getOperator() {
+		return values != null && operator != Operator.CONSTANT ? Operator.VALUES : operator;
+	}
+
+	/**
+	 * @return The parameter of this node.
+	 */
+	public double getParameter() {
+		return parameter;
+	}
+
+	/**
+	 * Returns the arguments of this node. If the node has been evaluated, it is a leaf and has no arguments.
+	 *
+	 * @return The arguments of this node.
+	 */
+	public FloatExpression[] getArguments() {
+		final FloatExpression[] arguments = this.arguments;
+		return values != null ? noArguments : arguments.clone();
+	}
+
+	/**
+	 * @return The size of the vector represented by this node, 1 if the node is a constant.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return True if this node represents a constant.
+	 */
+	public boolean isConstant() {
+		return operator == Operator.CONSTANT;
+	}
+
+	/**
+	 * @return The value of the constant, if this node represents a constant.
+	 */
+	public double getConstantValue() {
+		if(!isConstant()) {
+			throw new UnsupportedOperationException("The expression is not a constant.");
+		}
+		return parameter;
+	}
+
+	/**
+	 * @return True if the vector of this node is available, i.e., if the node is a leaf or has been evaluated.
+	 */
+	public boolean isEvaluated() {
+		return values != null;
+	}
+
+	/**
+	 * @return An upper bound of the number of (not evaluated) nodes of the graph of this node.
+	 */
+	int getNumberOfNodes() {
+		return values != null ? 1 : numberOfNodes;
+	}
+
+	/**
+	 * Evaluate the graph of this node in a single fused pass.
+	 * The result is cached. The returned vector must not be modified.
+	 *
+	 * @return The vector represented by this node.
+	 */
+	public float[] evaluate() {
+		float[] result = values;
+		if(result != null) {
+			return result;
+		}
+		if(isConstant()) {
+			throw new UnsupportedOperationException("The expression is a constant.");
+		}
+
+		synchronized(this) {
+			result = values;
+			if(result == null) {
+				result = new Program(this).run();
+				values = result;
+				arguments = noArguments;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Apply the operator to double arguments (used for constant folding).
+	 *
+	 * @param operator The operator.
+	 * @param parameter The parameter of the operator.
+	 * @param arguments The arguments.
+	 * @return The result.
+	 */
+	static double applyAsDouble(final Operator operator, final double parameter, final double... arguments) {
+		switch(operator) {
+		case SQUARED:
+			return arguments[0] * arguments[0];
+		case SQRT:
+			return Math.sqrt(arguments[0]);
+		case EXP:
+			return Math.exp(arguments[0]);
+		case LOG:
+			return Math.log(arguments[0]);
+		case SIN:
+			return FastMath.sin(arguments[0]);
+		case COS:
+			return FastMath.cos(arguments[0]);
+		case ABS:
+			return Math.abs(arguments[0]);
+		case INVERT:
+			return 1.0 / arguments[0];
+		case POW:
+			return Math.pow(arguments[0], parameter);
+		case ADD:
+			return arguments[0] + arguments[1];
+		case SUB:
+			return arguments[0] - arguments[1];
+		case MULT:
+			return arguments[0] * arguments[1];
+		case DIV:
+			return arguments[0] / arguments[1];
+		case CAP:
+			return Math.min(arguments[0], arguments[1]);
+		case FLOOR:
+			return Math.max(arguments[0], arguments[1]);
+		case ACCRUE:
+			return arguments[0] * (1.0 + arguments[1] * parameter);
+		case DISCOUNT:
+			return arguments[0] / (1.0 + arguments[1] * parameter);
+		case ADD_PRODUCT:
+			return arguments[0] + arguments[1] * arguments[2];
+		case ADD_RATIO:
+			return arguments[0] + arguments[1] / arguments[2];
+		case SUB_RATIO:
+			return arguments[0] - arguments[1] / arguments[2];
+		case CHOOSE:
+			return arguments[0] >= 0 ? arguments[1] : arguments[2];
+		default:
+			throw new IllegalArgumentException("Operator " + operator + " cannot be applied.");
+		}
+	}
+
+	/**
+	 * Apply the operator element-wise to float vectors: r[rOffset+i] = op(a[aOffset+i], b[bOffset+i], c[cOffset+i]) for i = 0, ..., length-1.
+	 */
+	static void apply(final Operator operator, final double parameter,
+			final float[] a, final int aOffset, final float[] b, final int bOffset, final float[] c, final int cOffset,
+			final float[] r, final int rOffset, final int length) {
+		switch(operator) {
+		case SQUARED:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = a[aOffset+i] * a[aOffset+i];
+			}
+			break;
+		case SQRT:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = (float)Math.sqrt(a[aOffset+i]);
+			}
+			break;
+		case EXP:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = (float)Math.exp(a[aOffset+i]);
+			}
+			break;
+		case LOG:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = (float)Math.log(a[aOffset+i]);
+			}
+			break;
+		case SIN:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = (float)FastMath.sin(a[aOffset+i]);
+			}
+			break;
+		case COS:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = (float)FastMath.cos(a[aOffset+i]);
+			}
+			break;
+		case ABS:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = Math.abs(a[aOffset+i]);
+			}
+			break;
+		case INVERT:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = 1.0f / a[aOffset+i];
+			}
+			break;
+		case POW:
+		{
+			final float exponent = (float)parameter;
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = (float)Math.pow(a[aOffset+i], exponent);
+			}
+			break;
+		}
+		case ADD:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = a[aOffset+i] + b[bOffset+i];
+			}
+			break;
+		case SUB:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = a[aOffset+i] - b[bOffset+i];
+			}
+			break;
+		case MULT:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = a[aOffset+i] * b[bOffset+i];
+			}
+			break;
+		case DIV:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = a[aOffset+i] / b[bOffset+i];
+			}
+			break;
+		case CAP:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = Math.min(a[aOffset+i], b[bOffset+i]);
+			}
+			break;
+		case FLOOR:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = Math.max(a[aOffset+i], b[bOffset+i]);
+			}
+			break;
+		case ACCRUE:
+		{
+			final float periodLength = (float)parameter;
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = a[aOffset+i] * (1.0f + b[bOffset+i] * periodLength);
+			}
+			break;
+		}
+		case DISCOUNT:
+		{
+			final float periodLength = (float)parameter;
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = a[aOffset+i] / (1.0f + b[bOffset+i] * periodLength);
+			}
+			break;
+		}
+		case ADD_PRODUCT:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = a[aOffset+i] + b[bOffset+i] * c[cOffset+i];
+			}
+			break;
+		case ADD_RATIO:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = a[aOffset+i] + b[bOffset+i] / c[cOffset+i];
+			}
+			break;
+		case SUB_RATIO:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = a[aOffset+i] - b[bOffset+i] / c[cOffset+i];
+			}
+			break;
+		case CHOOSE:
+			for(int i=0; i<length; i++) {
+				r[rOffset+i] = a[aOffset+i] >= 0.0 ? b[bOffset+i] : c[cOffset+i];
+			}
+			break;
+		default:
+			throw new IllegalArgumentException("Operator " + operator + " cannot be applied.");
+		}
+	}
+
+	@Override
+	public String toString() {
+		final Operator operator = getOperator();
+		switch(operator) {
+		case VALUES:
+			return "values[" + size + "]";
+		case CONSTANT:
+			return Double.toString(parameter);
+		default:
+			return operator + (operator == Operator.POW || operator == Operator.ACCRUE || operator == Operator.DISCOUNT ? "[" + parameter + "]" : "")
+					+ Arrays.toString(getArguments());
+		}
+	}
+
+	/**
+	 * The graph of a node flattened into a sequence of instructions (in topological order).
+	 *
+	 * Operands are encoded as integers: a non-negative number i refers to the result of instruction i,
+	 * a negative number -(j+1) refers to the input j (a vector or a constant).
+	 */
+	private static final class Program {
+
+		private final List<float[]> inputVectors = new ArrayList<>();
+		private final List<Double> inputConstants = new ArrayList<>();
+		private final List<FloatExpression> instructions = new ArrayList<>();
+		private final List<int[]> operands = new ArrayList<>();
+		private final Map<FloatExpression, Integer> operandOfNode = new IdentityHashMap<>();
+
+		private final int size;
+
+		Program(final FloatExpression root) {
+			this.size = root.size();
+			final FloatExpression[] arguments = root.arguments;
+			add(root, arguments);
+		}
+
+		private int add(final FloatExpression node) {
+			final Integer operand = operandOfNode.get(node);
+			if(operand != null) {
+				return operand;
+			}
+
+			// Read the arguments before the values: the arguments are released only after the values have been set.
+			final FloatExpression[] arguments = node.arguments;
+			final float[] values = node.values;
+			final int newOperand;
+			if(node.isConstant()) {
+				inputVectors.add(null);
+				inputConstants.add(node.getConstantValue());
+				newOperand = -inputVectors.size();
+			}
+			else if(values != null) {
+				inputVectors.add(values);
+				inputConstants.add(Double.NaN);
+				newOperand = -inputVectors.size();
+			}
+			else {
+				newOperand = add(node, arguments);
+			}
+			operandOfNode.put(node, newOperand);
+			return newOperand;
+		}
+
+		private int add(final FloatExpression node, final FloatExpression[] arguments) {
+			final int[] argumentOperands = new int[arguments.length];
+			for(int i=0; i<arguments.length; i++) {
+				argumentOperands[i] = add(arguments[i]);
+			}
+			instructions.add(node);
+			operands.add(argumentOperands);
+			return instructions.size()-1;
+		}
+
+		float[] run() {
+			final float[] result = new float[size];
+			final int numberOfInstructions = instructions.size();
+			final int numberOfInputs = inputVectors.size();
+
+			ParallelChunkExecutor.forEach(size, (from, to) -> {
+				final int bufferSize = Math.min(blockSize, to-from);
+
+				// Buffers for the results of the instructions (the last instruction writes to the result)
+				final float[][] buffers = new float[numberOfInstructions][];
+				for(int k=0; k<numberOfInstructions-1; k++) {
+					buffers[k] = new float[bufferSize];
+				}
+
+				// Buffers for the constants
+				final float[][] constants = new float[numberOfInputs][];
+				for(int j=0; j<numberOfInputs; j++) {
+					if(inputVectors.get(j) == null) {
+						constants[j] = new float[bufferSize];
+						Arrays.fill(constants[j], (float)inputConstants.get(j).doubleValue());
+					}
+				}
+
+				final float[][] argumentArrays = new float[3][];
+				final int[] argumentOffsets = new int[3];
+				for(int blockFrom=from; blockFrom<to; blockFrom+=bufferSize) {
+					final int length = Math.min(bufferSize, to-blockFrom);
+					for(int k=0; k<numberOfInstructions; k++) {
+						final FloatExpression instruction = instructions.get(k);
+						final int[] instructionOperands = operands.get(k);
+						for(int i=0; i<instructionOperands.length; i++) {
+							final int operand = instructionOperands[i];
+							if(operand >= 0) {
+								argumentArrays[i] = buffers[operand];
+								argumentOffsets[i] = 0;
+							}
+							else if(constants[-operand-1] != null) {
+								argumentArrays[i] = constants[-operand-1];
+								argumentOffsets[i] = 0;
+							}
+							else {
+								argumentArrays[i] = inputVectors.get(-operand-1);
+								argumentOffsets[i] = blockFrom;
+							}
+						}
+						final boolean isLast = k == numberOfInstructions-1;
+						apply(instruction.operator, instruction.parameter,
+								argumentArrays[0], argumentOffsets[0], argumentArrays[1], argumentOffsets[1], argumentArrays[2], argumentOffsets[2],
+								isLast ? result : buffers[k], isLast ? blockFrom : 0, length);
+					}
+				}
+			});
+
+			return result;
+		}
+	}
+}
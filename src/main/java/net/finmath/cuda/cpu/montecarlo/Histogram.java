@@ -0,0 +1,145 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+/**
+ * Calculation of the histogram of a vector of floats in a single pass over the (unsorted) values.
+ *
+ * A value x is counted in the interval i, where i is the smallest index with x &le; intervalPoints[i], or
+ * in the last interval (with index intervalPoints.length) if there is no such index (this includes NaN values).
+ * This is the same result as the one obtained by sorting the values and sweeping through the interval points.
+ *
+ * The interval of a value is determined by a binary search. If the interval points form a uniform grid, the
+ * interval is determined by an arithmetic index calculation (corrected by comparison with the neighboring points, such that
+ * rounding does not alter the result). For large vectors the counting is performed in parallel chunks, each chunk using its own
+ * counters, see {@link ParallelChunkExecutor}.
+ *
+ * @author Christian Fries
+ */
+public final class Histogram {
+
+	private Histogram() { }
+
+	/**
+	 * Returns the histogram of the given values, normalized by the number of values.
+	 *
+	 * @param values The values.
+	 * @param intervalPoints The interval points (usually in ascending order).
+	 * @return The histogram, an array of length intervalPoints.length+1.
+	 */
+	public static double[] getHistogram(final float[] values, final double[] intervalPoints) {
+		final long[] counts = getCounts(values, intervalPoints);
+
+		final double[] histogramValues = new double[counts.length];
+		for(int i=0; i<counts.length; i++) {
+			histogramValues[i] = values.length > 0 ? (double)counts[i] / values.length : 0.0;
+		}
+		return histogramValues;
+	}
+
+	/**
+	 * Returns the number of values in each interval.
+	 *
+	 * @param values The values.
+	 * @param intervalPoints The interval points (usually in ascending order).
+	 * @return The counts, an array of length intervalPoints.length+1.
+	 */
+	public static long[] getCounts(final float[] values, final double[] intervalPoints) {
+		final int numberOfPoints = intervalPoints.length;
+
+		/*
+		 * The smallest i with x <= intervalPoints[i] is the smallest i with x <= upperBounds[i],
+		 * where upperBounds is the running maximum of the interval points (ignoring NaNs).
+		 * The upper bounds are non-decreasing, which allows for a binary search.
+		 */
+		final double[] upperBounds = new double[numberOfPoints];
+		boolean isAscending = true;
+		for(int i=0; i<numberOfPoints; i++) {
+			final double previous = i > 0 ? upperBounds[i-1] : Double.NaN;
+			final double point = intervalPoints[i];
+			if(Double.isNaN(point) || point <= previous) {
+				isAscending = false;
+				upperBounds[i] = Double.isNaN(point) || point < previous ? previous : point;
+			}
+			else {
+				upperBounds[i] = point;
+			}
+		}
+
+		final double firstPoint = numberOfPoints > 0 ? intervalPoints[0] : Double.NaN;
+		final double stepSize = numberOfPoints > 1 ? (intervalPoints[numberOfPoints-1] - intervalPoints[0]) / (numberOfPoints-1) : Double.NaN;
+		final boolean isUniform = isAscending && numberOfPoints > 1 && stepSize > 0 && Double.isFinite(stepSize) && isUniform(intervalPoints, firstPoint, stepSize);
+
+		return ParallelChunkExecutor.reduce(values.length, (from, to) -> {
+			final long[] counts = new long[numberOfPoints+1];
+			if(isUniform) {
+				for(int i=from; i<to; i++) {
+					counts[getIntervalIndexOnUniformGrid(values[i], upperBounds, firstPoint, stepSize)]++;
+				}
+			}
+			else {
+				for(int i=from; i<to; i++) {
+					counts[getIntervalIndex(values[i], upperBounds)]++;
+				}
+			}
+			return counts;
+		}, (counts1, counts2) -> {
+			for(int i=0; i<counts1.length; i++) {
+				counts1[i] += counts2[i];
+			}
+			return counts1;
+		});
+	}
+
+	private static boolean isUniform(final double[] intervalPoints, final double firstPoint, final double stepSize) {
+		for(int i=0; i<intervalPoints.length; i++) {
+			if(Math.abs(intervalPoints[i] - (firstPoint + i * stepSize)) > 0.5 * stepSize) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Binary search for the smallest i with x &le; upperBounds[i], or upperBounds.length if there is no such i.
+	 */
+	private static int getIntervalIndex(final double x, final double[] upperBounds) {
+		int low = 0;
+		int high = upperBounds.length;
+		while(low < high) {
+			final int mid = (low + high) >>> 1;
+			if(x <= upperBounds[mid]) {
+				high = mid;
+			}
+			else {
+				low = mid+1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Arithmetic calculation of the smallest i with x &le; upperBounds[i], or upperBounds.length if there is no such i,
+	 * for an (approximately) uniform grid.
+	 */
+	private static int getIntervalIndexOnUniformGrid(final double x, final double[] upperBounds, final double firstPoint, final double stepSize) {
+		final int numberOfPoints = upperBounds.length;
+		if(!(x <= upperBounds[numberOfPoints-1])) {
+			return numberOfPoints;		// also for NaN
+		}
+
+		int index = (int)Math.max(Math.min(Math.ceil((x - firstPoint) / stepSize), numberOfPoints), 0);
+
+		// Correct rounding errors of the arithmetic index
+		while(index > 0 && x <= upperBounds[index-1]) {
+			index--;
+		}
+		while(index < numberOfPoints && !(x <= upperBounds[index])) {
+			index++;
+		}
+		return index;
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+
+/**
+ * Calculation of order statistics (the k-th smallest values) of a vector of floats by selection instead of sorting.
+ *
+ * The values are copied to a (thread local, reused) float scratch buffer, which is then partially ordered by
+ * an introselect algorithm (quickselect with median-of-three pivot and three-way partitioning, falling back to sorting
+ * if the recursion depth exceeds 2 log(n)). The expected run time is O(n) for a single rank.
+ * Multiple ranks are selected in a single recursive partitioning, where each partition step is only applied to the
+ * sub-ranges containing requested ranks.
+ *
+ * NaN values are ordered after all other values (consistent with <code>Arrays.sort</code>).
+ *
+ * @author Christian Fries
+ */
+public final class OrderStatistics {
+
+	private static final int insertionSortThreshold = 16;
+
+	private static final ThreadLocal<SoftReference<float[]>> scratchBuffer = new ThreadLocal<>();
+
+	private OrderStatistics() { }
+
+	/**
+	 * Returns the values of the given ranks, i.e., the value with rank k is the value at index k of the sorted vector.
+	 *
+	 * @param values The vector of values (will not be modified).
+	 * @param ranks The ranks, each between 0 and values.length-1 (in arbitrary order).
+	 * @return The values of the given ranks (in the order of the argument ranks).
+	 */
+	public static double[] getValuesOfRanks(final float[] values, final int... ranks) {
+		final float[] buffer = getScratchBuffer(values.length);
+		final int[] sortedRanks = getSortedRanks(ranks, values.length);
+
+		select(values, buffer, sortedRanks);
+
+		final double[] result = new double[ranks.length];
+		for(int i=0; i<ranks.length; i++) {
+			result[i] = buffer[ranks[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the average of the values with rank rankStart to rankEnd (both inclusive).
+	 *
+	 * @param values The vector of values (will not be modified).
+	 * @param rankStart The first rank.
+	 * @param rankEnd The last rank (has to be greater or equal rankStart).
+	 * @return The average of the values with rank rankStart to rankEnd.
+	 */
+	public static double getAverageOfRanks(final float[] values, final int rankStart, final int rankEnd) {
+		final float[] buffer = getScratchBuffer(values.length);
+		final int[] sortedRanks = getSortedRanks(new int[] { rankStart, rankEnd }, values.length);
+
+		select(values, buffer, sortedRanks);
+
+		// All values between the two selected ranks have ranks in between
+		double sum = 0.0;
+		for(int i=rankStart; i<=rankEnd; i++) {
+			sum += buffer[i];
+		}
+		return sum / (rankEnd-rankStart+1);
+	}
+
+	/**
+	 * Returns a float buffer of at least the given size. The buffer is reused by subsequent calls on the same thread.
+	 *
+	 * @param size The required size.
+	 * @return A float buffer of at least the given size.
+	 */
+	private static float[] getScratchBuffer(final int size) {
+		final SoftReference<float[]> reference = scratchBuffer.get();
+		float[] buffer = reference != null ? reference.get() : null;
+		if(buffer == null || buffer.length < size) {
+			buffer = new float[size];
+			scratchBuffer.set(new SoftReference<>(buffer));
+		}
+		return buffer;
+	}
+
+	private static int[] getSortedRanks(final int[] ranks, final int size) {
+		final int[] sortedRanks = ranks.clone();
+		Arrays.sort(sortedRanks);
+		for(final int rank : sortedRanks) {
+			if(rank < 0 || rank >= size) {
+				throw new IllegalArgumentException("Rank " + rank + " out of range [0," + size + ").");
+			}
+		}
+		return sortedRanks;
+	}
+
+	/**
+	 * Copy the values to the buffer, moving NaNs to the end, and select the given ranks.
+	 */
+	private static void select(final float[] values, final float[] buffer, final int[] sortedRanks) {
+		final int size = values.length;
+		int numberOfNumbers = 0;
+		for(int i=0; i<size; i++) {
+			final float value = values[i];
+			if(value == value) {
+				buffer[numberOfNumbers++] = value;
+			}
+		}
+		Arrays.fill(buffer, numberOfNumbers, size, Float.NaN);
+
+		// Only ranks of (non-NaN) numbers require a selection
+		int numberOfRanks = 0;
+		while(numberOfRanks < sortedRanks.length && sortedRanks[numberOfRanks] < numberOfNumbers) {
+			numberOfRanks++;
+		}
+
+		final int maxDepth = 2 * (32 - Integer.numberOfLeadingZeros(numberOfNumbers + 1));
+		select(buffer, 0, numberOfNumbers, sortedRanks, 0, numberOfRanks, maxDepth);
+	}
+
+	/**
+	 * Partially orders a[from, to), such that for all ranks k in ranks[rankFrom, rankTo) the element a[k] is the element
+	 * which would be at index k if a[from, to) was sorted, and all elements left of it are less or equal and all elements right of it
+	 * are greater or equal.
+	 */
+	private static void select(final float[] a, int from, int to, final int[] ranks, int rankFrom, final int rankTo, int depth) {
+		while(rankFrom < rankTo) {
+			if(to - from <= insertionSortThreshold) {
+				insertionSort(a, from, to);
+				return;
+			}
+			if(depth-- == 0) {
+				Arrays.sort(a, from, to);
+				return;
+			}
+
+			// Median of three pivot
+			final int mid = (from + to) >>> 1;
+			final float pivot = median(a[from], a[mid], a[to-1]);
+
+			// Three-way partition: [from, lt) < pivot, [lt, gt) == pivot, [gt, to) > pivot
+			int lt = from;
+			int gt = to;
+			int i = from;
+			while(i < gt) {
+				final float value = a[i];
+				if(value < pivot) {
+					a[i++] = a[lt];
+					a[lt++] = value;
+				}
+				else if(value > pivot) {
+					a[i] = a[--gt];
+					a[gt] = value;
+				}
+				else {
+					i++;
+				}
+			}
+
+			// Ranks left of the pivot range, ranks right of the pivot range
+			int rankLeftEnd = rankFrom;
+			while(rankLeftEnd < rankTo && ranks[rankLeftEnd] < lt) {
+				rankLeftEnd++;
+			}
+			int rankRightStart = rankLeftEnd;
+			while(rankRightStart < rankTo && ranks[rankRightStart] < gt) {
+				rankRightStart++;
+			}
+
+			select(a, from, lt, ranks, rankFrom, rankLeftEnd, depth);
+
+			from = gt;
+			rankFrom = rankRightStart;
+		}
+	}
+
+	private static float median(final float a, final float b, final float c) {
+		if(a < b) {
+			return b < c ? b : (a < c ? c : a);
+		}
+		else {
+			return a < c ? a : (b < c ? c : b);
+		}
+	}
+
+	private static void insertionSort(final float[] a, final int from, final int to) {
+		for(int i=from+1; i<to; i++) {
+			final float value = a[i];
+			int j = i-1;
+			while(j >= from && a[j] > value) {
+				a[j+1] = a[j];
+				j--;
+			}
+			a[j+1] = value;
+		}
+	}
+}
@@ -0,0 +1,262 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Executes operations on an index range [0, size) either sequentially or, if the size exceeds a threshold,
+ * in parallel on a <code>ForkJoinPool</code>.
+ *
+ * The range is split into chunks of fixed size. The chunk boundaries depend only on the size of the range,
+ * the threshold and the chunk size (not on the number of threads or the parallelism of the pool), and the results
+ * of a reduction are combined in the order of the chunks. Hence results of reductions are reproducible for a given
+ * configuration, on any machine.
+ *
+ * Note that the actions and functions are called concurrently from several threads (for a range exceeding the threshold),
+ * hence they have to be thread safe.
+ *
+ * The behavior can be configured via the system properties
+ * <ul>
+ * 	<li><code>net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor.threshold</code> - the minimum size for parallel execution (default 65536),</li>
+ * 	<li><code>net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor.chunkSize</code> - the size of a chunk (default 16384),</li>
+ * 	<li><code>net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor.parallelism</code> - if set, a dedicated pool with the given parallelism is used, otherwise the common pool,</li>
+ * </ul>
+ * or via the corresponding static setters.
+ *
+ * @author Christian Fries
+ */
+public final class ParallelChunkExecutor {
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	/**
+	 * An operation on the index range [from, to).
+	 */
+	@FunctionalInterface
+	public interface RangeAction {
+		void apply(int from, int to);
+	}
+
+	/**
+	 * A function mapping the index range [from, to) to a value.
+	 *
+	 * @param <T> The type of the value.
+	 */
+	@FunctionalInterface
+	public interface RangeFunction<T> {
+		T apply(int from, int to);
+	}
+
+	/**
+	 * A function mapping the index range [from, to) to a double.
+	 */
+	@FunctionalInterface
+	public interface RangeToDoubleFunction {
+		double applyAsDouble(int from, int to);
+	}
+
+	private static volatile int threshold = Integer.getInteger("net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor.threshold", 65536);
+	private static volatile int chunkSize = Math.max(Integer.getInteger("net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor.chunkSize", 16384), 1);
+	private static volatile ForkJoinPool forkJoinPool = createForkJoinPool();
+
+	private ParallelChunkExecutor() { }
+
+	private static ForkJoinPool createForkJoinPool() {
+		final Integer parallelism = Integer.getInteger("net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor.parallelism");
+		if(parallelism != null && parallelism > 0) {
+			logger.config("Using ForkJoinPool with parallelism " + parallelism + ".");
+			return new ForkJoinPool(parallelism);
+		}
+		else {
+			return ForkJoinPool.commonPool();
+		}
+	}
+
+	/**
+	 * @return The minimum size of a range for which parallel execution is used.
+	 */
+	public static int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Set the minimum size of a range for which parallel execution is used. Use <code>Integer.MAX_VALUE</code> to disable parallel execution.
+	 *
+	 * @param threshold The minimum size of a range for which parallel execution is used.
+	 */
+	public static void setThreshold(final int threshold) {
+		ParallelChunkExecutor.threshold = threshold;
+	}
+
+	/**
+	 * @return The size of a chunk.
+	 */
+	public static int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Set the size of a chunk, i.e., of the smallest unit of work executed by a single task.
+	 *
+	 * @param chunkSize The size of a chunk (has to be positive).
+	 */
+	public static void setChunkSize(final int chunkSize) {
+		if(chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size has to be positive.");
+		}
+		ParallelChunkExecutor.chunkSize = chunkSize;
+	}
+
+	/**
+	 * @return The pool used for parallel execution.
+	 */
+	public static ForkJoinPool getForkJoinPool() {
+		return forkJoinPool;
+	}
+
+	/**
+	 * Set the pool used for parallel execution.
+	 *
+	 * @param forkJoinPool The pool used for parallel execution. If null, the common pool is used.
+	 */
+	public static void setForkJoinPool(final ForkJoinPool forkJoinPool) {
+		ParallelChunkExecutor.forkJoinPool = forkJoinPool != null ? forkJoinPool : ForkJoinPool.commonPool();
+	}
+
+	/**
+	 * Returns the number of chunks used to process a range of the given size, or 1 if the range will be processed sequentially.
+	 * The number of chunks does not depend on the parallelism of the pool.
+	 *
+	 * @param size The size of the range.
+	 * @return The number of chunks.
+	 */
+	static int getNumberOfChunks(final int size) {
+		final int chunkSize = ParallelChunkExecutor.chunkSize;
+		if(size < threshold || size <= chunkSize) {
+			return 1;
+		}
+		return (int)(((long)size + chunkSize - 1) / chunkSize);
+	}
+
+	/**
+	 * Apply the given action to the range [0, size).
+	 *
+	 * @param size The size of the range.
+	 * @param action The action, applied to sub-ranges of [0, size).
+	 */
+	public static void forEach(final int size, final RangeAction action) {
+		final int numberOfChunks = getNumberOfChunks(size);
+		if(numberOfChunks <= 1) {
+			action.apply(0, size);
+			return;
+		}
+
+		final int chunkSize = (size + numberOfChunks - 1) / numberOfChunks;
+		forkJoinPool.invoke(new ChunkTask(chunkIndex -> {
+			final int from = chunkIndex * chunkSize;
+			action.apply(from, Math.min(from + chunkSize, size));
+		}, 0, numberOfChunks));
+	}
+
+	/**
+	 * Reduce the range [0, size) by applying the given function to chunks and combining the results
+	 * in the order of the chunks.
+	 *
+	 * @param size The size of the range.
+	 * @param function The function, applied to sub-ranges of [0, size).
+	 * @param combiner The associative function combining the results of two adjacent sub-ranges.
+	 * @param <T> The type of the result.
+	 * @return The combined result.
+	 */
+	public static <T> T reduce(final int size, final RangeFunction<T> function, final BinaryOperator<T> combiner) {
+		final int numberOfChunks = getNumberOfChunks(size);
+		if(numberOfChunks <= 1) {
+			return function.apply(0, size);
+		}
+
+		final int chunkSize = (size + numberOfChunks - 1) / numberOfChunks;
+		final Object[] results = new Object[numberOfChunks];
+		forkJoinPool.invoke(new ChunkTask(chunkIndex -> {
+			final int from = chunkIndex * chunkSize;
+			results[chunkIndex] = function.apply(from, Math.min(from + chunkSize, size));
+		}, 0, numberOfChunks));
+
+		@SuppressWarnings("unchecked")
+		T result = (T)results[0];
+		for(int chunkIndex=1; chunkIndex<numberOfChunks; chunkIndex++) {
+			@SuppressWarnings("unchecked")
+			final T chunkResult = (T)results[chunkIndex];
+			result = combiner.apply(result, chunkResult);
+		}
+		return result;
+	}
+
+	/**
+	 * Sums the results of the given function applied to chunks of the range [0, size), using Kahan summation
+	 * for the sum of the chunk results.
+	 *
+	 * @param size The size of the range.
+	 * @param function The function, applied to sub-ranges of [0, size).
+	 * @return The sum of the results.
+	 */
+	public static double sum(final int size, final RangeToDoubleFunction function) {
+		final int numberOfChunks = getNumberOfChunks(size);
+		if(numberOfChunks <= 1) {
+			return function.applyAsDouble(0, size);
+		}
+
+		final int chunkSize = (size + numberOfChunks - 1) / numberOfChunks;
+		final double[] results = new double[numberOfChunks];
+		forkJoinPool.invoke(new ChunkTask(chunkIndex -> {
+			final int from = chunkIndex * chunkSize;
+			results[chunkIndex] = function.applyAsDouble(from, Math.min(from + chunkSize, size));
+		}, 0, numberOfChunks));
+
+		double sum = 0.0;
+		double error = 0.0;
+		for(final double chunkSum : results) {
+			final double value = chunkSum - error;
+			final double newSum = sum + value;
+			error = (newSum - sum) - value;
+			sum = newSum;
+		}
+		return sum;
+	}
+
+	/**
+	 * Task processing the chunks [chunkFrom, chunkTo) by recursive bisection.
+	 */
+	private static final class ChunkTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final IntConsumer chunkAction;
+		private final int chunkFrom;
+		private final int chunkTo;
+
+		ChunkTask(final IntConsumer chunkAction, final int chunkFrom, final int chunkTo) {
+			this.chunkAction = chunkAction;
+			this.chunkFrom = chunkFrom;
+			this.chunkTo = chunkTo;
+		}
+
+		@Override
+		protected void compute() {
+			if(chunkTo - chunkFrom == 1) {
+				chunkAction.accept(chunkFrom);
+			}
+			else {
+				final int chunkMid = (chunkFrom + chunkTo) >>> 1;
+				invokeAll(new ChunkTask(chunkAction, chunkFrom, chunkMid), new ChunkTask(chunkAction, chunkMid, chunkTo));
+			}
+		}
+	}
+}
@@ -33,4 +33,15 @@ public class RandomVariableFloatFactory extends AbstractRandomVariableFactory {
 	public RandomVariable createRandomVariable(final double time, final double[] values) {
 		return new RandomVariableFromFloatArray(time, values);
 	}
+
+	/**
+	 * Create a random variable from float realizations (without widening them to double).
+	 *
+	 * @param time The filtration time of the random variable.
+	 * @param values The realizations (the array is not copied).
+	 * @return The random variable.
+	 */
+	public RandomVariable createRandomVariable(final double time, final float[] values) {
+		return new RandomVariableFromFloatArray(time, values);
+	}
 }
@@ -0,0 +1,689 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.DoubleStream;
+
+import net.finmath.cuda.cpu.montecarlo.FloatExpression.Operator;
+import net.finmath.cuda.functions.FloatBinaryOperator;
+import net.finmath.cuda.functions.FloatTernaryOperator;
+import net.finmath.cuda.functions.FloatUnaryOperator;
+import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.stochastic.ConditionalExpectationEstimator;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A random variable with float realizations using lazy evaluation.
+ *
+ * Element-wise operations (arithmetic, cap/floor, accrue/discount, exp, log, etc.) do not perform any calculation,
+ * but record the operation in an expression graph, see {@link FloatExpression}. The graph is evaluated in a single
+ * fused pass over the paths when a realization or a statistic of the random variable is requested
+ * (e.g. via <code>get</code>, <code>getRealizations</code> or <code>getAverage</code>). Hence, a chain of operations
+ * like <code>x.mult(a).add(b).exp().mult(c)</code> does not allocate intermediate vectors.
+ *
+ * Operations which are not element-wise (e.g., <code>apply</code>) are performed on the evaluated values using
+ * {@link RandomVariableFromFloatArray}. The float arithmetic is the same as for {@link RandomVariableFromFloatArray}.
+ *
+ * Accesses performed exclusively through the interface
+ * <code>RandomVariable</code> are thread safe.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableFloatLazyEvaluation implements RandomVariable {
+
+	private static final long serialVersionUID = 7093245810386740147L;
+
+	private static final int typePriorityDefault = 2;
+
+	private final double time;
+	private final FloatExpression expression;
+
+	// The evaluated random variable (created on demand)
+	private transient volatile RandomVariableFromFloatArray values;
+
+	/**
+	 * Create a random variable from an expression.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param expression The expression representing the realizations.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double time, final FloatExpression expression) {
+		super();
+		this.time = time;
+		this.expression = expression;
+	}
+
+	/**
+	 * Create a non stochastic random variable, i.e. a constant.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param value the value, a constant.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double time, final double value) {
+		this(time, FloatExpression.ofConstant(value));
+	}
+
+	/**
+	 * Create a non stochastic random variable, i.e. a constant.
+	 *
+	 * @param value the value, a constant.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double value) {
+		this(Double.NEGATIVE_INFINITY, value);
+	}
+
+	/**
+	 * Create a stochastic random variable.
+	 *
+	 * Important: The realizations array is not cloned (no defensive copy is made).
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations the vector of realizations.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double time, final float[] realizations) {
+		this(time, FloatExpression.ofValues(realizations));
+	}
+
+	/**
+	 * Create a stochastic random variable.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations the vector of realizations.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double time, final double[] realizations) {
+		this(time, FloatExpression.ofValues(getFloatArray(realizations)));
+	}
+
+	/**
+	 * Create a random variable from a given other implementation of <code>RandomVariable</code>.
+	 *
+	 * @param value Object implementing <code>RandomVariable</code>.
+	 */
+	public RandomVariableFloatLazyEvaluation(final RandomVariable value) {
+		this(value.getFiltrationTime(), getExpression(value));
+	}
+
+	/**
+	 * @return The expression representing this random variable.
+	 */
+	public FloatExpression getExpression() {
+		return expression;
+	}
+
+	private static float[] getFloatArray(final double[] arrayOfDouble) {
+		final float[] arrayOfFloat = new float[arrayOfDouble.length];
+		for(int i=0; i<arrayOfDouble.length; i++) {
+			arrayOfFloat[i] = (float)arrayOfDouble[i];
+		}
+		return arrayOfFloat;
+	}
+
+	private static FloatExpression getExpression(final RandomVariable randomVariable) {
+		if(randomVariable instanceof RandomVariableFloatLazyEvaluation) {
+			return ((RandomVariableFloatLazyEvaluation)randomVariable).expression;
+		}
+		else if(randomVariable.isDeterministic()) {
+			return FloatExpression.ofConstant(randomVariable.get(0));
+		}
+		else {
+			final float[] realizations = RandomVariableFromFloatArray.getFloatArrayOrNull(randomVariable);
+			return FloatExpression.ofValues(realizations != null ? realizations : getFloatArray(randomVariable.getRealizations()));
+		}
+	}
+
+	/**
+	 * Evaluates the expression (if not already done).
+	 *
+	 * @return The evaluated random variable.
+	 */
+	private RandomVariableFromFloatArray evaluate() {
+		RandomVariableFromFloatArray values = this.values;
+		if(values == null) {
+			if(expression.isConstant()) {
+				values = new RandomVariableFromFloatArray(time, expression.getConstantValue());
+			}
+			else {
+				values = new RandomVariableFromFloatArray(time, expression.evaluate());
+			}
+			this.values = values;
+		}
+		return values;
+	}
+
+	private RandomVariable of(final double newTime, final Operator operator, final double parameter, final RandomVariable... arguments) {
+		final FloatExpression[] argumentExpressions = new FloatExpression[arguments.length+1];
+		argumentExpressions[0] = expression;
+		for(int i=0; i<arguments.length; i++) {
+			argumentExpressions[i+1] = getExpression(arguments[i]);
+		}
+		return new RandomVariableFloatLazyEvaluation(newTime, FloatExpression.of(operator, parameter, argumentExpressions));
+	}
+
+	private RandomVariable of(final Operator operator, final double value) {
+		return new RandomVariableFloatLazyEvaluation(time, FloatExpression.of(operator, Double.NaN, expression, FloatExpression.ofConstant(value)));
+	}
+
+	private RandomVariable of(final Operator operator) {
+		return new RandomVariableFloatLazyEvaluation(time, FloatExpression.of(operator, Double.NaN, expression));
+	}
+
+	@Override
+	public boolean equals(final RandomVariable randomVariable) {
+		return evaluate().equals(randomVariable);
+	}
+
+	@Override
+	public double getFiltrationTime() {
+		return time;
+	}
+
+	@Override
+	public int getTypePriority() {
+		return typePriorityDefault;
+	}
+
+	@Override
+	public double get(final int pathOrState) {
+		if(isDeterministic()) {
+			return expression.getConstantValue();
+		}
+		else {
+			return expression.evaluate()[pathOrState];
+		}
+	}
+
+	@Override
+	public int size() {
+		return expression.size();
+	}
+
+	@Override
+	public boolean isDeterministic() {
+		return expression.isConstant();
+	}
+
+	@Override
+	public double[] getRealizations() {
+		return evaluate().getRealizations();
+	}
+
+	@Override
+	public Double doubleValue() {
+		return evaluate().doubleValue();
+	}
+
+	@Override
+	public IntToDoubleFunction getOperator() {
+		return evaluate().getOperator();
+	}
+
+	@Override
+	public DoubleStream getRealizationsStream() {
+		return evaluate().getRealizationsStream();
+	}
+
+	/**
+	 * Returns a read-only view on the (evaluated) realizations of this random variable.
+	 *
+	 * @return A read-only float buffer providing the realizations.
+	 * @see RandomVariableFromFloatArray#getRealizationsAsFloatBuffer()
+	 */
+	public FloatBuffer getRealizationsAsFloatBuffer() {
+		return evaluate().getRealizationsAsFloatBuffer();
+	}
+
+	/**
+	 * Returns the average, variance, minimum and maximum of the realizations, calculated in a single pass.
+	 *
+	 * @return The moments of this random variable.
+	 * @see RandomVariableFromFloatArray#getMoments()
+	 */
+	public RandomVariableMoments getMoments() {
+		return evaluate().getMoments();
+	}
+
+	@Override
+	public double getMin() {
+		return evaluate().getMin();
+	}
+
+	@Override
+	public double getMax() {
+		return evaluate().getMax();
+	}
+
+	@Override
+	public double getAverage() {
+		return evaluate().getAverage();
+	}
+
+	@Override
+	public double getAverage(final RandomVariable probabilities) {
+		return evaluate().getAverage(probabilities);
+	}
+
+	@Override
+	public double getVariance() {
+		return evaluate().getVariance();
+	}
+
+	@Override
+	public double getVariance(final RandomVariable probabilities) {
+		return evaluate().getVariance(probabilities);
+	}
+
+	@Override
+	public double getSampleVariance() {
+		return evaluate().getSampleVariance();
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		return evaluate().getStandardDeviation();
+	}
+
+	@Override
+	public double getStandardDeviation(final RandomVariable probabilities) {
+		return evaluate().getStandardDeviation(probabilities);
+	}
+
+	@Override
+	public double getStandardError() {
+		return evaluate().getStandardError();
+	}
+
+	@Override
+	public double getStandardError(final RandomVariable probabilities) {
+		return evaluate().getStandardError(probabilities);
+	}
+
+	@Override
+	public double getQuantile(final double quantile) {
+		return evaluate().getQuantile(quantile);
+	}
+
+	/**
+	 * Returns the quantiles of this random variable for the given quantile levels.
+	 *
+	 * @param quantiles The quantile levels.
+	 * @return The quantiles of this random variable (in the order of the given levels).
+	 * @see RandomVariableFromFloatArray#getQuantiles(double...)
+	 */
+	public double[] getQuantiles(final double... quantiles) {
+		return evaluate().getQuantiles(quantiles);
+	}
+
+	@Override
+	public double getQuantile(final double quantile, final RandomVariable probabilities) {
+		return evaluate().getQuantile(quantile, probabilities);
+	}
+
+	@Override
+	public double getQuantileExpectation(final double quantileStart, final double quantileEnd) {
+		return evaluate().getQuantileExpectation(quantileStart, quantileEnd);
+	}
+
+	@Override
+	public double[] getHistogram(final double[] intervalPoints) {
+		return evaluate().getHistogram(intervalPoints);
+	}
+
+	@Override
+	public double[][] getHistogram(final int numberOfPoints, final double standardDeviations) {
+		return evaluate().getHistogram(numberOfPoints, standardDeviations);
+	}
+
+	@Override
+	public RandomVariable cache() {
+		if(!isDeterministic()) {
+			expression.evaluate();
+		}
+		return this;
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleUnaryOperator operator) {
+		return evaluate().apply(operator);
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleBinaryOperator operator, final RandomVariable argument) {
+		return evaluate().apply(operator, argument);
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2) {
+		return evaluate().apply(operator, argument1, argument2);
+	}
+
+	/**
+	 * Applies the given float operator to the (evaluated) realizations of this random variable.
+	 *
+	 * @param operator A float unary operator.
+	 * @return New random variable with the result of the operator.
+	 * @see RandomVariableFromFloatArray#applyFloat(FloatUnaryOperator)
+	 */
+	public RandomVariable applyFloat(final FloatUnaryOperator operator) {
+		return evaluate().applyFloat(operator);
+	}
+
+	/**
+	 * Applies the given float operator to the (evaluated) realizations of this random variable and the given argument.
+	 *
+	 * @param operator A float binary operator.
+	 * @param argument The second argument of the operator.
+	 * @return New random variable with the result of the operator.
+	 * @see RandomVariableFromFloatArray#applyFloat(FloatBinaryOperator, RandomVariable)
+	 */
+	public RandomVariable applyFloat(final FloatBinaryOperator operator, final RandomVariable argument) {
+		return evaluate().applyFloat(operator, argument);
+	}
+
+	/**
+	 * Applies the given float operator to the (evaluated) realizations of this random variable and the given arguments.
+	 *
+	 * @param operator A float ternary operator.
+	 * @param argument1 The second argument of the operator.
+	 * @param argument2 The third argument of the operator.
+	 * @return New random variable with the result of the operator.
+	 * @see RandomVariableFromFloatArray#applyFloat(FloatTernaryOperator, RandomVariable, RandomVariable)
+	 */
+	public RandomVariable applyFloat(final FloatTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2) {
+		return evaluate().applyFloat(operator, argument1, argument2);
+	}
+
+	@Override
+	public RandomVariable cap(final double cap) {
+		return of(Operator.CAP, cap);
+	}
+
+	@Override
+	public RandomVariable floor(final double floor) {
+		return of(Operator.FLOOR, floor);
+	}
+
+	@Override
+	public RandomVariable add(final double value) {
+		return of(Operator.ADD, value);
+	}
+
+	@Override
+	public RandomVariable sub(final double value) {
+		return of(Operator.SUB, value);
+	}
+
+	@Override
+	public RandomVariable mult(final double value) {
+		return of(Operator.MULT, value);
+	}
+
+	@Override
+	public RandomVariable div(final double value) {
+		return of(Operator.DIV, value);
+	}
+
+	@Override
+	public RandomVariable pow(final double exponent) {
+		return new RandomVariableFloatLazyEvaluation(time, FloatExpression.of(Operator.POW, exponent, expression));
+	}
+
+	@Override
+	public RandomVariable average() {
+		return new RandomVariableFloatLazyEvaluation(getAverage());
+	}
+
+	@Override
+	public RandomVariable getConditionalExpectation(final ConditionalExpectationEstimator conditionalExpectationOperator)
+	{
+		return conditionalExpectationOperator.getConditionalExpectation(this);
+	}
+
+	@Override
+	public RandomVariable squared() {
+		return of(Operator.SQUARED);
+	}
+
+	@Override
+	public RandomVariable sqrt() {
+		return of(Operator.SQRT);
+	}
+
+	@Override
+	public RandomVariable exp() {
+		return of(Operator.EXP);
+	}
+
+	@Override
+	public RandomVariable log() {
+		return of(Operator.LOG);
+	}
+
+	@Override
+	public RandomVariable sin() {
+		return of(Operator.SIN);
+	}
+
+	@Override
+	public RandomVariable cos() {
+		return of(Operator.COS);
+	}
+
+	@Override
+	public RandomVariable invert() {
+		return of(Operator.INVERT);
+	}
+
+	@Override
+	public RandomVariable abs() {
+		return of(Operator.ABS);
+	}
+
+	/*
+	 * Binary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable add(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.add(this);
+		}
+		return of(Math.max(time, randomVariable.getFiltrationTime()), Operator.ADD, Double.NaN, randomVariable);
+	}
+
+	@Override
+	public RandomVariable sub(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.bus(this);
+		}
+		return of(Math.max(time, randomVariable.getFiltrationTime()), Operator.SUB, Double.NaN, randomVariable);
+	}
+
+	@Override
+	public RandomVariable bus(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.sub(this);
+		}
+		return new RandomVariableFloatLazyEvaluation(Math.max(time, randomVariable.getFiltrationTime()),
+				FloatExpression.of(Operator.SUB, Double.NaN, getExpression(randomVariable), expression));
+	}
+
+	@Override
+	public RandomVariable mult(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.mult(this);
+		}
+		return of(Math.max(time, randomVariable.getFiltrationTime()), Operator.MULT, Double.NaN, randomVariable);
+	}
+
+	@Override
+	public RandomVariable div(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.vid(this);
+		}
+		return of(Math.max(time, randomVariable.getFiltrationTime()), Operator.DIV, Double.NaN, randomVariable);
+	}
+
+	@Override
+	public RandomVariable vid(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.div(this);
+		}
+		return new RandomVariableFloatLazyEvaluation(Math.max(time, randomVariable.getFiltrationTime()),
+				FloatExpression.of(Operator.DIV, Double.NaN, getExpression(randomVariable), expression));
+	}
+
+	@Override
+	public RandomVariable cap(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.cap(this);
+		}
+		return of(Math.max(time, randomVariable.getFiltrationTime()), Operator.CAP, Double.NaN, randomVariable);
+	}
+
+	@Override
+	public RandomVariable floor(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.floor(this);
+		}
+		return of(Math.max(time, randomVariable.getFiltrationTime()), Operator.FLOOR, Double.NaN, randomVariable);
+	}
+
+	@Override
+	public RandomVariable accrue(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).mult(this);
+		}
+
+		if(rate.isDeterministic()) {
+			return this.mult(1.0 + rate.get(0) * periodLength);
+		}
+		return of(Math.max(time, rate.getFiltrationTime()), Operator.ACCRUE, periodLength, rate);
+	}
+
+	@Override
+	public RandomVariable discount(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).invert().mult(this);
+		}
+
+		if(rate.isDeterministic()) {
+			return this.div(1.0 + rate.get(0) * periodLength);
+		}
+		return of(Math.max(time, rate.getFiltrationTime()), Operator.DISCOUNT, periodLength, rate);
+	}
+
+	/*
+	 * Ternary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable choose(final RandomVariable valueIfTriggerNonNegative, final RandomVariable valueIfTriggerNegative) {
+		if(isDeterministic()) {
+			if(expression.getConstantValue() >= 0) {
+				return valueIfTriggerNonNegative;
+			} else {
+				return valueIfTriggerNegative;
+			}
+		}
+		else if(valueIfTriggerNonNegative.getTypePriority() > this.getTypePriority() || valueIfTriggerNegative.getTypePriority() > this.getTypePriority()) {
+			return evaluate().choose(valueIfTriggerNonNegative, valueIfTriggerNegative);
+		}
+
+		final double newTime = Math.max(Math.max(time, valueIfTriggerNonNegative.getFiltrationTime()), valueIfTriggerNegative.getFiltrationTime());
+		return of(newTime, Operator.CHOOSE, Double.NaN, valueIfTriggerNonNegative, valueIfTriggerNegative);
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final double factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+
+		if(factor1.isDeterministic()) {
+			return this.add(factor1.get(0) * factor2);
+		}
+		return of(Math.max(time, factor1.getFiltrationTime()), Operator.ADD_PRODUCT, Double.NaN, factor1, new RandomVariableFloatLazyEvaluation(factor2));
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority() || factor2.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+
+		if(factor1.isDeterministic() && factor2.isDeterministic()) {
+			return add(factor1.get(0) * factor2.get(0));
+		} else if(factor2.isDeterministic()) {
+			return this.addProduct(factor1, factor2.get(0));
+		} else if(factor1.isDeterministic()) {
+			return this.addProduct(factor2, factor1.get(0));
+		}
+
+		final double newTime = Math.max(Math.max(time, factor1.getFiltrationTime()), factor2.getFiltrationTime());
+		return of(newTime, Operator.ADD_PRODUCT, Double.NaN, factor1, factor2);
+	}
+
+	@Override
+	public RandomVariable addSumProduct(final List<RandomVariable> factor1, final List<RandomVariable> factor2)
+	{
+		RandomVariable result = this;
+		for(int i=0; i<factor1.size(); i++) {
+			result = result.addProduct(factor1.get(i), factor2.get(i));
+		}
+		return result;
+	}
+
+	@Override
+	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).add(this);
+		}
+
+		final double newTime = Math.max(Math.max(time, numerator.getFiltrationTime()), denominator.getFiltrationTime());
+		return of(newTime, Operator.ADD_RATIO, Double.NaN, numerator, denominator);
+	}
+
+	@Override
+	public RandomVariable subRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).mult(-1).add(this);
+		}
+
+		final double newTime = Math.max(Math.max(time, numerator.getFiltrationTime()), denominator.getFiltrationTime());
+		return of(newTime, Operator.SUB_RATIO, Double.NaN, numerator, denominator);
+	}
+
+	@Override
+	public RandomVariable isNaN() {
+		return evaluate().isNaN();
+	}
+
+	@Override
+	public String toString() {
+		return super.toString()
+				+ "\n" + "time: " + time
+				+ "\n" + "expression: " + expression;
+	}
+}
@@ -0,0 +1,34 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+
+package net.finmath.cuda.cpu.montecarlo;
+
+import net.finmath.montecarlo.AbstractRandomVariableFactory;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Factory creating objects of type {@link RandomVariableFloatLazyEvaluation}.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableFloatLazyEvaluationFactory extends AbstractRandomVariableFactory {
+
+	private static final long serialVersionUID = -4412460923174586241L;
+
+	public RandomVariableFloatLazyEvaluationFactory() {
+		super();
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double value) {
+		return new RandomVariableFloatLazyEvaluation(time, value);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double[] values) {
+		return new RandomVariableFloatLazyEvaluation(time, values);
+	}
+}
@@ -5,18 +5,21 @@
  */
 package net.finmath.cuda.cpu.montecarlo;
 
+import java.nio.FloatBuffer;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleSupplier;
 import java.util.function.DoubleUnaryOperator;
-import java.util.function.IntConsumer;
 import java.util.function.IntToDoubleFunction;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 
 import org.apache.commons.math3.util.FastMath;
 
+import net.finmath.cuda.functions.FloatBinaryOperator;
+import net.finmath.cuda.functions.FloatTernaryOperator;
+import net.finmath.cuda.functions.FloatUnaryOperator;
 import net.finmath.functions.DoubleTernaryOperator;
 import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.stochastic.ConditionalExpectationEstimator;
@@ -37,6 +40,11 @@ import net.finmath.stochastic.RandomVariable;
  * This implementation uses floats for the realizations (consuming less memory compared to using doubles). However,
  * the calculation of the average is performed using double precision.
  *
+ * Element-wise operations on large random variables are executed in parallel chunks, see {@link ParallelChunkExecutor}.
+ * In particular, the operators passed to the <code>apply</code> and <code>applyFloat</code> methods may be called concurrently
+ * from several threads (for a size above the threshold of the <code>ParallelChunkExecutor</code>), hence they have to be thread safe.
+ * Use <code>ParallelChunkExecutor.setThreshold(Integer.MAX_VALUE)</code> to apply non-thread safe operators sequentially.
+ *
  * @author Christian Fries
  * @version 1.8
  */
@@ -56,6 +64,9 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 	// Data model for the non-stochastic case (if realizations==null)
 	private final double      valueIfNonStochastic;
 
+	// Cached moments of the realizations (calculated on demand)
+	private transient volatile RandomVariableMoments moments;
+
 	/**
 	 * Create a random variable from a given other implementation of <code>RandomVariable</code>.
 	 *
@@ -192,13 +203,12 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		this.realizations = size == 1 ? null : new float[size];//IntStream.range(0,size).parallel().mapToDouble(realisations).toArray();
 		valueIfNonStochastic = size == 1 ? realizations.applyAsDouble(0) : Double.NaN;
 		if(size > 1) {
-			IntStream.range(0,size).parallel().forEach(new IntConsumer() {
-				@Override
-				public void accept(final int i) {
-					RandomVariableFromFloatArray.this.realizations[i] = (float) realizations.applyAsDouble(i);
+			final float[] newRealizations = this.realizations;
+			ParallelChunkExecutor.forEach(size, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					newRealizations[i] = (float) realizations.applyAsDouble(i);
 				}
-			}
-					);
+			});
 		}
 		this.typePriority = typePriority;
 	}
@@ -222,6 +232,92 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		return arrayOfFloat;
 	}
 
+	/**
+	 * Returns the realizations of the given random variable if it is a stochastic <code>RandomVariableFromFloatArray</code>.
+	 * This allows to use the operations from {@link FloatArrayOperations} on the raw arrays.
+	 *
+	 * @param randomVariable A random variable.
+	 * @return The float array backing the random variable or null if the random variable is deterministic or of different type.
+	 */
+	static float[] getFloatArrayOrNull(final RandomVariable randomVariable) {
+		if(randomVariable instanceof RandomVariableFromFloatArray) {
+			return ((RandomVariableFromFloatArray)randomVariable).realizations;
+		}
+		else {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns true if the given random variable is stochastic and of a type supported by {@link #getOperandFloatArray(RandomVariable)}.
+	 *
+	 * @param randomVariable A random variable.
+	 * @return True if {@link #getOperandFloatArray(RandomVariable)} returns a non-null value.
+	 */
+	private static boolean isFloatArrayOperand(final RandomVariable randomVariable) {
+		return !randomVariable.isDeterministic()
+				&& (randomVariable instanceof RandomVariableFromFloatArray || randomVariable instanceof RandomVariableFromDoubleArray);
+	}
+
+	/**
+	 * Returns the realizations of a stochastic operand as a float array, dispatching on the concrete type of the operand,
+	 * such that the operations from {@link FloatArrayOperations} can be used instead of a loop calling <code>get(i)</code>
+	 * through the interface (a megamorphic call site widening each float to double and back).
+	 * <ul>
+	 * 	<li>For a <code>RandomVariableFromFloatArray</code> the backing array is returned (no copy).</li>
+	 * 	<li>For a <code>RandomVariableFromDoubleArray</code> the realizations are converted by a loop specialized to that type
+	 * 		(we do not use <code>getRealizations()</code>, since that creates a defensive copy of the double array).</li>
+	 * </ul>
+	 *
+	 * @param randomVariable A random variable.
+	 * @return The realizations as float array or null if the random variable is deterministic or of different type.
+	 */
+	private static float[] getOperandFloatArray(final RandomVariable randomVariable) {
+		if(randomVariable instanceof RandomVariableFromFloatArray) {
+			return ((RandomVariableFromFloatArray)randomVariable).realizations;
+		}
+		else if(randomVariable instanceof RandomVariableFromDoubleArray && !randomVariable.isDeterministic()) {
+			final RandomVariableFromDoubleArray argument = (RandomVariableFromDoubleArray)randomVariable;
+			final float[] argumentRealizations = new float[argument.size()];
+			ParallelChunkExecutor.forEach(argumentRealizations.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					argumentRealizations[i] = (float)argument.get(i);
+				}
+			});
+			return argumentRealizations;
+		}
+		else {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the realizations of a stochastic operand as a float array. For the types supported by
+	 * {@link #getOperandFloatArray(RandomVariable)} this is the typed conversion (or the backing array), for other types
+	 * the realizations are converted in a single loop calling <code>get(i)</code>.
+	 *
+	 * @param randomVariable A random variable.
+	 * @return The realizations as float array or null if the random variable is deterministic.
+	 */
+	private static float[] getStochasticOperandAsFloatArray(final RandomVariable randomVariable) {
+		if(randomVariable.isDeterministic()) {
+			return null;
+		}
+
+		final float[] operandRealizations = getOperandFloatArray(randomVariable);
+		if(operandRealizations != null) {
+			return operandRealizations;
+		}
+
+		final float[] argumentRealizations = new float[randomVariable.size()];
+		ParallelChunkExecutor.forEach(argumentRealizations.length, (from, to) -> {
+			for(int i=from; i<to; i++) {
+				argumentRealizations[i] = (float)randomVariable.get(i);
+			}
+		});
+		return argumentRealizations;
+	}
+
 	private double[] getDoubleArray(final float[] arrayOfFloat) {
 		final double[] arrayOfDouble = new double[arrayOfFloat.length];
 		for(int i=0; i<arrayOfFloat.length; i++) {
@@ -280,19 +376,31 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 	}
 
+	/**
+	 * Returns the average, variance, minimum and maximum of the realizations, calculated in a single pass.
+	 * The result is cached, such that subsequent calls of the corresponding getters do not require another pass.
+	 *
+	 * @return The moments of this random variable.
+	 */
+	public RandomVariableMoments getMoments() {
+		if(isDeterministic()) {
+			return RandomVariableMoments.ofConstant(valueIfNonStochastic);
+		}
+
+		RandomVariableMoments moments = this.moments;
+		if(moments == null) {
+			moments = RandomVariableMoments.of(realizations);
+			this.moments = moments;
+		}
+		return moments;
+	}
+
 	@Override
 	public double getMin() {
 		if(isDeterministic()) {
 			return valueIfNonStochastic;
 		}
-		double min = Double.MAX_VALUE;
-		if(realizations.length != 0) {
-			min = realizations[0];     /// @see getMax()
-		}
-		for(int i=0; i<realizations.length; i++) {
-			min = Math.min(realizations[i],min);
-		}
-		return min;
+		return getMoments().getMin();
 	}
 
 	@Override
@@ -300,14 +408,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		if(isDeterministic()) {
 			return valueIfNonStochastic;
 		}
-		double max = -Double.MAX_VALUE;
-		if(realizations.length != 0) {
-			max = realizations[0];
-		}
-		for(int i=0; i<realizations.length; i++) {
-			max = Math.max(realizations[i],max);
-		}
-		return max;
+		return getMoments().getMax();
 	}
 
 	@Override
@@ -319,18 +420,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return Double.NaN;
 		}
 
-		/*
-		 * Kahan summation on realizations[i]
-		 */
-		double sum = 0.0;								// Running sum
-		double error = 0.0;								// Running error compensation
-		for(int i=0; i<realizations.length; i++)  {
-			final double value = realizations[i] - error;		// Error corrected value
-			final double newSum = sum + value;				// New sum
-			error = (newSum - sum) - value;								// New numerical error
-			sum	= newSum;
-		}
-		return sum/realizations.length;
+		return getMoments().getAverage();
 	}
 
 	@Override
@@ -365,20 +455,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return Double.NaN;
 		}
 
-		final double average = getAverage();
-
-		/*
-		 * Kahan summation on (realizations[i] - average)^2
-		 */
-		double sum = 0.0;
-		double errorOfSum	= 0.0;
-		for(int i=0; i<realizations.length; i++) {
-			final double value	= (realizations[i] - average)*(realizations[i] - average) - errorOfSum;
-			final double newSum	= sum + value;
-			errorOfSum		= (newSum - sum) - value;
-			sum				= newSum;
-		}
-		return sum/realizations.length;
+		return getMoments().getVariance();
 	}
 
 	@Override
@@ -478,12 +555,35 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return Double.NaN;
 		}
 
-		final float[] realizationsSorted = realizations.clone();
-		java.util.Arrays.sort(realizationsSorted);
+		return getQuantiles(quantile)[0];
+	}
+
+	/**
+	 * Returns the quantiles of this random variable for the given quantile levels.
+	 * The quantiles are calculated by a single selection (partial ordering) of the realizations, which is faster than sorting.
+	 *
+	 * @param quantiles The quantile levels.
+	 * @return The quantiles of this random variable (in the order of the given levels).
+	 * @see #getQuantile(double)
+	 */
+	public double[] getQuantiles(final double... quantiles) {
+		if(isDeterministic()) {
+			final double[] result = new double[quantiles.length];
+			Arrays.fill(result, valueIfNonStochastic);
+			return result;
+		}
+		if(size() == 0) {
+			final double[] result = new double[quantiles.length];
+			Arrays.fill(result, Double.NaN);
+			return result;
+		}
 
-		final int indexOfQuantileValue = Math.min(Math.max((int)Math.round((size()+1) * quantile - 1), 0), size()-1);
+		final int[] indicesOfQuantileValues = new int[quantiles.length];
+		for(int i=0; i<quantiles.length; i++) {
+			indicesOfQuantileValues[i] = Math.min(Math.max((int)Math.round((size()+1) * quantiles[i] - 1), 0), size()-1);
+		}
 
-		return realizationsSorted[indexOfQuantileValue];
+		return OrderStatistics.getValuesOfRanks(realizations, indicesOfQuantileValues);
 	}
 
 	@Override
@@ -510,19 +610,10 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return getQuantileExpectation(quantileEnd, quantileStart);
 		}
 
-		final float[] realizationsSorted = realizations.clone();
-		java.util.Arrays.sort(realizationsSorted);
-
 		final int indexOfQuantileValueStart	= Math.min(Math.max((int)Math.round((size()+1) * quantileStart - 1), 0), size()-1);
 		final int indexOfQuantileValueEnd		= Math.min(Math.max((int)Math.round((size()+1) * quantileEnd - 1), 0), size()-1);
 
-		double quantileExpectation = 0.0;
-		for (int i=indexOfQuantileValueStart; i<=indexOfQuantileValueEnd;i++) {
-			quantileExpectation += realizationsSorted[i];
-		}
-		quantileExpectation /= indexOfQuantileValueEnd-indexOfQuantileValueStart+1;
-
-		return quantileExpectation;
+		return OrderStatistics.getAverageOfRanks(realizations, indexOfQuantileValueStart, indexOfQuantileValueEnd);
 	}
 
 	@Override
@@ -552,29 +643,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			 * There is one exception:
 			 * If the size of the random variable is 0, all entries will be zero.
 			 */
-			final float[] realizationsSorted = realizations.clone();
-			java.util.Arrays.sort(realizationsSorted);
-
-			int sampleIndex=0;
-			for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
-			{
-				int sampleCount = 0;
-				while (sampleIndex < realizationsSorted.length &&
-						realizationsSorted[sampleIndex] <= intervalPoints[intervalIndex])
-				{
-					sampleIndex++;
-					sampleCount++;
-				}
-				histogramValues[intervalIndex] = sampleCount;
-			}
-			histogramValues[intervalPoints.length] = realizationsSorted.length-sampleIndex;
-
-			// Normalize histogramValues
-			if(realizationsSorted.length > 0) {
-				for(int i=0; i<histogramValues.length; i++) {
-					histogramValues[i] /= realizationsSorted.length;
-				}
-			}
+			return Histogram.getHistogram(realizations, intervalPoints);
 		}
 
 		return histogramValues;
@@ -621,7 +690,23 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 				}
 			});
 		} else {
-			return Arrays.stream(getDoubleArray(realizations));
+			// Widen lazily from the original storage (no copy of the realizations)
+			return IntStream.range(0, realizations.length).mapToDouble(i -> realizations[i]);
+		}
+	}
+
+	/**
+	 * Returns a read-only view on the realizations of this random variable (no copy is created).
+	 * For a deterministic random variable the buffer contains a single element.
+	 *
+	 * @return A read-only float buffer providing the realizations.
+	 */
+	public FloatBuffer getRealizationsAsFloatBuffer() {
+		if(isDeterministic()) {
+			return FloatBuffer.wrap(new float[] { (float)valueIfNonStochastic }).asReadOnlyBuffer();
+		}
+		else {
+			return FloatBuffer.wrap(realizations).asReadOnlyBuffer();
 		}
 	}
 
@@ -663,21 +748,32 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The operator may be called concurrently from several threads, see {@link ParallelChunkExecutor}.
+	 */
 	@Override
 	public RandomVariable apply(final DoubleUnaryOperator operator) {
 		if(isDeterministic()) {
 			return new RandomVariableFromFloatArray(time, operator.applyAsDouble(valueIfNonStochastic));
 		} else
 		{
-			// Still faster than a parallel stream (2014.04)
-			final double[] result = new double[realizations.length];
-			for(int i=0; i<result.length; i++) {
-				result[i] = operator.applyAsDouble(realizations[i]);
-			}
+			final float[] result = new float[realizations.length];
+			ParallelChunkExecutor.forEach(result.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					result[i] = (float)operator.applyAsDouble(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, result);
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The operator may be called concurrently from several threads, see {@link ParallelChunkExecutor}.
+	 */
 	@Override
 	public RandomVariable apply(final DoubleBinaryOperator operator, final RandomVariable argument) {
 
@@ -686,27 +782,30 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		if(isDeterministic() && argument.isDeterministic()) {
 			return new RandomVariableFromFloatArray(newTime, operator.applyAsDouble(valueIfNonStochastic, argument.get(0)));
 		} else if(isDeterministic() && !argument.isDeterministic()) {
-			// Still faster than a parallel stream (2014.04)
-			final double[] result = new double[argument.size()];
-			for(int i=0; i<result.length; i++) {
-				result[i] = operator.applyAsDouble(valueIfNonStochastic, argument.get(i));
-			}
+			final float[] result = new float[argument.size()];
+			ParallelChunkExecutor.forEach(result.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					result[i] = (float)operator.applyAsDouble(valueIfNonStochastic, argument.get(i));
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, result);
 		}
 		else if(!isDeterministic() && argument.isDeterministic()) {
-			// Still faster than a parallel stream (2014.04)
-			final double[] result = new double[this.size()];
-			for(int i=0; i<result.length; i++) {
-				result[i] = operator.applyAsDouble(realizations[i], argument.get(0));
-			}
+			final float[] result = new float[this.size()];
+			ParallelChunkExecutor.forEach(result.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					result[i] = (float)operator.applyAsDouble(realizations[i], argument.get(0));
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, result);
 		}
 		else if(!isDeterministic() && !argument.isDeterministic()) {
-			// Still faster than a parallel stream (2014.04)
-			final double[] result = new double[this.size()];
-			for(int i=0; i<result.length; i++) {
-				result[i] = operator.applyAsDouble(realizations[i], argument.get(i));
-			}
+			final float[] result = new float[this.size()];
+			ParallelChunkExecutor.forEach(result.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					result[i] = (float)operator.applyAsDouble(realizations[i], argument.get(i));
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, result);
 		}
 
@@ -747,6 +846,101 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		return new RandomVariableFromFloatArray(newTime, result, newSize);
 	}
 
+	/**
+	 * Applies the given float operator to the realizations of this random variable.
+	 *
+	 * The operator works on floats, i.e., the realizations are not widened to double and the
+	 * result is written directly into the float array of the new random variable. The operator may be called
+	 * concurrently from several threads, see {@link ParallelChunkExecutor}.
+	 *
+	 * @param operator A float unary operator.
+	 * @return New random variable with the result of the operator.
+	 */
+	public RandomVariable applyFloat(final FloatUnaryOperator operator) {
+		if(isDeterministic()) {
+			return new RandomVariableFromFloatArray(time, operator.applyAsFloat((float)valueIfNonStochastic));
+		}
+		else {
+			final float[] result = new float[realizations.length];
+			ParallelChunkExecutor.forEach(result.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					result[i] = operator.applyAsFloat(realizations[i]);
+				}
+			});
+			return new RandomVariableFromFloatArray(time, result);
+		}
+	}
+
+	/**
+	 * Applies the given float operator to the realizations of this random variable and the given argument.
+	 *
+	 * The operator works on floats, i.e., the realizations are not widened to double and the
+	 * result is written directly into the float array of the new random variable. The operator may be called
+	 * concurrently from several threads, see {@link ParallelChunkExecutor}.
+	 *
+	 * @param operator A float binary operator.
+	 * @param argument The second argument of the operator.
+	 * @return New random variable with the result of the operator.
+	 */
+	public RandomVariable applyFloat(final FloatBinaryOperator operator, final RandomVariable argument) {
+		final double newTime = Math.max(time, argument.getFiltrationTime());
+
+		final float[] argumentRealizations = getStochasticOperandAsFloatArray(argument);
+		final float value = (float)valueIfNonStochastic;
+		final float argumentValue = argumentRealizations == null ? (float)argument.get(0) : Float.NaN;
+
+		if(realizations == null && argumentRealizations == null) {
+			return new RandomVariableFromFloatArray(newTime, operator.applyAsFloat(value, argumentValue));
+		}
+
+		final float[] result = new float[Math.max(size(), argument.size())];
+		ParallelChunkExecutor.forEach(result.length, (from, to) -> {
+			for(int i=from; i<to; i++) {
+				result[i] = operator.applyAsFloat(
+						realizations != null ? realizations[i] : value,
+						argumentRealizations != null ? argumentRealizations[i] : argumentValue);
+			}
+		});
+		return new RandomVariableFromFloatArray(newTime, result);
+	}
+
+	/**
+	 * Applies the given float operator to the realizations of this random variable and the given arguments.
+	 *
+	 * The operator works on floats, i.e., the realizations are not widened to double and the
+	 * result is written directly into the float array of the new random variable. The operator may be called
+	 * concurrently from several threads, see {@link ParallelChunkExecutor}.
+	 *
+	 * @param operator A float ternary operator.
+	 * @param argument1 The second argument of the operator.
+	 * @param argument2 The third argument of the operator.
+	 * @return New random variable with the result of the operator.
+	 */
+	public RandomVariable applyFloat(final FloatTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2) {
+		final double newTime = Math.max(Math.max(time, argument1.getFiltrationTime()), argument2.getFiltrationTime());
+
+		final float[] argument1Realizations = getStochasticOperandAsFloatArray(argument1);
+		final float[] argument2Realizations = getStochasticOperandAsFloatArray(argument2);
+		final float value = (float)valueIfNonStochastic;
+		final float argument1Value = argument1Realizations == null ? (float)argument1.get(0) : Float.NaN;
+		final float argument2Value = argument2Realizations == null ? (float)argument2.get(0) : Float.NaN;
+
+		if(realizations == null && argument1Realizations == null && argument2Realizations == null) {
+			return new RandomVariableFromFloatArray(newTime, operator.applyAsFloat(value, argument1Value, argument2Value));
+		}
+
+		final float[] result = new float[Math.max(Math.max(size(), argument1.size()), argument2.size())];
+		ParallelChunkExecutor.forEach(result.length, (from, to) -> {
+			for(int i=from; i<to; i++) {
+				result[i] = operator.applyAsFloat(
+						realizations != null ? realizations[i] : value,
+						argument1Realizations != null ? argument1Realizations[i] : argument1Value,
+						argument2Realizations != null ? argument2Realizations[i] : argument2Value);
+			}
+		});
+		return new RandomVariableFromFloatArray(newTime, result);
+	}
+
 	@Override
 	public RandomVariable cap(final double cap) {
 		if(isDeterministic()) {
@@ -755,9 +949,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = Math.min(realizations[i],(float)cap);
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.cap(realizations, (float)cap, newRealizations, from, to));
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -770,9 +962,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = Math.max(realizations[i],(float)floor);
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.floor(realizations, (float)floor, newRealizations, from, to));
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -785,9 +975,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] + (float)value;
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.add(realizations, (float)value, newRealizations, from, to));
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -800,9 +988,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] - (float)value;
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.sub(realizations, (float)value, newRealizations, from, to));
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -815,9 +1001,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] * (float)value;
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.mult(realizations, (float)value, newRealizations, from, to));
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -830,9 +1014,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] / (float)value;
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.div(realizations, (float)value, newRealizations, from, to));
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -845,9 +1027,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float) Math.pow(realizations[i],(float)exponent);
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					newRealizations[i]		 = (float) Math.pow(realizations[i],(float)exponent);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -871,9 +1055,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] * realizations[i];
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					newRealizations[i]		 = realizations[i] * realizations[i];
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -886,9 +1072,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)Math.sqrt(realizations[i]);
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					newRealizations[i]		 = (float)Math.sqrt(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -901,9 +1089,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)Math.exp(realizations[i]);
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					newRealizations[i]		 = (float)Math.exp(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -916,9 +1106,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)Math.log(realizations[i]);
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					newRealizations[i]		 = (float)Math.log(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -931,9 +1123,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)FastMath.sin(realizations[i]);
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					newRealizations[i]		 = (float)FastMath.sin(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -946,9 +1140,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)FastMath.cos(realizations[i]);
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					newRealizations[i]		 = (float)FastMath.cos(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -967,10 +1163,22 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		// Set time of this random variable to maximum of time with respect to which measurability is known.
 		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
 
+		final float[] argumentRealizations = getOperandFloatArray(randomVariable);
+
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic + randomVariable.get(0);
 			return new RandomVariableFromFloatArray(newTime, newValueIfNonStochastic);
 		}
+		else if(argumentRealizations != null) {
+			final float[] newRealizations = new float[argumentRealizations.length];
+			if(isDeterministic()) {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.add(argumentRealizations, (float)valueIfNonStochastic, newRealizations, from, to));
+			}
+			else {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.add(realizations, argumentRealizations, newRealizations, from, to));
+			}
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
+		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -996,10 +1204,22 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		// Set time of this random variable to maximum of time with respect to which measurability is known.
 		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
 
+		final float[] argumentRealizations = getOperandFloatArray(randomVariable);
+
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic - randomVariable.get(0);
 			return new RandomVariableFromFloatArray(newTime, newValueIfNonStochastic);
 		}
+		else if(argumentRealizations != null) {
+			final float[] newRealizations = new float[argumentRealizations.length];
+			if(isDeterministic()) {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.bus(argumentRealizations, (float)valueIfNonStochastic, newRealizations, from, to));
+			}
+			else {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.sub(realizations, argumentRealizations, newRealizations, from, to));
+			}
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
+		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1026,10 +1246,22 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		// Set time of this random variable to maximum of time with respect to which measurability is known.
 		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
 
+		final float[] argumentRealizations = getOperandFloatArray(randomVariable);
+
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = randomVariable.get(0) - valueIfNonStochastic;
 			return new RandomVariableFromFloatArray(newTime, newValueIfNonStochastic);
 		}
+		else if(argumentRealizations != null) {
+			final float[] newRealizations = new float[argumentRealizations.length];
+			if(isDeterministic()) {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.sub(argumentRealizations, (float)valueIfNonStochastic, newRealizations, from, to));
+			}
+			else {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.sub(argumentRealizations, realizations, newRealizations, from, to));
+			}
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
+		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1056,12 +1288,24 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		// Set time of this random variable to maximum of time with respect to which measurability is known.
 		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
 
+		final float[] argumentRealizations = getOperandFloatArray(randomVariable);
+
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic * randomVariable.get(0);
 			return new RandomVariableFromFloatArray(newTime, newValueIfNonStochastic);
 		}
 		else if(randomVariable.isDeterministic()) {
 			return this.mult(randomVariable.get(0));
+		}
+		else if(argumentRealizations != null) {
+			final float[] newRealizations = new float[argumentRealizations.length];
+			if(isDeterministic()) {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.mult(argumentRealizations, (float)valueIfNonStochastic, newRealizations, from, to));
+			}
+			else {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.mult(realizations, argumentRealizations, newRealizations, from, to));
+			}
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		} else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1088,6 +1332,8 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		// Set time of this random variable to maximum of time with respect to which measurability is known.
 		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
 
+		final float[] argumentRealizations = getOperandFloatArray(randomVariable);
+
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic / randomVariable.get(0);
 			return new RandomVariableFromFloatArray(newTime, newValueIfNonStochastic);
@@ -1095,6 +1341,16 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		else if(randomVariable.isDeterministic()) {
 			return this.div(randomVariable.get(0));
 		}
+		else if(argumentRealizations != null) {
+			final float[] newRealizations = new float[argumentRealizations.length];
+			if(isDeterministic()) {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.vid(argumentRealizations, (float)valueIfNonStochastic, newRealizations, from, to));
+			}
+			else {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.div(realizations, argumentRealizations, newRealizations, from, to));
+			}
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
+		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1121,10 +1377,22 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		// Set time of this random variable to maximum of time with respect to which measurability is known.
 		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
 
+		final float[] argumentRealizations = getOperandFloatArray(randomVariable);
+
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = randomVariable.get(0) / valueIfNonStochastic;
 			return new RandomVariableFromFloatArray(newTime, newValueIfNonStochastic);
 		}
+		else if(argumentRealizations != null) {
+			final float[] newRealizations = new float[argumentRealizations.length];
+			if(isDeterministic()) {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.div(argumentRealizations, (float)valueIfNonStochastic, newRealizations, from, to));
+			}
+			else {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.div(argumentRealizations, realizations, newRealizations, from, to));
+			}
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
+		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1135,7 +1403,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		else {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
 			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)(randomVariable.get(i) / realizations[i]);
+				newRealizations[i]		 = (float)randomVariable.get(i) / realizations[i];
 			}
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
@@ -1151,10 +1419,22 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		// Set time of this random variable to maximum of time with respect to which measurability is known.
 		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
 
+		final float[] argumentRealizations = getOperandFloatArray(randomVariable);
+
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = FastMath.min(valueIfNonStochastic, randomVariable.get(0));
 			return new RandomVariableFromFloatArray(newTime, newValueIfNonStochastic);
 		}
+		else if(argumentRealizations != null) {
+			final float[] newRealizations = new float[argumentRealizations.length];
+			if(isDeterministic()) {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.cap(argumentRealizations, (float)valueIfNonStochastic, newRealizations, from, to));
+			}
+			else {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.cap(realizations, argumentRealizations, newRealizations, from, to));
+			}
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
+		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1180,10 +1460,22 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		// Set time of this random variable to maximum of time with respect to which measurability is known.
 		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
 
+		final float[] argumentRealizations = getOperandFloatArray(randomVariable);
+
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = FastMath.max(valueIfNonStochastic, randomVariable.get(0));
 			return new RandomVariableFromFloatArray(newTime, newValueIfNonStochastic);
 		}
+		else if(argumentRealizations != null) {
+			final float[] newRealizations = new float[argumentRealizations.length];
+			if(isDeterministic()) {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.floor(argumentRealizations, (float)valueIfNonStochastic, newRealizations, from, to));
+			}
+			else {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.floor(realizations, argumentRealizations, newRealizations, from, to));
+			}
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
+		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1209,8 +1501,20 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		// Set time of this random variable to maximum of time with respect to which measurability is known.
 		final double newTime = Math.max(time, rate.getFiltrationTime());
 
+		final float[] rateRealizations = getOperandFloatArray(rate);
+
 		if(rate.isDeterministic()) {
 			return this.mult(1.0 + rate.get(0) * periodLength);
+		}
+		else if(rateRealizations != null) {
+			final float[] newRealizations = new float[rateRealizations.length];
+			if(isDeterministic()) {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.accrue((float)valueIfNonStochastic, rateRealizations, (float)periodLength, newRealizations, from, to));
+			}
+			else {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.accrue(realizations, rateRealizations, (float)periodLength, newRealizations, from, to));
+			}
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		} else if(isDeterministic() && !rate.isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), rate.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1237,8 +1541,20 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		// Set time of this random variable to maximum of time with respect to which measurability is known.
 		final double newTime = Math.max(time, rate.getFiltrationTime());
 
+		final float[] rateRealizations = getOperandFloatArray(rate);
+
 		if(rate.isDeterministic()) {
 			return this.div(1.0 + rate.doubleValue() * periodLength);
+		}
+		else if(rateRealizations != null) {
+			final float[] newRealizations = new float[rateRealizations.length];
+			if(isDeterministic()) {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.discount((float)valueIfNonStochastic, rateRealizations, (float)periodLength, newRealizations, from, to));
+			}
+			else {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.discount(realizations, rateRealizations, (float)periodLength, newRealizations, from, to));
+			}
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		} else if(isDeterministic() && !rate.isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), rate.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1292,9 +1608,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = 1.0f/realizations[i];
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					newRealizations[i]		 = 1.0f/realizations[i];
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -1307,9 +1625,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = Math.abs(realizations[i]);
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					newRealizations[i]		 = Math.abs(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -1324,8 +1644,20 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		// Set time of this random variable to maximum of time with respect to which measurability is known.
 		final double newTime = Math.max(time, factor1.getFiltrationTime());
 
+		final float[] factor1Realizations = getOperandFloatArray(factor1);
+
 		if(factor1.isDeterministic()) {
 			return this.add(factor1.get(0) * factor2);
+		}
+		else if(factor1Realizations != null) {
+			final float[] newRealizations = new float[factor1Realizations.length];
+			if(isDeterministic()) {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.addProduct((float)valueIfNonStochastic, factor1Realizations, (float)factor2, newRealizations, from, to));
+			}
+			else {
+				ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.addProduct(realizations, factor1Realizations, (float)factor2, newRealizations, from, to));
+			}
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		} else if(isDeterministic() && !factor1.isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), factor1.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1336,9 +1668,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		else if(!isDeterministic() && factor1.isDeterministic()) {
 			final float factor1Value = (float)factor1.get(0);
 			final float[] newRealizations = new float[Math.max(size(), factor1.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] + factor1Value * (float)factor2;
-			}
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> {
+				for(int i=from; i<to; i++) {
+					newRealizations[i]		 = realizations[i] + factor1Value * (float)factor2;
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 		else {
@@ -1370,6 +1704,12 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return this.addProduct(factor1, factor2.doubleValue());
 		} else if(factor1.isDeterministic()) {
 			return this.addProduct(factor2, factor1.doubleValue());
+		} else if(!this.isDeterministic() && isFloatArrayOperand(factor1) && isFloatArrayOperand(factor2)) {
+			final float[] factor1Realizations = getOperandFloatArray(factor1);
+			final float[] factor2Realizations = getOperandFloatArray(factor2);
+			final float[] newRealizations = new float[realizations.length];
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.addProduct(realizations, factor1Realizations, factor2Realizations, newRealizations, from, to));
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		} else if(!this.isDeterministic() && !factor1.isDeterministic() && !factor2.isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(Math.max(size(), factor1.size()), factor2.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1384,11 +1724,74 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 	@Override
 	public RandomVariable addSumProduct(final List<RandomVariable> factor1, final List<RandomVariable> factor2)
 	{
-		RandomVariable result = this;
-		for(int i=0; i<factor1.size(); i++) {
-			result = result.addProduct(factor1.get(i), factor2.get(i));
+		final int numberOfTerms = factor1.size();
+
+		/*
+		 * The fused calculation requires operands supported by getOperandFloatArray and no operand with higher type priority.
+		 * In addition, if this random variable is deterministic, the first term has to be stochastic, since addProduct adds
+		 * a product of two deterministic factors to a deterministic random variable in double precision.
+		 */
+		double newTime = time;
+		int newSize = size();
+		boolean isFusable = !(isDeterministic() && numberOfTerms > 0 && factor1.get(0).isDeterministic() && factor2.get(0).isDeterministic());
+		for(int k=0; k<numberOfTerms && isFusable; k++) {
+			final RandomVariable term1 = factor1.get(k);
+			final RandomVariable term2 = factor2.get(k);
+			isFusable = term1.getTypePriority() <= this.getTypePriority() && term2.getTypePriority() <= this.getTypePriority()
+					&& (term1.isDeterministic() || isFloatArrayOperand(term1))
+					&& (term2.isDeterministic() || isFloatArrayOperand(term2));
+			newTime = Math.max(newTime, Math.max(term1.getFiltrationTime(), term2.getFiltrationTime()));
+			newSize = Math.max(newSize, Math.max(term1.size(), term2.size()));
+		}
+
+		if(!isFusable || newSize == 1) {
+			RandomVariable result = this;
+			for(int i=0; i<numberOfTerms; i++) {
+				result = result.addProduct(factor1.get(i), factor2.get(i));
+			}
+			return result;
 		}
-		return result;
+
+		/*
+		 * Accumulate all products in a single result vector, chunk by chunk (such that the chunk of the result stays in cache).
+		 * The terms are added in the same order and with the same float operations as the sequence of addProduct calls.
+		 */
+		final float[][] factor1Realizations = new float[numberOfTerms][];
+		final float[][] factor2Realizations = new float[numberOfTerms][];
+		final double[] factor1Values = new double[numberOfTerms];
+		final double[] factor2Values = new double[numberOfTerms];
+		for(int k=0; k<numberOfTerms; k++) {
+			factor1Realizations[k] = getOperandFloatArray(factor1.get(k));
+			factor2Realizations[k] = getOperandFloatArray(factor2.get(k));
+			factor1Values[k] = factor1Realizations[k] == null ? factor1.get(k).get(0) : Double.NaN;
+			factor2Values[k] = factor2Realizations[k] == null ? factor2.get(k).get(0) : Double.NaN;
+		}
+
+		final float[] newRealizations = new float[newSize];
+		ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> {
+			if(realizations != null) {
+				System.arraycopy(realizations, from, newRealizations, from, to-from);
+			}
+			else {
+				Arrays.fill(newRealizations, from, to, (float)valueIfNonStochastic);
+			}
+
+			for(int k=0; k<numberOfTerms; k++) {
+				if(factor1Realizations[k] != null && factor2Realizations[k] != null) {
+					FloatArrayOperations.addProduct(newRealizations, factor1Realizations[k], factor2Realizations[k], newRealizations, from, to);
+				}
+				else if(factor1Realizations[k] != null) {
+					FloatArrayOperations.addProduct(newRealizations, factor1Realizations[k], (float)factor2Values[k], newRealizations, from, to);
+				}
+				else if(factor2Realizations[k] != null) {
+					FloatArrayOperations.addProduct(newRealizations, factor2Realizations[k], (float)factor1Values[k], newRealizations, from, to);
+				}
+				else {
+					FloatArrayOperations.add(newRealizations, (float)(factor1Values[k] * factor2Values[k]), newRealizations, from, to);
+				}
+			}
+		});
+		return new RandomVariableFromFloatArray(newTime, newRealizations);
 	}
 
 	@Override
@@ -1405,6 +1808,13 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			final double newValueIfNonStochastic = valueIfNonStochastic + (numerator.get(0) / denominator.get(0));
 			return new RandomVariableFromFloatArray(newTime, newValueIfNonStochastic);
 		}
+		else if(!isDeterministic() && isFloatArrayOperand(numerator) && isFloatArrayOperand(denominator)) {
+			final float[] numeratorRealizations = getOperandFloatArray(numerator);
+			final float[] denominatorRealizations = getOperandFloatArray(denominator);
+			final float[] newRealizations = new float[realizations.length];
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.addRatio(realizations, numeratorRealizations, denominatorRealizations, newRealizations, from, to));
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
+		}
 		else {
 			final float[] newRealizations = new float[Math.max(Math.max(size(), numerator.size()), denominator.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -1428,6 +1838,13 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			final double newValueIfNonStochastic = valueIfNonStochastic - (numerator.get(0) / denominator.get(0));
 			return new RandomVariableFromFloatArray(newTime, newValueIfNonStochastic);
 		}
+		else if(!isDeterministic() && isFloatArrayOperand(numerator) && isFloatArrayOperand(denominator)) {
+			final float[] numeratorRealizations = getOperandFloatArray(numerator);
+			final float[] denominatorRealizations = getOperandFloatArray(denominator);
+			final float[] newRealizations = new float[realizations.length];
+			ParallelChunkExecutor.forEach(newRealizations.length, (from, to) -> FloatArrayOperations.subRatio(realizations, numeratorRealizations, denominatorRealizations, newRealizations, from, to));
+			return new RandomVariableFromFloatArray(newTime, newRealizations);
+		}
 		else {
 			final float[] newRealizations = new float[Math.max(Math.max(size(), numerator.size()), denominator.size())];
 			for(int i=0; i<newRealizations.length; i++) {
@@ -0,0 +1,261 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.io.Serializable;
+
+/**
+ * The moments (average, variance) and the range (minimum, maximum) of a sample of realizations,
+ * calculated in a single pass over the realizations.
+ *
+ * The calculation is performed in chunks (in parallel for large samples, see {@link ParallelChunkExecutor}).
+ * Within a chunk, the sum of the values and the sum of the squared deviations from a shift (the first value of the chunk)
+ * are accumulated using Kahan summation. The chunks are then combined using the update formula of Welford
+ * (in the form of Chan et al. for combining two samples), such that the variance does not suffer from
+ * cancellation if the average is large compared to the standard deviation.
+ *
+ * The variance is the population variance (i.e., normalized by the number of values), consistent with
+ * <code>RandomVariable.getVariance()</code>.
+ *
+ * @author Christian Fries
+ */
+public final class RandomVariableMoments implements Serializable {
+
+	private static final long serialVersionUID = 4217766493170262418L;
+
+	private final long numberOfValues;
+	private final double average;
+	private final double sumOfSquaredDeviations;
+	private final double min;
+	private final double max;
+
+	private RandomVariableMoments(final long numberOfValues, final double average, final double sumOfSquaredDeviations, final double min, final double max) {
+		this.numberOfValues = numberOfValues;
+		this.average = average;
+		this.sumOfSquaredDeviations = sumOfSquaredDeviations;
+		this.min = min;
+		this.max = max;
+	}
+
+	/**
+	 * Create the moments of a constant.
+	 *
+	 * @param value The constant.
+	 * @return The moments of a constant.
+	 */
+	public static RandomVariableMoments ofConstant(final double value) {
+		return new RandomVariableMoments(1, value, 0.0, value, value);
+	}
+
+	/**
+	 * Calculate the moments of the given values.
+	 *
+	 * @param values The values.
+	 * @return The moments of the values.
+	 */
+	public static RandomVariableMoments of(final float[] values) {
+		if(values.length == 0) {
+			return new RandomVariableMoments(0, Double.NaN, Double.NaN, Double.MAX_VALUE, -Double.MAX_VALUE);
+		}
+
+		final Accumulator accumulator = ParallelChunkExecutor.reduce(values.length, (from, to) -> new Accumulator(values, from, to), Accumulator::combine);
+
+		return new RandomVariableMoments(accumulator.numberOfValues, accumulator.sum / accumulator.numberOfValues, accumulator.sumOfSquaredDeviations, accumulator.min, accumulator.max);
+	}
+
+	/**
+	 * Create the moments of a sample from its number of values, average, sum of squared deviations from the average,
+	 * minimum and maximum (e.g. as calculated by a reduction on a device).
+	 *
+	 * @param numberOfValues The number of values.
+	 * @param average The average.
+	 * @param sumOfSquaredDeviations The sum of the squared deviations from the average.
+	 * @param min The minimum.
+	 * @param max The maximum.
+	 * @return The moments.
+	 */
+	public static RandomVariableMoments of(final long numberOfValues, final double average, final double sumOfSquaredDeviations, final double min, final double max) {
+		if(numberOfValues == 0) {
+			return new RandomVariableMoments(0, Double.NaN, Double.NaN, Double.MAX_VALUE, -Double.MAX_VALUE);
+		}
+		return new RandomVariableMoments(numberOfValues, average, sumOfSquaredDeviations, min, max);
+	}
+
+	/**
+	 * Returns the moments of the union of this sample and another sample (Chan et al. update of Welford's algorithm).
+	 *
+	 * @param other The moments of the other sample.
+	 * @return The moments of the union of the two samples.
+	 */
+	public RandomVariableMoments combine(final RandomVariableMoments other) {
+		if(other.numberOfValues == 0) {
+			return this;
+		}
+		if(numberOfValues == 0) {
+			return other;
+		}
+
+		final long n = numberOfValues + other.numberOfValues;
+		final double delta = other.average - average;
+		return new RandomVariableMoments(n,
+				average + delta * other.numberOfValues / n,
+				sumOfSquaredDeviations + other.sumOfSquaredDeviations + delta * delta * ((double)numberOfValues * other.numberOfValues / n),
+				Math.min(min, other.min),
+				Math.max(max, other.max));
+	}
+
+	/**
+	 * @return The number of values.
+	 */
+	public long getNumberOfValues() {
+		return numberOfValues;
+	}
+
+	/**
+	 * @return The average of the values.
+	 */
+	public double getAverage() {
+		return average;
+	}
+
+	/**
+	 * @return The (population) variance of the values.
+	 */
+	public double getVariance() {
+		if(numberOfValues == 1) {
+			return 0.0;
+		}
+		return sumOfSquaredDeviations / numberOfValues;
+	}
+
+	/**
+	 * @return The sample variance of the values, i.e., the variance multiplied by n/(n-1).
+	 */
+	public double getSampleVariance() {
+		if(numberOfValues == 1) {
+			return 0.0;
+		}
+		return sumOfSquaredDeviations / (numberOfValues-1);
+	}
+
+	/**
+	 * @return The (population) standard deviation of the values.
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/**
+	 * @return The standard error of the average, i.e., the standard deviation divided by sqrt(n).
+	 */
+	public double getStandardError() {
+		return getStandardDeviation()/Math.sqrt(numberOfValues);
+	}
+
+	/**
+	 * @return The minimum of the values.
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * @return The maximum of the values.
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return "RandomVariableMoments [numberOfValues=" + numberOfValues + ", average=" + average + ", variance=" + getVariance()
+		+ ", min=" + min + ", max=" + max + "]";
+	}
+
+	/**
+	 * The moments of a chunk.
+	 */
+	private static final class Accumulator {
+		private long numberOfValues;
+		private double sum;
+		private double errorOfSum;
+		private double mean;
+		private double sumOfSquaredDeviations;
+		private float min;
+		private float max;
+
+		Accumulator(final float[] values, final int from, final int to) {
+			final double shift = values[from];
+
+			/*
+			 * Kahan summation on values[i] and on the (shifted) (values[i]-shift) and (values[i]-shift)^2
+			 */
+			double sum = 0.0;
+			double errorOfSum = 0.0;
+			double sumOfShifted = 0.0;
+			double errorOfSumOfShifted = 0.0;
+			double sumOfSquaredShifted = 0.0;
+			double errorOfSumOfSquaredShifted = 0.0;
+			float min = values[from];
+			float max = values[from];
+			for(int i=from; i<to; i++) {
+				final float x = values[i];
+
+				final double value = x - errorOfSum;
+				final double newSum = sum + value;
+				errorOfSum = (newSum - sum) - value;
+				sum = newSum;
+
+				final double shifted = x - shift;
+				final double valueOfShifted = shifted - errorOfSumOfShifted;
+				final double newSumOfShifted = sumOfShifted + valueOfShifted;
+				errorOfSumOfShifted = (newSumOfShifted - sumOfShifted) - valueOfShifted;
+				sumOfShifted = newSumOfShifted;
+
+				final double valueOfSquaredShifted = shifted * shifted - errorOfSumOfSquaredShifted;
+				final double newSumOfSquaredShifted = sumOfSquaredShifted + valueOfSquaredShifted;
+				errorOfSumOfSquaredShifted = (newSumOfSquaredShifted - sumOfSquaredShifted) - valueOfSquaredShifted;
+				sumOfSquaredShifted = newSumOfSquaredShifted;
+
+				min = Math.min(x, min);
+				max = Math.max(x, max);
+			}
+
+			final int n = to-from;
+			this.numberOfValues = n;
+			this.sum = sum;
+			this.errorOfSum = errorOfSum;
+			this.mean = shift + sumOfShifted / n;
+			this.sumOfSquaredDeviations = Math.max(sumOfSquaredShifted - sumOfShifted * sumOfShifted / n, 0.0);
+			this.min = min;
+			this.max = max;
+		}
+
+		/**
+		 * Combine this accumulator with the accumulator of the subsequent chunk (Chan et al. update of Welford's algorithm).
+		 *
+		 * @param other The accumulator of the subsequent chunk.
+		 * @return This accumulator.
+		 */
+		Accumulator combine(final Accumulator other) {
+			final long n = numberOfValues + other.numberOfValues;
+			final double delta = other.mean - mean;
+
+			sumOfSquaredDeviations += other.sumOfSquaredDeviations + delta * delta * ((double)numberOfValues * other.numberOfValues / n);
+			mean += delta * other.numberOfValues / n;
+
+			final double value = other.sum - errorOfSum;
+			final double newSum = sum + value;
+			errorOfSum = (newSum - sum) - value;
+			sum = newSum;
+
+			numberOfValues = n;
+			min = Math.min(min, other.min);
+			max = Math.max(max, other.max);
+			return this;
+		}
+	}
+}
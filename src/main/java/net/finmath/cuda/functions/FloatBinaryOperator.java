@@ -0,0 +1,25 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.functions;
+
+/**
+ * Represents an operation on two float operands producing a float result.
+ * This is the primitive float specialization analogous to the corresponding <code>java.util.function</code> interfaces for doubles.
+ *
+ * @author Christian Fries
+ */
+@FunctionalInterface
+public interface FloatBinaryOperator {
+
+	/**
+	 * Applies this operator to the given operands.
+	 *
+	 * @param left The first operand.
+	 * @param right The second operand.
+	 * @return The result.
+	 */
+	float applyAsFloat(float left, float right);
+}
@@ -0,0 +1,26 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.functions;
+
+/**
+ * Represents an operation on three float operands producing a float result.
+ * This is the primitive float specialization analogous to the corresponding <code>java.util.function</code> interfaces for doubles.
+ *
+ * @author Christian Fries
+ */
+@FunctionalInterface
+public interface FloatTernaryOperator {
+
+	/**
+	 * Applies this operator to the given operands.
+	 *
+	 * @param x The first operand.
+	 * @param y The second operand.
+	 * @param z The third operand.
+	 * @return The result.
+	 */
+	float applyAsFloat(float x, float y, float z);
+}
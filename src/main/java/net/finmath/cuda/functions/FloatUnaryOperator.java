@@ -0,0 +1,24 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.functions;
+
+/**
+ * Represents an operation on a single float operand producing a float result.
+ * This is the primitive float specialization analogous to the corresponding <code>java.util.function</code> interfaces for doubles.
+ *
+ * @author Christian Fries
+ */
+@FunctionalInterface
+public interface FloatUnaryOperator {
+
+	/**
+	 * Applies this operator to the given operand.
+	 *
+	 * @param operand The operand.
+	 * @return The result.
+	 */
+	float applyAsFloat(float operand);
+}
@@ -0,0 +1,6 @@
+/**
+ * Provides functional interfaces operating on primitive floats.
+ *
+ * @author Christian Fries
+ */
+package net.finmath.cuda.functions;
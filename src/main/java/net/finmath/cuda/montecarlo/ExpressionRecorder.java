@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.finmath.cuda.cpu.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.cuda.montecarlo.fusion.KernelExpression;
+import net.finmath.cuda.montecarlo.fusion.KernelProgram;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Records a chain of element-wise operations on random variables as an expression graph and evaluates it by a single
+ * fused kernel.
+ *
+ * Random variables are recorded via {@link #record(RandomVariable)}, which returns a {@link KernelExpression}
+ * (an input or, for deterministic random variables, a constant). The operations are expressed on these expressions,
+ * e.g., <code>recorder.record(x).mult(2.0).exp().add(recorder.record(y))</code>, and the result is evaluated
+ * via {@link #evaluate(KernelExpression)}.
+ *
+ * If all random variables used by the expression are {@link RandomVariableCuda}, the expression is evaluated on the
+ * device by a generated kernel (compiled once per shape of the expression), otherwise it is evaluated on the host and
+ * a {@link RandomVariableFromFloatArray} is returned.
+ *
+ * @author Christian Fries
+ */
+public class ExpressionRecorder {
+
+	private final List<RandomVariable> inputs = new ArrayList<>();
+	private final Map<RandomVariable, KernelExpression> expressionOfRandomVariable = new IdentityHashMap<>();
+
+	private double time = -Double.MAX_VALUE;
+
+	/**
+	 * Record a random variable.
+	 *
+	 * @param randomVariable The random variable.
+	 * @return The expression representing the random variable.
+	 */
+	public KernelExpression record(final RandomVariable randomVariable) {
+		time = Math.max(time, randomVariable.getFiltrationTime());
+		return expressionOfRandomVariable.computeIfAbsent(randomVariable, key -> {
+			if(key.isDeterministic()) {
+				return KernelExpression.constant(key.doubleValue());
+			}
+			inputs.add(key);
+			return KernelExpression.input(inputs.size()-1);
+		});
+	}
+
+	/**
+	 * Evaluate an expression of the recorded random variables.
+	 *
+	 * @param expression The expression.
+	 * @return The random variable represented by the expression.
+	 */
+	public RandomVariable evaluate(final KernelExpression expression) {
+		final boolean isCuda = inputs.stream().allMatch(RandomVariableCuda.class::isInstance);
+
+		if(expression.isConstant()) {
+			return isCuda && !inputs.isEmpty() ? RandomVariableCuda.of(time, expression.getParameter()) : new RandomVariableFromFloatArray(time, expression.getParameter());
+		}
+
+		final KernelProgram program = KernelProgram.of(expression);
+		final int[] inputIndices = program.getInputIndices();
+
+		if(isCuda) {
+			final RandomVariableCuda[] arguments = new RandomVariableCuda[inputIndices.length];
+			for(int j=0; j<inputIndices.length; j++) {
+				arguments[j] = (RandomVariableCuda)inputs.get(inputIndices[j]);
+			}
+			return RandomVariableCuda.evaluate(program, arguments, time);
+		}
+		else {
+			final float[][] values = new float[inputs.size()][];
+			for(final int inputIndex : inputIndices) {
+				final double[] realizations = inputs.get(inputIndex).getRealizations();
+				values[inputIndex] = new float[realizations.length];
+				for(int i=0; i<realizations.length; i++) {
+					values[inputIndex][i] = (float)realizations[i];
+				}
+			}
+			return new RandomVariableFromFloatArray(time, program.evaluate(values));
+		}
+	}
+}
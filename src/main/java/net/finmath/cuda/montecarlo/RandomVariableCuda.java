@@ -5,49 +5,32 @@
  */
 package net.finmath.cuda.montecarlo;
 
-import static jcuda.driver.JCudaDriver.cuCtxCreate;
-import static jcuda.driver.JCudaDriver.cuCtxSynchronize;
-import static jcuda.driver.JCudaDriver.cuDeviceGet;
-import static jcuda.driver.JCudaDriver.cuDeviceGetCount;
-import static jcuda.driver.JCudaDriver.cuInit;
-import static jcuda.driver.JCudaDriver.cuLaunchKernel;
-import static jcuda.driver.JCudaDriver.cuMemcpyDtoH;
-import static jcuda.driver.JCudaDriver.cuModuleGetFunction;
-import static jcuda.driver.JCudaDriver.cuModuleLoad;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
-import java.lang.ref.WeakReference;
-import java.net.URISyntaxException;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleUnaryOperator;
 import java.util.function.IntToDoubleFunction;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 
-import jcuda.LogLevel;
-import jcuda.Pointer;
-import jcuda.Sizeof;
-import jcuda.driver.CUcontext;
-import jcuda.driver.CUdevice;
-import jcuda.driver.CUdevice_attribute;
 import jcuda.driver.CUdeviceptr;
-import jcuda.driver.CUfunction;
-import jcuda.driver.CUmodule;
-import jcuda.driver.JCudaDriver;
+import net.finmath.cuda.cpu.montecarlo.Histogram;
+import net.finmath.cuda.cpu.montecarlo.OrderStatistics;
 import net.finmath.cuda.cpu.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.cuda.cpu.montecarlo.RandomVariableMoments;
+import net.finmath.cuda.montecarlo.backend.ComputeBackend;
+import net.finmath.cuda.montecarlo.backend.CudaComputeBackend;
+import net.finmath.cuda.montecarlo.backend.HostComputeBackend;
+import net.finmath.cuda.montecarlo.backend.Kernel;
+import net.finmath.cuda.montecarlo.backend.ShardedComputeBackend;
+import net.finmath.cuda.montecarlo.fusion.KernelProgram;
+import net.finmath.cuda.montecarlo.memory.DevicePointerPoolStatistics;
 import net.finmath.functions.DoubleTernaryOperator;
-import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.stochastic.RandomVariable;
 
 /**
@@ -64,12 +47,12 @@ import net.finmath.stochastic.RandomVariable;
  * Accesses performed exclusively through the interface
  * <code>RandomVariable</code> is thread safe (and does not mutate the class).
  *
- * <b>This implementation uses floats for the realizations on a OpenCL device.</b>
+ * <b>This implementation uses floats for the realizations on a Cuda device.</b>
  * There is a CPU implementation in {@link RandomVariableFromFloatArray} which give exactly the same results for all methods (checked by unit test).
  *
  * <b>Configuration</b>
  *
- * The class can be configured with system property to use a chosen OpenCL device. The properties are:
+ * The class can be configured with system property to use a chosen Cuda device. The properties are:
  * <dl>
  * 	<dt>
  * 		"net.finmath.montecarlo.opencl.RandomVariableCuda.deviceIndex"
@@ -80,6 +63,16 @@ import net.finmath.stochastic.RandomVariable;
  * 		That is, a value of -1 selects the last device in the list of devices. To select the dedicated GPU in a MacBook Pro you may use
  * 		"GPU" with index "-1".
  * 	</dd>
+ * 	<dt>
+ * 		"net.finmath.cuda.montecarlo.RandomVariableCuda.backend"
+ * 	</dt>
+ * 	<dd>
+ * 		selecting the default {@link ComputeBackend}: "cuda" (default) for {@link CudaComputeBackend}, "sharded" for
+ * 		{@link ShardedComputeBackend}, partitioning the paths across several GPUs (all devices or the comma separated list of indices
+ * 		given by "net.finmath.cuda.montecarlo.RandomVariableCuda.deviceIndices"), or "host" for {@link HostComputeBackend},
+ * 		emulating the device on the host. Random variables on a specific backend can be created via
+ * 		{@link #RandomVariableCuda(ComputeBackend, double, float[])} or {@link RandomVariableCudaFactory#RandomVariableCudaFactory(ComputeBackend)}.
+ * 	</dd>
  * </dl>
  *
  * @author Christian Fries
@@ -92,477 +85,107 @@ public class RandomVariableCuda implements RandomVariable {
 	 *
 	 * This wrapper is mainly used to track, when references to device pointers are de-referenced, which then triggers
 	 * a recycling of the device vector.
+	 *
+	 * The device vector may also be returned to the memory pool explicitly by calling {@link #close()}
+	 * (e.g. using try-with-resources in hot loops), which does not require the garbage collector. Closing is idempotent.
+	 * The reference (and any random variable using it) must not be used after it has been closed.
 	 */
-	public static class DevicePointerReference {
+	public static class DevicePointerReference implements AutoCloseable {
 		private final CUdeviceptr devicePointer;
+		private final Runnable releaseAction;
+		private final AtomicBoolean isReleased = new AtomicBoolean(false);
+		private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
 
-		public DevicePointerReference(final CUdeviceptr devicePointer) {
+		/**
+		 * Create a reference to a device pointer.
+		 *
+		 * @param devicePointer The device pointer.
+		 * @param releaseAction An action returning the device vector to its pool (called once upon {@link #close()}), may be null.
+		 */
+		public DevicePointerReference(final CUdeviceptr devicePointer, final Runnable releaseAction) {
 			this.devicePointer = devicePointer;
+			this.releaseAction = releaseAction;
 		}
 
-		public CUdeviceptr get() {
-			return devicePointer;
+		public DevicePointerReference(final CUdeviceptr devicePointer) {
+			this(devicePointer, null);
 		}
-	}
-
-	/**
-	 * A memory pool for the GPU vectors.
-	 *
-	 * The memory pool is provided for vectors of different length.
-	 *
-	 * Implementation details:
-	 * The map vectorsToRecycleReferenceQueueMap maps each vector length to a ReferenceQueue&lt;DevicePointerReference&gt; holding
-	 * reference of recyclable vectors. The map vectorsInUseReferenceMap maps this weak reference to a Cuda vector.
-	 *
-	 * @author Christian Fries
-	 */
-	private static class DeviceMemoryPool {
-
-		private final Object lock = new Object();
-
-		/**
-		 * For each vector size this map stores <code>ReferenceQueue&lt;DevicePointerReference&gt;</code>. The garbadge collector
-		 * will put <code>WeakReference&lt;DevicePointerReference&gt;</code> into this queue once the
-		 * <code>DevicePointerReference</code>-object has become de-referenced.
-		 */
-		private final Map<Integer, ReferenceQueue<DevicePointerReference>>		vectorsToRecycleReferenceQueueMap	= new ConcurrentHashMap<Integer, ReferenceQueue<DevicePointerReference>>();
-
-		/**
-		 * This map allow to recover the device pointer for a given <code>WeakReference&lt;DevicePointerReference&gt;</code>.
-		 */
-		private final Map<WeakReference<DevicePointerReference>, CUdeviceptr>	vectorsInUseReferenceMap			= new ConcurrentHashMap<WeakReference<DevicePointerReference>, CUdeviceptr>();
-
-		/**
-		 * Percentage of device memory at which we will trigger System.gc() to aggressively reduce references.
-		 */
-		private final float	vectorsRecyclerPercentageFreeToStartGC		= 0.15f;		// should be set by monitoring GPU mem
-
-		/**
-		 * Percentage of device memory at which we will try to wait a few milliseconds for recycled objects.
-		 */
-		private final float	vectorsRecyclerPercentageFreeToWaitForGC	= 0.05f;		// should be set by monitoring GPU mem
-
-		/**
-		 * Maximum time to wait for object recycled objects. (Higher value slows down the code, but prevents out-of-memory).
-		 */
-		private final long	vectorsRecyclerMaxTimeOutMillis			= 1000;
-
-		private long	deviceAllocMemoryBytes = 0;
-		private long	deviceMaxMemoryBytes;
-
-		private final int blockSizeX;
-
-		private final ExecutorService deviceExecutor = Executors.newSingleThreadExecutor();
-		private final CUdevice device = new CUdevice();
-		private final CUcontext context = new CUcontext();
-		private final CUmodule module = new CUmodule();
-
-		DeviceMemoryPool() {
-			final int		cudaDeviceIndex = Integer.parseInt(System.getProperty("net.finmath.montecarlo.opencl.RandomVariableCuda.deviceIndex", "-1"));
-			logger.config("Configured class with device index " + cudaDeviceIndex);
 
-			// Initalize cuda
-
-			// Enable exceptions and omit all subsequent error checks
-			JCudaDriver.setExceptionsEnabled(true);
-			JCudaDriver.setLogLevel(LogLevel.LOG_ERROR);
-
-			// Initialize the driver and create a context for the first device.
-			cuInit(0);
-
-			final int[] numDevices = new int[1];
-			cuDeviceGetCount(numDevices);
-			logger.config("Found " + numDevices[0]);
-
-			int deviceIndex = cudaDeviceIndex >= 0 ? cudaDeviceIndex : numDevices[0] + cudaDeviceIndex;
-			logger.config("Using device " + deviceIndex);
-
-			cuDeviceGet(device, deviceIndex);
-
-			/*
-			 * Set blockSize according to compute capabilities
-			 */
-			final int[] majorComputeCapability = new int[1];
-			final int[] minorComputeCapability = new int[1];
-			JCudaDriver.cuDeviceGetAttribute(majorComputeCapability, CUdevice_attribute.CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MAJOR, device);
-			JCudaDriver.cuDeviceGetAttribute(minorComputeCapability, CUdevice_attribute.CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MINOR, device);
-			if(majorComputeCapability[0] >= 2) {
-				blockSizeX = 1024;
-			}
-			else {
-				blockSizeX = 512;
-			}
-
-			/*
-			 * Set arch
-			 */
-			final String arch = "sm_" + majorComputeCapability[0] + minorComputeCapability[0];
-
-			// Create the PTX file by calling the NVCC
-			String ptxFileName = null;
-			try(InputStream cuFileStream = RandomVariableCuda.class.getResourceAsStream("/net/finmath/cuda/montecarlo/RandomVariableCudaKernel.cu")) {
-				ptxFileName = net.finmath.jcuda.JCudaUtils.preparePtxFile(cuFileStream, arch);
-			} catch (IOException | URISyntaxException e) {
-				e.printStackTrace();
+		public CUdeviceptr get() {
+			if(isReleased.get()) {
+				throw new IllegalStateException("Device pointer has been released.");
 			}
-
-			final String ptxFileName2 = ptxFileName;
-			deviceExecutor.submit(() -> {
-				//				cuCtxCreate(context, jcuda.driver.CUctx_flags.CU_CTX_SCHED_BLOCKING_SYNC, device);
-				cuCtxCreate(context, jcuda.driver.CUctx_flags.CU_CTX_SCHED_AUTO, device);
-
-				// Load the ptx file.
-				cuModuleLoad(module, ptxFileName2);
-
-				// Obtain a function pointers
-				cuModuleGetFunction(capByScalar, module, "capByScalar");
-				cuModuleGetFunction(floorByScalar, module, "floorByScalar");
-				cuModuleGetFunction(addScalar, module, "addScalar");
-				cuModuleGetFunction(subScalar, module, "subScalar");
-				cuModuleGetFunction(busScalar, module, "busScalar");
-				cuModuleGetFunction(multScalar, module, "multScalar");
-				cuModuleGetFunction(divScalar, module, "divScalar");
-				cuModuleGetFunction(vidScalar, module, "vidScalar");
-				cuModuleGetFunction(cuPow, module, "cuPow");
-				cuModuleGetFunction(cuSqrt, module, "cuSqrt");
-				cuModuleGetFunction(cuExp, module, "cuExp");
-				cuModuleGetFunction(cuLog, module, "cuLog");
-				cuModuleGetFunction(invert, module, "invert");
-				cuModuleGetFunction(cuAbs, module, "cuAbs");
-				cuModuleGetFunction(cap, module, "cap");
-				cuModuleGetFunction(cuFloor, module, "cuFloor");
-				cuModuleGetFunction(add, module, "add");
-				cuModuleGetFunction(sub, module, "sub");
-				cuModuleGetFunction(mult, module, "mult");
-				cuModuleGetFunction(cuDiv, module, "cuDiv");
-				cuModuleGetFunction(accrue, module, "accrue");
-				cuModuleGetFunction(discount, module, "discount");
-				cuModuleGetFunction(addProduct, module, "addProduct");
-				cuModuleGetFunction(addProduct_vs, module, "addProduct_vs");
-				cuModuleGetFunction(reducePartial, module, "reducePartial");
-				cuModuleGetFunction(reduceFloatVectorToDoubleScalar, module, "reduceFloatVectorToDoubleScalar");
-
-
-				final long[] free = new long[1];
-				final long[] total = new long[1];
-				jcuda.runtime.JCuda.cudaMemGetInfo(free, total);
-				deviceMaxMemoryBytes = total[0];
-				deviceAllocMemoryBytes = total[0]-free[0];
-
-				Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-					DeviceMemoryPool.this.purge();
-					deviceExecutor.shutdown();
-					try {
-						deviceExecutor.awaitTermination(1, TimeUnit.SECONDS);
-					} catch (final InterruptedException e) {
-						// TODO Auto-generated catch block
-						e.printStackTrace();
-					}
-				}));
-			});
-
+			return devicePointer;
 		}
 
 		/**
-		 * Get a Java object ({@link DevicePointerReference}) representing a vector allocated on the GPU memory (device memory).
-		 *
-		 * If this object is the wrapped into a {@link RandomVariableCuda} via {@link RandomVariableCuda#of(double, DevicePointerReference, long)}
-		 * you may perform arithmetic operations on it.
-		 *
-		 * Note: You will likely not use this method directly. Instead use {@link #getDevicePointer(float[])} which will
-		 * call this method and initialize the vector to the given values.
-		 *
-		 * The object is "managed" in the sense the once the object is dereferenced the GPU memory will be marked for re-use (or freed at a later time).
-		 *
-		 * @param size The size of the vector as multiples of sizeof(float). (To allocated a double vector use twice the size).
-		 * @return An object representing a vector allocated on the GPU memory.
+		 * @return True, if this reference has been closed, i.e., the device vector has been returned to the pool.
 		 */
-		public DevicePointerReference getDevicePointer(final long size) {
-			if(logger.isLoggable(Level.FINEST)) {
-				final StringBuilder stringBuilder = new StringBuilder();
-				stringBuilder.append("Memory pool stats: ");
-				stringBuilder.append("  vector sizes: ");
-				for(final Map.Entry<Integer, ReferenceQueue<DevicePointerReference>> entry : vectorsToRecycleReferenceQueueMap.entrySet()) {
-					stringBuilder.append("    " + entry.getKey());
-				}
-				stringBuilder.append("  total number of vectors: " + vectorsInUseReferenceMap.size());
-				logger.finest(stringBuilder.toString());
-			}
-
-			CUdeviceptr cuDevicePtr = null;
-
-			// Check for object to recycle
-			final ReferenceQueue<DevicePointerReference> vectorsToRecycleReferenceQueue = vectorsToRecycleReferenceQueueMap.computeIfAbsent(new Integer((int)size), key ->  {
-				logger.fine("Creating reference queue for vector size " + size);
-				return new ReferenceQueue<DevicePointerReference>();
-			});
-
-			Reference<? extends DevicePointerReference> reference = vectorsToRecycleReferenceQueue.poll();
-			if(reference != null) {
-				cuDevicePtr = vectorsInUseReferenceMap.remove(reference);
-				if(logger.isLoggable(Level.FINEST)) {
-					logger.finest("Recycling (1) device pointer " + cuDevicePtr + " from " + reference);
-				}
-			}
-			else {
-				final float deviceFreeMemPercentage = getDeviceFreeMemPercentage();
-
-				// No pointer found, try GC if we are above a critical level
-				if(deviceFreeMemPercentage < vectorsRecyclerPercentageFreeToStartGC && deviceFreeMemPercentage >= vectorsRecyclerPercentageFreeToWaitForGC) {
-					System.gc();
-					System.runFinalization();
-
-					if(logger.isLoggable(Level.FINEST)) {
-						logger.fine("Device free memory " + deviceFreeMemPercentage*100 + "%");
-					}
-
-					reference = vectorsToRecycleReferenceQueue.poll();
-				}
-
-				// Wait for GC
-				if(reference == null && deviceFreeMemPercentage < vectorsRecyclerPercentageFreeToWaitForGC) {
-					/*
-					 * Try to obtain a reference after GC, retry with waits for 1 ms, 10 ms, 100 ms, ...
-					 */
-					System.gc();
-
-					long timeOut = 1;
-					while(reference == null && timeOut < vectorsRecyclerMaxTimeOutMillis) {
-						try {
-							reference = vectorsToRecycleReferenceQueue.remove(timeOut);
-							timeOut *= 4;
-						} catch (IllegalArgumentException | InterruptedException e) {}
-					}
-
-					if(reference == null) {
-						// Still no pointer found for requested size, consider cleaning all (also other sizes)
-						logger.fine("Last resort: Cleaning all unused vectors on device. Device free memory " + deviceFreeMemPercentage*100 + "%");
-						clean();
-					}
-				}
-
-				if(reference != null) {
-					if(logger.isLoggable(Level.FINEST)) {
-						logger.finest("Recycling (2) device pointer " + cuDevicePtr + " from " + reference);
-					}
-					cuDevicePtr = vectorsInUseReferenceMap.remove(reference);
-				}
-			}
-
-			if(cuDevicePtr == null)  {
-				// Still no pointer found, create new one
-				try {
-					cuDevicePtr = deviceExecutor.submit(() -> {
-						CUdeviceptr cuDevicePtrNew = new CUdeviceptr();
-						final int succ = JCudaDriver.cuMemAlloc(cuDevicePtrNew, size * Sizeof.FLOAT);
-						if(succ != 0) {
-							cuDevicePtrNew = null;
-							final String[] cudaErrorName = new String[1];
-							JCudaDriver.cuGetErrorName(succ, cudaErrorName);
-							final String[] cudaErrorDescription = new String[1];
-							JCudaDriver.cuGetErrorString(succ, cudaErrorDescription);
-
-							logger.warning("Failed creating device vector with size=" + size + " with error "+ cudaErrorName + ": " + cudaErrorDescription);
-						}
-						return cuDevicePtrNew;
-					}).get();
-				} catch (InterruptedException | ExecutionException e) {
-					logger.severe("Failed to allocate device vector with size=" + size + ". Cause: " + e.getCause());
-				}
-
-				if(cuDevicePtr == null) {
-					logger.severe("Failed to allocate device vector with size=" + size);
-					throw new OutOfMemoryError("Failed to allocate device vector with size=" + size);
-				}
-
-				deviceAllocMemoryBytes += size * Sizeof.FLOAT;
-			}
-
-			/*
-			 * Manage the pointer
-			 */
-			final DevicePointerReference devicePointerReference = new DevicePointerReference(cuDevicePtr);
-			vectorsInUseReferenceMap.put(new WeakReference<DevicePointerReference>(devicePointerReference, vectorsToRecycleReferenceQueue), cuDevicePtr);
-
-			return devicePointerReference;
+		public boolean isReleased() {
+			return isReleased.get();
 		}
 
 		/**
-		 * Free all unused device memory.
+		 * Mark the device vector as invalid, because the (asynchronous) kernel launch writing it has failed.
+		 * Only the first failure is kept.
+		 *
+		 * @param failure The failure of the kernel launch.
 		 */
-		public void clean() {
-			synchronized (lock)
-			{
-				logger.fine("Cleaning device pointers");
-
-				// Clean up all remaining pointers
-				for(final Entry<Integer, ReferenceQueue<DevicePointerReference>> entry : vectorsToRecycleReferenceQueueMap.entrySet()) {
-					final int size = entry.getKey();
-					final ReferenceQueue<DevicePointerReference> vectorsToRecycleReferenceQueue = entry.getValue();
-
-					Reference<? extends DevicePointerReference> reference;
-					while((reference = vectorsToRecycleReferenceQueue.poll()) != null) {
-						final CUdeviceptr cuDevicePtr = vectorsInUseReferenceMap.remove(reference);
-						if(logger.isLoggable(Level.FINEST)) {
-							logger.finest("Freeing device pointer " + cuDevicePtr + " from " + reference);
-						}
-						try {
-							deviceExecutor.submit(() -> {
-								cuCtxSynchronize();
-								JCudaDriver.cuMemFree(cuDevicePtr);
-							}).get();
-						} catch (InterruptedException | ExecutionException e) {
-							logger.severe("Unable to free pointer " + cuDevicePtr + " from " + reference);
-							throw new RuntimeException(e.getCause());
-						}
-						deviceAllocMemoryBytes -= size * Sizeof.FLOAT;
-					}
-				}
-			}
-		}
-
-		public void purge() {
-			System.gc();
-			System.runFinalization();
-			clean();
-			logger.fine("Cuda vectors in use: " + vectorsInUseReferenceMap.size() + ". Available device memory: " + getDeviceFreeMemPercentage()*100 + "%");
+		public void setFailure(final RuntimeException failure) {
+			this.failure.compareAndSet(null, failure);
 		}
 
 		/**
-		 *
-		 * @return Returns the (estimated) percentage amount of free memory on the device.
+		 * @return The failure of the kernel launch writing the device vector, or null if the launch has not failed (or is pending).
 		 */
-		private float getDeviceFreeMemPercentage() {
-			float freeRate;// = 1.0f - 1.1f * (float)deviceAllocMemoryBytes / (float)deviceMaxMemoryBytes;
-			try {
-				freeRate = deviceExecutor.submit(() -> {
-					final long[] free = new long[1];
-					final long[] total = new long[1];
-					jcuda.runtime.JCuda.cudaMemGetInfo(free, total);
-					return ((float)free[0]/(total[0]));
-				}).get();
-			} catch (InterruptedException | ExecutionException e) {
-				freeRate = 0;
-			}
-			//			System.out.println("Cuda: " + deviceMemoryPool.vectorsInUseReferenceMap.size() + "\t" + freeRate);
-			return freeRate;
+		public RuntimeException getFailure() {
+			return failure.get();
 		}
 
 		/**
-		 * Create a vector on device and copy host vector to it.
-		 *
-		 * @param values Host vector.
-		 * @return Pointer to device vector.
+		 * Return the device vector to the memory pool. Subsequent calls have no effect.
 		 */
-		public DevicePointerReference getDevicePointer(final float[] values) {
-			final DevicePointerReference devicePointerReference = getDevicePointer(values.length);
-			try {
-				deviceExecutor.submit(() -> {
-					cuCtxSynchronize();
-					JCudaDriver.cuMemcpyHtoD(devicePointerReference.get(), Pointer.to(values), (long)values.length * Sizeof.FLOAT);
-				}).get();
-			} catch (InterruptedException | ExecutionException e) { throw new RuntimeException(e.getCause()); }
-
-			return devicePointerReference;
-		}
-
-		public float[] getValuesAsFloat(final DevicePointerReference devicePtr, final int size) {
-			final float[] result = new float[size];
-			try {
-				deviceExecutor.submit(() -> {
-					cuCtxSynchronize();
-					cuMemcpyDtoH(Pointer.to(result), devicePtr.get(), size * Sizeof.FLOAT);
-					cuCtxSynchronize();
-				}).get();
-			} catch (InterruptedException | ExecutionException e) {
-				throw new RuntimeException(e.getCause());
+		@Override
+		public void close() {
+			if(isReleased.compareAndSet(false, true) && releaseAction != null) {
+				releaseAction.run();
 			}
-			return result;
-		}
-
-		public DevicePointerReference callFunctionv1s0(final CUfunction function, final long resultSize, final DevicePointerReference argument1) {
-				final DevicePointerReference result = getDevicePointer(resultSize);
-				callFunction(function, resultSize, new Pointer[] {
-						Pointer.to(new int[] { (int)resultSize }),
-						Pointer.to(argument1.get()),
-						Pointer.to(result.get()) }
-						);
-				return result;
-		}
-
-		public DevicePointerReference callFunctionv2s0(final CUfunction function, final long resultSize, final DevicePointerReference argument1, final DevicePointerReference argument2) {
-				final DevicePointerReference result = getDevicePointer(resultSize);
-				callFunction(function, resultSize, new Pointer[] {
-						Pointer.to(new int[] { (int)resultSize }),
-						Pointer.to(argument1.get()),
-						Pointer.to(argument2.get()),
-						Pointer.to(result.get()) }
-						);
-				return result;
-		}
-
-		public DevicePointerReference callFunctionv3s0(final CUfunction function, final long resultSize, final DevicePointerReference argument1, final DevicePointerReference argument2, final DevicePointerReference argument3) {
-				final DevicePointerReference result = getDevicePointer(resultSize);
-				callFunction(function, resultSize, new Pointer[] {
-						Pointer.to(new int[] { (int)resultSize }),
-						Pointer.to(argument1.get()),
-						Pointer.to(argument2.get()),
-						Pointer.to(argument3.get()),
-						Pointer.to(result.get()) }
-						);
-				return result;
-		}
-
-		public DevicePointerReference callFunctionv1s1(final CUfunction function, final long resultSize, final DevicePointerReference argument1, final double value) {
-				final DevicePointerReference result = getDevicePointer(resultSize);
-				callFunction(function, resultSize, new Pointer[] {
-						Pointer.to(new int[] { (int)resultSize }),
-						Pointer.to(argument1.get()),
-						Pointer.to(new float[] { (float)value }),
-						Pointer.to(result.get()) }
-						);
-				return result;
-		}
-
-		public DevicePointerReference callFunctionv2s1(final CUfunction function, final long resultSize, final DevicePointerReference argument1, final DevicePointerReference argument2, final double value) {
-				final DevicePointerReference result = getDevicePointer(resultSize);
-				callFunction(function, resultSize, new Pointer[] {
-						Pointer.to(new int[] { (int)resultSize }),
-						Pointer.to(argument1.get()),
-						Pointer.to(argument2.get()),
-						Pointer.to(new float[] { (float)value }),
-						Pointer.to(result.get()) }
-						);
-				return result;
-		}
-
-		public void callFunction(final CUfunction function, final long resultSize, final Pointer[] arguments) {
-			final int gridSizeX = (int)Math.ceil((double)resultSize / blockSizeX);
-			callFunction(function, arguments, gridSizeX, blockSizeX, 0);
-		}
-
-		public void callFunction(final CUfunction function, final Pointer[] arguments, final int gridSizeX, final int blockSizeX, final int sharedMemorySize) {
-			// Set up the kernel parameters: A pointer to an array
-			// of pointers which point to the actual values.
-			final Pointer kernelParameters = Pointer.to(arguments);
-
-			deviceExecutor.submit(() ->
-			cuLaunchKernel(function,
-					gridSizeX,  1, 1,      // Grid dimension
-					blockSizeX, 1, 1,      // Block dimension
-					sharedMemorySize * Sizeof.FLOAT, null,               // Shared memory size and stream
-					kernelParameters, null // Kernel- and extra parameters
-					)
-					);
 		}
 	}
 
 	private static final Logger logger = Logger.getLogger("net.finmath");
 
-	private static DeviceMemoryPool deviceMemoryPool = new DeviceMemoryPool();
+	/**
+	 * Lazy creation of the default backend (on first use of the class).
+	 */
+	private static class DefaultBackendHolder {
+		private static final ComputeBackend backend = createBackend(System.getProperty("net.finmath.cuda.montecarlo.RandomVariableCuda.backend", "cuda"));
+
+		private static ComputeBackend createBackend(final String name) {
+			logger.config("Using backend " + name);
+			switch(name) {
+			case "cuda":
+				return new CudaComputeBackend();
+			case "host":
+				return new HostComputeBackend();
+			case "sharded":
+				final String deviceIndices = System.getProperty("net.finmath.cuda.montecarlo.RandomVariableCuda.deviceIndices");
+				if(deviceIndices == null) {
+					return ShardedComputeBackend.ofAllCudaDevices();
+				}
+				else {
+					return ShardedComputeBackend.ofCudaDevices(Arrays.stream(deviceIndices.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray());
+				}
+			default:
+				throw new IllegalArgumentException("Unknown backend " + name + ". Supported backends are cuda, sharded and host.");
+			}
+		}
+	}
 
 	private static final long serialVersionUID = 7620120320663270600L;
 
+	private final ComputeBackend backend;
+
 	private final double      time;	                // Time (filtration)
 
 	private static final int typePriorityDefault = 20;
@@ -576,35 +199,8 @@ public class RandomVariableCuda implements RandomVariable {
 	// Data model for the non-stochastic case (if realizations==null)
 	private final double      valueIfNonStochastic;
 
-	private static final CUfunction capByScalar = new CUfunction();
-	private static final CUfunction floorByScalar = new CUfunction();
-	private static final CUfunction addScalar = new CUfunction();
-	private static final CUfunction subScalar = new CUfunction();
-	private static final CUfunction busScalar = new CUfunction();
-	private static final CUfunction multScalar = new CUfunction();
-	private static final CUfunction divScalar = new CUfunction();
-	private static final CUfunction vidScalar = new CUfunction();
-	private static final CUfunction cuPow = new CUfunction();
-	private static final CUfunction cuSqrt = new CUfunction();
-	private static final CUfunction cuExp = new CUfunction();
-	private static final CUfunction cuLog = new CUfunction();
-	private static final CUfunction invert = new CUfunction();
-	private static final CUfunction cuAbs = new CUfunction();
-	private static final CUfunction cap = new CUfunction();
-	private static final CUfunction cuFloor = new CUfunction();
-	private static final CUfunction add = new CUfunction();
-	private static final CUfunction sub = new CUfunction();
-	private static final CUfunction mult = new CUfunction();
-	private static final CUfunction cuDiv = new CUfunction();
-	private static final CUfunction accrue = new CUfunction();
-	private static final CUfunction discount = new CUfunction();
-	private static final CUfunction addProduct = new CUfunction();
-	private static final CUfunction addProduct_vs = new CUfunction();		// add the product of a vector and a scalar
-	private static final CUfunction reducePartial = new CUfunction();
-	private static final CUfunction reduceFloatVectorToDoubleScalar = new CUfunction();
-
-	private static final int reduceGridSize = 1024;
-
+	// Cached moments of the realizations (calculated on demand)
+	private transient volatile RandomVariableMoments moments;
 
 	/**
 	 * Create a <code>RandomVariableCuda</code>.
@@ -616,7 +212,7 @@ public class RandomVariableCuda implements RandomVariable {
 	 * @return A new instance of RandomVariableCuda wrapping the given DevicePointerReference.
 	 */
 	public static RandomVariableCuda of(final double time, final DevicePointerReference realizations, final long size, final int typePriority) {
-		final RandomVariableCuda randomVariableCuda = new RandomVariableCuda(time, realizations, size, typePriority);
+		final RandomVariableCuda randomVariableCuda = new RandomVariableCuda(getDefaultBackend(), time, realizations, size, typePriority);
 		return randomVariableCuda;
 	}
 
@@ -629,7 +225,20 @@ public class RandomVariableCuda implements RandomVariable {
 	 * @return A new instance of RandomVariableCuda wrapping the given DevicePointerReference.
 	 */
 	public static RandomVariableCuda of(final double time, final DevicePointerReference realizations, final long size) {
-		final RandomVariableCuda randomVariableCuda = new RandomVariableCuda(time, realizations, size, typePriorityDefault);
+		return of(getDefaultBackend(), time, realizations, size);
+	}
+
+	/**
+	 * Create a <code>RandomVariableCuda</code> on a given backend.
+	 *
+	 * @param backend The backend which has allocated the vector.
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations A <code>DevicePointerReference</code> referencing a vector with the given size. Use {@link ComputeBackend#getDevicePointer(long)} to create one.
+	 * @param size The size of the vector associated with <code>DevicePointerReference</code>.
+	 * @return A new instance of RandomVariableCuda wrapping the given DevicePointerReference.
+	 */
+	public static RandomVariableCuda of(final ComputeBackend backend, final double time, final DevicePointerReference realizations, final long size) {
+		final RandomVariableCuda randomVariableCuda = new RandomVariableCuda(backend, time, realizations, size, typePriorityDefault);
 		return randomVariableCuda;
 	}
 
@@ -641,17 +250,31 @@ public class RandomVariableCuda implements RandomVariable {
 	 * @return A new instance of RandomVariableCuda with a constant value.
 	 */
 	public static RandomVariableCuda of(final double time, final double value) {
-		final RandomVariableCuda randomVariableCuda = new RandomVariableCuda(time, value, typePriorityDefault);
+		return of(getDefaultBackend(), time, value);
+	}
+
+	/**
+	 * Create a non stochastic random variable, i.e. a constant, on a given backend.
+	 *
+	 * @param backend The backend used for operations with this random variable.
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param value the value, a constant.
+	 * @return A new instance of RandomVariableCuda with a constant value.
+	 */
+	public static RandomVariableCuda of(final ComputeBackend backend, final double time, final double value) {
+		final RandomVariableCuda randomVariableCuda = new RandomVariableCuda(backend, time, value, typePriorityDefault);
 		return randomVariableCuda;
 	}
 
 	/**
+	 * @param backend The backend which has allocated the vector.
 	 * @param time the filtration time, set to 0.0 if not used.
 	 * @param realizations A <code>DevicePointerReference</code> referencing a {@link CUdeviceptr} with the given size. Use {@link #getDevicePointer(long)} to create one.
 	 * @param size The size of the vector associated with <code>DevicePointerReference</code>.
 	 * @param typePriority The priority of this type in construction of result types. See "operator type priority" for details.
 	 */
-	private RandomVariableCuda(final double time, final DevicePointerReference realizations, final long size, final int typePriority) {
+	private RandomVariableCuda(final ComputeBackend backend, final double time, final DevicePointerReference realizations, final long size, final int typePriority) {
+		this.backend = backend;
 		this.time = time;
 		this.realizations = realizations;
 		this.size = size;
@@ -659,6 +282,21 @@ public class RandomVariableCuda implements RandomVariable {
 		this.typePriority = typePriority;
 	}
 
+	/**
+	 * @param backend The backend used for operations with this random variable.
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param value the value, a constant.
+	 * @param typePriority The priority of this type in construction of result types. See "operator type priority" for details.
+	 */
+	private RandomVariableCuda(final ComputeBackend backend, final double time, final double value, final int typePriority) {
+		this.backend = backend;
+		this.time = time;
+		this.realizations = null;
+		this.size = 1;
+		this.valueIfNonStochastic = value;
+		this.typePriority = typePriority;
+	}
+
 	/**
 	 * Create a non stochastic random variable, i.e. a constant.
 	 *
@@ -676,11 +314,7 @@ public class RandomVariableCuda implements RandomVariable {
 	 * @param typePriority The priority of this type in construction of result types. See "operator type priority" for details.
 	 */
 	public RandomVariableCuda(final double time, final double value, final int typePriority) {
-		this.time = time;
-		this.realizations = null;
-		this.size = 1;
-		this.valueIfNonStochastic = value;
-		this.typePriority = typePriority;
+		this(getDefaultBackend(), time, value, typePriority);
 	}
 
 	/**
@@ -691,7 +325,7 @@ public class RandomVariableCuda implements RandomVariable {
 	 * @param typePriority The priority of this type in construction of result types. See "operator type priority" for details.
 	 */
 	public RandomVariableCuda(final double time, final float[] realisations, final int typePriority) {
-		this(time, getDevicePointer(realisations), realisations.length, typePriority);
+		this(getDefaultBackend(), time, getDefaultBackend().getDevicePointer(realisations), realisations.length, typePriority);
 	}
 
 	/**
@@ -711,7 +345,7 @@ public class RandomVariableCuda implements RandomVariable {
 	 * @param realisations the vector of realizations.
 	 */
 	public RandomVariableCuda(final double time, final float[] realisations) {
-		this(time, getDevicePointer(realisations), realisations.length, typePriorityDefault);
+		this(getDefaultBackend(), time, realisations);
 	}
 
 	/**
@@ -733,38 +367,124 @@ public class RandomVariableCuda implements RandomVariable {
 		this(0.0, realisations);
 	}
 
+	/**
+	 * Create a stochastic random variable on a given backend.
+	 *
+	 * @param backend The backend storing the realizations and performing the operations.
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realisations the vector of realizations.
+	 */
+	public RandomVariableCuda(final ComputeBackend backend, final double time, final float[] realisations) {
+		this(backend, time, backend.getDevicePointer(realisations), realisations.length, typePriorityDefault);
+	}
 
-	public static DevicePointerReference getDevicePointer(final long size) {
-		return deviceMemoryPool.getDevicePointer(size);
+	/**
+	 * Create a stochastic random variable on a given backend.
+	 *
+	 * @param backend The backend storing the realizations and performing the operations.
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realisations the vector of realizations.
+	 */
+	public RandomVariableCuda(final ComputeBackend backend, final double time, final double[] realisations) {
+		this(backend, time, getFloatArray(realisations));
 	}
 
 	/**
-	 * Create a vector on device and copy host vector to it.
+	 * Returns the default backend. The backend is selected by the system property
+	 * <code>net.finmath.cuda.montecarlo.RandomVariableCuda.backend</code>, being "cuda" (default), "sharded" or "host".
+	 * The backend is created on first use.
 	 *
-	 * @param values Host vector.
-	 * @return Pointer to device vector.
+	 * @return The default backend.
 	 */
-	private static DevicePointerReference getDevicePointer(final float[] values) {
-		return deviceMemoryPool.getDevicePointer(values);
+	public static ComputeBackend getDefaultBackend() {
+		return DefaultBackendHolder.backend;
+	}
+
+	/**
+	 * @return The backend storing the realizations of this random variable and performing its operations.
+	 */
+	public ComputeBackend getBackend() {
+		return backend;
+	}
+
+	public static DevicePointerReference getDevicePointer(final long size) {
+		return getDefaultBackend().getDevicePointer(size);
 	}
 
 	public static void clean() {
-		deviceMemoryPool.clean();
+		getDefaultBackend().clean();
 	}
 
 	public static void purge() {
-		deviceMemoryPool.purge();
+		getDefaultBackend().purge();
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of the device memory pool of the default backend.
+	 * For the Cuda backend the statistics are also available via JMX under the name "net.finmath.cuda:type=DeviceMemoryPool".
+	 *
+	 * @return A snapshot of the statistics of the device memory pool.
+	 */
+	public static DevicePointerPoolStatistics getDeviceMemoryPoolStatistics() {
+		return getDefaultBackend().getStatistics();
 	}
 
-	private static RandomVariableCuda getRandomVariableCuda(final RandomVariable randomVariable) {
-		if(randomVariable instanceof RandomVariableCuda) {
+	/**
+	 * Evaluate the program of a fused expression by a single (generated) kernel, see {@link ExpressionRecorder}.
+	 * The kernel is compiled once per shape of the expression.
+	 *
+	 * @param program The program.
+	 * @param arguments The (stochastic) random variables used by the program, in the order given by {@link KernelProgram#getInputIndices()}.
+	 * @param time The filtration time of the result.
+	 * @return The result.
+	 */
+	static RandomVariableCuda evaluate(final KernelProgram program, final RandomVariableCuda[] arguments, final double time) {
+		final ComputeBackend backend = arguments[0].backend;
+		final long resultSize = arguments[0].size();
+		final DevicePointerReference[] argumentPointers = new DevicePointerReference[arguments.length];
+		for(int j=0; j<arguments.length; j++) {
+			if(arguments[j].isDeterministic() || arguments[j].size() != resultSize) {
+				throw new IllegalArgumentException("The inputs of a fused kernel have to be stochastic and of the same size.");
+			}
+			argumentPointers[j] = arguments[0].getRandomVariableCuda(arguments[j]).realizations;
+		}
+
+		final DevicePointerReference result = backend.callFusedKernel(program, argumentPointers, resultSize);
+		return RandomVariableCuda.of(backend, time, result, resultSize);
+	}
+
+	/**
+	 * Returns the given random variable as a <code>RandomVariableCuda</code> on the backend of this random variable,
+	 * copying the realizations if required.
+	 *
+	 * @param randomVariable A random variable.
+	 * @return A <code>RandomVariableCuda</code> on the backend of this random variable.
+	 */
+	private RandomVariableCuda getRandomVariableCuda(final RandomVariable randomVariable) {
+		if(randomVariable instanceof RandomVariableCuda && (randomVariable.isDeterministic() || ((RandomVariableCuda)randomVariable).backend == backend)) {
 			return (RandomVariableCuda)randomVariable;
 		} else {
-			final RandomVariableCuda randomVariableCuda = new RandomVariableCuda(randomVariable.getFiltrationTime(), randomVariable.getRealizations());
+			final RandomVariableCuda randomVariableCuda = new RandomVariableCuda(backend, randomVariable.getFiltrationTime(), randomVariable.getRealizations());
 			return randomVariableCuda;
 		}
 	}
 
+	/**
+	 * Returns the device vector of the given random variable on the backend of this random variable. If the realizations
+	 * have to be copied to the device, the copy is added to the given list, such that the caller can release it.
+	 *
+	 * @param randomVariable A random variable.
+	 * @param temporaries List receiving the copies created by this method.
+	 * @return The device vector of the random variable.
+	 */
+	private DevicePointerReference getRealizations(final RandomVariable randomVariable, final List<RandomVariableCuda> temporaries) {
+		final RandomVariableCuda randomVariableCuda = getRandomVariableCuda(randomVariable);
+		if(randomVariableCuda != randomVariable) {
+			temporaries.add(randomVariableCuda);
+		}
+		return randomVariableCuda.realizations;
+	}
+
 	private static float[] getFloatArray(final double[] arrayOfDouble) {
 		final float[] arrayOfFloat = new float[arrayOfDouble.length];
 		for(int i=0; i<arrayOfDouble.length; i++) {
@@ -826,24 +546,37 @@ public class RandomVariableCuda implements RandomVariable {
 		}
 	}
 
+	/**
+	 * Returns the average, variance, minimum and maximum of the realizations, calculated in a single pass.
+	 * The result is cached, such that subsequent calls of the corresponding getters do not require another pass.
+	 *
+	 * The reduction is performed on the device (see {@link ComputeBackend#getMoments(DevicePointerReference, int)}),
+	 * such that only a few bytes are copied to the host.
+	 *
+	 * @return The moments of this random variable.
+	 * @see RandomVariableMoments
+	 */
+	public RandomVariableMoments getMoments() {
+		if(isDeterministic()) {
+			return RandomVariableMoments.ofConstant(valueIfNonStochastic);
+		}
+
+		RandomVariableMoments moments = this.moments;
+		if(moments == null) {
+			// Reduction on the device, only the accumulator is copied to the host
+			moments = backend.getMoments(realizations, size());
+			this.moments = moments;
+		}
+		return moments;
+	}
+
 	@Override
 	public double getMin() {
 		if(isDeterministic()) {
 			return valueIfNonStochastic;
 		}
 
-		final double[] realizations = getRealizations();
-
-		// TODO Use kernel
-		double min = Double.MAX_VALUE;
-		if(realizations.length != 0)
-		{
-			min = realizations[0];     /// @see getMax()
-		}
-		for(int i=0; i<realizations.length; i++) {
-			min = Math.min(realizations[i],min);
-		}
-		return min;
+		return getMoments().getMin();
 	}
 
 	@Override
@@ -852,17 +585,7 @@ public class RandomVariableCuda implements RandomVariable {
 			return valueIfNonStochastic;
 		}
 
-		final double[] realizations = getRealizations();
-
-		// TODO Use kernel
-		double max = -Double.MAX_VALUE;
-		if(realizations.length != 0) {
-			max = realizations[0];
-		}
-		for(int i=0; i<realizations.length; i++) {
-			max = Math.max(realizations[i],max);
-		}
-		return max;
+		return getMoments().getMax();
 	}
 
 	@Override
@@ -874,12 +597,7 @@ public class RandomVariableCuda implements RandomVariable {
 			return Double.NaN;
 		}
 
-		// TODO Use kernel
-		return (new RandomVariableFromFloatArray(getFiltrationTime(), deviceMemoryPool.getValuesAsFloat(realizations, size()))).getAverage();
-
-		//RandomVariable reduced = reduceToDouble();
-		//return reduced.getAverage() * reduced.size() / size();		// Temp hack @FIXME @TODO
-		//return  reduce()/size();
+		return getMoments().getAverage();
 	}
 
 	@Override
@@ -896,8 +614,7 @@ public class RandomVariableCuda implements RandomVariable {
 			return Double.NaN;
 		}
 
-		final double average = getAverage();
-		return this.squared().getAverage() - average*average;
+		return getMoments().getVariance();
 	}
 
 	@Override
@@ -966,6 +683,13 @@ public class RandomVariableCuda implements RandomVariable {
 		return getStandardDeviation(probabilities)/Math.sqrt(size());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Note: for compatibility with previous versions, this method returns the quantile for the level <code>1-quantile</code>,
+	 * i.e., <code>getQuantile(quantile) == getQuantiles(1-quantile)[0]</code>. The method {@link #getQuantiles(double...)}
+	 * uses the convention of {@link RandomVariableFromFloatArray}.
+	 */
 	@Override
 	public double getQuantile(final double quantile) {
 		if(isDeterministic()) {
@@ -975,14 +699,35 @@ public class RandomVariableCuda implements RandomVariable {
 			return Double.NaN;
 		}
 
-		final double[] realizations = getRealizations();
+		return getQuantiles(1-quantile)[0];
+	}
 
-		final double[] realizationsSorted = realizations;
-		java.util.Arrays.sort(realizationsSorted);
+	/**
+	 * Returns the quantiles of this random variable for the given quantile levels (using the same convention as
+	 * {@link RandomVariableFromFloatArray#getQuantiles(double...)}, i.e., the quantile for the level 0.99 is a large value).
+	 * The quantiles are calculated by a single selection (partial ordering) of the realizations, which is faster than sorting.
+	 *
+	 * @param quantiles The quantile levels.
+	 * @return The quantiles of this random variable (in the order of the given levels).
+	 */
+	public double[] getQuantiles(final double... quantiles) {
+		if(isDeterministic()) {
+			final double[] result = new double[quantiles.length];
+			java.util.Arrays.fill(result, valueIfNonStochastic);
+			return result;
+		}
+		if(size() == 0) {
+			final double[] result = new double[quantiles.length];
+			java.util.Arrays.fill(result, Double.NaN);
+			return result;
+		}
 
-		final int indexOfQuantileValue = Math.min(Math.max((int)Math.round((size()+1) * (1-quantile) - 1), 0), size()-1);
+		final int[] indicesOfQuantileValues = new int[quantiles.length];
+		for(int i=0; i<quantiles.length; i++) {
+			indicesOfQuantileValues[i] = Math.min(Math.max((int)Math.round((size()+1) * quantiles[i] - 1), 0), size()-1);
+		}
 
-		return realizationsSorted[indexOfQuantileValue];
+		return OrderStatistics.getValuesOfRanks(getRealizationsOnHost(), indicesOfQuantileValues);
 	}
 
 	@Override
@@ -1009,19 +754,10 @@ public class RandomVariableCuda implements RandomVariable {
 			return getQuantileExpectation(quantileEnd, quantileStart);
 		}
 
-		final double[] realizationsSorted = getRealizations();
-		java.util.Arrays.sort(realizationsSorted);
-
 		final int indexOfQuantileValueStart	= Math.min(Math.max((int)Math.round((size()+1) * quantileStart - 1), 0), size()-1);
 		final int indexOfQuantileValueEnd		= Math.min(Math.max((int)Math.round((size()+1) * quantileEnd - 1), 0), size()-1);
 
-		double quantileExpectation = 0.0;
-		for (int i=indexOfQuantileValueStart; i<=indexOfQuantileValueEnd;i++) {
-			quantileExpectation += realizationsSorted[i];
-		}
-		quantileExpectation /= indexOfQuantileValueEnd-indexOfQuantileValueStart+1;
-
-		return quantileExpectation;
+		return OrderStatistics.getAverageOfRanks(getRealizationsOnHost(), indexOfQuantileValueStart, indexOfQuantileValueEnd);
 	}
 
 	@Override
@@ -1041,29 +777,7 @@ public class RandomVariableCuda implements RandomVariable {
 			histogramValues[intervalPoints.length] = 1.0;
 		}
 		else {
-			final double[] realizationsSorted = getRealizations();
-			java.util.Arrays.sort(realizationsSorted);
-
-			int sampleIndex=0;
-			for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
-			{
-				int sampleCount = 0;
-				while (sampleIndex < realizationsSorted.length &&
-						realizationsSorted[sampleIndex] <= intervalPoints[intervalIndex])
-				{
-					sampleIndex++;
-					sampleCount++;
-				}
-				histogramValues[intervalIndex] = sampleCount;
-			}
-			histogramValues[intervalPoints.length] = realizationsSorted.length-sampleIndex;
-
-			// Normalize histogramValues
-			if(realizationsSorted.length > 0) {
-				for(int i=0; i<histogramValues.length; i++) {
-					histogramValues[i] /= realizationsSorted.length;
-				}
-			}
+			return Histogram.getHistogram(getRealizationsOnHost(), intervalPoints);
 		}
 
 		return histogramValues;
@@ -1101,7 +815,7 @@ public class RandomVariableCuda implements RandomVariable {
 		/*
 		final float[] values = new float[(int)size];
 		try {
-			deviceExecutor.submit(new Runnable() { public void run() {
+			launchQueue.submit(new Runnable() { public void run() {
 				cuCtxSynchronize();
 				cuMemcpyDtoH(Pointer.to(values), realizations, size * Sizeof.FLOAT);
 				cuCtxSynchronize();
@@ -1111,13 +825,51 @@ public class RandomVariableCuda implements RandomVariable {
 		 */
 	}
 
+	/**
+	 * Returns the realizations copied from the device to the host. The copy is not cached, i.e., each call
+	 * performs a device to host copy.
+	 *
+	 * @return The realizations on the host.
+	 */
+	private float[] getRealizationsOnHost() {
+		return backend.getValuesAsFloat(realizations, size());
+	}
+
+	/**
+	 * Returns a read-only view on the realizations of this random variable.
+	 * The view is backed by a host copy of the device vector, copied by each call of this method.
+	 * For a deterministic random variable the buffer contains a single element.
+	 *
+	 * @return A read-only float buffer providing the realizations.
+	 */
+	public FloatBuffer getRealizationsAsFloatBuffer() {
+		if(isDeterministic()) {
+			return FloatBuffer.wrap(new float[] { (float)valueIfNonStochastic }).asReadOnlyBuffer();
+		}
+		else {
+			return FloatBuffer.wrap(getRealizationsOnHost()).asReadOnlyBuffer();
+		}
+	}
+
+	/**
+	 * Returns the device vector of this random variable to the memory pool, without waiting for the garbage collector
+	 * (e.g. for temporary random variables in hot loops). Calling this method more than once has no effect.
+	 *
+	 * The random variable must not be used after it has been released.
+	 */
+	public void release() {
+		if(realizations != null) {
+			realizations.close();
+		}
+	}
+
 	@Override
 	public double[] getRealizations() {
 		if(isDeterministic()) {
 			final double[] result = new double[] { valueIfNonStochastic };
 			return result;
 		} else {
-			return getDoubleArray(deviceMemoryPool.getValuesAsFloat(realizations, size()));
+			return getDoubleArray(getRealizationsOnHost());
 		}
 	}
 
@@ -1138,8 +890,14 @@ public class RandomVariableCuda implements RandomVariable {
 
 	@Override
 	public DoubleStream getRealizationsStream() {
-		// TODO Auto-generated method stub
-		return null;
+		if(isDeterministic()) {
+			return DoubleStream.generate(() -> valueIfNonStochastic);
+		}
+		else {
+			// Widen lazily from the host copy
+			final float[] values = getRealizationsOnHost();
+			return IntStream.range(0, values.length).mapToDouble(i -> values[i]);
+		}
 	}
 
 	@Override
@@ -1148,12 +906,12 @@ public class RandomVariableCuda implements RandomVariable {
 		/*
 		if(isDeterministic()) {
 			double newValueIfNonStochastic = function.value(valueIfNonStochastic);
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
 			double[] newRealizations = new double[realizations.length];
 			for(int i=0; i<newRealizations.length; i++) newRealizations[i]		 = function.value(realizations[i]);
-			return of(time, newRealizations);
+			return of(backend, time, newRealizations);
 		}
 		 */
 	}
@@ -1172,11 +930,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable cap(final double cap) {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = Math.min(valueIfNonStochastic,cap);
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s1(capByScalar, size, realizations, cap);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.CAP_BY_SCALAR, new DevicePointerReference[] { realizations }, cap);
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1184,11 +942,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable floor(final double floor) {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = Math.max(valueIfNonStochastic,floor);
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s1(floorByScalar, size, realizations, floor);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.FLOOR_BY_SCALAR, new DevicePointerReference[] { realizations }, floor);
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1196,11 +954,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable add(final double value) {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic + value;
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s1(addScalar, size, realizations, value);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.ADD_SCALAR, new DevicePointerReference[] { realizations }, value);
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1208,11 +966,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable sub(final double value) {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic - value;
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s1(subScalar, size, realizations, value);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.SUB_SCALAR, new DevicePointerReference[] { realizations }, value);
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1220,11 +978,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable bus(final double value) {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = -valueIfNonStochastic + value;
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s1(busScalar, size, realizations, value);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.BUS_SCALAR, new DevicePointerReference[] { realizations }, value);
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1232,11 +990,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable mult(final double value) {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic * value;
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s1(multScalar, size, realizations, value);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.MULT_SCALAR, new DevicePointerReference[] { realizations }, value);
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1244,11 +1002,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable div(final double value) {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic / value;
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s1(divScalar, size, realizations, value);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.DIV_SCALAR, new DevicePointerReference[] { realizations }, value);
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1256,11 +1014,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable vid(final double value) {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = value / valueIfNonStochastic;
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s1(vidScalar, size, realizations, value);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.VID_SCALAR, new DevicePointerReference[] { realizations }, value);
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1268,24 +1026,24 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable pow(final double exponent) {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = Math.pow(valueIfNonStochastic,exponent);
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s1(cuPow, size, realizations, exponent);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.POW, new DevicePointerReference[] { realizations }, exponent);
+			return of(backend, time, result, size());
 		}
 	}
 
 	@Override
 	public RandomVariable average() {
-		return of(-Double.MAX_VALUE, getAverage());
+		return of(backend, -Double.MAX_VALUE, getAverage());
 	}
 
 	@Override
 	public RandomVariable squared() {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic * valueIfNonStochastic;
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		} else {
 			return this.mult(this);
 		}
@@ -1295,11 +1053,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable sqrt() {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = Math.sqrt(valueIfNonStochastic);
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s0(cuSqrt, size, realizations);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.SQRT, new DevicePointerReference[] { realizations });
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1307,11 +1065,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable invert() {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = 1.0/valueIfNonStochastic;
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s0(invert, size, realizations);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.INVERT, new DevicePointerReference[] { realizations });
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1319,11 +1077,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable abs() {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = Math.abs(valueIfNonStochastic);
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s0(cuAbs, size, realizations);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.ABS, new DevicePointerReference[] { realizations });
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1331,11 +1089,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable exp() {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = Math.exp(valueIfNonStochastic);
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s0(cuExp, size, realizations);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.EXP, new DevicePointerReference[] { realizations });
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1343,11 +1101,11 @@ public class RandomVariableCuda implements RandomVariable {
 	public RandomVariable log() {
 		if(isDeterministic()) {
 			final double newValueIfNonStochastic = Math.log(valueIfNonStochastic);
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s0(cuLog, size, realizations);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.LOG, new DevicePointerReference[] { realizations });
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1357,12 +1115,12 @@ public class RandomVariableCuda implements RandomVariable {
 		/*
 		if(isDeterministic()) {
 			double newValueIfNonStochastic = Math.sin(valueIfNonStochastic);
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
 			double[] newRealizations = new double[realizations.length];
 			for(int i=0; i<newRealizations.length; i++) newRealizations[i]		 = Math.sin(realizations[i]);
-			return of(time, newRealizations);
+			return of(backend, time, newRealizations);
 		}
 		 */
 	}
@@ -1373,12 +1131,12 @@ public class RandomVariableCuda implements RandomVariable {
 		/*
 		if(isDeterministic()) {
 			double newValueIfNonStochastic = Math.cos(valueIfNonStochastic);
-			return of(time, newValueIfNonStochastic);
+			return of(backend, time, newValueIfNonStochastic);
 		}
 		else {
 			double[] newRealizations = new double[realizations.length];
 			for(int i=0; i<newRealizations.length; i++) newRealizations[i]		 = Math.cos(realizations[i]);
-			return of(time, newRealizations);
+			return of(backend, time, newRealizations);
 		}
 		 */
 	}
@@ -1399,15 +1157,15 @@ public class RandomVariableCuda implements RandomVariable {
 
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic + randomVariable.doubleValue();
-			return of(newTime, newValueIfNonStochastic);
+			return of(backend, newTime, newValueIfNonStochastic);
 		}
 		else if(isDeterministic()) {
 			return getRandomVariableCuda(randomVariable).add(valueIfNonStochastic);
 		} else if(randomVariable.isDeterministic()) {
 			return this.add(randomVariable.doubleValue());
 		} else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv2s0(add, size, realizations, getRandomVariableCuda(randomVariable).realizations);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.ADD, new DevicePointerReference[] { realizations, getRandomVariableCuda(randomVariable).realizations });
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1423,15 +1181,15 @@ public class RandomVariableCuda implements RandomVariable {
 
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic - randomVariable.doubleValue();
-			return of(newTime, newValueIfNonStochastic);
+			return of(backend, newTime, newValueIfNonStochastic);
 		}
 		else if(isDeterministic()) {
 			return getRandomVariableCuda(randomVariable).bus(valueIfNonStochastic);
 		} else if(randomVariable.isDeterministic()) {
 			return this.sub(randomVariable.doubleValue());
 		} else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv2s0(sub, size, realizations, getRandomVariableCuda(randomVariable).realizations);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.SUB, new DevicePointerReference[] { realizations, getRandomVariableCuda(randomVariable).realizations });
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1447,7 +1205,7 @@ public class RandomVariableCuda implements RandomVariable {
 
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = -valueIfNonStochastic + randomVariable.doubleValue();
-			return of(newTime, newValueIfNonStochastic);
+			return of(backend, newTime, newValueIfNonStochastic);
 		}
 		else if(isDeterministic()) {
 			return getRandomVariableCuda(randomVariable).sub(valueIfNonStochastic);
@@ -1455,8 +1213,8 @@ public class RandomVariableCuda implements RandomVariable {
 			return this.bus(randomVariable.doubleValue());
 		} else {
 			// flipped arguments
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv2s0(sub, size, getRandomVariableCuda(randomVariable).realizations, realizations);
-			return of(time, result, size());
+			final DevicePointerReference result = callFunction(Kernel.SUB, new DevicePointerReference[] { getRandomVariableCuda(randomVariable).realizations, realizations });
+			return of(backend, time, result, size());
 		}
 	}
 
@@ -1472,15 +1230,15 @@ public class RandomVariableCuda implements RandomVariable {
 
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic * randomVariable.doubleValue();
-			return of(newTime, newValueIfNonStochastic);
+			return of(backend, newTime, newValueIfNonStochastic);
 		}
 		else if(randomVariable.isDeterministic()) {
 			return this.mult(randomVariable.doubleValue());
 		} else if(isDeterministic() && !randomVariable.isDeterministic()) {
 			return getRandomVariableCuda(randomVariable).mult(this.valueIfNonStochastic);
 		} else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv2s0(mult, size, realizations, getRandomVariableCuda(randomVariable).realizations);
-			return of(newTime, result, size());
+			final DevicePointerReference result = callFunction(Kernel.MULT, new DevicePointerReference[] { realizations, getRandomVariableCuda(randomVariable).realizations });
+			return of(backend, newTime, result, size());
 		}
 	}
 
@@ -1496,15 +1254,15 @@ public class RandomVariableCuda implements RandomVariable {
 
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic / randomVariable.doubleValue();
-			return of(newTime, newValueIfNonStochastic);
+			return of(backend, newTime, newValueIfNonStochastic);
 		}
 		else if(isDeterministic()) {
 			return getRandomVariableCuda(randomVariable).vid(valueIfNonStochastic);
 		} else if(randomVariable.isDeterministic()) {
 			return this.div(randomVariable.doubleValue());
 		} else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv2s0(cuDiv, size, realizations, getRandomVariableCuda(randomVariable).realizations);
-			return of(newTime, result, size());
+			final DevicePointerReference result = callFunction(Kernel.DIV, new DevicePointerReference[] { realizations, getRandomVariableCuda(randomVariable).realizations });
+			return of(backend, newTime, result, size());
 		}
 	}
 
@@ -1520,7 +1278,7 @@ public class RandomVariableCuda implements RandomVariable {
 
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = randomVariable.doubleValue() / valueIfNonStochastic;
-			return of(newTime, newValueIfNonStochastic);
+			return of(backend, newTime, newValueIfNonStochastic);
 		}
 		else if(isDeterministic()) {
 			return getRandomVariableCuda(randomVariable).div(valueIfNonStochastic);
@@ -1528,8 +1286,8 @@ public class RandomVariableCuda implements RandomVariable {
 			return this.vid(randomVariable.doubleValue());
 		} else {
 			// flipped arguments
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv2s0(cuDiv, size, getRandomVariableCuda(randomVariable).realizations, realizations);
-			return of(newTime, result, size());
+			final DevicePointerReference result = callFunction(Kernel.DIV, new DevicePointerReference[] { getRandomVariableCuda(randomVariable).realizations, realizations });
+			return of(backend, newTime, result, size());
 		}
 	}
 
@@ -1545,13 +1303,13 @@ public class RandomVariableCuda implements RandomVariable {
 
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = Math.min(valueIfNonStochastic, randomVariable.doubleValue());
-			return of(newTime, newValueIfNonStochastic);
+			return of(backend, newTime, newValueIfNonStochastic);
 		}
 		else if(isDeterministic()) {
 			return randomVariable.cap(valueIfNonStochastic);
 		} else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv2s0(cap, size, realizations, getRandomVariableCuda(randomVariable).realizations);
-			return of(newTime, result, size());
+			final DevicePointerReference result = callFunction(Kernel.CAP, new DevicePointerReference[] { realizations, getRandomVariableCuda(randomVariable).realizations });
+			return of(backend, newTime, result, size());
 		}
 	}
 
@@ -1567,15 +1325,15 @@ public class RandomVariableCuda implements RandomVariable {
 
 		if(isDeterministic() && randomVariable.isDeterministic()) {
 			final double newValueIfNonStochastic = Math.max(valueIfNonStochastic, randomVariable.doubleValue());
-			return of(newTime, newValueIfNonStochastic);
+			return of(backend, newTime, newValueIfNonStochastic);
 		}
 		else if(isDeterministic()) {
 			return getRandomVariableCuda(randomVariable).floor(valueIfNonStochastic);
 		} else if(randomVariable.isDeterministic()) {
 			return this.floor(randomVariable.doubleValue());
 		} else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv2s0(cuFloor, size, realizations, getRandomVariableCuda(randomVariable).realizations);
-			return of(newTime, result, size());
+			final DevicePointerReference result = callFunction(Kernel.FLOOR, new DevicePointerReference[] { realizations, getRandomVariableCuda(randomVariable).realizations });
+			return of(backend, newTime, result, size());
 		}
 	}
 
@@ -1594,8 +1352,8 @@ public class RandomVariableCuda implements RandomVariable {
 		} else if(isDeterministic() && !rate.isDeterministic()) {
 			return getRandomVariableCuda(rate.mult(periodLength).add(1.0).mult(valueIfNonStochastic));
 		} else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv2s1(accrue, size, realizations, getRandomVariableCuda(rate).realizations, periodLength);
-			return of(newTime, result, size());
+			final DevicePointerReference result = callFunction(Kernel.ACCRUE, new DevicePointerReference[] { realizations, getRandomVariableCuda(rate).realizations }, periodLength);
+			return of(backend, newTime, result, size());
 		}
 	}
 
@@ -1618,8 +1376,8 @@ public class RandomVariableCuda implements RandomVariable {
 			return (getRandomVariableCuda(rate.mult(periodLength).add(1.0)).vid(valueIfNonStochastic));
 		}
 		else {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv2s1(discount, size, realizations, getRandomVariableCuda(rate).realizations, periodLength);
-			return of(newTime, result, size());
+			final DevicePointerReference result = callFunction(Kernel.DISCOUNT, new DevicePointerReference[] { realizations, getRandomVariableCuda(rate).realizations }, periodLength);
+			return of(backend, newTime, result, size());
 		}
 	}
 
@@ -1647,8 +1405,8 @@ public class RandomVariableCuda implements RandomVariable {
 		if(factor1.isDeterministic()) {
 			return this.add(factor1.doubleValue() * factor2);
 		} else if(!isDeterministic() && !factor1.isDeterministic()) {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv2s1(addProduct_vs, size, realizations, getRandomVariableCuda(factor1).realizations, factor2);
-			return of(newTime, result, size());
+			final DevicePointerReference result = callFunction(Kernel.ADD_PRODUCT_VS, new DevicePointerReference[] { realizations, getRandomVariableCuda(factor1).realizations }, factor2);
+			return of(backend, newTime, result, size());
 		} else {
 			return this.add(factor1.mult(factor2));
 		}
@@ -1666,7 +1424,7 @@ public class RandomVariableCuda implements RandomVariable {
 
 		if(isDeterministic() && factor1.isDeterministic() && factor2.isDeterministic()) {
 			final double newValueIfNonStochastic = valueIfNonStochastic + (factor1.doubleValue() * factor2.doubleValue());
-			return of(newTime, newValueIfNonStochastic);
+			return of(backend, newTime, newValueIfNonStochastic);
 		}
 		else if(factor1.isDeterministic() && factor2.isDeterministic()) {
 			return add(factor1.doubleValue() * factor2.doubleValue());
@@ -1675,13 +1433,86 @@ public class RandomVariableCuda implements RandomVariable {
 		} else if(factor1.isDeterministic()) {
 			return this.addProduct(factor2, factor1.doubleValue());
 		} else if(!isDeterministic() && !factor1.isDeterministic() && !factor2.isDeterministic()) {
-			final DevicePointerReference result = deviceMemoryPool.callFunctionv3s0(addProduct, size, realizations, getRandomVariableCuda(factor1).realizations, getRandomVariableCuda(factor2).realizations);
-			return of(newTime, result, size());
+			final DevicePointerReference result = callFunction(Kernel.ADD_PRODUCT, new DevicePointerReference[] { realizations, getRandomVariableCuda(factor1).realizations, getRandomVariableCuda(factor2).realizations });
+			return of(backend, newTime, result, size());
 		} else {
 			return this.add(factor1.mult(factor2));
 		}
 	}
 
+	@Override
+	public RandomVariable addSumProduct(final List<RandomVariable> factor1, final List<RandomVariable> factor2) {
+		final int numberOfTerms = factor1.size();
+
+		double newTime = time;
+		long newSize = size();
+		for(int k=0; k<numberOfTerms; k++) {
+			if(factor1.get(k).getTypePriority() > this.getTypePriority() || factor2.get(k).getTypePriority() > this.getTypePriority()) {
+				// Check type priority
+				RandomVariable result = this;
+				for(int i=0; i<numberOfTerms; i++) {
+					result = result.addProduct(factor1.get(i), factor2.get(i));
+				}
+				return result;
+			}
+			newTime = Math.max(newTime, Math.max(factor1.get(k).getFiltrationTime(), factor2.get(k).getFiltrationTime()));
+			newSize = Math.max(newSize, Math.max(factor1.get(k).size(), factor2.get(k).size()));
+		}
+
+		/*
+		 * Sort the terms into products of two vectors, products of a vector and a scalar, and products of two scalars,
+		 * such that all terms are accumulated by a single kernel launch. The products of two scalars are summed in double
+		 * precision and added first, hence the result may differ from the sequence of addProduct calls in the last bits.
+		 */
+		final List<DevicePointerReference> products1 = new ArrayList<>();
+		final List<DevicePointerReference> products2 = new ArrayList<>();
+		final List<DevicePointerReference> scaledVectors = new ArrayList<>();
+		final List<Double> scalars = new ArrayList<>();
+		final List<RandomVariableCuda> temporaries = new ArrayList<>();
+		double constant = isDeterministic() ? valueIfNonStochastic : 0.0;
+		for(int k=0; k<numberOfTerms; k++) {
+			final RandomVariable term1 = factor1.get(k);
+			final RandomVariable term2 = factor2.get(k);
+			if(term1.isDeterministic() && term2.isDeterministic()) {
+				constant += term1.doubleValue() * term2.doubleValue();
+			}
+			else if(term2.isDeterministic()) {
+				scaledVectors.add(getRealizations(term1, temporaries));
+				scalars.add(term2.doubleValue());
+			}
+			else if(term1.isDeterministic()) {
+				scaledVectors.add(getRealizations(term2, temporaries));
+				scalars.add(term1.doubleValue());
+			}
+			else {
+				products1.add(getRealizations(term1, temporaries));
+				products2.add(getRealizations(term2, temporaries));
+			}
+		}
+
+		if(isDeterministic() && products1.isEmpty() && scaledVectors.isEmpty()) {
+			return of(backend, newTime, constant);
+		}
+
+		final float[] scalarValues = new float[scalars.size()];
+		for(int k=0; k<scalars.size(); k++) {
+			scalarValues[k] = scalars.get(k).floatValue();
+		}
+
+		final DevicePointerReference result = backend.addSumProduct(newSize, isDeterministic() ? null : realizations, (float)constant,
+				products1.toArray(new DevicePointerReference[0]),
+				products2.toArray(new DevicePointerReference[0]),
+				scaledVectors.toArray(new DevicePointerReference[0]),
+				scalarValues);
+
+		// The launch is enqueued (and ordered before any reuse of the vectors), hence the copies can be returned to the pool
+		for(final RandomVariableCuda temporary : temporaries) {
+			temporary.release();
+		}
+
+		return of(backend, newTime, result, newSize);
+	}
+
 	@Override
 	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
 		// TODO Implement a kernel here
@@ -1707,56 +1538,11 @@ public class RandomVariableCuda implements RandomVariable {
 	 * Cuda specific implementations
 	 */
 
-	private RandomVariableFromDoubleArray reduceToDouble() {
-
-		final int blockSizeX = reduceGridSize;
-		final int gridSizeX = (int)Math.ceil((double)size()/2 / blockSizeX);
-
-		final DevicePointerReference reduceVector = getDevicePointer(2*gridSizeX);
-
-		deviceMemoryPool.callFunction(reduceFloatVectorToDoubleScalar, new Pointer[] {
-				Pointer.to(new int[] { size() }),
-				Pointer.to(realizations.get()),
-				Pointer.to(reduceVector.get())},
-				gridSizeX, blockSizeX, blockSizeX*2*3);
-
-		final double[] result = new double[gridSizeX];
-		try {
-			deviceMemoryPool.deviceExecutor.submit(() -> {
-				cuCtxSynchronize();
-				cuMemcpyDtoH(Pointer.to(result), reduceVector.get(), gridSizeX * Sizeof.DOUBLE);
-				cuCtxSynchronize();
-			}).get();
-		} catch (InterruptedException | ExecutionException e) {
-			throw new RuntimeException(e.getCause());
+	private DevicePointerReference callFunction(final Kernel kernel, final DevicePointerReference[] vectors, final double... scalars) {
+		final float[] scalarValues = new float[scalars.length];
+		for(int k=0; k<scalars.length; k++) {
+			scalarValues[k] = (float)scalars[k];
 		}
-
-		return (new RandomVariableFromDoubleArray(time, result));
-	}
-
-	private double reduce() {
-		if(this.isDeterministic()) {
-			return valueIfNonStochastic;
-		}
-
-		RandomVariableCuda reduced = this;
-		while(reduced.size() > 1) {
-			reduced = reduced.reduceBySize(reduceGridSize);
-		}
-		return reduced.getRealizations()[0];
-	}
-
-	private RandomVariableCuda reduceBySize(final int bySize) {
-		final int blockSizeX = bySize;
-		final int gridSizeX = (int)Math.ceil((double)size()/2 / blockSizeX);
-		final DevicePointerReference reduceVector = getDevicePointer(gridSizeX);
-
-		deviceMemoryPool.callFunction(reducePartial, new Pointer[] {
-				Pointer.to(new int[] { size() }),
-				Pointer.to(realizations.get()),
-				Pointer.to(reduceVector.get())},
-				gridSizeX, blockSizeX, blockSizeX*2*3);
-
-		return of(-Double.MAX_VALUE, reduceVector, gridSizeX);
+		return backend.callFunction(kernel, size, vectors, scalarValues);
 	}
 }
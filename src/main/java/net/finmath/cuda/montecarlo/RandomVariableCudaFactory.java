@@ -6,6 +6,7 @@
 
 package net.finmath.cuda.montecarlo;
 
+import net.finmath.cuda.montecarlo.backend.ComputeBackend;
 import net.finmath.montecarlo.AbstractRandomVariableFactory;
 import net.finmath.montecarlo.RandomVariableFactory;
 import net.finmath.stochastic.RandomVariable;
@@ -13,23 +14,47 @@ import net.finmath.stochastic.RandomVariable;
 /**
  * RandomVariableFactory creating CUDA random variables (object implementing RandomVariable running on Cuda).
  *
+ * The random variables are created on a given {@link ComputeBackend}, by default on {@link RandomVariableCuda#getDefaultBackend()}.
+ *
  * @author Christian Fries
  */
 public class RandomVariableCudaFactory extends AbstractRandomVariableFactory implements RandomVariableFactory {
 
 	private static final long serialVersionUID = 1L;
 
-	public RandomVariableCudaFactory() {
+	private final transient ComputeBackend backend;
+
+	/**
+	 * Create a factory creating random variables on the given backend.
+	 *
+	 * @param backend The backend storing the realizations and performing the operations.
+	 */
+	public RandomVariableCudaFactory(final ComputeBackend backend) {
 		super();
+		this.backend = backend;
+	}
+
+	/**
+	 * Create a factory creating random variables on the default backend.
+	 */
+	public RandomVariableCudaFactory() {
+		this(null);
 	}
 
 	@Override
 	public RandomVariable createRandomVariable(final double time, final double value) {
-		return new RandomVariableCuda(time, value);
+		return RandomVariableCuda.of(getBackend(), time, value);
 	}
 
 	@Override
 	public RandomVariable createRandomVariable(final double time, final double[] values) {
-		return new RandomVariableCuda(time, values);
+		return new RandomVariableCuda(getBackend(), time, values);
+	}
+
+	/**
+	 * @return The backend used by this factory.
+	 */
+	public ComputeBackend getBackend() {
+		return backend != null ? backend : RandomVariableCuda.getDefaultBackend();
 	}
 }
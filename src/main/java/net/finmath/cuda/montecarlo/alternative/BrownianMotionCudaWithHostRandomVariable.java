@@ -46,6 +46,9 @@ import net.finmath.time.TimeDiscretization;
  * defines the state of an object of this class, i.e., BrownianMotionLazyInit for which
  * there parameters agree, generate the same random numbers.
  *
+ * Optionally, a {@link VarianceReduction} is applied to the increments: antithetic pairing (drawing only half of the paths)
+ * and/or matching of the mean and variance of each increment.
+ *
  * The class is immutable and thread safe. It uses lazy initialization.
  *
  * @author Christian Fries
@@ -60,6 +63,7 @@ public class BrownianMotionCudaWithHostRandomVariable implements BrownianMotion,
 	private final int			numberOfFactors;
 	private final int			numberOfPaths;
 	private final int			seed;
+	private final VarianceReduction	varianceReduction;
 
 	private final RandomVariableFactory randomVariableFactory;
 
@@ -78,6 +82,7 @@ public class BrownianMotionCudaWithHostRandomVariable implements BrownianMotion,
 	 * @param numberOfFactors Number of factors.
 	 * @param numberOfPaths Number of paths to simulate.
 	 * @param seed The seed of the random number generator.
+	 * @param varianceReduction The variance reduction applied to the increments.
 	 * @param randomVariableFactory Factory to be used to create random variable.
 	 */
 	public BrownianMotionCudaWithHostRandomVariable(
@@ -85,18 +90,61 @@ public class BrownianMotionCudaWithHostRandomVariable implements BrownianMotion,
 			final int numberOfFactors,
 			final int numberOfPaths,
 			final int seed,
+			final VarianceReduction varianceReduction,
 			final RandomVariableFactory randomVariableFactory) {
 		super();
 		this.timeDiscretization = timeDiscretization;
 		this.numberOfFactors	= numberOfFactors;
 		this.numberOfPaths		= numberOfPaths;
 		this.seed				= seed;
+		this.varianceReduction	= varianceReduction;
 
 		this.randomVariableFactory = new RandomVariableFromArrayFactory(false); /* randomVariableFactory */
 
 		this.brownianIncrements	= null; 	// Lazy initialization
 	}
 
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * The constructor allows to set the factory to be used for the construction of
+	 * random variables. This allows to generate Brownian increments represented
+	 * by different implementations of the RandomVariable (e.g. the RandomVariableFromFloatArray internally
+	 * using float representations).
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionCudaWithHostRandomVariable(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final RandomVariableFactory randomVariableFactory) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, VarianceReduction.NONE, randomVariableFactory);
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param varianceReduction The variance reduction applied to the increments.
+	 */
+	public BrownianMotionCudaWithHostRandomVariable(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final VarianceReduction varianceReduction) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, varianceReduction, new RandomVariableFromArrayFactory());
+	}
+
 	/**
 	 * Construct a Brownian motion.
 	 *
@@ -110,18 +158,18 @@ public class BrownianMotionCudaWithHostRandomVariable implements BrownianMotion,
 			final int numberOfFactors,
 			final int numberOfPaths,
 			final int seed) {
-		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, new RandomVariableFromArrayFactory());
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, VarianceReduction.NONE);
 	}
 
 	@Override
 	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
-		return new BrownianMotionCudaWithHostRandomVariable(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed);
+		return new BrownianMotionCudaWithHostRandomVariable(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, varianceReduction);
 	}
 
 	@Override
 	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
-		/// @TODO This can be improved: a complete recreation of the Brownian motion wouldn't be necessary!
-		return new BrownianMotionCudaWithHostRandomVariable(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed());
+		// The increments on the new time discretization are constructed from the existing increments
+		return new BrownianMotionWithModifiedTimeDiscretization(this, newTimeDiscretization, getSeed());
 	}
 
 	@Override
@@ -153,7 +201,12 @@ public class BrownianMotionCudaWithHostRandomVariable implements BrownianMotion,
 		JCuda.setExceptionsEnabled(true);
 		JCurand.setExceptionsEnabled(true);
 
-		final int n = numberOfFactors * numberOfPaths;
+		// With antithetic pairing only the first half of the paths is drawn
+		final int numberOfDraws = varianceReduction.getNumberOfDraws(numberOfPaths);
+		final int n = numberOfFactors * numberOfDraws;
+
+		// curand generates an even number of normal random numbers
+		final int numberOfRandomNumbers = n + (n & 1);
 
 		final curandGenerator generator = new curandGenerator();
 
@@ -162,7 +215,7 @@ public class BrownianMotionCudaWithHostRandomVariable implements BrownianMotion,
 
 		// Allocate n floats on device
 		final Pointer deviceData = new Pointer();
-		cudaMalloc(deviceData, n * Sizeof.FLOAT);
+		cudaMalloc(deviceData, numberOfRandomNumbers * Sizeof.FLOAT);
 
 		// Create pseudo-random number generator
 		curandCreateGenerator(generator, CURAND_RNG_PSEUDO_DEFAULT);
@@ -178,14 +231,19 @@ public class BrownianMotionCudaWithHostRandomVariable implements BrownianMotion,
 			final float sqrtOfTimeStep = (float)Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
 
 			// Generate n floats on device
-			jcuda.jcurand.JCurand.curandGenerateNormal(generator, deviceData, n, 0.0f /* mean */, sqrtOfTimeStep /* stddev */);
+			jcuda.jcurand.JCurand.curandGenerateNormal(generator, deviceData, numberOfRandomNumbers, 0.0f /* mean */, sqrtOfTimeStep /* stddev */);
 
 			int offset = 0;
 			for(int factor=0; factor<numberOfFactors; factor++) {
 				// Copy device memory to host
 				cudaMemcpy(Pointer.to(brownianIncrementsArray[timeIndex][factor]), deviceData.withByteOffset(offset * Sizeof.FLOAT),
-						numberOfPaths * Sizeof.FLOAT, cudaMemcpyDeviceToHost);
-				offset += numberOfPaths;
+						numberOfDraws * Sizeof.FLOAT, cudaMemcpyDeviceToHost);
+				offset += numberOfDraws;
+			}
+
+			// Antithetic paths and moment matching on the host
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				varianceReduction.apply(brownianIncrementsArray[timeIndex][factor], Math.sqrt(timeDiscretization.getTimeStep(timeIndex)));
 			}
 		}
 
@@ -234,13 +292,21 @@ public class BrownianMotionCudaWithHostRandomVariable implements BrownianMotion,
 		return seed;
 	}
 
+	/**
+	 * @return Returns the variance reduction applied to the increments.
+	 */
+	public VarianceReduction getVarianceReduction() {
+		return varianceReduction;
+	}
+
 	@Override
 	public String toString() {
 		return super.toString()
 				+ "\n" + "timeDiscretizationFromArray: " + timeDiscretization.toString()
 				+ "\n" + "numberOfPaths: " + numberOfPaths
 				+ "\n" + "numberOfFactors: " + numberOfFactors
-				+ "\n" + "seed: " + seed;
+				+ "\n" + "seed: " + seed
+				+ "\n" + "varianceReduction: " + varianceReduction;
 	}
 
 	@Override
@@ -263,6 +329,9 @@ public class BrownianMotionCudaWithHostRandomVariable implements BrownianMotion,
 		if (seed != that.seed) {
 			return false;
 		}
+		if (varianceReduction != that.varianceReduction) {
+			return false;
+		}
 		if (!timeDiscretization.equals(that.timeDiscretization)) {
 			return false;
 		}
@@ -281,6 +350,7 @@ public class BrownianMotionCudaWithHostRandomVariable implements BrownianMotion,
 		result = 31 * result + numberOfFactors;
 		result = 31 * result + numberOfPaths;
 		result = 31 * result + seed;
+		result = 31 * result + varianceReduction.hashCode();
 		return result;
 	}
 }
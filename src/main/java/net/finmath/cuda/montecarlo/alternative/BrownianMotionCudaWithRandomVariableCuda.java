@@ -17,6 +17,9 @@ import jcuda.jcurand.curandGenerator;
 import jcuda.runtime.JCuda;
 import net.finmath.cuda.montecarlo.RandomVariableCuda;
 import net.finmath.cuda.montecarlo.RandomVariableCuda.DevicePointerReference;
+import net.finmath.cuda.montecarlo.backend.ComputeBackend;
+import net.finmath.cuda.montecarlo.backend.CudaComputeBackend;
+import net.finmath.cuda.montecarlo.backend.Kernel;
 import net.finmath.montecarlo.BrownianMotion;
 import net.finmath.montecarlo.RandomVariableFactory;
 import net.finmath.montecarlo.RandomVariableFromArrayFactory;
@@ -41,6 +44,9 @@ import net.finmath.time.TimeDiscretization;
  * defines the state of an object of this class, i.e., BrownianMotionLazyInit for which
  * there parameters agree, generate the same random numbers.
  *
+ * Optionally, a {@link VarianceReduction} is applied to the increments: antithetic pairing (drawing only half of the paths)
+ * and/or matching of the mean and variance of each increment.
+ *
  * The class is immutable and thread safe. It uses lazy initialization.
  *
  * @author Christian Fries
@@ -55,6 +61,7 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 	private final int			numberOfFactors;
 	private final int			numberOfPaths;
 	private final int			seed;
+	private final VarianceReduction	varianceReduction;
 
 	private final RandomVariableFactory randomVariableFactory;
 
@@ -73,6 +80,7 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 	 * @param numberOfFactors Number of factors.
 	 * @param numberOfPaths Number of paths to simulate.
 	 * @param seed The seed of the random number generator.
+	 * @param varianceReduction The variance reduction applied to the increments.
 	 * @param randomVariableFactory Factory to be used to create random variable.
 	 */
 	public BrownianMotionCudaWithRandomVariableCuda(
@@ -80,18 +88,61 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 			final int numberOfFactors,
 			final int numberOfPaths,
 			final int seed,
+			final VarianceReduction varianceReduction,
 			final RandomVariableFactory randomVariableFactory) {
 		super();
 		this.timeDiscretization = timeDiscretization;
 		this.numberOfFactors	= numberOfFactors;
 		this.numberOfPaths		= numberOfPaths;
 		this.seed				= seed;
+		this.varianceReduction	= varianceReduction;
 
 		this.randomVariableFactory = new RandomVariableFromArrayFactory(false); /* randomVariableFactory */
 
 		this.brownianIncrements	= null; 	// Lazy initialization
 	}
 
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * The constructor allows to set the factory to be used for the construction of
+	 * random variables. This allows to generate Brownian increments represented
+	 * by different implementations of the RandomVariable (e.g. the RandomVariableFromFloatArray internally
+	 * using float representations).
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionCudaWithRandomVariableCuda(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final RandomVariableFactory randomVariableFactory) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, VarianceReduction.NONE, randomVariableFactory);
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param varianceReduction The variance reduction applied to the increments.
+	 */
+	public BrownianMotionCudaWithRandomVariableCuda(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final VarianceReduction varianceReduction) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, varianceReduction, new RandomVariableFromArrayFactory());
+	}
+
 	/**
 	 * Construct a Brownian motion.
 	 *
@@ -105,18 +156,18 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 			final int numberOfFactors,
 			final int numberOfPaths,
 			final int seed) {
-		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, new RandomVariableFromArrayFactory());
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, VarianceReduction.NONE);
 	}
 
 	@Override
 	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
-		return new BrownianMotionCudaWithRandomVariableCuda(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed);
+		return new BrownianMotionCudaWithRandomVariableCuda(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, varianceReduction);
 	}
 
 	@Override
 	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
 		/// @TODO This can be improved: a complete recreation of the Brownian motion wouldn't be necessary!
-		return new BrownianMotionCudaWithRandomVariableCuda(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed());
+		return new BrownianMotionCudaWithRandomVariableCuda(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed(), varianceReduction);
 	}
 
 	@Override
@@ -149,36 +200,61 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 		JCurand.setExceptionsEnabled(true);
 		JCuda.setLogLevel(LogLevel.LOG_DEBUG);
 
-		// Hack: It is important to init the context first. - Clean up.
-		final RandomVariable rv = new RandomVariableCuda(0.0);
+		// The random numbers are generated by curand directly into the device vectors of the Cuda backend
+		final ComputeBackend backend = RandomVariableCuda.getDefaultBackend();
+		if(!(backend instanceof CudaComputeBackend)) {
+			throw new UnsupportedOperationException("The Brownian increments are generated by curand, which requires the Cuda backend. The configured backend is " + backend.getName() + ".");
+		}
+		final CudaComputeBackend cudaBackend = (CudaComputeBackend)backend;
 
+		/*
+		 * All curand calls are performed on the device thread (owning the context), ordered with the kernel launches:
+		 * a vector returned to the pool may still be read by an enqueued kernel when it is handed out again.
+		 */
 		final curandGenerator generator = new curandGenerator();
+		cudaBackend.callOnDeviceThread(() -> {
+			// Create pseudo-random number generator
+			//		curandCreateGenerator(generator, CURAND_RNG_PSEUDO_MTGP32);
+			curandCreateGenerator(generator, jcuda.jcurand.curandRngType.CURAND_RNG_PSEUDO_DEFAULT);
 
-		// Create pseudo-random number generator
-		//		curandCreateGenerator(generator, CURAND_RNG_PSEUDO_MTGP32);
-		curandCreateGenerator(generator, jcuda.jcurand.curandRngType.CURAND_RNG_PSEUDO_DEFAULT);
-
-		// Set seed
-		curandSetPseudoRandomGeneratorSeed(generator, seed);
+			// Set seed
+			return curandSetPseudoRandomGeneratorSeed(generator, seed);
+		});
 
 		// Allocate memory for RandomVariableFromDoubleArray wrapper objects.
 		brownianIncrements = new RandomVariable[timeDiscretization.getNumberOfTimeSteps()][numberOfFactors];
 
+		// With antithetic pairing only the first half of the paths is drawn (curand generates an even number of normal random numbers)
+		final int numberOfDraws = varianceReduction.getNumberOfDraws(numberOfPaths);
+		final int numberOfRandomNumbers = numberOfDraws + (numberOfDraws & 1);
+
 		// Pre-calculate square roots of deltaT
 		for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
 			final double time = timeDiscretization.getTime(timeIndex+1);
 			final float sqrtOfTimeStep = (float)Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
 
 			for(int factor=0; factor<numberOfFactors; factor++) {
-				// Generate n floats on device
-				final DevicePointerReference realizations = RandomVariableCuda.getDevicePointer(numberOfPaths);
-				jcuda.jcurand.JCurand.curandGenerateNormal(generator, realizations.get(), numberOfPaths, 0.0f /* mean */, sqrtOfTimeStep /* stddev */);
-				brownianIncrements[timeIndex][factor] = RandomVariableCuda.of(time, realizations, numberOfPaths);
+				// Generate n floats on device (the vector may have one element more than the number of paths)
+				final DevicePointerReference draws = cudaBackend.getDevicePointer(numberOfRandomNumbers);
+				cudaBackend.callOnDeviceThread(() -> jcuda.jcurand.JCurand.curandGenerateNormal(generator, draws.get(), numberOfRandomNumbers, 0.0f /* mean */, sqrtOfTimeStep /* stddev */));
+
+				// Antithetic paths and moment matching on the device
+				DevicePointerReference realizations = draws;
+				if(varianceReduction.isAntithetic()) {
+					realizations = cudaBackend.callFunction(Kernel.ANTITHETIC, numberOfPaths, new DevicePointerReference[] { draws }, new float[0]);
+					// The antithetic kernel is enqueued before the vector is handed out (and written by curand) again
+					draws.close();
+				}
+				RandomVariable increment = RandomVariableCuda.of(cudaBackend, time, realizations, numberOfPaths);
+				if(varianceReduction.isMomentMatching()) {
+					increment = VarianceReduction.matchMoments(increment, sqrtOfTimeStep);
+				}
+				brownianIncrements[timeIndex][factor] = increment;
 			}
 		}
 
 		// Cleanup
-		curandDestroyGenerator(generator);
+		cudaBackend.callOnDeviceThread(() -> curandDestroyGenerator(generator));
 	}
 
 	@Override
@@ -208,13 +284,21 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 		return seed;
 	}
 
+	/**
+	 * @return Returns the variance reduction applied to the increments.
+	 */
+	public VarianceReduction getVarianceReduction() {
+		return varianceReduction;
+	}
+
 	@Override
 	public String toString() {
 		return super.toString()
 				+ "\n" + "timeDiscretizationFromArray: " + timeDiscretization.toString()
 				+ "\n" + "numberOfPaths: " + numberOfPaths
 				+ "\n" + "numberOfFactors: " + numberOfFactors
-				+ "\n" + "seed: " + seed;
+				+ "\n" + "seed: " + seed
+				+ "\n" + "varianceReduction: " + varianceReduction;
 	}
 
 	@Override
@@ -237,6 +321,9 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 		if (seed != that.seed) {
 			return false;
 		}
+		if (varianceReduction != that.varianceReduction) {
+			return false;
+		}
 		if (!timeDiscretization.equals(that.timeDiscretization)) {
 			return false;
 		}
@@ -255,6 +342,7 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 		result = 31 * result + numberOfFactors;
 		result = 31 * result + numberOfPaths;
 		result = 31 * result + seed;
+		result = 31 * result + varianceReduction.hashCode();
 		return result;
 	}
 }
@@ -0,0 +1,407 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.alternative;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.RandomVariableFactory;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * Implementation of a time-discrete n-dimensional Brownian motion
+ * <i>W = (W<sub>1</sub>,...,W<sub>n</sub>)</i> where <i>W<sub>i</sub></i> is
+ * a Brownian motion and <i>W<sub>i</sub></i>, <i>W<sub>j</sub></i> are
+ * independent for <i>i</i> not equal <i>j</i>, using the counter-based random number generator {@link Philox4x32}.
+ *
+ * The uniform random number of the increment of a path for a given time index and factor is the number with index
+ * <code>timeIndex * numberOfFactors + factor</code> of the subsequence <code>path</code> of the generator keyed by the seed,
+ * transformed to a normal random number by the inverse of the cumulative distribution function.
+ * Since every random number is a function of (seed, time index, factor, path), the paths are generated in parallel chunks
+ * (see {@link ParallelChunkExecutor}) and the result is bit-identical, regardless of the number of threads.
+ *
+ * The uniform random numbers agree with those of curand's Philox4x32-10 (device API), where path i uses the state
+ * <code>curand_init(seed, i, 0, &amp;state)</code> and draws its numbers by <code>curand_uniform_double</code>
+ * (transformed by <code>normcdfinv</code>).
+ *
+ * The quadruppel (time discretization, number of factors, number of paths, seed)
+ * defines the state of an object of this class.
+ *
+ * By default, all increments are generated on the first request of an increment. In streaming mode (see
+ * {@link #BrownianMotionPhilox(TimeDiscretization, int, int, int, RandomVariableFactory, int)}) the increments of a time step
+ * (a time slice) are generated on demand, by skipping ahead to the random numbers of that time step, and kept in a cache of a given
+ * number of time slices, evicting the least recently used slice. The memory then scales with the number of cached time slices
+ * instead of the number of time steps. Since the random numbers depend on the indices only, both modes generate the same
+ * increments and an evicted time slice is regenerated identically.
+ *
+ * The class is immutable and thread safe. It uses lazy initialization.
+ *
+ * @author Christian Fries
+ */
+public class BrownianMotionPhilox implements BrownianMotion, Serializable {
+
+	private static final long serialVersionUID = 4513950375213948061L;
+
+	private final TimeDiscretization						timeDiscretization;
+
+	private final int			numberOfFactors;
+	private final int			numberOfPaths;
+	private final int			seed;
+
+	private final RandomVariableFactory randomVariableFactory;
+
+	private final int			numberOfCachedTimeSlices;
+
+	private transient	RandomVariable[][]	brownianIncrements;
+	private final		Object						brownianIncrementsLazyInitLock = new Object();
+
+	// Streaming mode: the time slices in least recently used order, guarded by brownianIncrementsLazyInitLock
+	private transient	Map<Integer, CompletableFuture<RandomVariable[]>>	timeSlices;
+	private transient	long							numberOfGeneratedTimeSlices;
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * The constructor allows to set the factory to be used for the construction of
+	 * random variables. This allows to generate Brownian increments represented
+	 * by different implementations of the RandomVariable (e.g. the RandomVariableFromFloatArray internally
+	 * using float representations).
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 * @param numberOfCachedTimeSlices If greater than 0, the increments are generated per time step on demand (streaming mode), keeping at most this number of time steps in memory. If 0, all increments are generated on first use.
+	 */
+	public BrownianMotionPhilox(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final RandomVariableFactory randomVariableFactory,
+			final int numberOfCachedTimeSlices) {
+		super();
+		if(numberOfCachedTimeSlices < 0) {
+			throw new IllegalArgumentException("The number of cached time slices must not be negative.");
+		}
+		this.timeDiscretization = timeDiscretization;
+		this.numberOfFactors	= numberOfFactors;
+		this.numberOfPaths		= numberOfPaths;
+		this.seed				= seed;
+
+		this.randomVariableFactory = randomVariableFactory;
+		this.numberOfCachedTimeSlices = numberOfCachedTimeSlices;
+
+		this.brownianIncrements	= null; 	// Lazy initialization
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * The constructor allows to set the factory to be used for the construction of
+	 * random variables. This allows to generate Brownian increments represented
+	 * by different implementations of the RandomVariable (e.g. the RandomVariableFromFloatArray internally
+	 * using float representations).
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionPhilox(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final RandomVariableFactory randomVariableFactory) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, randomVariableFactory, 0);
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 */
+	public BrownianMotionPhilox(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, new RandomVariableFromArrayFactory());
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
+		return new BrownianMotionPhilox(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, randomVariableFactory, numberOfCachedTimeSlices);
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
+		return new BrownianMotionPhilox(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed(), randomVariableFactory, numberOfCachedTimeSlices);
+	}
+
+	@Override
+	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
+
+		if(numberOfCachedTimeSlices > 0) {
+			return getTimeSlice(timeIndex)[factor];
+		}
+
+		// Thread safe lazy initialization
+		synchronized(brownianIncrementsLazyInitLock) {
+			if(brownianIncrements == null) {
+				doGenerateBrownianMotion();
+			}
+		}
+
+		/*
+		 *  We return an immutable object which ensures that the receiver does not alter the data.
+		 */
+		return brownianIncrements[timeIndex][factor];
+	}
+
+	/**
+	 * Lazy initialization of brownianIncrement. Synchronized to ensure thread safety of lazy init.
+	 */
+	private void doGenerateBrownianMotion() {
+		if(brownianIncrements != null)
+		{
+			return;	// Nothing to do
+		}
+
+		final Philox4x32 generator = new Philox4x32(seed);
+		final int numberOfTimeSteps = timeDiscretization.getNumberOfTimeSteps();
+
+		// Allocate memory
+		final double[][][] brownianIncrementsArray = new double[numberOfTimeSteps][numberOfFactors][numberOfPaths];
+
+		// Pre-calculate square roots of deltaT
+		final double[] sqrtOfTimeStep = new double[numberOfTimeSteps];
+		for(int timeIndex=0; timeIndex<sqrtOfTimeStep.length; timeIndex++) {
+			sqrtOfTimeStep[timeIndex] = Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+		}
+
+		/*
+		 * Generate normal distributed independent increments.
+		 *
+		 * Each path is a subsequence of the generator, hence the paths are generated in parallel chunks.
+		 */
+		ParallelChunkExecutor.forEach(numberOfPaths, (from, to) -> {
+			final double[] uniforms = new double[numberOfTimeSteps * numberOfFactors];
+			for(int path=from; path<to; path++) {
+				generator.fillUniformDouble(path, 0, uniforms);
+				for(int timeIndex=0; timeIndex<numberOfTimeSteps; timeIndex++) {
+					final double sqrtDeltaT = sqrtOfTimeStep[timeIndex];
+					for(int factor=0; factor<numberOfFactors; factor++) {
+						final double uniformIncrement = uniforms[timeIndex * numberOfFactors + factor];
+						brownianIncrementsArray[timeIndex][factor][path] = net.finmath.functions.NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
+					}
+				}
+			}
+		});
+
+		// Allocate memory for RandomVariableFromDoubleArray wrapper objects.
+		brownianIncrements = new RandomVariable[numberOfTimeSteps][numberOfFactors];
+
+		// Wrap the values in RandomVariableFromDoubleArray objects
+		for(int timeIndex=0; timeIndex<numberOfTimeSteps; timeIndex++) {
+			final double time = timeDiscretization.getTime(timeIndex+1);
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				brownianIncrements[timeIndex][factor] =
+						randomVariableFactory.createRandomVariable(time, brownianIncrementsArray[timeIndex][factor]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the increments of a time step (streaming mode). The lock is held only to look up the cache, such that
+	 * different time slices are generated concurrently, while concurrent requests of the same time slice wait for its generation.
+	 */
+	private RandomVariable[] getTimeSlice(final int timeIndex) {
+		if(timeIndex < 0 || timeIndex >= timeDiscretization.getNumberOfTimeSteps()) {
+			throw new ArrayIndexOutOfBoundsException("Time index " + timeIndex + " out of range.");
+		}
+
+		final CompletableFuture<RandomVariable[]> timeSlice;
+		final boolean isNew;
+		synchronized(brownianIncrementsLazyInitLock) {
+			if(timeSlices == null) {
+				timeSlices = new LinkedHashMap<Integer, CompletableFuture<RandomVariable[]>>(16, 0.75f, true) {
+					private static final long serialVersionUID = -4466498436232564520L;
+
+					@Override
+					protected boolean removeEldestEntry(final Map.Entry<Integer, CompletableFuture<RandomVariable[]>> eldest) {
+						return size() > numberOfCachedTimeSlices;
+					}
+				};
+			}
+
+			final CompletableFuture<RandomVariable[]> cachedTimeSlice = timeSlices.get(timeIndex);
+			isNew = cachedTimeSlice == null;
+			if(isNew) {
+				timeSlice = new CompletableFuture<>();
+				timeSlices.put(timeIndex, timeSlice);
+				numberOfGeneratedTimeSlices++;
+			}
+			else {
+				timeSlice = cachedTimeSlice;
+			}
+		}
+
+		if(isNew) {
+			try {
+				timeSlice.complete(generateTimeSlice(timeIndex));
+			}
+			catch(final RuntimeException | Error e) {
+				synchronized(brownianIncrementsLazyInitLock) {
+					timeSlices.remove(timeIndex, timeSlice);
+				}
+				timeSlice.completeExceptionally(e);
+				throw e;
+			}
+		}
+		return timeSlice.join();
+	}
+
+	private RandomVariable[] generateTimeSlice(final int timeIndex) {
+		final Philox4x32 generator = new Philox4x32(seed);
+		final double sqrtDeltaT = Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+
+		final double[][] brownianIncrementsArray = new double[numberOfFactors][numberOfPaths];
+
+		// Skip ahead to the random numbers of the time step on each path
+		ParallelChunkExecutor.forEach(numberOfPaths, (from, to) -> {
+			final double[] uniforms = new double[numberOfFactors];
+			for(int path=from; path<to; path++) {
+				generator.fillUniformDouble(path, (long)timeIndex * numberOfFactors, uniforms);
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					brownianIncrementsArray[factor][path] = net.finmath.functions.NormalDistribution.inverseCumulativeDistribution(uniforms[factor]) * sqrtDeltaT;
+				}
+			}
+		});
+
+		final double time = timeDiscretization.getTime(timeIndex+1);
+		final RandomVariable[] increments = new RandomVariable[numberOfFactors];
+		for(int factor=0; factor<numberOfFactors; factor++) {
+			increments[factor] = randomVariableFactory.createRandomVariable(time, brownianIncrementsArray[factor]);
+		}
+		return increments;
+	}
+
+	/**
+	 * @return The number of time slices generated in streaming mode (including the regeneration of evicted time slices).
+	 */
+	long getNumberOfGeneratedTimeSlices() {
+		synchronized(brownianIncrementsLazyInitLock) {
+			return numberOfGeneratedTimeSlices;
+		}
+	}
+
+	/**
+	 * @return The number of time slices currently held in streaming mode.
+	 */
+	int getNumberOfCachedTimeSlicesInUse() {
+		synchronized(brownianIncrementsLazyInitLock) {
+			return timeSlices != null ? timeSlices.size() : 0;
+		}
+	}
+
+	/**
+	 * @return The maximum number of time slices held in streaming mode, 0 if all increments are generated on first use.
+	 */
+	public int getNumberOfCachedTimeSlices() {
+		return numberOfCachedTimeSlices;
+	}
+
+	@Override
+	public TimeDiscretization getTimeDiscretization() {
+		return timeDiscretization;
+	}
+
+	@Override
+	public int getNumberOfFactors() {
+		return numberOfFactors;
+	}
+
+	@Override
+	public int getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	@Override
+	public RandomVariable getRandomVariableForConstant(final double value) {
+		return randomVariableFactory.createRandomVariable(value);
+	}
+
+	/**
+	 * @return Returns the seed.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString()
+				+ "\n" + "timeDiscretizationFromArray: " + timeDiscretization.toString()
+				+ "\n" + "numberOfPaths: " + numberOfPaths
+				+ "\n" + "numberOfFactors: " + numberOfFactors
+				+ "\n" + "seed: " + seed
+				+ "\n" + "numberOfCachedTimeSlices: " + numberOfCachedTimeSlices;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		final BrownianMotionPhilox that = (BrownianMotionPhilox) o;
+
+		if (numberOfFactors != that.numberOfFactors) {
+			return false;
+		}
+		if (numberOfPaths != that.numberOfPaths) {
+			return false;
+		}
+		if (seed != that.seed) {
+			return false;
+		}
+		if (!timeDiscretization.equals(that.timeDiscretization)) {
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public RandomVariable getIncrement(final int timeIndex, final int factor) {
+		return getBrownianIncrement(timeIndex, factor);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = timeDiscretization.hashCode();
+		result = 31 * result + numberOfFactors;
+		result = 31 * result + numberOfPaths;
+		result = 31 * result + seed;
+		return result;
+	}
+}
@@ -0,0 +1,436 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.alternative;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.stream.IntStream;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.EigenDecomposition;
+
+import net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor;
+import net.finmath.cuda.cpu.montecarlo.RandomVariableFloatFactory;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * Implementation of a time-discrete n-dimensional Brownian motion
+ * <i>W = (W<sub>1</sub>,...,W<sub>n</sub>)</i> where <i>W<sub>i</sub></i> is
+ * a Brownian motion and <i>W<sub>i</sub></i>, <i>W<sub>j</sub></i> are
+ * independent for <i>i</i> not equal <i>j</i>, using the quasi random numbers of a {@link ScrambledSobolSequence}.
+ *
+ * Path i uses the point with index i of the sequence. The path of each factor is constructed from the normal random numbers
+ * (the inverse cumulative distribution function applied to the coordinates) by a {@link PathConstruction}, which assigns
+ * the first (most uniform) coordinates to the directions carrying most of the variance: the Brownian bridge
+ * (the terminal value first, then the midpoints of the intervals, level by level) or the principal components of the
+ * covariance of <i>(W(t<sub>1</sub>),...,W(t<sub>m</sub>))</i> (by decreasing eigenvalue).
+ * The coordinates of the factors are interleaved, i.e., coordinate <code>k * numberOfFactors + factor</code> is the
+ * k-th random number of the construction of a factor. Coordinates beyond {@link ScrambledSobolSequence#MAX_DIMENSION} are
+ * padded with the pseudo random numbers of {@link Philox4x32} (subsequence path, keyed by the seed).
+ *
+ * The paths are generated in parallel chunks (see {@link ParallelChunkExecutor}), each chunk skipping ahead to its first point,
+ * such that the result does not depend on the number of threads. The increments are stored as floats, using the
+ * {@link RandomVariableFloatFactory}.
+ *
+ * The quintuple (time discretization, number of factors, number of paths, seed, path construction)
+ * defines the state of an object of this class. The seed determines the scrambling, such that
+ * Brownian motions with different seeds give independent (randomized quasi Monte-Carlo) estimates.
+ *
+ * The class is immutable and thread safe. It uses lazy initialization.
+ *
+ * @author Christian Fries
+ */
+public class BrownianMotionSobol implements BrownianMotion, Serializable {
+
+	private static final long serialVersionUID = -3029712417698123550L;
+
+	/**
+	 * The construction of the path of a factor from normal random numbers.
+	 */
+	public enum PathConstruction {
+		/** Brownian bridge: the terminal value first, then the midpoints of the intervals. */
+		BROWNIAN_BRIDGE,
+		/** Principal components of the covariance of the values of the Brownian motion, ordered by decreasing eigenvalue. */
+		PRINCIPAL_COMPONENTS
+	}
+
+	private final TimeDiscretization						timeDiscretization;
+
+	private final int			numberOfFactors;
+	private final int			numberOfPaths;
+	private final int			seed;
+	private final PathConstruction	pathConstruction;
+
+	private final RandomVariableFloatFactory randomVariableFactory;
+
+	private transient	RandomVariable[][]	brownianIncrements;
+	private final		Object						brownianIncrementsLazyInitLock = new Object();
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the scrambling of the Sobol sequence.
+	 * @param pathConstruction The construction of the paths from the quasi random numbers.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionSobol(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final PathConstruction pathConstruction,
+			final RandomVariableFloatFactory randomVariableFactory) {
+		super();
+		this.timeDiscretization = timeDiscretization;
+		this.numberOfFactors	= numberOfFactors;
+		this.numberOfPaths		= numberOfPaths;
+		this.seed				= seed;
+		this.pathConstruction	= pathConstruction;
+
+		this.randomVariableFactory = randomVariableFactory;
+
+		this.brownianIncrements	= null; 	// Lazy initialization
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the scrambling of the Sobol sequence.
+	 * @param pathConstruction The construction of the paths from the quasi random numbers.
+	 */
+	public BrownianMotionSobol(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final PathConstruction pathConstruction) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, pathConstruction, new RandomVariableFloatFactory());
+	}
+
+	/**
+	 * Construct a Brownian motion using the Brownian bridge construction.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the scrambling of the Sobol sequence.
+	 */
+	public BrownianMotionSobol(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, PathConstruction.BROWNIAN_BRIDGE);
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
+		return new BrownianMotionSobol(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, pathConstruction, randomVariableFactory);
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
+		return new BrownianMotionSobol(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed(), pathConstruction, randomVariableFactory);
+	}
+
+	@Override
+	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
+
+		// Thread safe lazy initialization
+		synchronized(brownianIncrementsLazyInitLock) {
+			if(brownianIncrements == null) {
+				doGenerateBrownianMotion();
+			}
+		}
+
+		/*
+		 *  We return an immutable object which ensures that the receiver does not alter the data.
+		 */
+		return brownianIncrements[timeIndex][factor];
+	}
+
+	/**
+	 * Lazy initialization of brownianIncrement. Synchronized to ensure thread safety of lazy init.
+	 */
+	private void doGenerateBrownianMotion() {
+		if(brownianIncrements != null)
+		{
+			return;	// Nothing to do
+		}
+
+		final int numberOfTimeSteps = timeDiscretization.getNumberOfTimeSteps();
+		final int dimension = numberOfTimeSteps * numberOfFactors;
+		final int sobolDimension = Math.min(dimension, ScrambledSobolSequence.MAX_DIMENSION);
+
+		final ScrambledSobolSequence sobolSequence = new ScrambledSobolSequence(sobolDimension, seed);
+		final Philox4x32 padding = new Philox4x32(seed);
+		final PathConstructor pathConstructor = pathConstruction == PathConstruction.PRINCIPAL_COMPONENTS ?
+				new PrincipalComponentsConstructor(timeDiscretization) : new BrownianBridgeConstructor(timeDiscretization);
+
+		// Allocate memory
+		final float[][][] brownianIncrementsArray = new float[numberOfTimeSteps][numberOfFactors][numberOfPaths];
+
+		/*
+		 * Generate the paths in parallel chunks, each chunk skipping ahead to the point of its first path.
+		 */
+		ParallelChunkExecutor.forEach(numberOfPaths, (from, to) -> {
+			final int[] point = new int[sobolDimension];
+			final double[] paddingUniforms = new double[dimension - sobolDimension];
+			final double[] normals = new double[numberOfTimeSteps];
+			final double[] values = new double[numberOfTimeSteps+1];
+
+			sobolSequence.skipTo(from, point);
+			for(int path=from; path<to; path++) {
+				if(path > from) {
+					sobolSequence.next(path-1, point);
+				}
+				if(paddingUniforms.length > 0) {
+					padding.fillUniformDouble(path, 0, paddingUniforms);
+				}
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					for(int k=0; k<numberOfTimeSteps; k++) {
+						final int coordinate = k * numberOfFactors + factor;
+						final double uniform = coordinate < sobolDimension ?
+								ScrambledSobolSequence.toUniformDouble(point[coordinate]) : paddingUniforms[coordinate - sobolDimension];
+						normals[k] = net.finmath.functions.NormalDistribution.inverseCumulativeDistribution(uniform);
+					}
+					pathConstructor.construct(normals, values);
+					for(int timeIndex=0; timeIndex<numberOfTimeSteps; timeIndex++) {
+						brownianIncrementsArray[timeIndex][factor][path] = (float)(values[timeIndex+1] - values[timeIndex]);
+					}
+				}
+			}
+		});
+
+		// Allocate memory for RandomVariableFromFloatArray wrapper objects.
+		brownianIncrements = new RandomVariable[numberOfTimeSteps][numberOfFactors];
+
+		// Wrap the values in RandomVariableFromFloatArray objects
+		for(int timeIndex=0; timeIndex<numberOfTimeSteps; timeIndex++) {
+			final double time = timeDiscretization.getTime(timeIndex+1);
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				brownianIncrements[timeIndex][factor] =
+						randomVariableFactory.createRandomVariable(time, brownianIncrementsArray[timeIndex][factor]);
+			}
+		}
+	}
+
+	/**
+	 * Constructs the values W(t<sub>0</sub>) = 0, W(t<sub>1</sub>), ..., W(t<sub>m</sub>) of a path from m independent standard normal random numbers.
+	 */
+	private interface PathConstructor {
+		void construct(double[] normals, double[] values);
+	}
+
+	/**
+	 * The Brownian bridge: step k sets W(t<sub>i</sub>) = a W(t<sub>l</sub>) + b W(t<sub>r</sub>) + c Z<sub>k</sub> with l &lt; i &lt; r already constructed.
+	 */
+	private static final class BrownianBridgeConstructor implements PathConstructor {
+		private final int[] index;
+		private final int[] leftIndex;
+		private final int[] rightIndex;
+		private final double[] leftWeight;
+		private final double[] rightWeight;
+		private final double[] standardDeviation;
+
+		BrownianBridgeConstructor(final TimeDiscretization timeDiscretization) {
+			final int numberOfTimeSteps = timeDiscretization.getNumberOfTimeSteps();
+			index = new int[numberOfTimeSteps];
+			leftIndex = new int[numberOfTimeSteps];
+			rightIndex = new int[numberOfTimeSteps];
+			leftWeight = new double[numberOfTimeSteps];
+			rightWeight = new double[numberOfTimeSteps];
+			standardDeviation = new double[numberOfTimeSteps];
+
+			// The terminal value
+			index[0] = numberOfTimeSteps;
+			standardDeviation[0] = Math.sqrt(timeDiscretization.getTime(numberOfTimeSteps) - timeDiscretization.getTime(0));
+
+			// The midpoints, breadth first (i.e. level by level)
+			final Deque<int[]> intervals = new ArrayDeque<>();
+			intervals.add(new int[] { 0, numberOfTimeSteps });
+			int step = 1;
+			while(!intervals.isEmpty()) {
+				final int[] interval = intervals.poll();
+				final int left = interval[0];
+				final int right = interval[1];
+				if(right - left < 2) {
+					continue;
+				}
+				final int middle = (left + right) / 2;
+				final double timeLeft = timeDiscretization.getTime(left);
+				final double timeMiddle = timeDiscretization.getTime(middle);
+				final double timeRight = timeDiscretization.getTime(right);
+
+				index[step] = middle;
+				leftIndex[step] = left;
+				rightIndex[step] = right;
+				leftWeight[step] = (timeRight - timeMiddle) / (timeRight - timeLeft);
+				rightWeight[step] = (timeMiddle - timeLeft) / (timeRight - timeLeft);
+				standardDeviation[step] = Math.sqrt((timeMiddle - timeLeft) * (timeRight - timeMiddle) / (timeRight - timeLeft));
+				step++;
+
+				intervals.add(new int[] { left, middle });
+				intervals.add(new int[] { middle, right });
+			}
+		}
+
+		@Override
+		public void construct(final double[] normals, final double[] values) {
+			values[0] = 0.0;
+			values[index[0]] = standardDeviation[0] * normals[0];
+			for(int step=1; step<index.length; step++) {
+				values[index[step]] = leftWeight[step] * values[leftIndex[step]] + rightWeight[step] * values[rightIndex[step]] + standardDeviation[step] * normals[step];
+			}
+		}
+	}
+
+	/**
+	 * The principal components: W(t<sub>i</sub>) = &sum;<sub>k</sub> &radic;&lambda;<sub>k</sub> e<sub>k,i</sub> Z<sub>k</sub>, where
+	 * (&lambda;<sub>k</sub>, e<sub>k</sub>) are the eigenpairs of the covariance min(t<sub>i</sub>,t<sub>j</sub>) - t<sub>0</sub>, by decreasing eigenvalue.
+	 */
+	private static final class PrincipalComponentsConstructor implements PathConstructor {
+		// factorLoadings[i][k] = sqrt(lambda_k) e_k(i)
+		private final double[][] factorLoadings;
+
+		PrincipalComponentsConstructor(final TimeDiscretization timeDiscretization) {
+			final int numberOfTimeSteps = timeDiscretization.getNumberOfTimeSteps();
+			final double[][] covariance = new double[numberOfTimeSteps][numberOfTimeSteps];
+			for(int i=0; i<numberOfTimeSteps; i++) {
+				for(int j=0; j<numberOfTimeSteps; j++) {
+					covariance[i][j] = timeDiscretization.getTime(Math.min(i, j)+1) - timeDiscretization.getTime(0);
+				}
+			}
+
+			final EigenDecomposition eigenDecomposition = new EigenDecomposition(new Array2DRowRealMatrix(covariance, false));
+			final double[] eigenvalues = eigenDecomposition.getRealEigenvalues();
+			final Integer[] order = IntStream.range(0, numberOfTimeSteps).boxed().toArray(Integer[]::new);
+			Arrays.sort(order, Comparator.comparingDouble((final Integer k) -> eigenvalues[k]).reversed());
+
+			factorLoadings = new double[numberOfTimeSteps][numberOfTimeSteps];
+			for(int k=0; k<numberOfTimeSteps; k++) {
+				final double scale = Math.sqrt(Math.max(eigenvalues[order[k]], 0.0));
+				final double[] eigenvector = eigenDecomposition.getEigenvector(order[k]).toArray();
+				for(int i=0; i<numberOfTimeSteps; i++) {
+					factorLoadings[i][k] = scale * eigenvector[i];
+				}
+			}
+		}
+
+		@Override
+		public void construct(final double[] normals, final double[] values) {
+			values[0] = 0.0;
+			for(int i=0; i<factorLoadings.length; i++) {
+				final double[] factorLoading = factorLoadings[i];
+				double value = 0.0;
+				for(int k=0; k<factorLoading.length; k++) {
+					value += factorLoading[k] * normals[k];
+				}
+				values[i+1] = value;
+			}
+		}
+	}
+
+	@Override
+	public TimeDiscretization getTimeDiscretization() {
+		return timeDiscretization;
+	}
+
+	@Override
+	public int getNumberOfFactors() {
+		return numberOfFactors;
+	}
+
+	@Override
+	public int getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	@Override
+	public RandomVariable getRandomVariableForConstant(final double value) {
+		return randomVariableFactory.createRandomVariable(value);
+	}
+
+	/**
+	 * @return Returns the seed.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return Returns the construction of the paths.
+	 */
+	public PathConstruction getPathConstruction() {
+		return pathConstruction;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString()
+				+ "\n" + "timeDiscretizationFromArray: " + timeDiscretization.toString()
+				+ "\n" + "numberOfPaths: " + numberOfPaths
+				+ "\n" + "numberOfFactors: " + numberOfFactors
+				+ "\n" + "seed: " + seed
+				+ "\n" + "pathConstruction: " + pathConstruction;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		final BrownianMotionSobol that = (BrownianMotionSobol) o;
+
+		if (numberOfFactors != that.numberOfFactors) {
+			return false;
+		}
+		if (numberOfPaths != that.numberOfPaths) {
+			return false;
+		}
+		if (seed != that.seed) {
+			return false;
+		}
+		if (pathConstruction != that.pathConstruction) {
+			return false;
+		}
+		if (!timeDiscretization.equals(that.timeDiscretization)) {
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public RandomVariable getIncrement(final int timeIndex, final int factor) {
+		return getBrownianIncrement(timeIndex, factor);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = timeDiscretization.hashCode();
+		result = 31 * result + numberOfFactors;
+		result = 31 * result + numberOfPaths;
+		result = 31 * result + seed;
+		result = 31 * result + pathConstruction.hashCode();
+		return result;
+	}
+}
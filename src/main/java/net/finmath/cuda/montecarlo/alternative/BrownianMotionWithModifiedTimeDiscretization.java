@@ -0,0 +1,280 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.alternative;
+
+import java.io.Serializable;
+
+import net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor;
+import net.finmath.cuda.cpu.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.functions.NormalDistribution;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * A Brownian motion on a modified time discretization, constructed from the increments of a given Brownian motion
+ * (instead of generating new random numbers for all time steps).
+ *
+ * The values of the Brownian motion at the new times are constructed path by path from the values at the times of the
+ * given Brownian motion <i>W(t<sub>k</sub>) = &sum;<sub>i&lt;k</sub> &Delta;W(t<sub>i</sub>)</i>:
+ * <ul>
+ * 	<li>at a time of the given time discretization the value is the sum of the given increments (coarsening),</li>
+ * 	<li>at a time between two times of the given time discretization the value is drawn from the Brownian bridge between
+ * 		the previous (given or new) time and the next given time (refinement),</li>
+ * 	<li>after the last time of the given time discretization the value is drawn as an independent increment (extension).</li>
+ * </ul>
+ * Hence, the result is a Brownian motion with the same values at the common times. The additional normal random numbers are
+ * generated by {@link Philox4x32} (path i using subsequence 2<sup>32</sup> + i, the random number of the new time index j and factor f having
+ * index <code>j * numberOfFactors + f</code>), such that the construction is reproducible and parallel over the paths.
+ * The subsequences are disjoint from those used by {@link BrownianMotionPhilox} (path i using subsequence i), hence the additional random
+ * numbers are independent of the given increments, even if the given Brownian motion is a <code>BrownianMotionPhilox</code> with the same seed.
+ *
+ * The increments are represented by {@link RandomVariableFromFloatArray}.
+ *
+ * The class is immutable and thread safe. It uses lazy initialization.
+ *
+ * @author Christian Fries
+ */
+public class BrownianMotionWithModifiedTimeDiscretization implements BrownianMotion, Serializable {
+
+	private static final long serialVersionUID = -4286193546734870553L;
+
+	/**
+	 * The offset of the subsequences of the paths (disjoint from the subsequences of the paths of {@link BrownianMotionPhilox}).
+	 */
+	private static final long SUBSEQUENCE_OFFSET = 1L << 32;
+
+	private final BrownianMotion		brownianMotion;
+	private final TimeDiscretization	timeDiscretization;
+	private final int					seed;
+
+	private transient	RandomVariable[][]	brownianIncrements;
+	private final		Object						brownianIncrementsLazyInitLock = new Object();
+
+	/**
+	 * Construct a Brownian motion on a modified time discretization from a given Brownian motion.
+	 *
+	 * @param brownianMotion The Brownian motion providing the increments.
+	 * @param timeDiscretization The new time discretization (must not start before the time discretization of the given Brownian motion).
+	 * @param seed The seed of the random numbers used for the refinement and the extension.
+	 */
+	public BrownianMotionWithModifiedTimeDiscretization(
+			final BrownianMotion brownianMotion,
+			final TimeDiscretization timeDiscretization,
+			final int seed) {
+		super();
+		if(timeDiscretization.getTime(0) < brownianMotion.getTimeDiscretization().getTime(0)) {
+			throw new IllegalArgumentException("The time discretization starts before the time discretization of the Brownian motion.");
+		}
+		this.brownianMotion		= brownianMotion;
+		this.timeDiscretization	= timeDiscretization;
+		this.seed				= seed;
+
+		this.brownianIncrements	= null; 	// Lazy initialization
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
+		return new BrownianMotionWithModifiedTimeDiscretization(brownianMotion.getCloneWithModifiedSeed(seed), timeDiscretization, seed);
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
+		// Construct from the original increments, not from the constructed ones
+		return new BrownianMotionWithModifiedTimeDiscretization(brownianMotion, newTimeDiscretization, seed);
+	}
+
+	@Override
+	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
+
+		// Thread safe lazy initialization
+		synchronized(brownianIncrementsLazyInitLock) {
+			if(brownianIncrements == null) {
+				doGenerateBrownianMotion();
+			}
+		}
+
+		/*
+		 *  We return an immutable object which ensures that the receiver does not alter the data.
+		 */
+		return brownianIncrements[timeIndex][factor];
+	}
+
+	/**
+	 * Lazy initialization of brownianIncrement. Synchronized to ensure thread safety of lazy init.
+	 */
+	private void doGenerateBrownianMotion() {
+		if(brownianIncrements != null)
+		{
+			return;	// Nothing to do
+		}
+
+		final TimeDiscretization givenTimeDiscretization = brownianMotion.getTimeDiscretization();
+		final int numberOfGivenTimeSteps = givenTimeDiscretization.getNumberOfTimeSteps();
+		final int numberOfTimeSteps = timeDiscretization.getNumberOfTimeSteps();
+		final int numberOfFactors = getNumberOfFactors();
+		final int numberOfPaths = getNumberOfPaths();
+
+		final RandomVariable[][] givenIncrements = new RandomVariable[numberOfGivenTimeSteps][numberOfFactors];
+		for(int timeIndex=0; timeIndex<numberOfGivenTimeSteps; timeIndex++) {
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				givenIncrements[timeIndex][factor] = brownianMotion.getBrownianIncrement(timeIndex, factor);
+			}
+		}
+
+		final Philox4x32 generator = new Philox4x32(seed);
+
+		// Allocate memory
+		final float[][][] brownianIncrementsArray = new float[numberOfTimeSteps][numberOfFactors][numberOfPaths];
+
+		ParallelChunkExecutor.forEach(numberOfPaths, (from, to) -> {
+			for(int path=from; path<to; path++) {
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					// The value at the given time with index givenTimeIndex
+					double givenValue = 0.0;
+					int givenTimeIndex = 0;
+
+					// The value at the previous time (the left point of the bridge)
+					double previousTime = givenTimeDiscretization.getTime(0);
+					double previousValue = 0.0;
+
+					// The value at the previous time of the new time discretization
+					double lastValue = 0.0;
+
+					for(int timeIndex=0; timeIndex<=numberOfTimeSteps; timeIndex++) {
+						final double time = timeDiscretization.getTime(timeIndex);
+
+						// Sum the given increments up to time
+						while(givenTimeIndex < numberOfGivenTimeSteps && givenTimeDiscretization.getTime(givenTimeIndex+1) <= time) {
+							givenValue += givenIncrements[givenTimeIndex][factor].get(path);
+							givenTimeIndex++;
+							previousTime = givenTimeDiscretization.getTime(givenTimeIndex);
+							previousValue = givenValue;
+						}
+
+						final double value;
+						if(time == previousTime) {
+							value = previousValue;
+						}
+						else if(givenTimeIndex < numberOfGivenTimeSteps) {
+							// Brownian bridge from the previous time to the next given time
+							final double nextTime = givenTimeDiscretization.getTime(givenTimeIndex+1);
+							final double nextValue = givenValue + givenIncrements[givenTimeIndex][factor].get(path);
+							final double weight = (time - previousTime) / (nextTime - previousTime);
+							final double standardDeviation = Math.sqrt((time - previousTime) * (nextTime - time) / (nextTime - previousTime));
+							value = previousValue + weight * (nextValue - previousValue) + standardDeviation * getNormal(generator, path, timeIndex, factor, numberOfFactors);
+						}
+						else {
+							// Independent increment after the last given time
+							value = previousValue + Math.sqrt(time - previousTime) * getNormal(generator, path, timeIndex, factor, numberOfFactors);
+						}
+
+						if(timeIndex > 0) {
+							brownianIncrementsArray[timeIndex-1][factor][path] = (float)(value - lastValue);
+						}
+						lastValue = value;
+						previousTime = time;
+						previousValue = value;
+					}
+				}
+			}
+		});
+
+		// Allocate memory for RandomVariableFromFloatArray wrapper objects.
+		brownianIncrements = new RandomVariable[numberOfTimeSteps][numberOfFactors];
+
+		// Wrap the values in RandomVariableFromFloatArray objects
+		for(int timeIndex=0; timeIndex<numberOfTimeSteps; timeIndex++) {
+			final double time = timeDiscretization.getTime(timeIndex+1);
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				brownianIncrements[timeIndex][factor] = new RandomVariableFromFloatArray(time, brownianIncrementsArray[timeIndex][factor]);
+			}
+		}
+	}
+
+	private static double getNormal(final Philox4x32 generator, final int path, final int timeIndex, final int factor, final int numberOfFactors) {
+		return NormalDistribution.inverseCumulativeDistribution(generator.getUniformDouble(SUBSEQUENCE_OFFSET + path, (long)timeIndex * numberOfFactors + factor));
+	}
+
+	@Override
+	public TimeDiscretization getTimeDiscretization() {
+		return timeDiscretization;
+	}
+
+	@Override
+	public int getNumberOfFactors() {
+		return brownianMotion.getNumberOfFactors();
+	}
+
+	@Override
+	public int getNumberOfPaths() {
+		return brownianMotion.getNumberOfPaths();
+	}
+
+	@Override
+	public RandomVariable getRandomVariableForConstant(final double value) {
+		return brownianMotion.getRandomVariableForConstant(value);
+	}
+
+	/**
+	 * @return Returns the Brownian motion providing the increments.
+	 */
+	public BrownianMotion getBrownianMotion() {
+		return brownianMotion;
+	}
+
+	/**
+	 * @return Returns the seed of the random numbers used for the refinement and the extension.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString()
+				+ "\n" + "timeDiscretizationFromArray: " + timeDiscretization.toString()
+				+ "\n" + "brownianMotion: " + brownianMotion.toString()
+				+ "\n" + "seed: " + seed;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		final BrownianMotionWithModifiedTimeDiscretization that = (BrownianMotionWithModifiedTimeDiscretization) o;
+
+		if (seed != that.seed) {
+			return false;
+		}
+		if (!brownianMotion.equals(that.brownianMotion)) {
+			return false;
+		}
+		if (!timeDiscretization.equals(that.timeDiscretization)) {
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public RandomVariable getIncrement(final int timeIndex, final int factor) {
+		return getBrownianIncrement(timeIndex, factor);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = timeDiscretization.hashCode();
+		result = 31 * result + brownianMotion.hashCode();
+		result = 31 * result + seed;
+		return result;
+	}
+}
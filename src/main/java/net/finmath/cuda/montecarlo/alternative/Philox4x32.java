@@ -0,0 +1,159 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.alternative;
+
+import java.io.Serializable;
+
+/**
+ * The counter-based random number generator Philox4x32-10 of Salmon et al. (Random123), as implemented by curand.
+ *
+ * The generator has no state: the random numbers are a function of a 128 bit counter and a 64 bit key (the seed),
+ * such that any random number can be calculated directly, i.e., the numbers can be generated in any order and in parallel.
+ *
+ * The numbering of the random numbers follows the device API of curand: the state <code>curand_init(seed, subsequence, offset, &amp;state)</code>
+ * generates the 32 bit integers with index offset, offset+1, ... of the given subsequence (the subsequence being the high 64 bits
+ * of the counter). Each call to <code>curand_uniform_double(&amp;state)</code> consumes two integers. Hence, the value
+ * {@link #getUniformDouble(long, long)}<code>(subsequence, i)</code> agrees with the i-th call of <code>curand_uniform_double</code>
+ * on the state <code>curand_init(seed, subsequence, 0, &amp;state)</code>, such that CPU and GPU runs generate the same numbers.
+ *
+ * The class is immutable and thread safe.
+ *
+ * @author Christian Fries
+ */
+public final class Philox4x32 implements Serializable {
+
+	private static final long serialVersionUID = -1497521745382237816L;
+
+	private static final int PHILOX_M4x32_0 = 0xD2511F53;
+	private static final int PHILOX_M4x32_1 = 0xCD9E8D57;
+	private static final int PHILOX_W32_0 = 0x9E3779B9;
+	private static final int PHILOX_W32_1 = 0xBB67AE85;
+
+	private static final int NUMBER_OF_ROUNDS = 10;
+
+	private static final double TWO_POW_53_INV = 1.0 / (1L << 53);
+
+	private final long seed;
+
+	/**
+	 * Create the generator for a given seed (the key of the Philox bijection).
+	 *
+	 * @param seed The seed.
+	 */
+	public Philox4x32(final long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * @return The seed.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Apply the Philox4x32-10 bijection to a counter.
+	 *
+	 * @param counter The counter (four 32 bit words, the first being the least significant).
+	 * @param key The key (two 32 bit words, the first being the least significant).
+	 * @return The four 32 bit random numbers for the counter.
+	 */
+	public static int[] philox4x32(final int[] counter, final int[] key) {
+		final int[] result = new int[4];
+		philox4x32(counter[0], counter[1], counter[2], counter[3], key[0], key[1], result);
+		return result;
+	}
+
+	/**
+	 * Returns the 32 bit random integer with a given index of a subsequence (the result of the index-th call of <code>curand</code>).
+	 *
+	 * @param subsequence The subsequence.
+	 * @param index The index of the integer within the subsequence.
+	 * @return The random integer (to be interpreted as unsigned).
+	 */
+	public int getInt(final long subsequence, final long index) {
+		final int[] block = new int[4];
+		generateBlock(subsequence, index >>> 2, block);
+		return block[(int)(index & 3)];
+	}
+
+	/**
+	 * Returns the uniform random number in (0,1) with a given index of a subsequence (the result of the index-th call of
+	 * <code>curand_uniform_double</code>), having 53 random bits.
+	 *
+	 * @param subsequence The subsequence.
+	 * @param index The index of the number within the subsequence.
+	 * @return The uniform random number.
+	 */
+	public double getUniformDouble(final long subsequence, final long index) {
+		final int[] block = new int[4];
+		generateBlock(subsequence, index >>> 1, block);
+		final int offset = (int)(index & 1) * 2;
+		return toUniformDouble(block[offset], block[offset+1]);
+	}
+
+	/**
+	 * Fill an array with consecutive uniform random numbers of a subsequence, i.e., <code>values[i] = getUniformDouble(subsequence, index + i)</code>.
+	 *
+	 * @param subsequence The subsequence.
+	 * @param index The index of the first number within the subsequence.
+	 * @param values The array to fill.
+	 */
+	public void fillUniformDouble(final long subsequence, final long index, final double[] values) {
+		final int[] block = new int[4];
+		int i = 0;
+		if((index & 1) != 0 && values.length > 0) {
+			generateBlock(subsequence, index >>> 1, block);
+			values[i++] = toUniformDouble(block[2], block[3]);
+		}
+		// Each block of four integers gives two doubles
+		long blockIndex = (index + i) >>> 1;
+		for(; i+1<values.length; i+=2) {
+			generateBlock(subsequence, blockIndex++, block);
+			values[i] = toUniformDouble(block[0], block[1]);
+			values[i+1] = toUniformDouble(block[2], block[3]);
+		}
+		if(i < values.length) {
+			generateBlock(subsequence, blockIndex, block);
+			values[i] = toUniformDouble(block[0], block[1]);
+		}
+	}
+
+	private void generateBlock(final long subsequence, final long blockIndex, final int[] result) {
+		philox4x32((int)blockIndex, (int)(blockIndex >>> 32), (int)subsequence, (int)(subsequence >>> 32), (int)seed, (int)(seed >>> 32), result);
+	}
+
+	/*
+	 * As _curand_uniform_double_hq: 32 bits of x and 21 bits of y, shifted to the midpoint of the interval.
+	 */
+	private static double toUniformDouble(final int x, final int y) {
+		final long z = (x & 0xFFFFFFFFL) ^ ((y & 0xFFFFFFFFL) << (53 - 32));
+		return z * TWO_POW_53_INV + TWO_POW_53_INV / 2.0;
+	}
+
+	private static void philox4x32(int c0, int c1, int c2, int c3, int k0, int k1, final int[] result) {
+		for(int round=0; round<NUMBER_OF_ROUNDS; round++) {
+			if(round > 0) {
+				k0 += PHILOX_W32_0;
+				k1 += PHILOX_W32_1;
+			}
+			final long product0 = (PHILOX_M4x32_0 & 0xFFFFFFFFL) * (c0 & 0xFFFFFFFFL);
+			final long product1 = (PHILOX_M4x32_1 & 0xFFFFFFFFL) * (c2 & 0xFFFFFFFFL);
+			final int hi0 = (int)(product0 >>> 32);
+			final int lo0 = (int)product0;
+			final int hi1 = (int)(product1 >>> 32);
+			final int lo1 = (int)product1;
+			c0 = hi1 ^ c1 ^ k0;
+			c1 = lo1;
+			c2 = hi0 ^ c3 ^ k1;
+			c3 = lo0;
+		}
+		result[0] = c0;
+		result[1] = c1;
+		result[2] = c2;
+		result[3] = c3;
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.alternative;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.StringTokenizer;
+
+/**
+ * A scrambled 32 bit Sobol sequence, using the direction numbers of Joe and Kuo (<code>new-joe-kuo-6.1000</code>, as shipped with Apache commons-math3).
+ *
+ * The sequence is randomized by a random linear matrix scrambling (Matou&#353;ek), applied to the direction numbers, and a random
+ * digital shift, both derived from the seed. The randomization preserves the (t,s)-net properties of the sequence, but the points
+ * are not on the dyadic grid anymore (in particular the first point is not zero) and different seeds give independent estimates.
+ *
+ * Points are calculated in Gray code order: the point with index n is the XOR of the direction numbers
+ * for the bits of <code>n ^ (n &gt;&gt; 1)</code>, such that the sequence can be started at any index (skip-ahead, see {@link #skipTo(long, int[])})
+ * and advanced by a single XOR per coordinate (see {@link #next(long, int[])}).
+ *
+ * The class is immutable and thread safe.
+ *
+ * @author Christian Fries
+ */
+public final class ScrambledSobolSequence implements Serializable {
+
+	private static final long serialVersionUID = 6021575373853429154L;
+
+	/**
+	 * The maximum dimension supported by the direction numbers.
+	 */
+	public static final int MAX_DIMENSION = 1000;
+
+	private static final int BITS = 32;
+
+	private static final String DIRECTION_NUMBERS_RESOURCE = "/assets/org/apache/commons/math3/random/new-joe-kuo-6.1000";
+
+	private static final double TWO_POW_32_INV = 1.0 / (1L << 32);
+
+	private final int dimension;
+	private final long seed;
+
+	// directionNumbers[j][k] is the (scrambled) direction number of coordinate j for bit k of the Gray code
+	private final int[][] directionNumbers;
+	private final int[] digitalShift;
+
+	/**
+	 * Create a scrambled Sobol sequence.
+	 *
+	 * @param dimension The dimension of the points (at most {@value #MAX_DIMENSION}).
+	 * @param seed The seed of the scrambling.
+	 */
+	public ScrambledSobolSequence(final int dimension, final long seed) {
+		this(dimension, seed, true);
+	}
+
+	/**
+	 * Create a Sobol sequence.
+	 *
+	 * @param dimension The dimension of the points (at most {@value #MAX_DIMENSION}).
+	 * @param seed The seed of the scrambling.
+	 * @param isScrambled If false, the plain Sobol sequence is generated (for tests).
+	 */
+	ScrambledSobolSequence(final int dimension, final long seed, final boolean isScrambled) {
+		if(dimension < 1 || dimension > MAX_DIMENSION) {
+			throw new IllegalArgumentException("Dimension " + dimension + " not supported (must be between 1 and " + MAX_DIMENSION + ").");
+		}
+		this.dimension = dimension;
+		this.seed = seed;
+
+		final int[][] unscrambledDirectionNumbers = getDirectionNumbers(dimension);
+
+		final Random random = new Random(seed);
+		directionNumbers = new int[dimension][BITS];
+		digitalShift = new int[dimension];
+		for(int j=0; j<dimension; j++) {
+			/*
+			 * Lower triangular matrix with unit diagonal acting on the bits (most significant bit first).
+			 * Column c has the diagonal element at bit BITS-1-c and random elements at the less significant bits.
+			 */
+			final int[] columns = new int[BITS];
+			for(int c=0; c<BITS; c++) {
+				final int diagonal = 1 << (BITS-1-c);
+				columns[c] = isScrambled ? diagonal | (random.nextInt() & (diagonal - 1)) : diagonal;
+			}
+			for(int k=0; k<BITS; k++) {
+				final int v = unscrambledDirectionNumbers[j][k];
+				int scrambled = 0;
+				for(int c=0; c<BITS; c++) {
+					if((v & (1 << (BITS-1-c))) != 0) {
+						scrambled ^= columns[c];
+					}
+				}
+				directionNumbers[j][k] = scrambled;
+			}
+			digitalShift[j] = isScrambled ? random.nextInt() : 0;
+		}
+	}
+
+	/**
+	 * @return The dimension of the points.
+	 */
+	public int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * @return The seed of the scrambling.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Calculate the point with a given index.
+	 *
+	 * @param index The index of the point (non-negative and less than 2<sup>32</sup>).
+	 * @param point Array of length {@link #getDimension()} receiving the coordinates of the point as unsigned 32 bit integers.
+	 */
+	public void skipTo(final long index, final int[] point) {
+		final long grayCode = index ^ (index >>> 1);
+		for(int j=0; j<dimension; j++) {
+			int value = digitalShift[j];
+			for(int k=0; k<BITS; k++) {
+				if(((grayCode >>> k) & 1) != 0) {
+					value ^= directionNumbers[j][k];
+				}
+			}
+			point[j] = value;
+		}
+	}
+
+	/**
+	 * Advance a point to the point with the next index.
+	 *
+	 * @param index The index of the given point.
+	 * @param point The point with the given index, receiving the point with index <code>index+1</code>.
+	 */
+	public void next(final long index, final int[] point) {
+		final int k = Long.numberOfTrailingZeros(index + 1);
+		for(int j=0; j<dimension; j++) {
+			point[j] ^= directionNumbers[j][k];
+		}
+	}
+
+	/**
+	 * Map a coordinate to the midpoint of its interval of length 2<sup>-32</sup>, i.e., to (0,1).
+	 *
+	 * @param coordinate The coordinate as unsigned 32 bit integer.
+	 * @return The uniform value in (0,1).
+	 */
+	public static double toUniformDouble(final int coordinate) {
+		return ((coordinate & 0xFFFFFFFFL) + 0.5) * TWO_POW_32_INV;
+	}
+
+	/*
+	 * The direction numbers as in Joe and Kuo, "Constructing Sobol sequences with better two-dimensional projections" (2008).
+	 */
+	private static int[][] getDirectionNumbers(final int dimension) {
+		final int[][] directionNumbers = new int[dimension][BITS];
+
+		// The first coordinate is the van der Corput sequence
+		for(int k=0; k<BITS; k++) {
+			directionNumbers[0][k] = 1 << (BITS-1-k);
+		}
+		if(dimension == 1) {
+			return directionNumbers;
+		}
+
+		try(InputStream inputStream = ScrambledSobolSequence.class.getResourceAsStream(DIRECTION_NUMBERS_RESOURCE)) {
+			if(inputStream == null) {
+				throw new IllegalStateException("Direction numbers " + DIRECTION_NUMBERS_RESOURCE + " not found (requires commons-math3 on the class path).");
+			}
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.US_ASCII));
+
+			// Skip the header
+			reader.readLine();
+
+			for(int j=1; j<dimension; j++) {
+				final StringTokenizer tokenizer = new StringTokenizer(reader.readLine());
+				tokenizer.nextToken();
+				final int s = Integer.parseInt(tokenizer.nextToken());
+				final int a = Integer.parseInt(tokenizer.nextToken());
+
+				final int[] v = directionNumbers[j];
+				for(int k=0; k<s && k<BITS; k++) {
+					v[k] = Integer.parseInt(tokenizer.nextToken()) << (BITS-1-k);
+				}
+				for(int k=s; k<BITS; k++) {
+					v[k] = v[k-s] ^ (v[k-s] >>> s);
+					for(int l=1; l<s; l++) {
+						v[k] ^= ((a >>> (s-1-l)) & 1) * v[k-l];
+					}
+				}
+			}
+		}
+		catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return directionNumbers;
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.alternative;
+
+import net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor;
+import net.finmath.cuda.cpu.montecarlo.RandomVariableMoments;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * The variance reduction applied to the Brownian increments of a time step and factor.
+ *
+ * <ul>
+ * 	<li>Antithetic pairing: only the first h = (n+1)/2 of n paths are drawn, path h+i is the mirrored path -i, i.e., the increments are symmetric (and have mean 0 for an even number of paths).</li>
+ * 	<li>Moment matching: each increment vector is re-centered and re-scaled to the exact (population) mean 0 and variance dt.</li>
+ * </ul>
+ *
+ * Both modes may be combined. Note that moment matching introduces a (small) dependency among the paths.
+ * If the increment has no variance (e.g. a single path), moment matching only re-centers it.
+ *
+ * @author Christian Fries
+ */
+public enum VarianceReduction {
+	/** Plain i.i.d. increments. */
+	NONE(false, false),
+	/** Antithetic pairing of the paths. */
+	ANTITHETIC(true, false),
+	/** Matching of the first two moments of each increment. */
+	MOMENT_MATCHING(false, true),
+	/** Antithetic pairing of the paths and matching of the first two moments of each increment. */
+	ANTITHETIC_AND_MOMENT_MATCHING(true, true);
+
+	private final boolean isAntithetic;
+	private final boolean isMomentMatching;
+
+	VarianceReduction(final boolean isAntithetic, final boolean isMomentMatching) {
+		this.isAntithetic = isAntithetic;
+		this.isMomentMatching = isMomentMatching;
+	}
+
+	/**
+	 * @return True, if the paths are paired antithetically.
+	 */
+	public boolean isAntithetic() {
+		return isAntithetic;
+	}
+
+	/**
+	 * @return True, if mean and variance of each increment are matched.
+	 */
+	public boolean isMomentMatching() {
+		return isMomentMatching;
+	}
+
+	/**
+	 * Returns the number of random numbers to draw for an increment.
+	 *
+	 * @param numberOfPaths The number of paths.
+	 * @return The number of paths to draw: half of the paths (rounded up) for antithetic pairing, otherwise all paths.
+	 */
+	public int getNumberOfDraws(final int numberOfPaths) {
+		return isAntithetic ? (numberOfPaths+1)/2 : numberOfPaths;
+	}
+
+	/**
+	 * Apply the variance reduction to the realizations of an increment, of which the first {@link #getNumberOfDraws(int)} have been drawn.
+	 *
+	 * @param values The realizations (modified).
+	 * @param standardDeviation The standard deviation of the increment, i.e., the square root of the time step.
+	 */
+	void apply(final float[] values, final double standardDeviation) {
+		if(isAntithetic) {
+			mirror(values);
+		}
+		if(isMomentMatching) {
+			matchMoments(values, standardDeviation);
+		}
+	}
+
+	/**
+	 * Match mean and variance of an increment (using the operations of the random variable, e.g., on the device).
+	 *
+	 * @param increment The increment.
+	 * @param standardDeviation The standard deviation of the increment, i.e., the square root of the time step.
+	 * @return The increment with mean 0 and standard deviation standardDeviation (mean 0 only, if the increment has no variance).
+	 */
+	static RandomVariable matchMoments(final RandomVariable increment, final double standardDeviation) {
+		final double mean = increment.getAverage();
+		final double variance = increment.getVariance();
+		if(variance == 0.0) {
+			// A degenerate increment cannot be scaled
+			return increment.sub(mean);
+		}
+		final double scale = standardDeviation / Math.sqrt(variance);
+		return increment.sub(mean).mult(scale);
+	}
+
+	/**
+	 * Set path h+i to the antithetic path of path i, where h = (n+1)/2.
+	 *
+	 * @param values The realizations, of which the first half are drawn (modified).
+	 */
+	static void mirror(final float[] values) {
+		final int half = (values.length+1)/2;
+		ParallelChunkExecutor.forEach(values.length - half, (from, to) -> {
+			for(int i=from; i<to; i++) {
+				values[half+i] = -values[i];
+			}
+		});
+	}
+
+	/**
+	 * Re-center and re-scale the realizations to mean 0 and a given standard deviation.
+	 * If the realizations have no variance, they are only re-centered.
+	 *
+	 * @param values The realizations (modified).
+	 * @param standardDeviation The standard deviation.
+	 */
+	static void matchMoments(final float[] values, final double standardDeviation) {
+		final RandomVariableMoments moments = RandomVariableMoments.of(values);
+		final double mean = moments.getAverage();
+		final double variance = moments.getVariance();
+		// A degenerate increment cannot be scaled
+		final double scale = variance == 0.0 ? 1.0 : standardDeviation / Math.sqrt(variance);
+		ParallelChunkExecutor.forEach(values.length, (from, to) -> {
+			for(int i=from; i<to; i++) {
+				values[i] = (float)((values[i] - mean) * scale);
+			}
+		});
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.backend;
+
+import net.finmath.cuda.cpu.montecarlo.RandomVariableMoments;
+import net.finmath.cuda.montecarlo.RandomVariableCuda.DevicePointerReference;
+import net.finmath.cuda.montecarlo.fusion.KernelProgram;
+import net.finmath.cuda.montecarlo.memory.DevicePointerPoolStatistics;
+
+/**
+ * The operations of a compute device used by {@link net.finmath.cuda.montecarlo.RandomVariableCuda}: allocation of (pooled)
+ * vectors of floats, copies between host and device, kernel launches and reductions.
+ *
+ * Kernel launches may be asynchronous. Operations returning host values (copies to the host, reductions)
+ * wait for all preceding launches.
+ *
+ * @author Christian Fries
+ */
+public interface ComputeBackend {
+
+	/**
+	 * @return The name of the backend.
+	 */
+	String getName();
+
+	/**
+	 * Get a (pooled) vector of floats on the device. The content of the vector is undefined.
+	 *
+	 * @param size The size of the vector as multiples of sizeof(float).
+	 * @return An object representing a vector on the device.
+	 */
+	DevicePointerReference getDevicePointer(long size);
+
+	/**
+	 * Create a vector on the device and copy the given host vector to it.
+	 *
+	 * @param values Host vector.
+	 * @return An object representing a vector on the device.
+	 */
+	DevicePointerReference getDevicePointer(float[] values);
+
+	/**
+	 * Copy a vector from the device to the host.
+	 *
+	 * @param devicePointer The device vector.
+	 * @param size The number of elements to copy.
+	 * @return The host vector.
+	 */
+	float[] getValuesAsFloat(DevicePointerReference devicePointer, int size);
+
+	/**
+	 * Launch an element-wise kernel, allocating the result vector.
+	 *
+	 * @param kernel The kernel.
+	 * @param resultSize The size of the result vector.
+	 * @param vectors The vector arguments (the number is given by {@link Kernel#getNumberOfVectors()}).
+	 * @param scalars The scalar arguments (the number is given by {@link Kernel#getNumberOfScalars()}).
+	 * @return The result vector.
+	 */
+	DevicePointerReference callFunction(Kernel kernel, long resultSize, DevicePointerReference[] vectors, float[] scalars);
+
+	/**
+	 * Calculate a + b + sum_k factor1[k] * factor2[k] + sum_k factor3[k] * scalars[k] element-wise in a single pass,
+	 * accumulating the terms in the given order in float arithmetic.
+	 *
+	 * @param resultSize The size of the result vector.
+	 * @param a A vector or null (treated as 0).
+	 * @param b A scalar.
+	 * @param factor1 The first factors of the products of vectors.
+	 * @param factor2 The second factors of the products of vectors.
+	 * @param factor3 The vectors scaled by scalars.
+	 * @param scalars The scalars.
+	 * @return The result vector.
+	 */
+	DevicePointerReference addSumProduct(long resultSize, DevicePointerReference a, float b, DevicePointerReference[] factor1, DevicePointerReference[] factor2, DevicePointerReference[] factor3, float[] scalars);
+
+	/**
+	 * Evaluate a fused kernel (see {@link net.finmath.cuda.montecarlo.ExpressionRecorder}).
+	 *
+	 * @param program The program of the fused kernel.
+	 * @param arguments The input vectors (in the order of the kernel arguments).
+	 * @param resultSize The size of the result vector.
+	 * @return The result vector.
+	 */
+	DevicePointerReference callFusedKernel(KernelProgram program, DevicePointerReference[] arguments, long resultSize);
+
+	/**
+	 * Returns the sum of the elements of a vector, accumulated in double precision.
+	 *
+	 * @param devicePointer The device vector.
+	 * @param size The number of elements.
+	 * @return The sum.
+	 */
+	double sum(DevicePointerReference devicePointer, int size);
+
+	/**
+	 * Returns the moments (average, variance, minimum and maximum) of the elements of a vector, calculated
+	 * by a reduction on the device (see {@link MomentsReduction}).
+	 *
+	 * @param devicePointer The device vector.
+	 * @param size The number of elements.
+	 * @return The moments.
+	 */
+	RandomVariableMoments getMoments(DevicePointerReference devicePointer, int size);
+
+	/**
+	 * Free all unused device memory.
+	 */
+	void clean();
+
+	/**
+	 * Free all unused device memory and reset the pool.
+	 */
+	void purge();
+
+	/**
+	 * @return A snapshot of the statistics of the device memory pool.
+	 */
+	DevicePointerPoolStatistics getStatistics();
+}
@@ -0,0 +1,580 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.backend;
+
+import static jcuda.driver.JCudaDriver.cuCtxCreate;
+import static jcuda.driver.JCudaDriver.cuCtxSynchronize;
+import static jcuda.driver.JCudaDriver.cuDeviceGet;
+import static jcuda.driver.JCudaDriver.cuDeviceGetCount;
+import static jcuda.driver.JCudaDriver.cuInit;
+import static jcuda.driver.JCudaDriver.cuLaunchKernel;
+import static jcuda.driver.JCudaDriver.cuMemcpyDtoH;
+import static jcuda.driver.JCudaDriver.cuModuleGetFunction;
+import static jcuda.driver.JCudaDriver.cuModuleLoad;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import jcuda.LogLevel;
+import jcuda.Pointer;
+import jcuda.Sizeof;
+import jcuda.driver.CUcontext;
+import jcuda.driver.CUdevice;
+import jcuda.driver.CUdevice_attribute;
+import jcuda.driver.CUdeviceptr;
+import jcuda.driver.CUfunction;
+import jcuda.driver.CUmodule;
+import jcuda.driver.JCudaDriver;
+import net.finmath.cuda.cpu.montecarlo.RandomVariableMoments;
+import net.finmath.cuda.montecarlo.RandomVariableCuda.DevicePointerReference;
+import net.finmath.cuda.montecarlo.fusion.FusedKernelCache;
+import net.finmath.cuda.montecarlo.fusion.KernelProgram;
+import net.finmath.cuda.montecarlo.memory.DeviceMemoryAllocator;
+import net.finmath.cuda.montecarlo.memory.DevicePointerPool;
+import net.finmath.cuda.montecarlo.memory.DevicePointerPoolStatistics;
+import net.finmath.jcuda.PtxResourceLoader;
+
+/**
+ * The Cuda backend: a memory pool for the GPU vectors and the launch of the kernels of
+ * <code>RandomVariableCudaKernel.cu</code> via the Cuda driver API.
+ *
+ * All calls to the Cuda driver API are performed on a single thread (the device thread), which owns the context.
+ * Kernel launches are asynchronous, see {@link KernelLaunchQueue}.
+ *
+ * Implementation details:
+ * The recycling of the vectors is performed by a {@link DevicePointerPool}, allocating device memory through
+ * a {@link DeviceMemoryAllocator} using the Cuda driver API on the device thread.
+ *
+ * The backend can be configured with the system property
+ * <code>net.finmath.montecarlo.opencl.RandomVariableCuda.deviceIndex</code>, being an integer. For a positive values, the device
+ * with the corresponding index is used. For a negative value the device with the index numberOfDevices - deviceIndex is used.
+ *
+ * @author Christian Fries
+ */
+public class CudaComputeBackend implements ComputeBackend {
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	private static final int reduceGridSize = 1024;
+
+	private final DevicePointerPool devicePointerPool;
+
+	private final int blockSizeX;
+
+	private final ExecutorService deviceExecutor = Executors.newSingleThreadExecutor();
+	private final KernelLaunchQueue launchQueue = new KernelLaunchQueue(deviceExecutor);
+	private final CUdevice device = new CUdevice();
+	private final CUcontext context = new CUcontext();
+	private final CUmodule module = new CUmodule();
+
+	private final Map<Kernel, CUfunction> functions = new EnumMap<>(Kernel.class);
+	private final CUfunction addSumProduct = new CUfunction();		// add a sum of products of vectors and of vectors and scalars
+	private final CUfunction reduceFloatVectorToDoubleScalar = new CUfunction();
+	private final CUfunction reduceMoments = new CUfunction();
+	private final CUfunction reduceMomentsPartials = new CUfunction();
+
+	private final String arch;
+	private final FusedKernelCache<CUfunction> fusedKernels = new FusedKernelCache<>(this::compileFusedKernel);
+
+	/**
+	 * Create the Cuda backend for the device configured by the system property
+	 * <code>net.finmath.montecarlo.opencl.RandomVariableCuda.deviceIndex</code>: initialize the driver, create the context and load the kernels.
+	 * The statistics of the memory pool are registered via JMX under the name "net.finmath.cuda:type=DeviceMemoryPool".
+	 */
+	public CudaComputeBackend() {
+		this(Integer.parseInt(System.getProperty("net.finmath.montecarlo.opencl.RandomVariableCuda.deviceIndex", "-1")), "net.finmath.cuda:type=DeviceMemoryPool");
+	}
+
+	/**
+	 * Create the Cuda backend for a given device: initialize the driver, create the context and load the kernels.
+	 * The statistics of the memory pool are registered via JMX under the name "net.finmath.cuda:type=DeviceMemoryPool,device=<i>deviceIndex</i>".
+	 *
+	 * @param cudaDeviceIndex The index of the device. For a negative value the device with the index numberOfDevices + deviceIndex is used.
+	 */
+	public CudaComputeBackend(final int cudaDeviceIndex) {
+		this(cudaDeviceIndex, "net.finmath.cuda:type=DeviceMemoryPool,device=" + cudaDeviceIndex);
+	}
+
+	private CudaComputeBackend(final int cudaDeviceIndex, final String objectName) {
+		logger.config("Configured class with device index " + cudaDeviceIndex);
+
+		final int numberOfDevices = getNumberOfDevices();
+		logger.config("Found " + numberOfDevices);
+
+		final int deviceIndex = cudaDeviceIndex >= 0 ? cudaDeviceIndex : numberOfDevices + cudaDeviceIndex;
+		logger.config("Using device " + deviceIndex);
+
+		cuDeviceGet(device, deviceIndex);
+
+		/*
+		 * Set blockSize according to compute capabilities
+		 */
+		final int[] majorComputeCapability = new int[1];
+		final int[] minorComputeCapability = new int[1];
+		JCudaDriver.cuDeviceGetAttribute(majorComputeCapability, CUdevice_attribute.CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MAJOR, device);
+		JCudaDriver.cuDeviceGetAttribute(minorComputeCapability, CUdevice_attribute.CU_DEVICE_ATTRIBUTE_COMPUTE_CAPABILITY_MINOR, device);
+		if(majorComputeCapability[0] >= 2) {
+			blockSizeX = 1024;
+		}
+		else {
+			blockSizeX = 512;
+		}
+
+		/*
+		 * Set arch
+		 */
+		arch = "sm_" + majorComputeCapability[0] + minorComputeCapability[0];
+
+		// Get the PTX file from the precompiled resources or create it by calling the NVCC
+		final String ptxFileName;
+		try {
+			ptxFileName = new PtxResourceLoader(CudaComputeBackend.class).preparePtxFile("/net/finmath/cuda/montecarlo/RandomVariableCudaKernel", arch);
+		} catch (final IOException e) {
+			throw new IllegalStateException("Unable to prepare the PTX file of the kernels for " + arch + ".", e);
+		}
+
+		deviceExecutor.submit(() -> {
+			//				cuCtxCreate(context, jcuda.driver.CUctx_flags.CU_CTX_SCHED_BLOCKING_SYNC, device);
+			cuCtxCreate(context, jcuda.driver.CUctx_flags.CU_CTX_SCHED_AUTO, device);
+
+			// Load the ptx file.
+			cuModuleLoad(module, ptxFileName);
+
+			// Obtain a function pointers
+			for(final Kernel kernel : Kernel.values()) {
+				final CUfunction function = new CUfunction();
+				cuModuleGetFunction(function, module, kernel.getFunctionName());
+				functions.put(kernel, function);
+			}
+			cuModuleGetFunction(addSumProduct, module, "addSumProduct");
+			cuModuleGetFunction(reduceFloatVectorToDoubleScalar, module, "reduceFloatVectorToDoubleScalar");
+			cuModuleGetFunction(reduceMoments, module, "reduceMoments");
+			cuModuleGetFunction(reduceMomentsPartials, module, "reduceMomentsPartials");
+
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				CudaComputeBackend.this.purge();
+				deviceExecutor.shutdown();
+				try {
+					deviceExecutor.awaitTermination(1, TimeUnit.SECONDS);
+				} catch (final InterruptedException e) {
+					logger.warning("Interrupted while waiting for the termination of the device thread.");
+					Thread.currentThread().interrupt();
+				}
+			}));
+		});
+
+		devicePointerPool = new DevicePointerPool(new CudaDeviceMemoryAllocator());
+		devicePointerPool.registerMXBean(objectName);
+	}
+
+	/**
+	 * Initialize the Cuda driver and return the number of Cuda devices.
+	 *
+	 * @return The number of Cuda devices.
+	 */
+	public static int getNumberOfDevices() {
+		// Enable exceptions and omit all subsequent error checks
+		JCudaDriver.setExceptionsEnabled(true);
+		JCudaDriver.setLogLevel(LogLevel.LOG_ERROR);
+
+		// Initialize the driver
+		cuInit(0);
+
+		final int[] numDevices = new int[1];
+		cuDeviceGetCount(numDevices);
+		return numDevices[0];
+	}
+
+	/**
+	 * Allocation of device memory using the Cuda driver API (on the device thread).
+	 */
+	private class CudaDeviceMemoryAllocator implements DeviceMemoryAllocator {
+
+		@Override
+		public CUdeviceptr allocate(final long sizeInBytes) {
+			try {
+				return launchQueue.submit(() -> {
+					final CUdeviceptr cuDevicePtrNew = new CUdeviceptr();
+					final int succ = JCudaDriver.cuMemAlloc(cuDevicePtrNew, sizeInBytes);
+					if(succ != 0) {
+						final String[] cudaErrorName = new String[1];
+						JCudaDriver.cuGetErrorName(succ, cudaErrorName);
+						final String[] cudaErrorDescription = new String[1];
+						JCudaDriver.cuGetErrorString(succ, cudaErrorDescription);
+
+						logger.warning("Failed creating device vector with size=" + sizeInBytes + " bytes with error "+ cudaErrorName[0] + ": " + cudaErrorDescription[0]);
+						return null;
+					}
+					return cuDevicePtrNew;
+				}).get();
+			} catch (InterruptedException | ExecutionException e) {
+				logger.severe("Failed to allocate device vector with size=" + sizeInBytes + " bytes. Cause: " + e.getCause());
+				return null;
+			}
+		}
+
+		@Override
+		public void free(final CUdeviceptr devicePointer, final long sizeInBytes) {
+			try {
+				launchQueue.submit(() -> {
+					cuCtxSynchronize();
+					return JCudaDriver.cuMemFree(devicePointer);
+				}).get();
+			} catch (InterruptedException | ExecutionException e) {
+				logger.severe("Unable to free pointer " + devicePointer);
+				throw new RuntimeException(e.getCause());
+			}
+		}
+
+		@Override
+		public long getFreeMemoryBytes() {
+			return getMemoryInfo()[0];
+		}
+
+		@Override
+		public long getTotalMemoryBytes() {
+			return getMemoryInfo()[1];
+		}
+
+		private long[] getMemoryInfo() {
+			try {
+				return launchQueue.submit(() -> {
+					final long[] free = new long[1];
+					final long[] total = new long[1];
+					jcuda.runtime.JCuda.cudaMemGetInfo(free, total);
+					return new long[] { free[0], total[0] };
+				}).get();
+			} catch (InterruptedException | ExecutionException e) {
+				return new long[] { 0, 0 };
+			}
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "cuda";
+	}
+
+	/**
+	 * Compile the source of a fused kernel and load it (as a separate module).
+	 *
+	 * @param source The Cuda C source of the kernel.
+	 * @return The kernel function.
+	 */
+	private CUfunction compileFusedKernel(final String source) {
+		final String ptxFileName;
+		try(InputStream cuFileStream = new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8))) {
+			ptxFileName = net.finmath.jcuda.JCudaUtils.preparePtxFile(cuFileStream, arch);
+		} catch (final IOException e) {
+			throw new IllegalStateException("Unable to compile fused kernel:\n" + source, e);
+		}
+
+		try {
+			return launchQueue.submit(() -> {
+				final CUmodule fusedModule = new CUmodule();
+				cuModuleLoad(fusedModule, ptxFileName);
+				final CUfunction function = new CUfunction();
+				cuModuleGetFunction(function, fusedModule, KernelProgram.FUNCTION_NAME);
+				return function;
+			}).get();
+		} catch (InterruptedException | ExecutionException e) { throw new RuntimeException(e.getCause()); }
+	}
+
+	@Override
+	public DevicePointerReference callFusedKernel(final KernelProgram program, final DevicePointerReference[] arguments, final long resultSize) {
+		final CUfunction function = fusedKernels.get(program);
+		final float[] constants = program.getConstants();
+
+		final DevicePointerReference result = getDevicePointer(resultSize);
+		final Pointer[] kernelArguments = new Pointer[arguments.length + constants.length + 2];
+		int argumentIndex = 0;
+		kernelArguments[argumentIndex++] = Pointer.to(new int[] { (int)resultSize });
+		for(final DevicePointerReference argument : arguments) {
+			kernelArguments[argumentIndex++] = Pointer.to(argument.get());
+		}
+		for(final float constant : constants) {
+			kernelArguments[argumentIndex++] = Pointer.to(new float[] { constant });
+		}
+		kernelArguments[argumentIndex++] = Pointer.to(result.get());
+
+		callFunction(function, resultSize, kernelArguments, result, arguments);
+		return result;
+	}
+
+	/**
+	 * Get a Java object ({@link DevicePointerReference}) representing a vector allocated on the GPU memory (device memory).
+	 *
+	 * If this object is the wrapped into a {@link net.finmath.cuda.montecarlo.RandomVariableCuda} via
+	 * {@link net.finmath.cuda.montecarlo.RandomVariableCuda#of(double, DevicePointerReference, long)} you may perform arithmetic operations on it.
+	 *
+	 * Note: You will likely not use this method directly. Instead use {@link #getDevicePointer(float[])} which will
+	 * call this method and initialize the vector to the given values.
+	 *
+	 * The object is "managed" in the sense the once the object is closed or dereferenced the GPU memory will be marked for re-use (or freed at a later time).
+	 *
+	 * @param size The size of the vector as multiples of sizeof(float). (To allocated a double vector use twice the size).
+	 * @return An object representing a vector allocated on the GPU memory.
+	 */
+	@Override
+	public DevicePointerReference getDevicePointer(final long size) {
+		return devicePointerPool.getDevicePointer(size);
+	}
+
+	/**
+	 * Free all unused device memory.
+	 */
+	@Override
+	public void clean() {
+		devicePointerPool.clean();
+	}
+
+	@Override
+	public void purge() {
+		devicePointerPool.purge();
+	}
+
+	@Override
+	public DevicePointerPoolStatistics getStatistics() {
+		return devicePointerPool.getStatistics();
+	}
+
+	/**
+	 * Create a vector on device and copy host vector to it.
+	 *
+	 * @param values Host vector.
+	 * @return Pointer to device vector.
+	 */
+	@Override
+	public DevicePointerReference getDevicePointer(final float[] values) {
+		final DevicePointerReference devicePointerReference = getDevicePointer(values.length);
+		try {
+			launchQueue.submit(() -> {
+				cuCtxSynchronize();
+				JCudaDriver.cuMemcpyHtoD(devicePointerReference.get(), Pointer.to(values), (long)values.length * Sizeof.FLOAT);
+			}).get();
+		} catch (InterruptedException | ExecutionException e) { throw new RuntimeException(e.getCause()); }
+
+		return devicePointerReference;
+	}
+
+	/**
+	 * Create a vector of device pointers on the device (e.g. to pass a variable number of vectors to a kernel).
+	 *
+	 * @param pointers The device vectors.
+	 * @return Pointer to the device vector holding the device pointers.
+	 */
+	public DevicePointerReference getDevicePointer(final DevicePointerReference[] pointers) {
+		final CUdeviceptr[] devicePointers = new CUdeviceptr[pointers.length];
+		for(int i=0; i<pointers.length; i++) {
+			devicePointers[i] = pointers[i].get();
+		}
+
+		// The pool manages vectors of floats, hence we request the number of floats required to store the pointers
+		final DevicePointerReference devicePointerReference = getDevicePointer(Math.max(((long)pointers.length * Sizeof.POINTER + Sizeof.FLOAT - 1) / Sizeof.FLOAT, 1));
+		if(devicePointers.length > 0) {
+			try {
+				launchQueue.submit(() -> {
+					cuCtxSynchronize();
+					JCudaDriver.cuMemcpyHtoD(devicePointerReference.get(), Pointer.to(devicePointers), (long)devicePointers.length * Sizeof.POINTER);
+				}).get();
+			} catch (InterruptedException | ExecutionException e) { throw new RuntimeException(e.getCause()); }
+		}
+
+		return devicePointerReference;
+	}
+
+	/**
+	 * Execute a task on the device thread (owning the context), after all kernel launches enqueued before, and wait for its completion.
+	 *
+	 * This allows to use other Cuda libraries (e.g. curand) on the vectors of this backend: work issued by the task on the
+	 * default stream is ordered with the kernel launches, in particular with pending launches reading a vector which has
+	 * already been returned to the pool.
+	 *
+	 * @param task The task.
+	 * @param <T> The result type of the task.
+	 * @return The result of the task.
+	 */
+	public <T> T callOnDeviceThread(final Callable<T> task) {
+		try {
+			return launchQueue.submit(task).get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	@Override
+	public float[] getValuesAsFloat(final DevicePointerReference devicePtr, final int size) {
+		final float[] result = new float[size];
+		try {
+			launchQueue.submit(() -> {
+				KernelLaunchQueue.rethrowFailure(devicePtr);
+				cuCtxSynchronize();
+				cuMemcpyDtoH(Pointer.to(result), devicePtr.get(), size * Sizeof.FLOAT);
+				cuCtxSynchronize();
+			}).get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+		return result;
+	}
+
+	@Override
+	public DevicePointerReference callFunction(final Kernel kernel, final long resultSize, final DevicePointerReference[] vectors, final float[] scalars) {
+		if(vectors.length != kernel.getNumberOfVectors() || scalars.length != kernel.getNumberOfScalars()) {
+			throw new IllegalArgumentException("Kernel " + kernel + " requires " + kernel.getNumberOfVectors() + " vectors and " + kernel.getNumberOfScalars() + " scalars.");
+		}
+
+		final DevicePointerReference result = getDevicePointer(resultSize);
+		final Pointer[] arguments = new Pointer[vectors.length + scalars.length + 2];
+		int argumentIndex = 0;
+		arguments[argumentIndex++] = Pointer.to(new int[] { (int)resultSize });
+		for(final DevicePointerReference vector : vectors) {
+			arguments[argumentIndex++] = Pointer.to(vector.get());
+		}
+		for(final float scalar : scalars) {
+			arguments[argumentIndex++] = Pointer.to(new float[] { scalar });
+		}
+		arguments[argumentIndex++] = Pointer.to(result.get());
+
+		callFunction(functions.get(kernel), resultSize, arguments, result, vectors);
+		return result;
+	}
+
+	@Override
+	public DevicePointerReference addSumProduct(final long resultSize, final DevicePointerReference a, final float b, final DevicePointerReference[] factor1, final DevicePointerReference[] factor2, final DevicePointerReference[] factor3, final float[] scalars) {
+		final DevicePointerReference products1Pointers = getDevicePointer(factor1);
+		final DevicePointerReference products2Pointers = getDevicePointer(factor2);
+		final DevicePointerReference scaledVectorsPointers = getDevicePointer(factor3);
+		final DevicePointerReference scalarsPointer = getDevicePointer(scalars.length > 0 ? scalars : new float[1]);
+
+		final DevicePointerReference result = getDevicePointer(resultSize);
+		callFunction(addSumProduct, resultSize, new Pointer[] {
+				Pointer.to(new int[] { (int)resultSize }),
+				Pointer.to(a == null ? new CUdeviceptr() : a.get()),
+				Pointer.to(new float[] { b }),
+				Pointer.to(new int[] { factor1.length }),
+				Pointer.to(products1Pointers.get()),
+				Pointer.to(products2Pointers.get()),
+				Pointer.to(new int[] { factor3.length }),
+				Pointer.to(scaledVectorsPointers.get()),
+				Pointer.to(scalarsPointer.get()),
+				Pointer.to(result.get()) },
+				result, KernelLaunchQueue.getInputs(a, factor1, factor2, factor3));
+
+		// The pointer tables are no longer referenced by the host (the kernel is enqueued before any subsequent use of the vectors)
+		products1Pointers.close();
+		products2Pointers.close();
+		scaledVectorsPointers.close();
+		scalarsPointer.close();
+
+		return result;
+	}
+
+	@Override
+	public double sum(final DevicePointerReference devicePointer, final int size) {
+		final int blockSizeX = reduceGridSize;
+		final int gridSizeX = (int)Math.ceil((double)size/2 / blockSizeX);
+
+		final double[] result = new double[gridSizeX];
+		try(DevicePointerReference reduceVector = getDevicePointer(2*gridSizeX)) {
+			callFunction(reduceFloatVectorToDoubleScalar, new Pointer[] {
+					Pointer.to(new int[] { size }),
+					Pointer.to(devicePointer.get()),
+					Pointer.to(reduceVector.get())},
+					gridSizeX, blockSizeX, blockSizeX*2*3, reduceVector, devicePointer);
+
+			launchQueue.submit(() -> {
+				KernelLaunchQueue.rethrowFailure(reduceVector);
+				cuCtxSynchronize();
+				cuMemcpyDtoH(Pointer.to(result), reduceVector.get(), gridSizeX * Sizeof.DOUBLE);
+				cuCtxSynchronize();
+			}).get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+
+		double sum = 0.0;
+		double error = 0.0;
+		for(final double blockSum : result) {
+			final double value = blockSum - error;
+			final double newSum = sum + value;
+			error = (newSum - sum) - value;
+			sum = newSum;
+		}
+		return sum;
+	}
+
+	@Override
+	public RandomVariableMoments getMoments(final DevicePointerReference devicePointer, final int size) {
+		if(size == 0) {
+			return RandomVariableMoments.of(0, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+		}
+
+		final int blockSizeX = MomentsReduction.BLOCK_SIZE;
+		final int gridSizeX = MomentsReduction.getNumberOfBlocks(size, blockSizeX);
+		final int sharedMemorySize = MomentsReduction.NUMBER_OF_FIELDS * blockSizeX * Sizeof.DOUBLE / Sizeof.FLOAT;
+
+		final double[] result = new double[MomentsReduction.NUMBER_OF_FIELDS];
+		try(DevicePointerReference partials = getDevicePointer(2L * MomentsReduction.NUMBER_OF_FIELDS * gridSizeX);
+				DevicePointerReference reduced = getDevicePointer(2L * MomentsReduction.NUMBER_OF_FIELDS)) {
+			// First stage: one accumulator per block
+			callFunction(reduceMoments, new Pointer[] {
+					Pointer.to(new int[] { size }),
+					Pointer.to(devicePointer.get()),
+					Pointer.to(partials.get())},
+					gridSizeX, blockSizeX, sharedMemorySize, partials, devicePointer);
+
+			// Second stage: combine the accumulators of the blocks
+			callFunction(reduceMomentsPartials, new Pointer[] {
+					Pointer.to(new int[] { gridSizeX }),
+					Pointer.to(partials.get()),
+					Pointer.to(reduced.get())},
+					1, blockSizeX, sharedMemorySize, reduced, partials);
+
+			launchQueue.submit(() -> {
+				KernelLaunchQueue.rethrowFailure(reduced);
+				cuCtxSynchronize();
+				cuMemcpyDtoH(Pointer.to(result), reduced.get(), MomentsReduction.NUMBER_OF_FIELDS * Sizeof.DOUBLE);
+				cuCtxSynchronize();
+			}).get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+
+		return MomentsReduction.getMoments(result);
+	}
+
+	private void callFunction(final CUfunction function, final long resultSize, final Pointer[] arguments, final DevicePointerReference result, final DevicePointerReference... inputs) {
+		final int gridSizeX = (int)Math.ceil((double)resultSize / blockSizeX);
+		callFunction(function, arguments, gridSizeX, blockSizeX, 0, result, inputs);
+	}
+
+	private void callFunction(final CUfunction function, final Pointer[] arguments, final int gridSizeX, final int blockSizeX, final int sharedMemorySize, final DevicePointerReference result, final DevicePointerReference... inputs) {
+		// Set up the kernel parameters: A pointer to an array
+		// of pointers which point to the actual values.
+		final Pointer kernelParameters = Pointer.to(arguments);
+
+		// Asynchronous: the launch is executed with the next batch of launches (or before the next synchronizing task)
+		launchQueue.enqueue(() ->
+		cuLaunchKernel(function,
+				gridSizeX,  1, 1,      // Grid dimension
+				blockSizeX, 1, 1,      // Block dimension
+				sharedMemorySize * Sizeof.FLOAT, null,               // Shared memory size and stream
+				kernelParameters, null // Kernel- and extra parameters
+				),
+				result, inputs);
+	}
+}
@@ -0,0 +1,439 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.backend;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import jcuda.driver.CUdeviceptr;
+import net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor;
+import net.finmath.cuda.cpu.montecarlo.RandomVariableMoments;
+import net.finmath.cuda.functions.FloatBinaryOperator;
+import net.finmath.cuda.functions.FloatTernaryOperator;
+import net.finmath.cuda.functions.FloatUnaryOperator;
+import net.finmath.cuda.montecarlo.RandomVariableCuda.DevicePointerReference;
+import net.finmath.cuda.montecarlo.fusion.KernelProgram;
+import net.finmath.cuda.montecarlo.memory.DeviceMemoryAllocator;
+import net.finmath.cuda.montecarlo.memory.DevicePointerPool;
+import net.finmath.cuda.montecarlo.memory.DevicePointerPoolStatistics;
+
+/**
+ * A backend emulating the Cuda device on the host: the device vectors are allocated off-heap (direct buffers) and the
+ * kernels of <code>RandomVariableCudaKernel.cu</code> are implemented in Java, using the same float arithmetic
+ * (the kernels are compiled with <code>-fmad false</code>). The exceptions are the functions pow, exp and log, which are
+ * calculated in double precision (by <code>Math</code>) and rounded to float, hence the results may differ from those of
+ * the device functions in the last bit.
+ *
+ * As for the Cuda backend, the vectors are managed by a {@link DevicePointerPool} and the kernels are launched
+ * asynchronously on a single device thread via a {@link KernelLaunchQueue}. Each kernel is executed in parallel chunks,
+ * see {@link ParallelChunkExecutor}. Hence the backend can be used to test (and measure) the pool and the launch pipeline
+ * without a GPU.
+ *
+ * The memory of the emulated device can be configured via the system property
+ * <code>net.finmath.cuda.montecarlo.backend.HostComputeBackend.memoryBudget</code> (in bytes, default: half of the maximum heap size).
+ * Note that the vectors are limited by the maximum direct memory (<code>-XX:MaxDirectMemorySize</code>, which defaults to the
+ * maximum heap size), not by the heap.
+ *
+ * @author Christian Fries
+ */
+public class HostComputeBackend implements ComputeBackend {
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	/**
+	 * A device pointer referencing an off-heap vector.
+	 */
+	private static final class HostDevicePointer extends CUdeviceptr {
+		private final FloatBuffer buffer;
+		private final long sizeInBytes;
+
+		HostDevicePointer(final long sizeInBytes) {
+			this.buffer = ByteBuffer.allocateDirect((int)sizeInBytes).order(ByteOrder.nativeOrder()).asFloatBuffer();
+			this.sizeInBytes = sizeInBytes;
+		}
+	}
+
+	/**
+	 * Allocation of off-heap memory within a memory budget.
+	 */
+	private static final class OffHeapMemoryAllocator implements DeviceMemoryAllocator {
+
+		private final long totalMemoryBytes;
+		private final AtomicLong usedMemoryBytes = new AtomicLong();
+
+		OffHeapMemoryAllocator(final long totalMemoryBytes) {
+			this.totalMemoryBytes = totalMemoryBytes;
+		}
+
+		@Override
+		public CUdeviceptr allocate(final long sizeInBytes) {
+			if(sizeInBytes > Integer.MAX_VALUE || usedMemoryBytes.addAndGet(sizeInBytes) > totalMemoryBytes) {
+				usedMemoryBytes.addAndGet(-sizeInBytes);
+				logger.warning("Failed creating device vector with size=" + sizeInBytes + " bytes: memory budget exhausted.");
+				return null;
+			}
+			try {
+				return new HostDevicePointer(sizeInBytes);
+			}
+			catch(final OutOfMemoryError e) {
+				usedMemoryBytes.addAndGet(-sizeInBytes);
+				logger.warning("Failed creating device vector with size=" + sizeInBytes + " bytes: " + e.getMessage());
+				return null;
+			}
+		}
+
+		@Override
+		public void free(final CUdeviceptr devicePointer, final long sizeInBytes) {
+			// The direct buffer is reclaimed by the garbage collector once the pointer is no longer referenced
+			usedMemoryBytes.addAndGet(-((HostDevicePointer)devicePointer).sizeInBytes);
+		}
+
+		@Override
+		public long getFreeMemoryBytes() {
+			return totalMemoryBytes - usedMemoryBytes.get();
+		}
+
+		@Override
+		public long getTotalMemoryBytes() {
+			return totalMemoryBytes;
+		}
+	}
+
+	private final ExecutorService deviceExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "HostComputeBackend-Device");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final KernelLaunchQueue launchQueue = new KernelLaunchQueue(deviceExecutor);
+	private final DevicePointerPool devicePointerPool;
+
+	/**
+	 * Create a host backend emulating a device with the given memory.
+	 *
+	 * @param memoryBudgetBytes The memory of the emulated device in bytes.
+	 */
+	public HostComputeBackend(final long memoryBudgetBytes) {
+		devicePointerPool = new DevicePointerPool(new OffHeapMemoryAllocator(memoryBudgetBytes));
+	}
+
+	/**
+	 * Create a host backend emulating a device with the memory given by the system property
+	 * <code>net.finmath.cuda.montecarlo.backend.HostComputeBackend.memoryBudget</code>.
+	 */
+	public HostComputeBackend() {
+		this(Long.getLong("net.finmath.cuda.montecarlo.backend.HostComputeBackend.memoryBudget", Runtime.getRuntime().maxMemory() / 2));
+	}
+
+	@Override
+	public String getName() {
+		return "host";
+	}
+
+	@Override
+	public DevicePointerReference getDevicePointer(final long size) {
+		return devicePointerPool.getDevicePointer(size);
+	}
+
+	@Override
+	public DevicePointerReference getDevicePointer(final float[] values) {
+		final DevicePointerReference devicePointerReference = getDevicePointer(values.length);
+		final FloatBuffer buffer = getBuffer(devicePointerReference);
+		try {
+			launchQueue.submit(() -> {
+				final FloatBuffer target = buffer.duplicate();
+				target.put(values);
+			}).get();
+		} catch (InterruptedException | ExecutionException e) { throw new RuntimeException(e.getCause()); }
+
+		return devicePointerReference;
+	}
+
+	@Override
+	public float[] getValuesAsFloat(final DevicePointerReference devicePointer, final int size) {
+		final FloatBuffer buffer = getBuffer(devicePointer);
+		final float[] result = new float[size];
+		try {
+			launchQueue.submit(() -> {
+				KernelLaunchQueue.rethrowFailure(devicePointer);
+				buffer.duplicate().get(result);
+			}).get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+		return result;
+	}
+
+	@Override
+	public DevicePointerReference callFunction(final Kernel kernel, final long resultSize, final DevicePointerReference[] vectors, final float[] scalars) {
+		if(vectors.length != kernel.getNumberOfVectors() || scalars.length != kernel.getNumberOfScalars()) {
+			throw new IllegalArgumentException("Kernel " + kernel + " requires " + kernel.getNumberOfVectors() + " vectors and " + kernel.getNumberOfScalars() + " scalars.");
+		}
+
+		final DevicePointerReference result = getDevicePointer(resultSize);
+		final int n = (int)resultSize;
+		final FloatBuffer r = getBuffer(result);
+		final FloatBuffer a = getBuffer(vectors[0]);
+		final FloatBuffer b = vectors.length > 1 ? getBuffer(vectors[1]) : null;
+		final FloatBuffer c = vectors.length > 2 ? getBuffer(vectors[2]) : null;
+		final float s = scalars.length > 0 ? scalars[0] : Float.NaN;
+
+		final Runnable launch;
+		switch(kernel) {
+		case CAP_BY_SCALAR:
+			launch = getKernel(n, a, r, x -> x < s ? x : s);
+			break;
+		case FLOOR_BY_SCALAR:
+			launch = getKernel(n, a, r, x -> x > s ? x : s);
+			break;
+		case ADD_SCALAR:
+			launch = getKernel(n, a, r, x -> x + s);
+			break;
+		case SUB_SCALAR:
+			launch = getKernel(n, a, r, x -> x - s);
+			break;
+		case BUS_SCALAR:
+			launch = getKernel(n, a, r, x -> -x + s);
+			break;
+		case MULT_SCALAR:
+			launch = getKernel(n, a, r, x -> x * s);
+			break;
+		case DIV_SCALAR:
+			launch = getKernel(n, a, r, x -> x / s);
+			break;
+		case VID_SCALAR:
+			launch = getKernel(n, a, r, x -> s / x);
+			break;
+		case SQUARED:
+			launch = getKernel(n, a, r, x -> x * x);
+			break;
+		case POW:
+			launch = getKernel(n, a, r, x -> (float)Math.pow(x, s));
+			break;
+		case SQRT:
+			launch = getKernel(n, a, r, x -> (float)Math.sqrt(x));
+			break;
+		case EXP:
+			launch = getKernel(n, a, r, x -> (float)Math.exp(x));
+			break;
+		case LOG:
+			launch = getKernel(n, a, r, x -> (float)Math.log(x));
+			break;
+		case INVERT:
+			launch = getKernel(n, a, r, x -> 1.0f / x);
+			break;
+		case ABS:
+			launch = getKernel(n, a, r, x -> Math.abs(x));
+			break;
+		case CAP:
+			launch = getKernel(n, a, b, r, (x, y) -> x < y ? x : y);
+			break;
+		case FLOOR:
+			launch = getKernel(n, a, b, r, (x, y) -> x > y ? x : y);
+			break;
+		case ADD:
+			launch = getKernel(n, a, b, r, (x, y) -> x + y);
+			break;
+		case SUB:
+			launch = getKernel(n, a, b, r, (x, y) -> x - y);
+			break;
+		case MULT:
+			launch = getKernel(n, a, b, r, (x, y) -> x * y);
+			break;
+		case DIV:
+			launch = getKernel(n, a, b, r, (x, y) -> x / y);
+			break;
+		case ACCRUE:
+			launch = getKernel(n, a, b, r, (x, y) -> x * (1.0f + y * s));
+			break;
+		case DISCOUNT:
+			launch = getKernel(n, a, b, r, (x, y) -> x / (1.0f + y * s));
+			break;
+		case ADD_PRODUCT_VS:
+			launch = getKernel(n, a, b, r, (x, y) -> x + y * s);
+			break;
+		case ADD_PRODUCT:
+			launch = getKernel(n, a, b, c, r, (x, y, z) -> x + y * z);
+			break;
+		case ADD_RATIO:
+			launch = getKernel(n, a, b, c, r, (x, y, z) -> x + y / z);
+			break;
+		case SUB_RATIO:
+			launch = getKernel(n, a, b, c, r, (x, y, z) -> x - y / z);
+			break;
+		case ANTITHETIC:
+			launch = getAntitheticKernel(n, a, r);
+			break;
+		default:
+			throw new IllegalArgumentException("Kernel " + kernel + " not supported.");
+		}
+		launchQueue.enqueue(launch, result, vectors);
+
+		return result;
+	}
+
+	@Override
+	public DevicePointerReference addSumProduct(final long resultSize, final DevicePointerReference a, final float b, final DevicePointerReference[] factor1, final DevicePointerReference[] factor2, final DevicePointerReference[] factor3, final float[] scalars) {
+		final DevicePointerReference result = getDevicePointer(resultSize);
+		final FloatBuffer r = getBuffer(result);
+		final FloatBuffer aBuffer = a != null ? getBuffer(a) : null;
+		final FloatBuffer[] factor1Buffers = getBuffers(factor1);
+		final FloatBuffer[] factor2Buffers = getBuffers(factor2);
+		final FloatBuffer[] factor3Buffers = getBuffers(factor3);
+		final float[] scalarValues = scalars.clone();
+
+		launchQueue.enqueue(() -> ParallelChunkExecutor.forEach((int)resultSize, (from, to) -> {
+			for(int i=from; i<to; i++) {
+				float sum = (aBuffer != null ? aBuffer.get(i) : 0.0f) + b;
+				for(int k=0; k<factor1Buffers.length; k++) {
+					sum += factor1Buffers[k].get(i) * factor2Buffers[k].get(i);
+				}
+				for(int k=0; k<factor3Buffers.length; k++) {
+					sum += factor3Buffers[k].get(i) * scalarValues[k];
+				}
+				r.put(i, sum);
+			}
+		}), result, KernelLaunchQueue.getInputs(a, factor1, factor2, factor3));
+
+		return result;
+	}
+
+	@Override
+	public DevicePointerReference callFusedKernel(final KernelProgram program, final DevicePointerReference[] arguments, final long resultSize) {
+		final DevicePointerReference result = getDevicePointer(resultSize);
+		final FloatBuffer r = getBuffer(result);
+		final FloatBuffer[] argumentBuffers = getBuffers(arguments);
+		final int[] inputIndices = program.getInputIndices();
+
+		launchQueue.enqueue(() -> {
+			int numberOfInputs = 0;
+			for(final int inputIndex : inputIndices) {
+				numberOfInputs = Math.max(numberOfInputs, inputIndex+1);
+			}
+			final float[][] inputs = new float[numberOfInputs][];
+			for(int j=0; j<inputIndices.length; j++) {
+				inputs[inputIndices[j]] = new float[(int)resultSize];
+				argumentBuffers[j].duplicate().get(inputs[inputIndices[j]]);
+			}
+			r.duplicate().put(program.evaluate(inputs));
+		}, result, arguments);
+
+		return result;
+	}
+
+	@Override
+	public double sum(final DevicePointerReference devicePointer, final int size) {
+		final FloatBuffer buffer = getBuffer(devicePointer);
+		try {
+			return launchQueue.submit(() -> {
+				KernelLaunchQueue.rethrowFailure(devicePointer);
+				return ParallelChunkExecutor.sum(size, (from, to) -> {
+					// Compensated summation in double precision (as the reduction kernel)
+					double sum = 0.0;
+					double error = 0.0;
+					for(int i=from; i<to; i++) {
+						final double value = buffer.get(i) - error;
+						final double newSum = sum + value;
+						error = (newSum - sum) - value;
+						sum = newSum;
+					}
+					return sum;
+				});
+			}).get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	@Override
+	public RandomVariableMoments getMoments(final DevicePointerReference devicePointer, final int size) {
+		final FloatBuffer buffer = getBuffer(devicePointer);
+		try {
+			return launchQueue.submit(() -> {
+				KernelLaunchQueue.rethrowFailure(devicePointer);
+				return MomentsReduction.reduce(buffer, size, MomentsReduction.BLOCK_SIZE);
+			}).get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	@Override
+	public void clean() {
+		devicePointerPool.clean();
+	}
+
+	@Override
+	public void purge() {
+		devicePointerPool.purge();
+	}
+
+	@Override
+	public DevicePointerPoolStatistics getStatistics() {
+		return devicePointerPool.getStatistics();
+	}
+
+	/**
+	 * @return The number of kernel launches performed by this backend.
+	 */
+	public long getNumberOfLaunches() {
+		return launchQueue.getNumberOfLaunches();
+	}
+
+	private static Runnable getKernel(final int n, final FloatBuffer a, final FloatBuffer r, final FloatUnaryOperator operator) {
+		return () -> ParallelChunkExecutor.forEach(n, (from, to) -> {
+			for(int i=from; i<to; i++) {
+				r.put(i, operator.applyAsFloat(a.get(i)));
+			}
+		});
+	}
+
+	private static Runnable getKernel(final int n, final FloatBuffer a, final FloatBuffer b, final FloatBuffer r, final FloatBinaryOperator operator) {
+		return () -> ParallelChunkExecutor.forEach(n, (from, to) -> {
+			for(int i=from; i<to; i++) {
+				r.put(i, operator.applyAsFloat(a.get(i), b.get(i)));
+			}
+		});
+	}
+
+	private static Runnable getKernel(final int n, final FloatBuffer a, final FloatBuffer b, final FloatBuffer c, final FloatBuffer r, final FloatTernaryOperator operator) {
+		return () -> ParallelChunkExecutor.forEach(n, (from, to) -> {
+			for(int i=from; i<to; i++) {
+				r.put(i, operator.applyAsFloat(a.get(i), b.get(i), c.get(i)));
+			}
+		});
+	}
+
+	private static Runnable getAntitheticKernel(final int n, final FloatBuffer a, final FloatBuffer r) {
+		final int half = (n+1)/2;
+		return () -> ParallelChunkExecutor.forEach(n, (from, to) -> {
+			for(int i=from; i<to; i++) {
+				r.put(i, i < half ? a.get(i) : -a.get(i-half));
+			}
+		});
+	}
+
+	private static FloatBuffer getBuffer(final DevicePointerReference devicePointer) {
+		final CUdeviceptr pointer = devicePointer.get();
+		if(!(pointer instanceof HostDevicePointer)) {
+			throw new IllegalArgumentException("The device pointer has not been allocated by a host backend.");
+		}
+		return ((HostDevicePointer)pointer).buffer;
+	}
+
+	private static FloatBuffer[] getBuffers(final DevicePointerReference[] devicePointers) {
+		final FloatBuffer[] buffers = new FloatBuffer[devicePointers.length];
+		for(int k=0; k<devicePointers.length; k++) {
+			buffers[k] = getBuffer(devicePointers[k]);
+		}
+		return buffers;
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.backend;
+
+/**
+ * The element-wise kernels of <code>RandomVariableCudaKernel.cu</code>.
+ *
+ * An element-wise kernel has the signature <code>(int n, float *a, ..., float s, ..., float *result)</code>, i.e., the size,
+ * the vector arguments, the scalar arguments and the result vector.
+ *
+ * @author Christian Fries
+ */
+public enum Kernel {
+	/** a &lt; s ? a : s */
+	CAP_BY_SCALAR("capByScalar", 1, 1),
+	/** a &gt; s ? a : s */
+	FLOOR_BY_SCALAR("floorByScalar", 1, 1),
+	/** a + s */
+	ADD_SCALAR("addScalar", 1, 1),
+	/** a - s */
+	SUB_SCALAR("subScalar", 1, 1),
+	/** -a + s */
+	BUS_SCALAR("busScalar", 1, 1),
+	/** a * s */
+	MULT_SCALAR("multScalar", 1, 1),
+	/** a / s */
+	DIV_SCALAR("divScalar", 1, 1),
+	/** s / a */
+	VID_SCALAR("vidScalar", 1, 1),
+	/** a * a */
+	SQUARED("squared", 1, 0),
+	/** pow(a, s) */
+	POW("cuPow", 1, 1),
+	/** sqrt(a) */
+	SQRT("cuSqrt", 1, 0),
+	/** exp(a) */
+	EXP("cuExp", 1, 0),
+	/** log(a) */
+	LOG("cuLog", 1, 0),
+	/** 1 / a */
+	INVERT("invert", 1, 0),
+	/** abs(a) */
+	ABS("cuAbs", 1, 0),
+	/** a &lt; b ? a : b */
+	CAP("cap", 2, 0),
+	/** a &gt; b ? a : b */
+	FLOOR("cuFloor", 2, 0),
+	/** a + b */
+	ADD("add", 2, 0),
+	/** a - b */
+	SUB("sub", 2, 0),
+	/** a * b */
+	MULT("mult", 2, 0),
+	/** a / b */
+	DIV("cuDiv", 2, 0),
+	/** a * (1 + b * s) */
+	ACCRUE("accrue", 2, 1),
+	/** a / (1 + b * s) */
+	DISCOUNT("discount", 2, 1),
+	/** a + b * c */
+	ADD_PRODUCT("addProduct", 3, 0),
+	/** a + b * s */
+	ADD_PRODUCT_VS("addProduct_vs", 2, 1),
+	/** a + b / c */
+	ADD_RATIO("addRatio", 3, 0),
+	/** a - b / c */
+	SUB_RATIO("subRatio", 3, 0),
+	/**
+	 * i &lt; h ? a[i] : -a[i-h] with h = (n+1)/2, i.e., the antithetic paths of the first half of a
+	 * (the only kernel reading an element other than i; a sharded backend forms the pairs globally on the host).
+	 */
+	ANTITHETIC("antithetic", 1, 0);
+
+	private final String functionName;
+	private final int numberOfVectors;
+	private final int numberOfScalars;
+
+	Kernel(final String functionName, final int numberOfVectors, final int numberOfScalars) {
+		this.functionName = functionName;
+		this.numberOfVectors = numberOfVectors;
+		this.numberOfScalars = numberOfScalars;
+	}
+
+	/**
+	 * @return The name of the kernel function in the Cuda module.
+	 */
+	public String getFunctionName() {
+		return functionName;
+	}
+
+	/**
+	 * @return The number of vector arguments (excluding the result).
+	 */
+	public int getNumberOfVectors() {
+		return numberOfVectors;
+	}
+
+	/**
+	 * @return The number of scalar arguments.
+	 */
+	public int getNumberOfScalars() {
+		return numberOfScalars;
+	}
+}
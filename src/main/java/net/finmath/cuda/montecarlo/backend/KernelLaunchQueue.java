@@ -0,0 +1,211 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.finmath.cuda.montecarlo.RandomVariableCuda.DevicePointerReference;
+
+/**
+ * An asynchronous queue of kernel launches, executed in batches on the (single) device thread.
+ *
+ * Enqueuing a launch does not block the caller. All launches enqueued while the device thread is busy are
+ * executed by a single task of the device executor (a batch), such that the fixed cost of the executor hand-off
+ * is paid once per batch and not once per operation.
+ *
+ * Tasks which require the device thread and have to be synchronized with the launches (e.g. copying a result to
+ * the host) are submitted via {@link #submit(Callable)} or {@link #submit(Runnable)}. These tasks first execute all
+ * pending launches, hence the order of launches and tasks is preserved. The caller only has to wait if a host-visible
+ * value is required.
+ *
+ * A failed launch does not prevent subsequent launches. The failure is recorded on the result vector of the launch
+ * (see {@link DevicePointerReference#setFailure(RuntimeException)}) and passed on to the results of all launches reading it.
+ * It is rethrown where the result (or a vector depending on it) is synchronized with the host, i.e., copied to the host
+ * or reduced (see {@link #rethrowFailure(DevicePointerReference)}). Operations on other vectors are not affected.
+ *
+ * @author Christian Fries
+ */
+class KernelLaunchQueue {
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	private final ExecutorService deviceExecutor;
+
+	/**
+	 * A launch together with the vector written and the vectors read by the launch.
+	 */
+	private static final class Launch {
+		private final Runnable launch;
+		private final DevicePointerReference result;
+		private final DevicePointerReference[] inputs;
+
+		Launch(final Runnable launch, final DevicePointerReference result, final DevicePointerReference[] inputs) {
+			this.launch = launch;
+			this.result = result;
+			this.inputs = inputs;
+		}
+	}
+
+	private final Queue<Launch> pendingLaunches = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean isDrainScheduled = new AtomicBoolean(false);
+
+	private final LongAdder numberOfLaunches = new LongAdder();
+	private final LongAdder numberOfBatches = new LongAdder();
+
+	/**
+	 * Create a launch queue executing on the given executor.
+	 *
+	 * @param deviceExecutor A single thread executor (the device thread).
+	 */
+	KernelLaunchQueue(final ExecutorService deviceExecutor) {
+		this.deviceExecutor = deviceExecutor;
+	}
+
+	/**
+	 * Enqueue a kernel launch. The method does not block.
+	 *
+	 * If the launch fails, the failure is recorded on the result. If an input has failed, the launch is not run and the
+	 * failure of the input is recorded on the result.
+	 *
+	 * @param launch The launch (will be run on the device thread).
+	 * @param result The vector written by the launch.
+	 * @param inputs The vectors read by the launch (elements may be null).
+	 */
+	void enqueue(final Runnable launch, final DevicePointerReference result, final DevicePointerReference... inputs) {
+		pendingLaunches.add(new Launch(launch, result, inputs));
+		numberOfLaunches.increment();
+		if(isDrainScheduled.compareAndSet(false, true)) {
+			deviceExecutor.execute(this::drainScheduled);
+		}
+	}
+
+	/**
+	 * Submit a task to the device thread, which is executed after all launches enqueued before.
+	 *
+	 * @param task The task.
+	 * @param <T> The result type of the task.
+	 * @return The future of the task.
+	 */
+	<T> Future<T> submit(final Callable<T> task) {
+		return deviceExecutor.submit(() -> {
+			drain();
+			return task.call();
+		});
+	}
+
+	/**
+	 * Submit a task to the device thread, which is executed after all launches enqueued before.
+	 *
+	 * @param task The task.
+	 * @return The future of the task.
+	 */
+	Future<?> submit(final Runnable task) {
+		return deviceExecutor.submit(() -> {
+			drain();
+			task.run();
+		});
+	}
+
+	/**
+	 * Rethrow the failure of the launch writing the given vector (or of a launch it depends on). To be called by a task
+	 * synchronizing the vector with the host, i.e., after the launches writing it have been run.
+	 *
+	 * @param devicePointer The vector.
+	 * @throws IllegalStateException Thrown if the launch writing the vector has failed (the cause being the failure of the launch).
+	 */
+	static void rethrowFailure(final DevicePointerReference devicePointer) {
+		final RuntimeException failure = devicePointer.getFailure();
+		if(failure != null) {
+			throw new IllegalStateException("The kernel launch writing the device vector has failed.", failure);
+		}
+	}
+
+	/**
+	 * Returns the inputs of a launch reading a vector and arrays of vectors.
+	 *
+	 * @param a A vector (may be null).
+	 * @param vectors Arrays of vectors.
+	 * @return The vectors as a single array.
+	 */
+	static DevicePointerReference[] getInputs(final DevicePointerReference a, final DevicePointerReference[]... vectors) {
+		final List<DevicePointerReference> inputs = new ArrayList<>();
+		inputs.add(a);
+		for(final DevicePointerReference[] vector : vectors) {
+			inputs.addAll(Arrays.asList(vector));
+		}
+		return inputs.toArray(new DevicePointerReference[0]);
+	}
+
+	/**
+	 * @return The number of launches enqueued.
+	 */
+	long getNumberOfLaunches() {
+		return numberOfLaunches.sum();
+	}
+
+	/**
+	 * @return The number of batches executed (by a drain task of the queue, not counting launches run by submitted tasks).
+	 */
+	long getNumberOfBatches() {
+		return numberOfBatches.sum();
+	}
+
+	/**
+	 * The drain task scheduled by {@link #enqueue(Runnable, DevicePointerReference, DevicePointerReference...)}.
+	 */
+	private void drainScheduled() {
+		do {
+			numberOfBatches.increment();
+			drain();
+			isDrainScheduled.set(false);
+			// A launch may have been enqueued after the queue was drained but before the flag was reset
+		} while(!pendingLaunches.isEmpty() && isDrainScheduled.compareAndSet(false, true));
+	}
+
+	/**
+	 * Run all pending launches (on the device thread).
+	 */
+	private void drain() {
+		Launch launch;
+		while((launch = pendingLaunches.poll()) != null) {
+			final RuntimeException inputFailure = getFailure(launch.inputs);
+			if(inputFailure != null) {
+				// The inputs are invalid, hence the result is invalid
+				launch.result.setFailure(inputFailure);
+				continue;
+			}
+			try {
+				launch.launch.run();
+			}
+			catch(final RuntimeException e) {
+				// A failed launch must not prevent subsequent launches, the failure is rethrown where the result is synchronized
+				logger.log(Level.SEVERE, "Kernel launch failed.", e);
+				launch.result.setFailure(e);
+			}
+		}
+	}
+
+	private static RuntimeException getFailure(final DevicePointerReference[] inputs) {
+		for(final DevicePointerReference input : inputs) {
+			final RuntimeException failure = input != null ? input.getFailure() : null;
+			if(failure != null) {
+				return failure;
+			}
+		}
+		return null;
+	}
+}
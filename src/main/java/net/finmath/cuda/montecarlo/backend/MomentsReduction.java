@@ -0,0 +1,180 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.backend;
+
+import java.nio.FloatBuffer;
+
+import net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor;
+import net.finmath.cuda.cpu.montecarlo.RandomVariableMoments;
+
+/**
+ * The two stage reduction of a vector to its moments (sum, sum of squared deviations, minimum and maximum), as performed by the
+ * kernels <code>reduceMoments</code> and <code>reduceMomentsPartials</code> of <code>RandomVariableCudaKernel.cu</code>.
+ *
+ * This class is a host implementation of the same block/grid logic (the same accumulators combined in the same order), which
+ * is used by the {@link HostComputeBackend} and allows to verify the reduction without a GPU.
+ *
+ * The accumulator of a sample consists of {@value #NUMBER_OF_FIELDS} doubles: the number of values, the sum, the compensation
+ * of the (Kahan) sum, the sum of the squared deviations from the mean (combined by the update of Chan et al.), the minimum and the maximum.
+ *
+ * In the first stage, each thread of a block of size {@value #BLOCK_SIZE} accumulates two elements, then the accumulators of the threads are combined
+ * by a tree reduction. In the second stage, a single block combines the accumulators of the blocks of the first stage.
+ * Hence only {@value #NUMBER_OF_FIELDS} doubles have to be copied from the device to the host.
+ *
+ * @author Christian Fries
+ */
+final class MomentsReduction {
+
+	/**
+	 * The number of threads of a block (the shared memory is <code>NUMBER_OF_FIELDS * BLOCK_SIZE</code> doubles).
+	 */
+	static final int BLOCK_SIZE = 512;
+
+	/**
+	 * The number of doubles of an accumulator.
+	 */
+	static final int NUMBER_OF_FIELDS = 6;
+
+	private MomentsReduction() {
+	}
+
+	/**
+	 * @param size The size of the vector.
+	 * @param blockSize The number of threads of a block.
+	 * @return The number of blocks of the first stage.
+	 */
+	static int getNumberOfBlocks(final int size, final int blockSize) {
+		return (int)Math.ceil((double)size / 2 / blockSize);
+	}
+
+	/**
+	 * Reduce a vector to its moments.
+	 *
+	 * @param data The vector.
+	 * @param size The size of the vector.
+	 * @param blockSize The number of threads of a block (a power of two).
+	 * @return The moments.
+	 */
+	static RandomVariableMoments reduce(final FloatBuffer data, final int size, final int blockSize) {
+		final int numberOfBlocks = getNumberOfBlocks(size, blockSize);
+		final double[] partials = new double[NUMBER_OF_FIELDS * numberOfBlocks];
+		ParallelChunkExecutor.forEach(numberOfBlocks, (from, to) -> {
+			for(int blockIndex=from; blockIndex<to; blockIndex++) {
+				reduceBlock(data, size, blockIndex, numberOfBlocks, blockSize, partials);
+			}
+		});
+		return getMoments(reducePartials(partials, numberOfBlocks, blockSize));
+	}
+
+	/**
+	 * First stage: reduce the elements of a block, writing field k of the accumulator to <code>result[k * numberOfBlocks + blockIndex]</code>
+	 * (kernel <code>reduceMoments</code>).
+	 */
+	static void reduceBlock(final FloatBuffer data, final int size, final int blockIndex, final int numberOfBlocks, final int blockSize, final double[] result) {
+		final double[] sdata = new double[NUMBER_OF_FIELDS * blockSize];
+		for(int tid=0; tid<blockSize; tid++) {
+			final int i = blockIndex*(blockSize*2) + tid;
+			clear(sdata, tid, blockSize);
+			if(i < size) {
+				add(sdata, tid, blockSize, data.get(i));
+			}
+			if(i+blockSize < size) {
+				add(sdata, tid, blockSize, data.get(i+blockSize));
+			}
+		}
+
+		reduceInBlock(sdata, blockSize);
+
+		for(int k=0; k<NUMBER_OF_FIELDS; k++) {
+			result[k * numberOfBlocks + blockIndex] = sdata[k * blockSize];
+		}
+	}
+
+	/**
+	 * Second stage: reduce the accumulators of the blocks to a single accumulator (kernel <code>reduceMomentsPartials</code>).
+	 */
+	static double[] reducePartials(final double[] partials, final int numberOfPartials, final int blockSize) {
+		final double[] sdata = new double[NUMBER_OF_FIELDS * blockSize];
+		for(int tid=0; tid<blockSize; tid++) {
+			clear(sdata, tid, blockSize);
+			for(int j=tid; j<numberOfPartials; j+=blockSize) {
+				combine(sdata, tid, blockSize, partials, j, numberOfPartials);
+			}
+		}
+
+		reduceInBlock(sdata, blockSize);
+
+		final double[] result = new double[NUMBER_OF_FIELDS];
+		for(int k=0; k<NUMBER_OF_FIELDS; k++) {
+			result[k] = sdata[k * blockSize];
+		}
+		return result;
+	}
+
+	/**
+	 * Create the moments from the accumulator of the second stage.
+	 *
+	 * @param accumulator The accumulator ({@value #NUMBER_OF_FIELDS} doubles).
+	 * @return The moments.
+	 */
+	static RandomVariableMoments getMoments(final double[] accumulator) {
+		final long numberOfValues = (long)accumulator[0];
+		// The sum corrected by the compensation of the Kahan summation
+		final double sum = accumulator[1] - accumulator[2];
+		return RandomVariableMoments.of(numberOfValues, sum / numberOfValues, accumulator[3], accumulator[4], accumulator[5]);
+	}
+
+	private static void reduceInBlock(final double[] sdata, final int blockSize) {
+		// In each step the threads tid < s read the accumulators of the threads tid + s, which are not written in that step
+		for(int s=blockSize/2; s>0; s>>=1) {
+			for(int tid=0; tid<s; tid++) {
+				combine(sdata, tid, blockSize, sdata, tid + s, blockSize);
+			}
+		}
+	}
+
+	private static void clear(final double[] a, final int offsetA, final int strideA) {
+		a[offsetA] = 0.0;
+		a[offsetA + strideA] = 0.0;
+		a[offsetA + 2*strideA] = 0.0;
+		a[offsetA + 3*strideA] = 0.0;
+		a[offsetA + 4*strideA] = Double.POSITIVE_INFINITY;
+		a[offsetA + 5*strideA] = Double.NEGATIVE_INFINITY;
+	}
+
+	private static void add(final double[] a, final int offsetA, final int strideA, final double x) {
+		combine(a, offsetA, strideA, new double[] { 1.0, x, 0.0, 0.0, x, x }, 0, 1);
+	}
+
+	private static void combine(final double[] a, final int offsetA, final int strideA, final double[] b, final int offsetB, final int strideB) {
+		final double nA = a[offsetA];
+		final double nB = b[offsetB];
+		if(nB == 0.0) {
+			return;
+		}
+		if(nA == 0.0) {
+			for(int k=0; k<NUMBER_OF_FIELDS; k++) {
+				a[offsetA + k*strideA] = b[offsetB + k*strideB];
+			}
+			return;
+		}
+
+		final double n = nA + nB;
+		final double delta = b[offsetB + strideB] / nB - a[offsetA + strideA] / nA;
+		final double sumOfSquaredDeviations = a[offsetA + 3*strideA] + b[offsetB + 3*strideB] + delta * delta * (nA * nB / n);
+
+		final double value = (b[offsetB + strideB] - b[offsetB + 2*strideB]) - a[offsetA + 2*strideA];
+		final double sum = a[offsetA + strideA] + value;
+		final double error = (sum - a[offsetA + strideA]) - value;
+
+		a[offsetA] = n;
+		a[offsetA + strideA] = sum;
+		a[offsetA + 2*strideA] = error;
+		a[offsetA + 3*strideA] = sumOfSquaredDeviations;
+		a[offsetA + 4*strideA] = Math.min(a[offsetA + 4*strideA], b[offsetB + 4*strideB]);
+		a[offsetA + 5*strideA] = Math.max(a[offsetA + 5*strideA], b[offsetB + 5*strideB]);
+	}
+}
@@ -0,0 +1,316 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import jcuda.driver.CUdeviceptr;
+import net.finmath.cuda.cpu.montecarlo.RandomVariableMoments;
+import net.finmath.cuda.montecarlo.RandomVariableCuda.DevicePointerReference;
+import net.finmath.cuda.montecarlo.fusion.KernelProgram;
+import net.finmath.cuda.montecarlo.memory.DevicePointerPoolStatistics;
+
+/**
+ * A backend partitioning the paths of each vector across several devices (shards).
+ *
+ * A vector of size n is split into contiguous blocks, shard i holding the elements
+ * floor(n i / N) to floor(n (i+1) / N) - 1, where N is the number of shards. Since the partition depends on the size only,
+ * the shards of vectors of the same size are aligned and the element-wise kernels are launched per shard (asynchronously,
+ * i.e., all devices work in parallel). The exception is {@link Kernel#ANTITHETIC}, pairing paths across shards, which is
+ * performed on the host. Copies and reductions are performed on all shards in parallel and combined on the host
+ * (in the order of the shards, such that the results are reproducible).
+ *
+ * Each shard is a {@link ComputeBackend} on its own, with its own context, device thread and memory pool, e.g., a
+ * {@link CudaComputeBackend} for each GPU (see {@link #ofCudaDevices(int...)}) or a {@link HostComputeBackend} emulating a device.
+ *
+ * @author Christian Fries
+ */
+public class ShardedComputeBackend implements ComputeBackend {
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	/**
+	 * A device pointer referencing the shards of a vector.
+	 */
+	private static final class ShardedDevicePointer extends CUdeviceptr {
+		private final long size;
+		private final DevicePointerReference[] shards;
+
+		ShardedDevicePointer(final long size, final DevicePointerReference[] shards) {
+			this.size = size;
+			this.shards = shards;
+		}
+	}
+
+	private final List<ComputeBackend> backends;
+
+	/**
+	 * Create a backend sharding the vectors across the given backends.
+	 *
+	 * @param backends The backends, one for each shard.
+	 */
+	public ShardedComputeBackend(final List<? extends ComputeBackend> backends) {
+		if(backends.isEmpty()) {
+			throw new IllegalArgumentException("At least one backend is required.");
+		}
+		this.backends = Collections.unmodifiableList(new ArrayList<>(backends));
+	}
+
+	/**
+	 * Create a backend sharding the vectors across the given Cuda devices.
+	 *
+	 * @param deviceIndices The indices of the devices.
+	 * @return A backend sharding the vectors across the given Cuda devices.
+	 */
+	public static ShardedComputeBackend ofCudaDevices(final int... deviceIndices) {
+		final List<ComputeBackend> backends = new ArrayList<>();
+		for(final int deviceIndex : deviceIndices) {
+			backends.add(new CudaComputeBackend(deviceIndex));
+		}
+		logger.config("Sharding across Cuda devices " + Arrays.toString(deviceIndices));
+		return new ShardedComputeBackend(backends);
+	}
+
+	/**
+	 * Create a backend sharding the vectors across all Cuda devices.
+	 *
+	 * @return A backend sharding the vectors across all Cuda devices.
+	 */
+	public static ShardedComputeBackend ofAllCudaDevices() {
+		return ofCudaDevices(IntStream.range(0, CudaComputeBackend.getNumberOfDevices()).toArray());
+	}
+
+	@Override
+	public String getName() {
+		return "sharded";
+	}
+
+	/**
+	 * @return The backends of the shards.
+	 */
+	public List<ComputeBackend> getBackends() {
+		return backends;
+	}
+
+	/**
+	 * @return The number of shards.
+	 */
+	public int getNumberOfShards() {
+		return backends.size();
+	}
+
+	/**
+	 * Returns the index of the first element of a shard of a vector.
+	 *
+	 * @param size The size of the vector.
+	 * @param shardIndex The index of the shard (from 0 to the number of shards).
+	 * @return The index of the first element of the shard (the size of the vector for shardIndex equal to the number of shards).
+	 */
+	public long getShardOffset(final long size, final int shardIndex) {
+		return size * shardIndex / backends.size();
+	}
+
+	private long getShardSize(final long size, final int shardIndex) {
+		return getShardOffset(size, shardIndex+1) - getShardOffset(size, shardIndex);
+	}
+
+	@Override
+	public DevicePointerReference getDevicePointer(final long size) {
+		final DevicePointerReference[] shards = new DevicePointerReference[backends.size()];
+		for(int i=0; i<shards.length; i++) {
+			final long shardSize = getShardSize(size, i);
+			shards[i] = shardSize > 0 ? backends.get(i).getDevicePointer(shardSize) : null;
+		}
+		return of(size, shards);
+	}
+
+	@Override
+	public DevicePointerReference getDevicePointer(final float[] values) {
+		final DevicePointerReference[] shards = new DevicePointerReference[backends.size()];
+		IntStream.range(0, shards.length).parallel().forEach(i -> {
+			final int from = (int)getShardOffset(values.length, i);
+			final int to = (int)getShardOffset(values.length, i+1);
+			shards[i] = to > from ? backends.get(i).getDevicePointer(Arrays.copyOfRange(values, from, to)) : null;
+		});
+		return of(values.length, shards);
+	}
+
+	@Override
+	public float[] getValuesAsFloat(final DevicePointerReference devicePointer, final int size) {
+		final DevicePointerReference[] shards = getShards(devicePointer, size);
+		final float[] result = new float[size];
+		IntStream.range(0, shards.length).parallel().forEach(i -> {
+			if(shards[i] != null) {
+				final int shardSize = (int)getShardSize(size, i);
+				System.arraycopy(backends.get(i).getValuesAsFloat(shards[i], shardSize), 0, result, (int)getShardOffset(size, i), shardSize);
+			}
+		});
+		return result;
+	}
+
+	@Override
+	public DevicePointerReference callFunction(final Kernel kernel, final long resultSize, final DevicePointerReference[] vectors, final float[] scalars) {
+		if(kernel == Kernel.ANTITHETIC) {
+			return callAntithetic(resultSize, vectors[0]);
+		}
+
+		final DevicePointerReference[][] vectorShards = getShards(vectors, resultSize);
+		final DevicePointerReference[] result = new DevicePointerReference[backends.size()];
+		for(int i=0; i<result.length; i++) {
+			final long shardSize = getShardSize(resultSize, i);
+			if(shardSize > 0) {
+				result[i] = backends.get(i).callFunction(kernel, shardSize, getShard(vectorShards, i), scalars);
+			}
+		}
+		return of(resultSize, result);
+	}
+
+	/**
+	 * The antithetic kernel pairs path i with path h+i, where h = (n+1)/2, which in general belong to different shards.
+	 * Hence the vector is gathered on the host, the pairs are formed globally and the result is scattered to the shards.
+	 */
+	private DevicePointerReference callAntithetic(final long resultSize, final DevicePointerReference vector) {
+		final float[] values = getValuesAsFloat(vector, (int)resultSize);
+		final int half = (values.length+1)/2;
+		for(int i=half; i<values.length; i++) {
+			values[i] = -values[i-half];
+		}
+		return getDevicePointer(values);
+	}
+
+	@Override
+	public DevicePointerReference addSumProduct(final long resultSize, final DevicePointerReference a, final float b, final DevicePointerReference[] factor1, final DevicePointerReference[] factor2, final DevicePointerReference[] factor3, final float[] scalars) {
+		final DevicePointerReference[] aShards = a != null ? getShards(a, resultSize) : null;
+		final DevicePointerReference[][] factor1Shards = getShards(factor1, resultSize);
+		final DevicePointerReference[][] factor2Shards = getShards(factor2, resultSize);
+		final DevicePointerReference[][] factor3Shards = getShards(factor3, resultSize);
+		final DevicePointerReference[] result = new DevicePointerReference[backends.size()];
+		for(int i=0; i<result.length; i++) {
+			final long shardSize = getShardSize(resultSize, i);
+			if(shardSize > 0) {
+				result[i] = backends.get(i).addSumProduct(shardSize, aShards != null ? aShards[i] : null, b,
+						getShard(factor1Shards, i), getShard(factor2Shards, i), getShard(factor3Shards, i), scalars);
+			}
+		}
+		return of(resultSize, result);
+	}
+
+	@Override
+	public DevicePointerReference callFusedKernel(final KernelProgram program, final DevicePointerReference[] arguments, final long resultSize) {
+		final DevicePointerReference[][] argumentShards = getShards(arguments, resultSize);
+		final DevicePointerReference[] result = new DevicePointerReference[backends.size()];
+		for(int i=0; i<result.length; i++) {
+			final long shardSize = getShardSize(resultSize, i);
+			if(shardSize > 0) {
+				result[i] = backends.get(i).callFusedKernel(program, getShard(argumentShards, i), shardSize);
+			}
+		}
+		return of(resultSize, result);
+	}
+
+	@Override
+	public double sum(final DevicePointerReference devicePointer, final int size) {
+		final DevicePointerReference[] shards = getShards(devicePointer, size);
+		final double[] sums = new double[shards.length];
+		IntStream.range(0, shards.length).parallel().forEach(i -> {
+			if(shards[i] != null) {
+				sums[i] = backends.get(i).sum(shards[i], (int)getShardSize(size, i));
+			}
+		});
+
+		// Combine in the order of the shards (Kahan summation)
+		double sum = 0.0;
+		double error = 0.0;
+		for(final double shardSum : sums) {
+			final double value = shardSum - error;
+			final double newSum = sum + value;
+			error = (newSum - sum) - value;
+			sum = newSum;
+		}
+		return sum;
+	}
+
+	@Override
+	public RandomVariableMoments getMoments(final DevicePointerReference devicePointer, final int size) {
+		final DevicePointerReference[] shards = getShards(devicePointer, size);
+		final RandomVariableMoments[] moments = new RandomVariableMoments[shards.length];
+		IntStream.range(0, shards.length).parallel().forEach(i -> {
+			moments[i] = shards[i] != null ? backends.get(i).getMoments(shards[i], (int)getShardSize(size, i)) : RandomVariableMoments.of(0, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+		});
+
+		// Combine in the order of the shards
+		RandomVariableMoments result = moments[0];
+		for(int i=1; i<moments.length; i++) {
+			result = result.combine(moments[i]);
+		}
+		return result;
+	}
+
+	@Override
+	public void clean() {
+		backends.forEach(ComputeBackend::clean);
+	}
+
+	@Override
+	public void purge() {
+		backends.forEach(ComputeBackend::purge);
+	}
+
+	@Override
+	public DevicePointerPoolStatistics getStatistics() {
+		final List<DevicePointerPoolStatistics> statistics = new ArrayList<>();
+		for(final ComputeBackend backend : backends) {
+			statistics.add(backend.getStatistics());
+		}
+		return DevicePointerPoolStatistics.sum(statistics);
+	}
+
+	private static DevicePointerReference of(final long size, final DevicePointerReference[] shards) {
+		return new DevicePointerReference(new ShardedDevicePointer(size, shards), () -> {
+			for(final DevicePointerReference shard : shards) {
+				if(shard != null) {
+					shard.close();
+				}
+			}
+		});
+	}
+
+	private DevicePointerReference[] getShards(final DevicePointerReference devicePointer, final long size) {
+		final CUdeviceptr pointer = devicePointer.get();
+		if(!(pointer instanceof ShardedDevicePointer)) {
+			throw new IllegalArgumentException("The device pointer has not been allocated by a sharded backend.");
+		}
+		final ShardedDevicePointer shardedPointer = (ShardedDevicePointer)pointer;
+		if(shardedPointer.shards.length != backends.size()) {
+			throw new IllegalArgumentException("The device pointer is sharded across " + shardedPointer.shards.length + " devices, expected " + backends.size() + ".");
+		}
+		if(shardedPointer.size != size) {
+			throw new IllegalArgumentException("The shards of vectors of different sizes (" + shardedPointer.size + " and " + size + ") are not aligned.");
+		}
+		return shardedPointer.shards;
+	}
+
+	private DevicePointerReference[][] getShards(final DevicePointerReference[] devicePointers, final long size) {
+		final DevicePointerReference[][] shards = new DevicePointerReference[devicePointers.length][];
+		for(int k=0; k<devicePointers.length; k++) {
+			shards[k] = getShards(devicePointers[k], size);
+		}
+		return shards;
+	}
+
+	private static DevicePointerReference[] getShard(final DevicePointerReference[][] shards, final int shardIndex) {
+		final DevicePointerReference[] shard = new DevicePointerReference[shards.length];
+		for(int k=0; k<shards.length; k++) {
+			shard[k] = shards[k][shardIndex];
+		}
+		return shard;
+	}
+}
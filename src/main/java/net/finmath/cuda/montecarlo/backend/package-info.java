@@ -0,0 +1,9 @@
+/**
+ * Provides the compute backends used by the Cuda random variables: the service provider interface
+ * {@link net.finmath.cuda.montecarlo.backend.ComputeBackend} (allocation, copies, kernel launches and reductions),
+ * its implementation on a Cuda device ({@link net.finmath.cuda.montecarlo.backend.CudaComputeBackend}) and an emulation of the
+ * device on the host ({@link net.finmath.cuda.montecarlo.backend.HostComputeBackend}), which does not require a GPU.
+ *
+ * @author Christian Fries
+ */
+package net.finmath.cuda.montecarlo.backend;
@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.fusion;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A cache of compiled fused kernels, keyed by the shape of the expression ({@link KernelProgram#getShape()}).
+ *
+ * The compilation is performed by the given compiler function (mapping the source to the compiled kernel), once per shape.
+ *
+ * @author Christian Fries
+ * @param <K> The type of a compiled kernel (e.g. a function handle).
+ */
+public class FusedKernelCache<K> {
+
+	private final Function<String, K> compiler;
+	private final Map<String, K> kernels = new ConcurrentHashMap<>();
+
+	private final LongAdder numberOfCompilations = new LongAdder();
+	private final LongAdder numberOfRequests = new LongAdder();
+
+	/**
+	 * Create a cache of fused kernels.
+	 *
+	 * @param compiler The compiler, mapping the source of a kernel to the compiled kernel.
+	 */
+	public FusedKernelCache(final Function<String, K> compiler) {
+		this.compiler = compiler;
+	}
+
+	/**
+	 * Returns the compiled kernel of the given program, compiling it if the shape of the program is not in the cache.
+	 *
+	 * @param program The program.
+	 * @return The compiled kernel.
+	 */
+	public K get(final KernelProgram program) {
+		numberOfRequests.increment();
+		return kernels.computeIfAbsent(program.getShape(), shape -> {
+			numberOfCompilations.increment();
+			return compiler.apply(program.getSource());
+		});
+	}
+
+	/**
+	 * @return The number of kernels in the cache.
+	 */
+	public int size() {
+		return kernels.size();
+	}
+
+	/**
+	 * @return The number of compilations performed.
+	 */
+	public long getNumberOfCompilations() {
+		return numberOfCompilations.sum();
+	}
+
+	/**
+	 * @return The number of kernels requested.
+	 */
+	public long getNumberOfRequests() {
+		return numberOfRequests.sum();
+	}
+}
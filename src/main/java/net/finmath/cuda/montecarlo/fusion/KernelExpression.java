@@ -0,0 +1,265 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.fusion;
+
+import java.util.Arrays;
+
+import net.finmath.cuda.cpu.montecarlo.FloatExpression;
+import net.finmath.cuda.cpu.montecarlo.FloatExpression.Operator;
+
+/**
+ * A node of an (immutable) expression graph of element-wise operations, to be fused into a single kernel.
+ *
+ * A node is either an input (a vector, referenced by its index), a constant, or an operator applied to other nodes.
+ * The operators and their float arithmetic are those of {@link FloatExpression}. Operations on constants only are
+ * folded upon construction (as for {@link FloatExpression}).
+ *
+ * @author Christian Fries
+ */
+public final class KernelExpression {
+
+	private static final KernelExpression[] noArguments = new KernelExpression[0];
+
+	private final Operator operator;
+	private final double parameter;
+	private final int inputIndex;
+	private final KernelExpression[] arguments;
+
+	private KernelExpression(final Operator operator, final double parameter, final int inputIndex, final KernelExpression[] arguments) {
+		this.operator = operator;
+		this.parameter = parameter;
+		this.inputIndex = inputIndex;
+		this.arguments = arguments;
+	}
+
+	/**
+	 * Create a leaf representing the input vector with the given index.
+	 *
+	 * @param index The index of the input.
+	 * @return The leaf.
+	 */
+	public static KernelExpression input(final int index) {
+		if(index < 0) {
+			throw new IllegalArgumentException("The index of an input must not be negative.");
+		}
+		return new KernelExpression(Operator.VALUES, Double.NaN, index, noArguments);
+	}
+
+	/**
+	 * Create a leaf representing a constant.
+	 *
+	 * @param value The constant.
+	 * @return The leaf.
+	 */
+	public static KernelExpression constant(final double value) {
+		return new KernelExpression(Operator.CONSTANT, value, -1, noArguments);
+	}
+
+	/**
+	 * Create a node applying an operator to the given arguments.
+	 * If all arguments are constants, the result is folded into a constant.
+	 *
+	 * @param operator The operator.
+	 * @param parameter The parameter of the operator (if required by the operator, otherwise ignored).
+	 * @param arguments The arguments.
+	 * @return The node.
+	 */
+	public static KernelExpression of(final Operator operator, final double parameter, final KernelExpression... arguments) {
+		if(operator == Operator.VALUES || operator == Operator.CONSTANT) {
+			throw new IllegalArgumentException("Use input or constant to create leafs.");
+		}
+		if(arguments.length != operator.getNumberOfArguments()) {
+			throw new IllegalArgumentException("Operator " + operator + " requires " + operator.getNumberOfArguments() + " arguments.");
+		}
+
+		boolean isConstant = true;
+		for(final KernelExpression argument : arguments) {
+			isConstant &= argument.isConstant();
+		}
+		if(isConstant) {
+			final FloatExpression[] constants = new FloatExpression[arguments.length];
+			for(int i=0; i<arguments.length; i++) {
+				constants[i] = FloatExpression.ofConstant(arguments[i].parameter);
+			}
+			return constant(FloatExpression.of(operator, parameter, constants).getConstantValue());
+		}
+
+		return new KernelExpression(operator, hasParameter(operator) ? parameter : Double.NaN, -1, arguments.clone());
+	}
+
+	/**
+	 * @param operator An operator.
+	 * @return True if the operator uses its parameter.
+	 */
+	static boolean hasParameter(final Operator operator) {
+		return operator == Operator.POW || operator == Operator.ACCRUE || operator == Operator.DISCOUNT;
+	}
+
+	/**
+	 * @return The operator of this node, <code>VALUES</code> for an input.
+	 */
+	public Operator getOperator() {
+		return operator;
+	}
+
+	/**
+	 * @return The parameter of this node (the value of a constant).
+	 */
+	public double getParameter() {
+		return parameter;
+	}
+
+	/**
+	 * @return The index of the input, if this node is an input, otherwise -1.
+	 */
+	public int getInputIndex() {
+		return inputIndex;
+	}
+
+	/**
+	 * @return The arguments of this node.
+	 */
+	public KernelExpression[] getArguments() {
+		return arguments.clone();
+	}
+
+	/**
+	 * Package-private access to the arguments (without copy).
+	 */
+	KernelExpression getArgument(final int index) {
+		return arguments[index];
+	}
+
+	/**
+	 * @return True if this node represents a constant.
+	 */
+	public boolean isConstant() {
+		return operator == Operator.CONSTANT;
+	}
+
+	/**
+	 * @return True if this node represents an input.
+	 */
+	public boolean isInput() {
+		return operator == Operator.VALUES;
+	}
+
+	/*
+	 * Convenience methods building the graph.
+	 */
+
+	public KernelExpression add(final KernelExpression argument) {
+		return of(Operator.ADD, Double.NaN, this, argument);
+	}
+
+	public KernelExpression add(final double value) {
+		return add(constant(value));
+	}
+
+	public KernelExpression sub(final KernelExpression argument) {
+		return of(Operator.SUB, Double.NaN, this, argument);
+	}
+
+	public KernelExpression sub(final double value) {
+		return sub(constant(value));
+	}
+
+	public KernelExpression mult(final KernelExpression argument) {
+		return of(Operator.MULT, Double.NaN, this, argument);
+	}
+
+	public KernelExpression mult(final double value) {
+		return mult(constant(value));
+	}
+
+	public KernelExpression div(final KernelExpression argument) {
+		return of(Operator.DIV, Double.NaN, this, argument);
+	}
+
+	public KernelExpression div(final double value) {
+		return div(constant(value));
+	}
+
+	public KernelExpression cap(final KernelExpression argument) {
+		return of(Operator.CAP, Double.NaN, this, argument);
+	}
+
+	public KernelExpression cap(final double value) {
+		return cap(constant(value));
+	}
+
+	public KernelExpression floor(final KernelExpression argument) {
+		return of(Operator.FLOOR, Double.NaN, this, argument);
+	}
+
+	public KernelExpression floor(final double value) {
+		return floor(constant(value));
+	}
+
+	public KernelExpression squared() {
+		return of(Operator.SQUARED, Double.NaN, this);
+	}
+
+	public KernelExpression sqrt() {
+		return of(Operator.SQRT, Double.NaN, this);
+	}
+
+	public KernelExpression exp() {
+		return of(Operator.EXP, Double.NaN, this);
+	}
+
+	public KernelExpression log() {
+		return of(Operator.LOG, Double.NaN, this);
+	}
+
+	public KernelExpression abs() {
+		return of(Operator.ABS, Double.NaN, this);
+	}
+
+	public KernelExpression invert() {
+		return of(Operator.INVERT, Double.NaN, this);
+	}
+
+	public KernelExpression pow(final double exponent) {
+		return of(Operator.POW, exponent, this);
+	}
+
+	public KernelExpression accrue(final KernelExpression rate, final double periodLength) {
+		return of(Operator.ACCRUE, periodLength, this, rate);
+	}
+
+	public KernelExpression discount(final KernelExpression rate, final double periodLength) {
+		return of(Operator.DISCOUNT, periodLength, this, rate);
+	}
+
+	public KernelExpression addProduct(final KernelExpression factor1, final KernelExpression factor2) {
+		return of(Operator.ADD_PRODUCT, Double.NaN, this, factor1, factor2);
+	}
+
+	public KernelExpression addRatio(final KernelExpression numerator, final KernelExpression denominator) {
+		return of(Operator.ADD_RATIO, Double.NaN, this, numerator, denominator);
+	}
+
+	public KernelExpression subRatio(final KernelExpression numerator, final KernelExpression denominator) {
+		return of(Operator.SUB_RATIO, Double.NaN, this, numerator, denominator);
+	}
+
+	public KernelExpression choose(final KernelExpression valueIfTriggerNonNegative, final KernelExpression valueIfTriggerNegative) {
+		return of(Operator.CHOOSE, Double.NaN, this, valueIfTriggerNonNegative, valueIfTriggerNegative);
+	}
+
+	@Override
+	public String toString() {
+		switch(operator) {
+		case VALUES:
+			return "input[" + inputIndex + "]";
+		case CONSTANT:
+			return Double.toString(parameter);
+		default:
+			return operator + (hasParameter(operator) ? "[" + parameter + "]" : "") + Arrays.toString(arguments);
+		}
+	}
+}
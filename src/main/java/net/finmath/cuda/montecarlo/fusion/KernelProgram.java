@@ -0,0 +1,300 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.fusion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.finmath.cuda.cpu.montecarlo.FloatExpression;
+import net.finmath.cuda.cpu.montecarlo.FloatExpression.Operator;
+
+/**
+ * The graph of a {@link KernelExpression} flattened into a sequence of instructions (in topological order), from which
+ * the Cuda C source of a fused element-wise kernel is generated.
+ *
+ * Constants and the parameters of operators are passed as kernel arguments, hence the source only depends on the
+ * structure of the expression, its <i>shape</i>. Expressions with the same shape share the same compiled kernel.
+ * Nodes which occur several times in the graph (common sub-expressions) are evaluated once.
+ *
+ * The kernel has the signature
+ * <code>fusedKernel(int n, float *input0, ..., float constant0, ..., float *result)</code>, where the inputs are
+ * ordered as given by {@link #getInputIndices()} and the constants as given by {@link #getConstants()}.
+ *
+ * The program can be evaluated on the host by {@link #evaluate(float[][])}, which uses the float arithmetic of
+ * {@link FloatExpression}.
+ *
+ * @author Christian Fries
+ */
+public final class KernelProgram {
+
+	/**
+	 * The name of the generated kernel function.
+	 */
+	public static final String FUNCTION_NAME = "fusedKernel";
+
+	/**
+	 * Operands are encoded as integers: a non-negative number i refers to the result of instruction i,
+	 * a negative number -(j+1) refers to the kernel input j.
+	 */
+	private static final class Instruction {
+		private final Operator operator;
+		private final int[] operands;
+		private final int constantIndex;		// Index of the constant holding the parameter, -1 if not used
+
+		Instruction(final Operator operator, final int[] operands, final int constantIndex) {
+			this.operator = operator;
+			this.operands = operands;
+			this.constantIndex = constantIndex;
+		}
+	}
+
+	private final List<Instruction> instructions = new ArrayList<>();
+	private final List<Integer> inputIndices = new ArrayList<>();
+	private final List<Double> constants = new ArrayList<>();
+
+	private final Map<KernelExpression, Integer> operandOfNode = new IdentityHashMap<>();
+	private final Map<Integer, Integer> operandOfInput = new HashMap<>();
+
+	private final String shape;
+	private final String source;
+
+	private KernelProgram(final KernelExpression root) {
+		add(root);
+		shape = createShape();
+		source = createSource();
+	}
+
+	/**
+	 * Create the program of an expression.
+	 *
+	 * @param root The expression. Must not be a constant.
+	 * @return The program.
+	 */
+	public static KernelProgram of(final KernelExpression root) {
+		if(root.isConstant()) {
+			throw new IllegalArgumentException("The expression is a constant.");
+		}
+		return new KernelProgram(root);
+	}
+
+	/**
+	 * Returns the shape of the expression, a string which determines the generated source (the key of the kernel cache).
+	 *
+	 * @return The shape of the expression.
+	 */
+	public String getShape() {
+		return shape;
+	}
+
+	/**
+	 * @return The Cuda C source of the fused kernel.
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * @return The indices of the inputs (of the expression) in the order of the kernel arguments.
+	 */
+	public int[] getInputIndices() {
+		return inputIndices.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * @return The values of the constant kernel arguments.
+	 */
+	public float[] getConstants() {
+		final float[] values = new float[constants.size()];
+		for(int i=0; i<values.length; i++) {
+			values[i] = constants.get(i).floatValue();
+		}
+		return values;
+	}
+
+	/**
+	 * @return The number of instructions, i.e., the number of element-wise operations performed by the fused kernel.
+	 */
+	public int getNumberOfInstructions() {
+		return instructions.size();
+	}
+
+	/**
+	 * Evaluate the program on the host.
+	 *
+	 * @param inputs The input vectors, indexed by the input indices of the expression (inputs not used may be null).
+	 * @return The result vector.
+	 */
+	public float[] evaluate(final float[][] inputs) {
+		final FloatExpression[] inputExpressions = new FloatExpression[inputIndices.size()];
+		for(int j=0; j<inputExpressions.length; j++) {
+			inputExpressions[j] = FloatExpression.ofValues(inputs[inputIndices.get(j)]);
+		}
+
+		final FloatExpression[] results = new FloatExpression[instructions.size()];
+		for(int k=0; k<results.length; k++) {
+			final Instruction instruction = instructions.get(k);
+			final FloatExpression[] arguments = new FloatExpression[instruction.operands.length];
+			for(int i=0; i<arguments.length; i++) {
+				final int operand = instruction.operands[i];
+				arguments[i] = operand >= 0 ? results[operand] : inputExpressions[-operand-1];
+			}
+			final double parameter = instruction.constantIndex >= 0 ? constants.get(instruction.constantIndex) : Double.NaN;
+			results[k] = instruction.operator == Operator.CONSTANT ? FloatExpression.ofConstant(constants.get(instruction.constantIndex).floatValue()) : FloatExpression.of(instruction.operator, parameter, arguments);
+		}
+
+		final FloatExpression result = results.length > 0 ? results[results.length-1] : inputExpressions[0];
+		return result.evaluate().clone();
+	}
+
+	private int add(final KernelExpression node) {
+		final Integer operand = operandOfNode.get(node);
+		if(operand != null) {
+			return operand;
+		}
+
+		final int newOperand;
+		if(node.isInput()) {
+			newOperand = operandOfInput.computeIfAbsent(node.getInputIndex(), inputIndex -> {
+				inputIndices.add(inputIndex);
+				return -inputIndices.size();
+			});
+		}
+		else if(node.isConstant()) {
+			constants.add(node.getParameter());
+			instructions.add(new Instruction(Operator.CONSTANT, new int[0], constants.size()-1));
+			newOperand = instructions.size()-1;
+		}
+		else {
+			final int[] argumentOperands = new int[node.getOperator().getNumberOfArguments()];
+			for(int i=0; i<argumentOperands.length; i++) {
+				argumentOperands[i] = add(node.getArgument(i));
+			}
+			int constantIndex = -1;
+			if(KernelExpression.hasParameter(node.getOperator())) {
+				constants.add(node.getParameter());
+				constantIndex = constants.size()-1;
+			}
+			instructions.add(new Instruction(node.getOperator(), argumentOperands, constantIndex));
+			newOperand = instructions.size()-1;
+		}
+		operandOfNode.put(node, newOperand);
+		return newOperand;
+	}
+
+	private String createShape() {
+		final StringBuilder shape = new StringBuilder();
+		shape.append("inputs=").append(inputIndices.size()).append(";constants=").append(constants.size()).append(';');
+		for(int k=0; k<instructions.size(); k++) {
+			final Instruction instruction = instructions.get(k);
+			shape.append('t').append(k).append('=').append(instruction.operator).append(Arrays.toString(instruction.operands));
+			if(instruction.constantIndex >= 0) {
+				shape.append('c').append(instruction.constantIndex);
+			}
+			shape.append(';');
+		}
+		return shape.toString();
+	}
+
+	private String createSource() {
+		final StringBuilder source = new StringBuilder();
+		source.append("extern \"C\"\n");
+		source.append("__global__ void ").append(FUNCTION_NAME).append("(int n");
+		for(int j=0; j<inputIndices.size(); j++) {
+			source.append(", float *input").append(j);
+		}
+		for(int j=0; j<constants.size(); j++) {
+			source.append(", float constant").append(j);
+		}
+		source.append(", float *result)\n");
+		source.append("{\n");
+		source.append("    int i = blockIdx.x * blockDim.x + threadIdx.x;\n");
+		source.append("    if (i<n)\n");
+		source.append("    {\n");
+		for(int j=0; j<inputIndices.size(); j++) {
+			source.append("        float x").append(j).append(" = input").append(j).append("[i];\n");
+		}
+		for(int k=0; k<instructions.size(); k++) {
+			source.append("        float t").append(k).append(" = ").append(getSourceOfInstruction(instructions.get(k))).append(";\n");
+		}
+		source.append("        result[i] = ").append(instructions.isEmpty() ? "x0" : "t" + (instructions.size()-1)).append(";\n");
+		source.append("    }\n");
+		source.append("}\n");
+		return source.toString();
+	}
+
+	/**
+	 * The float arithmetic matches the one of {@link FloatExpression} (assuming compilation with <code>-fmad false</code>).
+	 */
+	private static String getSourceOfInstruction(final Instruction instruction) {
+		final int[] operands = instruction.operands;
+		final String a = operands.length > 0 ? getSourceOfOperand(operands[0]) : null;
+		final String b = operands.length > 1 ? getSourceOfOperand(operands[1]) : null;
+		final String c = operands.length > 2 ? getSourceOfOperand(operands[2]) : null;
+		final String parameter = "constant" + instruction.constantIndex;
+
+		switch(instruction.operator) {
+		case CONSTANT:
+			return parameter;
+		case SQUARED:
+			return a + " * " + a;
+		case SQRT:
+			return "sqrtf(" + a + ")";
+		case EXP:
+			return "expf(" + a + ")";
+		case LOG:
+			return "logf(" + a + ")";
+		case SIN:
+			return "sinf(" + a + ")";
+		case COS:
+			return "cosf(" + a + ")";
+		case ABS:
+			return "fabsf(" + a + ")";
+		case INVERT:
+			return "1.0f / " + a;
+		case POW:
+			return "powf(" + a + ", " + parameter + ")";
+		case ADD:
+			return a + " + " + b;
+		case SUB:
+			return a + " - " + b;
+		case MULT:
+			return a + " * " + b;
+		case DIV:
+			return a + " / " + b;
+		case CAP:
+			return a + " < " + b + " ? " + a + " : " + b;
+		case FLOOR:
+			return a + " > " + b + " ? " + a + " : " + b;
+		case ACCRUE:
+			return a + " * (1.0f + " + b + " * " + parameter + ")";
+		case DISCOUNT:
+			return a + " / (1.0f + " + b + " * " + parameter + ")";
+		case ADD_PRODUCT:
+			return a + " + " + b + " * " + c;
+		case ADD_RATIO:
+			return a + " + " + b + " / " + c;
+		case SUB_RATIO:
+			return a + " - " + b + " / " + c;
+		case CHOOSE:
+			return a + " >= 0.0f ? " + b + " : " + c;
+		default:
+			throw new IllegalArgumentException("Operator " + instruction.operator + " cannot be fused.");
+		}
+	}
+
+	private static String getSourceOfOperand(final int operand) {
+		return operand >= 0 ? "t" + operand : "x" + (-operand-1);
+	}
+
+	@Override
+	public String toString() {
+		return "KernelProgram [shape=" + shape + ", constants=" + constants + "]";
+	}
+}
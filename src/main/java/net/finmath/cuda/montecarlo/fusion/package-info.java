@@ -0,0 +1,11 @@
+/**
+ * Provides the fusion of chains of element-wise operations into a single generated Cuda kernel.
+ *
+ * An expression ({@link net.finmath.cuda.montecarlo.fusion.KernelExpression}) is flattened into a
+ * {@link net.finmath.cuda.montecarlo.fusion.KernelProgram}, which generates the Cuda C source of the fused kernel and
+ * can be evaluated on the host. Compiled kernels are cached by the shape of the expression, see
+ * {@link net.finmath.cuda.montecarlo.fusion.FusedKernelCache}. The classes of this package do not require a GPU.
+ *
+ * @author Christian Fries
+ */
+package net.finmath.cuda.montecarlo.fusion;
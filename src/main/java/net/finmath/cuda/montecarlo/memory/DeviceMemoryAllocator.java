@@ -0,0 +1,45 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.memory;
+
+import jcuda.driver.CUdeviceptr;
+
+/**
+ * Interface of an allocator of device memory, used by a {@link DevicePointerPool}.
+ *
+ * The Cuda implementation allocates and frees memory on the device. Other implementations may
+ * simulate a device (e.g. to test the pool logic without a GPU).
+ *
+ * @author Christian Fries
+ */
+public interface DeviceMemoryAllocator {
+
+	/**
+	 * Allocate a vector of the given size on the device.
+	 *
+	 * @param sizeInBytes The size of the vector in bytes.
+	 * @return A pointer to the device vector or null if the memory could not be allocated.
+	 */
+	CUdeviceptr allocate(long sizeInBytes);
+
+	/**
+	 * Free a device vector previously allocated by this allocator.
+	 *
+	 * @param devicePointer A pointer to the device vector.
+	 * @param sizeInBytes The size of the vector in bytes.
+	 */
+	void free(CUdeviceptr devicePointer, long sizeInBytes);
+
+	/**
+	 * @return The amount of free memory on the device in bytes.
+	 */
+	long getFreeMemoryBytes();
+
+	/**
+	 * @return The total amount of memory on the device in bytes.
+	 */
+	long getTotalMemoryBytes();
+}
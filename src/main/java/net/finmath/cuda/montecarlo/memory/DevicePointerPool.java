@@ -0,0 +1,558 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.memory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jcuda.driver.CUdeviceptr;
+import net.finmath.cuda.montecarlo.RandomVariableCuda.DevicePointerReference;
+
+/**
+ * A pool of device vectors (of floats), recycling vectors which are no longer used.
+ *
+ * A vector is returned to the pool if
+ * <ul>
+ * 	<li>its {@link DevicePointerReference} is closed (explicit release, e.g. in hot loops, using try-with-resources), or</li>
+ * 	<li>its {@link DevicePointerReference} has become unreachable (detected by a <code>java.lang.ref.Cleaner</code>, which
+ * 		recycles the vector on a background thread, once the garbage collector ran).</li>
+ * </ul>
+ * Both paths are idempotent, i.e., a vector is returned to the pool exactly once.
+ *
+ * The requested sizes are mapped to size classes by a {@link SizeClassPolicy}, and vectors are recycled within a size class.
+ * If no vector of the requested size class is available, the {@link MemoryPressurePolicy} is called before a new vector
+ * is allocated (which may free unused vectors of other size classes). Device memory is allocated and freed by
+ * a {@link DeviceMemoryAllocator}, such that the pool logic can be used (and tested) independently of Cuda.
+ *
+ * If an allocation fails, the pool frees all unused vectors and retries. As a last resort (independent of the policy),
+ * the pool runs the garbage collector, waits for the cleaner to recycle the vectors of unreachable references, frees them
+ * and retries, before an <code>OutOfMemoryError</code> is thrown. This matters since the device memory held by unreachable
+ * references is invisible to the garbage collector (the heap pressure of a reference is tiny).
+ *
+ * <b>Configuration</b>
+ *
+ * The constructor {@link #DevicePointerPool(DeviceMemoryAllocator)} reads the following system properties:
+ * <dl>
+ * 	<dt>"net.finmath.cuda.montecarlo.memory.DevicePointerPool.sizeClassPolicy"</dt>
+ * 	<dd>the size class policy, see {@link SizeClassPolicy#of(String, long)} (default: "powerOfTwo:2").</dd>
+ * 	<dt>"net.finmath.cuda.montecarlo.memory.DevicePointerPool.minimumSizeClass"</dt>
+ * 	<dd>the minimum size class (number of floats) for the power of two policies (default: 256).</dd>
+ * 	<dt>"net.finmath.cuda.montecarlo.memory.DevicePointerPool.memoryPressurePolicy"</dt>
+ * 	<dd>the memory pressure policy, see {@link MemoryPressurePolicy#of(String, double, double, long)} (default: "watermark").</dd>
+ * 	<dt>"net.finmath.cuda.montecarlo.memory.DevicePointerPool.highWatermark", "net.finmath.cuda.montecarlo.memory.DevicePointerPool.lowWatermark"</dt>
+ * 	<dd>the watermarks as fraction of the memory budget (default: 0.9 and 0.75).</dd>
+ * 	<dt>"net.finmath.cuda.montecarlo.memory.DevicePointerPool.memoryBudget"</dt>
+ * 	<dd>the memory budget in bytes (default: 0, i.e., the total memory of the device).</dd>
+ * </dl>
+ *
+ * @author Christian Fries
+ */
+public class DevicePointerPool {
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	private static final int sizeOfFloat = Float.BYTES;
+
+	private static final String propertyPrefix = "net.finmath.cuda.montecarlo.memory.DevicePointerPool.";
+
+	private static final long garbageCollectionMaxTimeOutMillis = 1000;
+
+	/**
+	 * The cleaner recycling vectors of unreachable references (shared by all pools, runs on a daemon thread).
+	 */
+	private static final Cleaner cleaner = Cleaner.create(runnable -> {
+		final Thread thread = new Thread(runnable, "DevicePointerPool-Reclaimer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final DeviceMemoryAllocator allocator;
+	private final SizeClassPolicy sizeClassPolicy;
+	private final MemoryPressurePolicy memoryPressurePolicy;
+
+	/**
+	 * The vectors available for recycling, by size class.
+	 */
+	private final Map<Long, Deque<CUdeviceptr>> vectorsToRecycle = new ConcurrentHashMap<>();
+
+	/**
+	 * The number of vectors in use, by size class.
+	 */
+	private final Map<Long, LongAdder> vectorsInUse = new ConcurrentHashMap<>();
+
+	private final AtomicLong allocatedBytes = new AtomicLong();
+
+	/*
+	 * Statistics (striped counters, cheap enough to be always on)
+	 */
+	private final LongAdder numberOfRecyclingHits = new LongAdder();
+	private final LongAdder numberOfRecyclingMisses = new LongAdder();
+	private final LongAdder totalAllocatedBytes = new LongAdder();
+	private final LongAdder totalFreedBytes = new LongAdder();
+	private final LongAdder numberOfExplicitReleases = new LongAdder();
+	private final LongAdder numberOfGarbageCollectorReclaims = new LongAdder();
+	private final LongAdder numberOfMemoryPressurePolicyCalls = new LongAdder();
+	private final LongAdder memoryPressurePolicyTimeNanos = new LongAdder();
+	private final LongAdder evictedBytes = new LongAdder();
+	private final LongAdder numberOfCleans = new LongAdder();
+	private final LongAdder numberOfPurges = new LongAdder();
+
+	/**
+	 * Returns the vector to the pool once the reference is closed or has become unreachable.
+	 * Note: The recycler must not reference the <code>DevicePointerReference</code>.
+	 */
+	private final class Recycler implements Runnable {
+		private final CUdeviceptr devicePointer;
+		private final long sizeClass;
+		private final AtomicBoolean isRecycled = new AtomicBoolean(false);
+		private volatile boolean isReleasedExplicitly = false;
+
+		Recycler(final CUdeviceptr devicePointer, final long sizeClass) {
+			this.devicePointer = devicePointer;
+			this.sizeClass = sizeClass;
+		}
+
+		@Override
+		public void run() {
+			if(isRecycled.compareAndSet(false, true)) {
+				if(isReleasedExplicitly) {
+					numberOfExplicitReleases.increment();
+				}
+				else {
+					numberOfGarbageCollectorReclaims.increment();
+				}
+				getVectorsInUse(sizeClass).decrement();
+				getVectorsToRecycle(sizeClass).push(devicePointer);
+			}
+		}
+	}
+
+	/**
+	 * Create a pool using the given allocator and policies.
+	 *
+	 * @param allocator The allocator of device memory.
+	 * @param sizeClassPolicy The size class policy.
+	 * @param memoryPressurePolicy The memory pressure policy.
+	 */
+	public DevicePointerPool(final DeviceMemoryAllocator allocator, final SizeClassPolicy sizeClassPolicy, final MemoryPressurePolicy memoryPressurePolicy) {
+		this.allocator = allocator;
+		this.sizeClassPolicy = sizeClassPolicy;
+		this.memoryPressurePolicy = memoryPressurePolicy;
+	}
+
+	/**
+	 * Create a pool using the given allocator and the policies configured by system properties.
+	 *
+	 * @param allocator The allocator of device memory.
+	 */
+	public DevicePointerPool(final DeviceMemoryAllocator allocator) {
+		this(allocator,
+				SizeClassPolicy.of(
+						System.getProperty(propertyPrefix + "sizeClassPolicy", "powerOfTwo:2"),
+						Long.parseLong(System.getProperty(propertyPrefix + "minimumSizeClass", "256"))),
+				MemoryPressurePolicy.of(
+						System.getProperty(propertyPrefix + "memoryPressurePolicy", "watermark"),
+						Double.parseDouble(System.getProperty(propertyPrefix + "highWatermark", "0.9")),
+						Double.parseDouble(System.getProperty(propertyPrefix + "lowWatermark", "0.75")),
+						Long.parseLong(System.getProperty(propertyPrefix + "memoryBudget", "0"))));
+	}
+
+	/**
+	 * Get a Java object ({@link DevicePointerReference}) representing a vector allocated on the device.
+	 *
+	 * The object is "managed" in the sense the once the object is closed or dereferenced the device memory will be marked
+	 * for re-use (or freed at a later time).
+	 *
+	 * @param size The size of the vector as multiples of sizeof(float). (To allocated a double vector use twice the size).
+	 * @return An object representing a vector allocated on the device. The allocated vector may be larger than the requested size.
+	 */
+	public DevicePointerReference getDevicePointer(final long size) {
+		final long sizeClass = sizeClassPolicy.getSizeClass(size);
+
+		CUdeviceptr devicePointer = getVectorToRecycle(sizeClass);
+		if(devicePointer == null) {
+			final long startTime = System.nanoTime();
+			memoryPressurePolicy.beforeAllocation(this, sizeClass);
+			memoryPressurePolicyTimeNanos.add(System.nanoTime() - startTime);
+			numberOfMemoryPressurePolicyCalls.increment();
+
+			// The policy may have waited for recycled vectors
+			devicePointer = getVectorToRecycle(sizeClass);
+		}
+
+		if(devicePointer == null) {
+			numberOfRecyclingMisses.increment();
+			devicePointer = allocate(sizeClass);
+		}
+		else {
+			numberOfRecyclingHits.increment();
+			if(logger.isLoggable(Level.FINEST)) {
+				logger.finest("Recycling device pointer " + devicePointer + " of size class " + sizeClass);
+			}
+		}
+
+		/*
+		 * Manage the pointer
+		 */
+		final Recycler recycler = new Recycler(devicePointer, sizeClass);
+		final Cleaner.Cleanable[] cleanable = new Cleaner.Cleanable[1];
+		final DevicePointerReference devicePointerReference = new DevicePointerReference(devicePointer, () -> {
+			recycler.isReleasedExplicitly = true;
+			cleanable[0].clean();
+		});
+		cleanable[0] = cleaner.register(devicePointerReference, recycler);
+		getVectorsInUse(sizeClass).increment();
+
+		return devicePointerReference;
+	}
+
+	/**
+	 * Free unused vectors (available for recycling), starting with the largest size classes, until the given number of bytes is freed.
+	 *
+	 * @param bytesToFree The number of bytes to free.
+	 * @return The number of bytes freed (may be less than requested if there are not enough unused vectors, or more, since whole vectors are freed).
+	 */
+	public long evict(final long bytesToFree) {
+		final List<Long> sizeClasses = new ArrayList<>(vectorsToRecycle.keySet());
+		Collections.sort(sizeClasses, Collections.reverseOrder());
+
+		long bytesFreed = 0;
+		for(final Long sizeClass : sizeClasses) {
+			final Deque<CUdeviceptr> vectors = vectorsToRecycle.get(sizeClass);
+			CUdeviceptr devicePointer;
+			while(bytesFreed < bytesToFree && (devicePointer = vectors.pollLast()) != null) {
+				bytesFreed += free(devicePointer, sizeClass);
+			}
+			if(bytesFreed >= bytesToFree) {
+				break;
+			}
+		}
+		evictedBytes.add(bytesFreed);
+		return bytesFreed;
+	}
+
+	/**
+	 * Free all unused device memory.
+	 */
+	public void clean() {
+		logger.fine("Cleaning device pointers");
+		numberOfCleans.increment();
+
+		for(final Map.Entry<Long, Deque<CUdeviceptr>> entry : vectorsToRecycle.entrySet()) {
+			CUdeviceptr devicePointer;
+			while((devicePointer = entry.getValue().poll()) != null) {
+				free(devicePointer, entry.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Run the garbage collector and free all unused device memory.
+	 *
+	 * Note: This method is not called by the pool itself. It may be used, e.g., at the end of a calculation.
+	 */
+	public void purge() {
+		numberOfPurges.increment();
+		System.gc();
+		System.runFinalization();
+		clean();
+		logger.fine("Cuda vectors in use: " + getNumberOfVectorsInUse() + ". Allocated device memory: " + allocatedBytes.get() + " bytes.");
+	}
+
+	/**
+	 * @return The allocator used by this pool.
+	 */
+	public DeviceMemoryAllocator getAllocator() {
+		return allocator;
+	}
+
+	/**
+	 * @return The size class policy of this pool.
+	 */
+	public SizeClassPolicy getSizeClassPolicy() {
+		return sizeClassPolicy;
+	}
+
+	/**
+	 * @return The memory pressure policy of this pool.
+	 */
+	public MemoryPressurePolicy getMemoryPressurePolicy() {
+		return memoryPressurePolicy;
+	}
+
+	/**
+	 * @return The number of vectors currently in use (not closed and not yet detected as unreachable).
+	 */
+	public int getNumberOfVectorsInUse() {
+		return vectorsInUse.values().stream().mapToInt(LongAdder::intValue).sum();
+	}
+
+	/**
+	 * @return The number of vectors available for recycling.
+	 */
+	public int getNumberOfVectorsToRecycle() {
+		return vectorsToRecycle.values().stream().mapToInt(Deque::size).sum();
+	}
+
+	/**
+	 * Returns true if there is a vector of the given size class available for recycling.
+	 *
+	 * @param sizeClass The size class.
+	 * @return True if there is a vector of the given size class available for recycling.
+	 */
+	public boolean hasVectorToRecycle(final long sizeClass) {
+		final Deque<CUdeviceptr> vectors = vectorsToRecycle.get(sizeClass);
+		return vectors != null && !vectors.isEmpty();
+	}
+
+	/**
+	 * @return The number of bytes allocated through the allocator (in use or available for recycling).
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes.get();
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of this pool.
+	 *
+	 * @return A snapshot of the statistics of this pool.
+	 */
+	public DevicePointerPoolStatistics getStatistics() {
+		final Map<Long, Long> bytesInUseBySizeClass = new TreeMap<>();
+		long bytesInUse = 0;
+		for(final Map.Entry<Long, LongAdder> entry : vectorsInUse.entrySet()) {
+			final long bytes = entry.getKey() * sizeOfFloat * entry.getValue().sum();
+			bytesInUseBySizeClass.put(entry.getKey(), bytes);
+			bytesInUse += bytes;
+		}
+
+		final Map<Long, Long> bytesToRecycleBySizeClass = new TreeMap<>();
+		long bytesToRecycle = 0;
+		for(final Map.Entry<Long, Deque<CUdeviceptr>> entry : vectorsToRecycle.entrySet()) {
+			final long bytes = entry.getKey() * sizeOfFloat * entry.getValue().size();
+			bytesToRecycleBySizeClass.put(entry.getKey(), bytes);
+			bytesToRecycle += bytes;
+		}
+
+		return new DevicePointerPoolStatistics(
+				allocatedBytes.get(),
+				bytesInUse,
+				bytesToRecycle,
+				bytesInUseBySizeClass,
+				bytesToRecycleBySizeClass,
+				numberOfRecyclingHits.sum(),
+				numberOfRecyclingMisses.sum(),
+				totalAllocatedBytes.sum(),
+				totalFreedBytes.sum(),
+				numberOfExplicitReleases.sum(),
+				numberOfGarbageCollectorReclaims.sum(),
+				numberOfMemoryPressurePolicyCalls.sum(),
+				memoryPressurePolicyTimeNanos.sum(),
+				evictedBytes.sum(),
+				numberOfCleans.sum(),
+				numberOfPurges.sum());
+	}
+
+	/**
+	 * Register the statistics of this pool as MXBean with the platform MBean server.
+	 * A previously registered MBean with the same name is replaced.
+	 *
+	 * @param objectName The object name, e.g. "net.finmath.cuda:type=DeviceMemoryPool".
+	 */
+	public void registerMXBean(final String objectName) {
+		try {
+			final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(objectName);
+			if(mBeanServer.isRegistered(name)) {
+				mBeanServer.unregisterMBean(name);
+			}
+			mBeanServer.registerMBean(new StatisticsMXBean(), name);
+		}
+		catch(final JMException e) {
+			logger.warning("Failed to register MXBean " + objectName + ": " + e.getMessage());
+		}
+	}
+
+	private CUdeviceptr allocate(final long sizeClass) {
+		final long sizeInBytes = sizeClass * sizeOfFloat;
+
+		CUdeviceptr devicePointer = allocator.allocate(sizeInBytes);
+		if(devicePointer == null) {
+			// Free the unused vectors of other size classes and retry
+			clean();
+			devicePointer = allocator.allocate(sizeInBytes);
+		}
+
+		if(devicePointer == null) {
+			// Last resort: reclaim the vectors of unreachable references and retry
+			logger.fine("Last resort: running the garbage collector to reclaim unreachable device vectors.");
+			reclaimUnreachableVectors();
+			clean();
+			devicePointer = allocator.allocate(sizeInBytes);
+		}
+
+		if(devicePointer == null) {
+			logger.severe("Failed to allocate device vector with size=" + sizeClass);
+			throw new OutOfMemoryError("Failed to allocate device vector with size=" + sizeClass);
+		}
+
+		allocatedBytes.addAndGet(sizeInBytes);
+		totalAllocatedBytes.add(sizeInBytes);
+		return devicePointer;
+	}
+
+	/**
+	 * Run the garbage collector and wait (up to one second) for the cleaner to recycle the vectors of unreachable references.
+	 */
+	private void reclaimUnreachableVectors() {
+		final long numberOfReclaims = numberOfGarbageCollectorReclaims.sum();
+		System.gc();
+
+		// Wait for the cleaner, retry with waits for 1 ms, 4 ms, 16 ms, ...
+		long timeOut = 1;
+		while(numberOfGarbageCollectorReclaims.sum() == numberOfReclaims && timeOut < garbageCollectionMaxTimeOutMillis) {
+			try {
+				Thread.sleep(timeOut);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			timeOut *= 4;
+		}
+	}
+
+	private long free(final CUdeviceptr devicePointer, final long sizeClass) {
+		final long sizeInBytes = sizeClass * sizeOfFloat;
+		if(logger.isLoggable(Level.FINEST)) {
+			logger.finest("Freeing device pointer " + devicePointer);
+		}
+		allocator.free(devicePointer, sizeInBytes);
+		allocatedBytes.addAndGet(-sizeInBytes);
+		totalFreedBytes.add(sizeInBytes);
+		return sizeInBytes;
+	}
+
+	private CUdeviceptr getVectorToRecycle(final long sizeClass) {
+		final Deque<CUdeviceptr> vectors = vectorsToRecycle.get(sizeClass);
+		return vectors != null ? vectors.poll() : null;
+	}
+
+	private Deque<CUdeviceptr> getVectorsToRecycle(final long sizeClass) {
+		return vectorsToRecycle.computeIfAbsent(sizeClass, key -> new ConcurrentLinkedDeque<>());
+	}
+
+	private LongAdder getVectorsInUse(final long sizeClass) {
+		return vectorsInUse.computeIfAbsent(sizeClass, key -> new LongAdder());
+	}
+
+	/**
+	 * The MXBean providing the statistics of this pool (each attribute is read from a new snapshot).
+	 */
+	private final class StatisticsMXBean implements DevicePointerPoolMXBean {
+
+		@Override
+		public long getAllocatedBytes() {
+			return getStatistics().getAllocatedBytes();
+		}
+
+		@Override
+		public long getBytesInUse() {
+			return getStatistics().getBytesInUse();
+		}
+
+		@Override
+		public long getBytesToRecycle() {
+			return getStatistics().getBytesToRecycle();
+		}
+
+		@Override
+		public Map<Long, Long> getBytesInUseBySizeClass() {
+			return getStatistics().getBytesInUseBySizeClass();
+		}
+
+		@Override
+		public Map<Long, Long> getBytesToRecycleBySizeClass() {
+			return getStatistics().getBytesToRecycleBySizeClass();
+		}
+
+		@Override
+		public long getNumberOfRecyclingHits() {
+			return getStatistics().getNumberOfRecyclingHits();
+		}
+
+		@Override
+		public long getNumberOfRecyclingMisses() {
+			return getStatistics().getNumberOfRecyclingMisses();
+		}
+
+		@Override
+		public double getRecyclingHitRate() {
+			return getStatistics().getRecyclingHitRate();
+		}
+
+		@Override
+		public long getTotalAllocatedBytes() {
+			return getStatistics().getTotalAllocatedBytes();
+		}
+
+		@Override
+		public long getTotalFreedBytes() {
+			return getStatistics().getTotalFreedBytes();
+		}
+
+		@Override
+		public long getNumberOfExplicitReleases() {
+			return getStatistics().getNumberOfExplicitReleases();
+		}
+
+		@Override
+		public long getNumberOfGarbageCollectorReclaims() {
+			return getStatistics().getNumberOfGarbageCollectorReclaims();
+		}
+
+		@Override
+		public long getNumberOfMemoryPressurePolicyCalls() {
+			return getStatistics().getNumberOfMemoryPressurePolicyCalls();
+		}
+
+		@Override
+		public double getMemoryPressurePolicyTimeMillis() {
+			return getStatistics().getMemoryPressurePolicyTimeMillis();
+		}
+
+		@Override
+		public long getEvictedBytes() {
+			return getStatistics().getEvictedBytes();
+		}
+
+		@Override
+		public long getNumberOfCleans() {
+			return getStatistics().getNumberOfCleans();
+		}
+
+		@Override
+		public long getNumberOfPurges() {
+			return getStatistics().getNumberOfPurges();
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.memory;
+
+import java.util.Map;
+
+/**
+ * Management interface (JMX) providing the statistics of a {@link DevicePointerPool}.
+ *
+ * Each attribute is obtained from a new snapshot of the statistics, see {@link DevicePointerPoolStatistics}.
+ *
+ * @author Christian Fries
+ */
+public interface DevicePointerPoolMXBean {
+
+	/**
+	 * @return The number of bytes currently allocated on the device by the pool (in use or available for recycling).
+	 */
+	long getAllocatedBytes();
+
+	/**
+	 * @return The number of bytes of the vectors in use.
+	 */
+	long getBytesInUse();
+
+	/**
+	 * @return The number of bytes of the vectors available for recycling.
+	 */
+	long getBytesToRecycle();
+
+	/**
+	 * @return The number of bytes of the vectors in use, by size class (number of floats).
+	 */
+	Map<Long, Long> getBytesInUseBySizeClass();
+
+	/**
+	 * @return The number of bytes of the vectors available for recycling, by size class (number of floats).
+	 */
+	Map<Long, Long> getBytesToRecycleBySizeClass();
+
+	/**
+	 * @return The number of requests served by recycling a vector.
+	 */
+	long getNumberOfRecyclingHits();
+
+	/**
+	 * @return The number of requests requiring the allocation of a new vector.
+	 */
+	long getNumberOfRecyclingMisses();
+
+	/**
+	 * @return The fraction of requests served by recycling a vector (NaN if there was no request).
+	 */
+	double getRecyclingHitRate();
+
+	/**
+	 * @return The cumulated number of bytes allocated on the device.
+	 */
+	long getTotalAllocatedBytes();
+
+	/**
+	 * @return The cumulated number of bytes freed on the device.
+	 */
+	long getTotalFreedBytes();
+
+	/**
+	 * @return The number of vectors returned to the pool by an explicit release (closing the reference).
+	 */
+	long getNumberOfExplicitReleases();
+
+	/**
+	 * @return The number of vectors returned to the pool after the garbage collector found the reference unreachable.
+	 */
+	long getNumberOfGarbageCollectorReclaims();
+
+	/**
+	 * @return The number of calls of the memory pressure policy.
+	 */
+	long getNumberOfMemoryPressurePolicyCalls();
+
+	/**
+	 * @return The time spent in the memory pressure policy (e.g. waiting for recycled vectors), in milliseconds.
+	 */
+	double getMemoryPressurePolicyTimeMillis();
+
+	/**
+	 * @return The number of bytes freed by evictions.
+	 */
+	long getEvictedBytes();
+
+	/**
+	 * @return The number of calls of clean().
+	 */
+	long getNumberOfCleans();
+
+	/**
+	 * @return The number of calls of purge().
+	 */
+	long getNumberOfPurges();
+}
@@ -0,0 +1,217 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.memory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A snapshot of the statistics of a {@link DevicePointerPool}, see {@link DevicePointerPool#getStatistics()}.
+ *
+ * The counters are read without locking, hence the values of a snapshot taken while the pool is used
+ * may be slightly inconsistent with each other.
+ *
+ * @author Christian Fries
+ */
+public final class DevicePointerPoolStatistics implements DevicePointerPoolMXBean {
+
+	private final long allocatedBytes;
+	private final long bytesInUse;
+	private final long bytesToRecycle;
+	private final Map<Long, Long> bytesInUseBySizeClass;
+	private final Map<Long, Long> bytesToRecycleBySizeClass;
+	private final long numberOfRecyclingHits;
+	private final long numberOfRecyclingMisses;
+	private final long totalAllocatedBytes;
+	private final long totalFreedBytes;
+	private final long numberOfExplicitReleases;
+	private final long numberOfGarbageCollectorReclaims;
+	private final long numberOfMemoryPressurePolicyCalls;
+	private final long memoryPressurePolicyTimeNanos;
+	private final long evictedBytes;
+	private final long numberOfCleans;
+	private final long numberOfPurges;
+
+	DevicePointerPoolStatistics(
+			final long allocatedBytes,
+			final long bytesInUse,
+			final long bytesToRecycle,
+			final Map<Long, Long> bytesInUseBySizeClass,
+			final Map<Long, Long> bytesToRecycleBySizeClass,
+			final long numberOfRecyclingHits,
+			final long numberOfRecyclingMisses,
+			final long totalAllocatedBytes,
+			final long totalFreedBytes,
+			final long numberOfExplicitReleases,
+			final long numberOfGarbageCollectorReclaims,
+			final long numberOfMemoryPressurePolicyCalls,
+			final long memoryPressurePolicyTimeNanos,
+			final long evictedBytes,
+			final long numberOfCleans,
+			final long numberOfPurges) {
+		this.allocatedBytes = allocatedBytes;
+		this.bytesInUse = bytesInUse;
+		this.bytesToRecycle = bytesToRecycle;
+		this.bytesInUseBySizeClass = Collections.unmodifiableMap(new TreeMap<>(bytesInUseBySizeClass));
+		this.bytesToRecycleBySizeClass = Collections.unmodifiableMap(new TreeMap<>(bytesToRecycleBySizeClass));
+		this.numberOfRecyclingHits = numberOfRecyclingHits;
+		this.numberOfRecyclingMisses = numberOfRecyclingMisses;
+		this.totalAllocatedBytes = totalAllocatedBytes;
+		this.totalFreedBytes = totalFreedBytes;
+		this.numberOfExplicitReleases = numberOfExplicitReleases;
+		this.numberOfGarbageCollectorReclaims = numberOfGarbageCollectorReclaims;
+		this.numberOfMemoryPressurePolicyCalls = numberOfMemoryPressurePolicyCalls;
+		this.memoryPressurePolicyTimeNanos = memoryPressurePolicyTimeNanos;
+		this.evictedBytes = evictedBytes;
+		this.numberOfCleans = numberOfCleans;
+		this.numberOfPurges = numberOfPurges;
+	}
+
+	/**
+	 * Returns the combined statistics of several pools (e.g. of the devices of a sharded backend), i.e., the sum of
+	 * all counters (and of the bytes per size class).
+	 *
+	 * @param statistics The statistics of the pools.
+	 * @return The combined statistics.
+	 */
+	public static DevicePointerPoolStatistics sum(final Collection<DevicePointerPoolStatistics> statistics) {
+		long allocatedBytes = 0;
+		long bytesInUse = 0;
+		long bytesToRecycle = 0;
+		final Map<Long, Long> bytesInUseBySizeClass = new HashMap<>();
+		final Map<Long, Long> bytesToRecycleBySizeClass = new HashMap<>();
+		long numberOfRecyclingHits = 0;
+		long numberOfRecyclingMisses = 0;
+		long totalAllocatedBytes = 0;
+		long totalFreedBytes = 0;
+		long numberOfExplicitReleases = 0;
+		long numberOfGarbageCollectorReclaims = 0;
+		long numberOfMemoryPressurePolicyCalls = 0;
+		long memoryPressurePolicyTimeNanos = 0;
+		long evictedBytes = 0;
+		long numberOfCleans = 0;
+		long numberOfPurges = 0;
+		for(final DevicePointerPoolStatistics summand : statistics) {
+			allocatedBytes += summand.allocatedBytes;
+			bytesInUse += summand.bytesInUse;
+			bytesToRecycle += summand.bytesToRecycle;
+			summand.bytesInUseBySizeClass.forEach((sizeClass, bytes) -> bytesInUseBySizeClass.merge(sizeClass, bytes, Long::sum));
+			summand.bytesToRecycleBySizeClass.forEach((sizeClass, bytes) -> bytesToRecycleBySizeClass.merge(sizeClass, bytes, Long::sum));
+			numberOfRecyclingHits += summand.numberOfRecyclingHits;
+			numberOfRecyclingMisses += summand.numberOfRecyclingMisses;
+			totalAllocatedBytes += summand.totalAllocatedBytes;
+			totalFreedBytes += summand.totalFreedBytes;
+			numberOfExplicitReleases += summand.numberOfExplicitReleases;
+			numberOfGarbageCollectorReclaims += summand.numberOfGarbageCollectorReclaims;
+			numberOfMemoryPressurePolicyCalls += summand.numberOfMemoryPressurePolicyCalls;
+			memoryPressurePolicyTimeNanos += summand.memoryPressurePolicyTimeNanos;
+			evictedBytes += summand.evictedBytes;
+			numberOfCleans += summand.numberOfCleans;
+			numberOfPurges += summand.numberOfPurges;
+		}
+		return new DevicePointerPoolStatistics(allocatedBytes, bytesInUse, bytesToRecycle, bytesInUseBySizeClass, bytesToRecycleBySizeClass,
+				numberOfRecyclingHits, numberOfRecyclingMisses, totalAllocatedBytes, totalFreedBytes, numberOfExplicitReleases,
+				numberOfGarbageCollectorReclaims, numberOfMemoryPressurePolicyCalls, memoryPressurePolicyTimeNanos, evictedBytes,
+				numberOfCleans, numberOfPurges);
+	}
+
+	@Override
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	@Override
+	public long getBytesInUse() {
+		return bytesInUse;
+	}
+
+	@Override
+	public long getBytesToRecycle() {
+		return bytesToRecycle;
+	}
+
+	@Override
+	public Map<Long, Long> getBytesInUseBySizeClass() {
+		return bytesInUseBySizeClass;
+	}
+
+	@Override
+	public Map<Long, Long> getBytesToRecycleBySizeClass() {
+		return bytesToRecycleBySizeClass;
+	}
+
+	@Override
+	public long getNumberOfRecyclingHits() {
+		return numberOfRecyclingHits;
+	}
+
+	@Override
+	public long getNumberOfRecyclingMisses() {
+		return numberOfRecyclingMisses;
+	}
+
+	@Override
+	public double getRecyclingHitRate() {
+		final long numberOfRequests = numberOfRecyclingHits + numberOfRecyclingMisses;
+		return numberOfRequests > 0 ? (double)numberOfRecyclingHits / numberOfRequests : Double.NaN;
+	}
+
+	@Override
+	public long getTotalAllocatedBytes() {
+		return totalAllocatedBytes;
+	}
+
+	@Override
+	public long getTotalFreedBytes() {
+		return totalFreedBytes;
+	}
+
+	@Override
+	public long getNumberOfExplicitReleases() {
+		return numberOfExplicitReleases;
+	}
+
+	@Override
+	public long getNumberOfGarbageCollectorReclaims() {
+		return numberOfGarbageCollectorReclaims;
+	}
+
+	@Override
+	public long getNumberOfMemoryPressurePolicyCalls() {
+		return numberOfMemoryPressurePolicyCalls;
+	}
+
+	@Override
+	public double getMemoryPressurePolicyTimeMillis() {
+		return memoryPressurePolicyTimeNanos / 1E6;
+	}
+
+	@Override
+	public long getEvictedBytes() {
+		return evictedBytes;
+	}
+
+	@Override
+	public long getNumberOfCleans() {
+		return numberOfCleans;
+	}
+
+	@Override
+	public long getNumberOfPurges() {
+		return numberOfPurges;
+	}
+
+	@Override
+	public String toString() {
+		return "DevicePointerPoolStatistics [allocatedBytes=" + allocatedBytes + ", bytesInUse=" + bytesInUse + ", bytesToRecycle=" + bytesToRecycle
+				+ ", recyclingHitRate=" + getRecyclingHitRate() + ", numberOfGarbageCollectorReclaims=" + numberOfGarbageCollectorReclaims
+				+ ", memoryPressurePolicyTimeMillis=" + getMemoryPressurePolicyTimeMillis() + ", evictedBytes=" + evictedBytes
+				+ ", numberOfCleans=" + numberOfCleans + ", numberOfPurges=" + numberOfPurges + "]";
+	}
+}
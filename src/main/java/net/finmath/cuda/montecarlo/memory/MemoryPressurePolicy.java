@@ -0,0 +1,136 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.memory;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A policy deciding how a {@link DevicePointerPool} reacts to memory pressure, i.e., what is done before a new
+ * vector is allocated on the device (because there is no vector of the requested size class available for recycling).
+ *
+ * A policy may free unused vectors of other size classes (see {@link DevicePointerPool#evict(long)}) or
+ * wait for vectors to be recycled.
+ *
+ * @author Christian Fries
+ */
+@FunctionalInterface
+public interface MemoryPressurePolicy {
+
+	/**
+	 * Called by the pool before a new vector of the given size class is allocated.
+	 *
+	 * @param pool The pool.
+	 * @param sizeClass The size class of the vector to be allocated (number of floats).
+	 */
+	void beforeAllocation(DevicePointerPool pool, long sizeClass);
+
+	/**
+	 * Returns a policy which frees unused vectors (of other size classes) if the memory allocated by the pool exceeds
+	 * the high watermark (a fraction of the memory budget), such that the allocated memory (including the new vector)
+	 * falls below the low watermark (if possible). The policy does not trigger the garbage collector (the pool only does so
+	 * as a last resort if an allocation fails, see {@link DevicePointerPool}).
+	 *
+	 * @param highWatermark The high watermark as fraction of the memory budget.
+	 * @param lowWatermark The low watermark as fraction of the memory budget.
+	 * @param memoryBudgetBytes The memory budget in bytes. If non-positive, the total memory of the device is used.
+	 * @return The watermark policy.
+	 */
+	static MemoryPressurePolicy watermark(final double highWatermark, final double lowWatermark, final long memoryBudgetBytes) {
+		if(!(lowWatermark <= highWatermark)) {
+			throw new IllegalArgumentException("Low watermark must not exceed high watermark.");
+		}
+		return new MemoryPressurePolicy() {
+			private volatile long memoryBudget = memoryBudgetBytes;
+
+			@Override
+			public void beforeAllocation(final DevicePointerPool pool, final long sizeClass) {
+				if(memoryBudget <= 0) {
+					memoryBudget = pool.getAllocator().getTotalMemoryBytes();
+				}
+
+				final long requiredBytes = pool.getAllocatedBytes() + sizeClass * Float.BYTES;
+				if(requiredBytes > highWatermark * memoryBudget) {
+					final long bytesToFree = requiredBytes - (long)(lowWatermark * memoryBudget);
+					final long bytesFreed = pool.evict(bytesToFree);
+
+					final Logger logger = Logger.getLogger("net.finmath");
+					if(logger.isLoggable(Level.FINE)) {
+						logger.fine("Memory pool above high watermark: freed " + bytesFreed + " of " + bytesToFree + " bytes.");
+					}
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns the policy triggering the garbage collector if the free device memory falls below 15% and
+	 * waiting (up to one second) for de-referenced vectors to be recycled if the free device memory falls below 5%.
+	 *
+	 * Note: This policy may cause long pauses on large heaps. It is provided for compatibility.
+	 *
+	 * @return The garbage collection policy.
+	 */
+	static MemoryPressurePolicy garbageCollection() {
+		final float	vectorsRecyclerPercentageFreeToStartGC		= 0.15f;
+		final float	vectorsRecyclerPercentageFreeToWaitForGC	= 0.05f;
+		final long	vectorsRecyclerMaxTimeOutMillis				= 1000;
+
+		return (pool, sizeClass) -> {
+			final long totalMemoryBytes = pool.getAllocator().getTotalMemoryBytes();
+			final float deviceFreeMemPercentage = totalMemoryBytes > 0 ? (float)pool.getAllocator().getFreeMemoryBytes() / totalMemoryBytes : 0.0f;
+
+			if(deviceFreeMemPercentage < vectorsRecyclerPercentageFreeToStartGC) {
+				System.gc();
+				System.runFinalization();
+			}
+
+			if(deviceFreeMemPercentage < vectorsRecyclerPercentageFreeToWaitForGC) {
+				// Wait for recycled vectors, retry with waits for 1 ms, 4 ms, 16 ms, ...
+				long timeOut = 1;
+				while(!pool.hasVectorToRecycle(sizeClass) && timeOut < vectorsRecyclerMaxTimeOutMillis) {
+					try {
+						Thread.sleep(timeOut);
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+					timeOut *= 4;
+				}
+
+				if(!pool.hasVectorToRecycle(sizeClass)) {
+					// Still no pointer found for requested size, consider cleaning all (also other sizes)
+					Logger.getLogger("net.finmath").fine("Last resort: Cleaning all unused vectors on device. Device free memory " + deviceFreeMemPercentage*100 + "%");
+					pool.clean();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns a policy given by its name, where the name is one of
+	 * <ul>
+	 * 	<li><code>watermark</code>: see {@link #watermark(double, double, long)},</li>
+	 * 	<li><code>gc</code>: see {@link #garbageCollection()}.</li>
+	 * </ul>
+	 *
+	 * @param name The name of the policy.
+	 * @param highWatermark The high watermark (for the watermark policy).
+	 * @param lowWatermark The low watermark (for the watermark policy).
+	 * @param memoryBudgetBytes The memory budget in bytes (for the watermark policy), non-positive for the total memory of the device.
+	 * @return The policy.
+	 */
+	static MemoryPressurePolicy of(final String name, final double highWatermark, final double lowWatermark, final long memoryBudgetBytes) {
+		switch(name.trim()) {
+		case "watermark":
+			return watermark(highWatermark, lowWatermark, memoryBudgetBytes);
+		case "gc":
+			return garbageCollection();
+		default:
+			throw new IllegalArgumentException("Unknown memory pressure policy " + name + ".");
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.memory;
+
+/**
+ * A policy mapping a requested vector size to the size of the vector allocated (the size class).
+ *
+ * Device vectors are recycled within a size class. Using size classes instead of the exact sizes avoids
+ * fragmenting the pool into many classes used only once (e.g. by reductions or varying numbers of paths),
+ * at the cost of allocating slightly larger vectors.
+ *
+ * @author Christian Fries
+ */
+@FunctionalInterface
+public interface SizeClassPolicy {
+
+	/**
+	 * Returns the size class of a given size, which is greater or equal to the size.
+	 *
+	 * @param size The requested size (number of elements).
+	 * @return The size class (number of elements).
+	 */
+	long getSizeClass(long size);
+
+	/**
+	 * Returns a policy where each size is its own size class (no rounding).
+	 *
+	 * @return A policy where each size is its own size class.
+	 */
+	static SizeClassPolicy exact() {
+		return size -> size;
+	}
+
+	/**
+	 * Returns a policy rounding each size up to the next power of two, where each interval [2<sup>k</sup>, 2<sup>k+1</sup>]
+	 * is subdivided into 2<sup>numberOfSubdivisionBits</sup> equidistant size classes.
+	 * The allocated size exceeds the requested size by less than a fraction 2<sup>-numberOfSubdivisionBits</sup>.
+	 *
+	 * @param numberOfSubdivisionBits The number of bits of the size which are kept (in addition to the leading bit). Use 0 for powers of two.
+	 * @param minimumSize Sizes smaller than this size are rounded up to this size.
+	 * @return A policy using (subdivided) powers of two.
+	 */
+	static SizeClassPolicy powerOfTwo(final int numberOfSubdivisionBits, final long minimumSize) {
+		if(numberOfSubdivisionBits < 0 || numberOfSubdivisionBits > 62) {
+			throw new IllegalArgumentException("Number of subdivision bits must be in [0,62].");
+		}
+		return size -> {
+			final long boundedSize = Math.max(size, minimumSize);
+			if(boundedSize <= 1) {
+				return boundedSize;
+			}
+			final int exponent = 63 - Long.numberOfLeadingZeros(boundedSize);
+			final long step = 1L << Math.max(exponent - numberOfSubdivisionBits, 0);
+			return ((boundedSize + step - 1) / step) * step;
+		};
+	}
+
+	/**
+	 * Returns a policy given by its name, where the name is one of
+	 * <ul>
+	 * 	<li><code>exact</code>: see {@link #exact()},</li>
+	 * 	<li><code>powerOfTwo</code>: see {@link #powerOfTwo(int, long)} with no subdivision,</li>
+	 * 	<li><code>powerOfTwo:n</code>: see {@link #powerOfTwo(int, long)} with n subdivision bits.</li>
+	 * </ul>
+	 *
+	 * @param name The name of the policy.
+	 * @param minimumSize Sizes smaller than this size are rounded up to this size (for the power of two policies).
+	 * @return The policy.
+	 */
+	static SizeClassPolicy of(final String name, final long minimumSize) {
+		final String[] nameAndParameter = name.trim().split(":");
+		switch(nameAndParameter[0]) {
+		case "exact":
+			return exact();
+		case "powerOfTwo":
+			return powerOfTwo(nameAndParameter.length > 1 ? Integer.parseInt(nameAndParameter[1].trim()) : 0, minimumSize);
+		default:
+			throw new IllegalArgumentException("Unknown size class policy " + name + ".");
+		}
+	}
+}
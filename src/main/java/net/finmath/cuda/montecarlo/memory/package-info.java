@@ -0,0 +1,9 @@
+/**
+ * Provides the management of device memory (recycling of device vectors) used by the Cuda random variables.
+ *
+ * The pool logic ({@link net.finmath.cuda.montecarlo.memory.DevicePointerPool}) is independent of Cuda and
+ * allocates memory through a {@link net.finmath.cuda.montecarlo.memory.DeviceMemoryAllocator}.
+ *
+ * @author Christian Fries
+ */
+package net.finmath.cuda.montecarlo.memory;
@@ -1,14 +1,22 @@
 package net.finmath.jcuda;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.logging.Logger;
 
 import org.apache.commons.io.IOUtils;
@@ -17,62 +25,215 @@ import org.apache.commons.io.IOUtils;
  * Adapted from JCuda examples: Reads a CUDA file, compiles it to a PTX file
  * using NVCC, loads the PTX file as a module and executes
  * the kernel function.
+ *
+ * The PTX files are stored in a persistent cache directory, keyed by a hash of the source, the arch string, the compiler
+ * command, the compiler version (the output of <code>nvcc --version</code>) and the compiler flags. If the PTX file for a key exists,
+ * the compiler is not called (only its version is queried). The cache directory is shared by concurrent JVMs: the compilation
+ * is guarded by a file lock (a file which is deleted after the compilation) and the PTX file is written atomically.
+ *
+ * The cache directory and the compiler command can be configured via the system properties
+ * <code>net.finmath.jcuda.JCudaUtils.ptxCacheDirectory</code> (default: the directory <code>finmath-ptx-cache</code> in
+ * <code>java.io.tmpdir</code>) and <code>net.finmath.jcuda.JCudaUtils.nvcc</code> (default: <code>nvcc</code>).
  */
 public class JCudaUtils
 {
 	private static Logger logger = Logger.getLogger("net.finmath");
 
+	private static final String propertyPrefix = "net.finmath.jcuda.JCudaUtils.";
+
+	/*
+	 * Guards the file lock within this JVM (a FileLock is held on behalf of the whole JVM,
+	 * overlapping locks from different threads are not allowed).
+	 */
+	private static final Object compilationLock = new Object();
+
 	/**
-	 * The extension of the given file name is replaced with "ptx".
-	 * If the file with the resulting name does not exist, it is
-	 * compiled from the given file using NVCC. The name of the
-	 * PTX file is returned.
+	 * Returns the name of a PTX file compiled from the given source.
+	 * If the PTX file for the source, the arch and the compiler flags does not exist in the cache directory,
+	 * it is compiled from the given source using NVCC.
 	 *
-	 * @param cuFileStream The name of the .cu file
+	 * @param cuFileStream The stream of the .cu file
 	 * @param arch String specifying the architecture (see nvcc command, -arch argument). Examples are sm_12, sm_20, sm_30
 	 * @return The name of the PTX file.
 	 * @throws IOException Thrown if an I/O error occurs.
-	 * @throws URISyntaxException Thrown if the cuFileURL cannot be converted to an URI.
 	 */
-	public static String preparePtxFile(final InputStream cuFileStream, final String arch) throws IOException, URISyntaxException
+	public static String preparePtxFile(final InputStream cuFileStream, final String arch) throws IOException
 	{
-		//		final String cuFileName = Paths.get(cuFileURI).toFile().getAbsolutePath();
-		final Path file = Files.createTempFile("RandomVariableCudaKernel", ".cu");
-		Files.copy(cuFileStream, file, StandardCopyOption.REPLACE_EXISTING);
-		final String cuFileName = file.toFile().getAbsolutePath();
+		final Path cacheDirectory = Paths.get(System.getProperty(propertyPrefix + "ptxCacheDirectory",
+				Paths.get(System.getProperty("java.io.tmpdir"), "finmath-ptx-cache").toString()));
+		final String compiler = System.getProperty(propertyPrefix + "nvcc", "nvcc");
 
-		int endIndex = cuFileName.lastIndexOf('.');
-		if (endIndex == -1)
-		{
-			endIndex = cuFileName.length()-1;
-		}
-		final String ptxFileName = cuFileName.substring(0, endIndex+1)+"ptx";
-		final File ptxFile = new File(ptxFileName);
-		if (ptxFile.exists()) {
-			return ptxFileName;
-		}
+		return preparePtxFile(cuFileStream, arch, cacheDirectory, compiler);
+	}
 
-		final File cuFile = new File(cuFileName);
-		if (!cuFile.exists()) {
-			throw new IOException("Input file not found: "+cuFileName);
-		}
+	/**
+	 * Returns the name of a PTX file compiled from the given source.
+	 * If the PTX file for the source, the arch, the compiler and the compiler flags does not exist in the given cache directory,
+	 * it is compiled from the given source using the given compiler command.
+	 *
+	 * @param cuFileStream The stream of the .cu file
+	 * @param arch String specifying the architecture (see nvcc command, -arch argument). Examples are sm_12, sm_20, sm_30
+	 * @param cacheDirectory The directory where the PTX files are stored.
+	 * @param compiler The compiler command (nvcc or a command accepting the same arguments).
+	 * @return The name of the PTX file.
+	 * @throws IOException Thrown if an I/O error occurs.
+	 */
+	public static String preparePtxFile(final InputStream cuFileStream, final String arch, final Path cacheDirectory, final String compiler) throws IOException
+	{
+		final byte[] source = IOUtils.toByteArray(cuFileStream);
 
 		/*
 		 * Check for 64 bit or 32 bit
 		 */
 		final String modelString = "-m"+System.getProperty("sun.arch.data.model");
 
-		final String[] command = {
-				"nvcc",
+		final String[] flags = {
 				"-arch",
 				arch,
 				"-fmad",
 				"false",
 				modelString,
-				"-ptx",
-				cuFile.getPath(),
-				"-o",
-				ptxFileName };
+				"-ptx" };
+
+		final String key = getCacheKey(source, compiler, getCompilerVersion(compiler), flags);
+		final Path ptxFile = cacheDirectory.resolve(key + ".ptx");
+		if(isValidPtxFile(ptxFile)) {
+			logger.fine("Using cached PTX file " + ptxFile);
+			return ptxFile.toAbsolutePath().toString();
+		}
+
+		Files.createDirectories(cacheDirectory);
+		synchronized(compilationLock) {
+			final Path lockFile = cacheDirectory.resolve(key + ".lock");
+			try(FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+				final FileLock lock = lockChannel.lock();
+				try {
+					// The file may have been created by a concurrent JVM while we were waiting for the lock
+					if(isValidPtxFile(ptxFile)) {
+						logger.fine("Using cached PTX file " + ptxFile);
+						return ptxFile.toAbsolutePath().toString();
+					}
+
+					final Path cuFile = Files.createTempFile(cacheDirectory, key, ".cu");
+					final Path ptxFileTemp = Files.createTempFile(cacheDirectory, key, ".ptx.tmp");
+					try {
+						Files.write(cuFile, source);
+						compile(compiler, flags, cuFile, ptxFileTemp);
+						if(!isValidPtxFile(ptxFileTemp)) {
+							throw new IOException("Could not create .ptx file: compiler did not produce an output.");
+						}
+						move(ptxFileTemp, ptxFile);
+					}
+					finally {
+						Files.deleteIfExists(cuFile);
+						Files.deleteIfExists(ptxFileTemp);
+					}
+				}
+				finally {
+					/*
+					 * Delete the lock file while holding the lock. A JVM still waiting for the lock on the deleted file
+					 * finds the PTX file (or compiles on its own if the compilation failed).
+					 */
+					deleteLockFile(lockFile);
+					lock.release();
+				}
+			}
+		}
+		logger.fine("Finished creating PTX file");
+
+		return ptxFile.toAbsolutePath().toString();
+	}
+
+	/**
+	 * Returns the cache key, the (hex encoded) SHA-256 hash of the compiler, the compiler version, the flags and the source.
+	 */
+	private static String getCacheKey(final byte[] source, final String compiler, final String compilerVersion, final String[] flags) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not supported by this platform.", e);
+		}
+
+		digest.update(compiler.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte)0);
+		digest.update(compilerVersion.getBytes(StandardCharsets.UTF_8));
+		for(final String flag : flags) {
+			digest.update((byte)0);
+			digest.update(flag.getBytes(StandardCharsets.UTF_8));
+		}
+		digest.update((byte)0);
+		digest.update(source);
+
+		final StringBuilder key = new StringBuilder();
+		for(final byte b : digest.digest()) {
+			key.append(String.format("%02x", b));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Returns the output of <code>compiler --version</code>, such that a PTX file is not reused after an upgrade of the compiler.
+	 * If the version cannot be determined, an empty string is returned (the compilation will report the error).
+	 */
+	private static String getCompilerVersion(final String compiler) {
+		try {
+			final Process process = new ProcessBuilder(compiler, "--version").redirectErrorStream(true).start();
+			final String version;
+			try(InputStream inputStream = process.getInputStream()) {
+				version = IOUtils.toString(inputStream, Charset.defaultCharset());
+			}
+			if(process.waitFor() != 0) {
+				logger.fine("Unable to determine the version of the compiler " + compiler + ": " + version);
+				return "";
+			}
+			return version;
+		}
+		catch(final IOException e) {
+			logger.fine("Unable to determine the version of the compiler " + compiler + ": " + e.getMessage());
+			return "";
+		}
+		catch(final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return "";
+		}
+	}
+
+	private static void deleteLockFile(final Path lockFile) {
+		try {
+			Files.deleteIfExists(lockFile);
+		}
+		catch(final IOException e) {
+			// Some platforms do not allow to delete an open file, the lock file is reused
+			logger.fine("Unable to delete lock file " + lockFile + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * A PTX file is valid if it exists and is not empty (an empty file is the result of an interrupted compilation on file systems without atomic moves).
+	 */
+	private static boolean isValidPtxFile(final Path ptxFile) throws IOException {
+		return Files.isRegularFile(ptxFile) && Files.size(ptxFile) > 0;
+	}
+
+	private static void move(final Path source, final Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch(final AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void compile(final String compiler, final String[] flags, final Path cuFile, final Path ptxFile) throws IOException {
+		final List<String> commandList = new ArrayList<>();
+		commandList.add(compiler);
+		commandList.addAll(Arrays.asList(flags));
+		commandList.add(cuFile.toString());
+		commandList.add("-o");
+		commandList.add(ptxFile.toString());
+		final String[] command = commandList.toArray(new String[0]);
+
 		logger.fine("Executing\n"+Arrays.toString(command));
 
 		final Process process;
@@ -116,8 +277,5 @@ public class JCudaUtils
 
 			throw new IOException("Could not create .ptx file: "+errorMessage);
 		}
-		logger.fine("Finished creating PTX file");
-
-		return ptxFileName;
 	}
 }
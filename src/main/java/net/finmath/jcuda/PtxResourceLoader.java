@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.jcuda;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Provides the PTX file of a kernel, preferring precompiled PTX resources (embedded in the jar) over a compilation at runtime.
+ *
+ * For a kernel resource <code>name.cu</code>, the precompiled PTX resources are named <code>name.sm_XY.ptx</code>
+ * (see the Maven profile <code>precompiled-ptx</code>). The PTX for the device architecture is selected in the following order:
+ * <ol>
+ * 	<li>the resource for the architecture of the device,</li>
+ * 	<li>the resource for the highest architecture below the architecture of the device (PTX is compiled just-in-time for the device by the driver),</li>
+ * 	<li>the compilation of <code>name.cu</code> via {@link JCudaUtils#preparePtxFile(InputStream, String)}.</li>
+ * </ol>
+ *
+ * The use of precompiled resources can be disabled via the system property
+ * <code>net.finmath.jcuda.PtxResourceLoader.usePrecompiledPtx</code> (default true).
+ *
+ * @author Christian Fries
+ */
+public class PtxResourceLoader {
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	/**
+	 * The compilation of a Cuda source to a PTX file.
+	 */
+	@FunctionalInterface
+	public interface PtxCompiler {
+
+		/**
+		 * Compile a Cuda source.
+		 *
+		 * @param cuFileStream The stream of the .cu file.
+		 * @param arch The architecture, e.g. sm_61.
+		 * @return The name of the PTX file.
+		 * @throws IOException Thrown if the compilation fails.
+		 */
+		String compile(InputStream cuFileStream, String arch) throws IOException;
+	}
+
+	private final Function<String, InputStream> resources;
+	private final PtxCompiler compiler;
+	private final boolean usePrecompiledPtx;
+
+	/**
+	 * Create a loader.
+	 *
+	 * @param resources A function mapping the name of a resource to its stream, or null if the resource does not exist.
+	 * @param compiler The compiler used if no precompiled resource fits.
+	 * @param usePrecompiledPtx If false, precompiled resources are ignored.
+	 */
+	public PtxResourceLoader(final Function<String, InputStream> resources, final PtxCompiler compiler, final boolean usePrecompiledPtx) {
+		this.resources = resources;
+		this.compiler = compiler;
+		this.usePrecompiledPtx = usePrecompiledPtx;
+	}
+
+	/**
+	 * Create a loader using the resources of the given class and the compilation via {@link JCudaUtils#preparePtxFile(InputStream, String)}.
+	 *
+	 * @param resourceClass The class used to load the resources.
+	 */
+	public PtxResourceLoader(final Class<?> resourceClass) {
+		this(resourceClass::getResourceAsStream, JCudaUtils::preparePtxFile, Boolean.parseBoolean(System.getProperty("net.finmath.jcuda.PtxResourceLoader.usePrecompiledPtx", "true")));
+	}
+
+	/**
+	 * Returns the name of the PTX file for the given kernel and architecture.
+	 *
+	 * @param kernelName The name of the kernel resource without the extension <code>.cu</code>, e.g. <code>/net/finmath/cuda/montecarlo/RandomVariableCudaKernel</code>.
+	 * @param arch The architecture of the device, e.g. sm_61.
+	 * @return The name of the PTX file.
+	 * @throws IOException Thrown if no precompiled resource fits and the compilation fails.
+	 */
+	public String preparePtxFile(final String kernelName, final String arch) throws IOException {
+		final String precompiledResourceName = usePrecompiledPtx ? getPrecompiledResourceName(kernelName, arch) : null;
+		if(precompiledResourceName != null) {
+			logger.config("Using precompiled PTX resource " + precompiledResourceName + " for device architecture " + arch);
+			try(InputStream ptxStream = resources.apply(precompiledResourceName)) {
+				final Path ptxFile = Files.createTempFile(getSimpleName(kernelName), ".ptx");
+				ptxFile.toFile().deleteOnExit();
+				Files.copy(ptxStream, ptxFile, StandardCopyOption.REPLACE_EXISTING);
+				return ptxFile.toAbsolutePath().toString();
+			}
+		}
+
+		logger.config("No precompiled PTX resource for device architecture " + arch + ". Compiling " + kernelName + ".cu");
+		try(InputStream cuFileStream = resources.apply(kernelName + ".cu")) {
+			if(cuFileStream == null) {
+				throw new IOException("Kernel resource not found: " + kernelName + ".cu");
+			}
+			return compiler.compile(cuFileStream, arch);
+		}
+	}
+
+	/**
+	 * Returns the name of the best matching precompiled resource, i.e., the resource for the highest architecture not above the given one.
+	 *
+	 * @param kernelName The name of the kernel resource without the extension.
+	 * @param arch The architecture of the device, e.g. sm_61.
+	 * @return The name of the resource or null if there is no matching resource.
+	 */
+	public String getPrecompiledResourceName(final String kernelName, final String arch) {
+		final int computeCapability = getComputeCapability(arch);
+		for(int candidate = computeCapability; candidate >= 10; candidate--) {
+			final String resourceName = kernelName + ".sm_" + candidate + ".ptx";
+			final InputStream stream = resources.apply(resourceName);
+			if(stream != null) {
+				try {
+					stream.close();
+				} catch (final IOException e) {
+					logger.fine("Unable to close " + resourceName);
+				}
+				return resourceName;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the compute capability of an architecture as an integer (major * 10 + minor).
+	 *
+	 * @param arch The architecture, e.g. sm_61 or compute_61.
+	 * @return The compute capability, e.g. 61.
+	 */
+	public static int getComputeCapability(final String arch) {
+		final int separator = arch.lastIndexOf('_');
+		try {
+			return Integer.parseInt(arch.substring(separator+1));
+		}
+		catch(final NumberFormatException e) {
+			throw new IllegalArgumentException("Unable to parse architecture " + arch + ".", e);
+		}
+	}
+
+	private static String getSimpleName(final String kernelName) {
+		final String simpleName = kernelName.substring(kernelName.lastIndexOf('/')+1);
+		return simpleName.length() >= 3 ? simpleName : "kernel";
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test of the kernels of {@link FloatArrayOperations}: each kernel gives exactly the same result as the scalar loop,
+ * on the full index range, on a partial range [from, to) (leaving the other elements of the result unchanged)
+ * and in place (the result being the first operand).
+ *
+ * @author Christian Fries
+ */
+public class FloatArrayOperationsTest {
+
+	private static final int numberOfPaths = 10007;
+
+	private static final float scalar1 = 0.37f;
+	private static final float scalar2 = -1.3f;
+
+	private final float[] a = getValues(3141, 0.0f);
+	private final float[] b = getValues(2718, 0.0f);
+	private final float[] c = getValues(1618, 2.0f);
+
+	/**
+	 * A kernel applied to the first operand a (the other operands being fixed).
+	 */
+	private interface Kernel {
+		void apply(float[] a, float[] result, int from, int to);
+	}
+
+	/**
+	 * The scalar operation for the element i, given the element of the first operand.
+	 */
+	private interface ScalarOperation {
+		float apply(float a, int i);
+	}
+
+	@Test
+	public void testVectorScalarOperations() {
+		assertKernel("add", (x, r, from, to) -> FloatArrayOperations.add(x, scalar1, r, from, to), (x, i) -> x + scalar1);
+		assertKernel("sub", (x, r, from, to) -> FloatArrayOperations.sub(x, scalar1, r, from, to), (x, i) -> x - scalar1);
+		assertKernel("bus", (x, r, from, to) -> FloatArrayOperations.bus(x, scalar1, r, from, to), (x, i) -> scalar1 - x);
+		assertKernel("mult", (x, r, from, to) -> FloatArrayOperations.mult(x, scalar1, r, from, to), (x, i) -> x * scalar1);
+		assertKernel("div", (x, r, from, to) -> FloatArrayOperations.div(x, scalar1, r, from, to), (x, i) -> x / scalar1);
+		assertKernel("vid", (x, r, from, to) -> FloatArrayOperations.vid(x, scalar1, r, from, to), (x, i) -> scalar1 / x);
+		assertKernel("cap", (x, r, from, to) -> FloatArrayOperations.cap(x, scalar1, r, from, to), (x, i) -> Math.min(x, scalar1));
+		assertKernel("floor", (x, r, from, to) -> FloatArrayOperations.floor(x, scalar1, r, from, to), (x, i) -> Math.max(x, scalar1));
+	}
+
+	@Test
+	public void testVectorVectorOperations() {
+		assertKernel("add", (x, r, from, to) -> FloatArrayOperations.add(x, b, r, from, to), (x, i) -> x + b[i]);
+		assertKernel("sub", (x, r, from, to) -> FloatArrayOperations.sub(x, b, r, from, to), (x, i) -> x - b[i]);
+		assertKernel("mult", (x, r, from, to) -> FloatArrayOperations.mult(x, b, r, from, to), (x, i) -> x * b[i]);
+		assertKernel("div", (x, r, from, to) -> FloatArrayOperations.div(x, c, r, from, to), (x, i) -> x / c[i]);
+		assertKernel("cap", (x, r, from, to) -> FloatArrayOperations.cap(x, b, r, from, to), (x, i) -> Math.min(x, b[i]));
+		assertKernel("floor", (x, r, from, to) -> FloatArrayOperations.floor(x, b, r, from, to), (x, i) -> Math.max(x, b[i]));
+	}
+
+	@Test
+	public void testCompoundOperations() {
+		assertKernel("accrue", (x, r, from, to) -> FloatArrayOperations.accrue(x, b, scalar1, r, from, to), (x, i) -> x * (1.0f + b[i] * scalar1));
+		assertKernel("discount", (x, r, from, to) -> FloatArrayOperations.discount(x, b, scalar1, r, from, to), (x, i) -> x / (1.0f + b[i] * scalar1));
+		assertKernel("addProduct", (x, r, from, to) -> FloatArrayOperations.addProduct(x, b, scalar1, r, from, to), (x, i) -> x + b[i] * scalar1);
+		assertKernel("addProduct", (x, r, from, to) -> FloatArrayOperations.addProduct(x, b, c, r, from, to), (x, i) -> x + b[i] * c[i]);
+		assertKernel("addRatio", (x, r, from, to) -> FloatArrayOperations.addRatio(x, b, c, r, from, to), (x, i) -> x + b[i] / c[i]);
+		assertKernel("subRatio", (x, r, from, to) -> FloatArrayOperations.subRatio(x, b, c, r, from, to), (x, i) -> x - b[i] / c[i]);
+
+		// Scalar first operand: the vector operand b is the one written in place
+		assertKernel("accrue", (x, r, from, to) -> FloatArrayOperations.accrue(scalar2, x, scalar1, r, from, to), (x, i) -> scalar2 * (1.0f + x * scalar1));
+		assertKernel("discount", (x, r, from, to) -> FloatArrayOperations.discount(scalar2, x, scalar1, r, from, to), (x, i) -> scalar2 / (1.0f + x * scalar1));
+		assertKernel("addProduct", (x, r, from, to) -> FloatArrayOperations.addProduct(scalar2, x, scalar1, r, from, to), (x, i) -> scalar2 + x * scalar1);
+	}
+
+	private void assertKernel(final String name, final Kernel kernel, final ScalarOperation operation) {
+		final float[] expected = new float[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			expected[i] = operation.apply(a[i], i);
+		}
+
+		// Full range
+		final float[] result = new float[numberOfPaths];
+		kernel.apply(a, result, 0, numberOfPaths);
+		Assert.assertArrayEquals(name, expected, result, 0.0f);
+
+		// Partial range (the length and the offset are not multiples of a vector width)
+		final int from = 13;
+		final int to = numberOfPaths - 29;
+		final float[] resultPartial = new float[numberOfPaths];
+		Arrays.fill(resultPartial, Float.NaN);
+		kernel.apply(a, resultPartial, from, to);
+		for(int i=0; i<numberOfPaths; i++) {
+			if(i >= from && i < to) {
+				Assert.assertEquals(name + " at " + i, expected[i], resultPartial[i], 0.0f);
+			}
+			else {
+				Assert.assertTrue(name + " modified " + i + " outside of the range", Float.isNaN(resultPartial[i]));
+			}
+		}
+
+		// In place
+		final float[] resultInPlace = a.clone();
+		kernel.apply(resultInPlace, resultInPlace, 0, numberOfPaths);
+		Assert.assertArrayEquals(name + " in place", expected, resultInPlace, 0.0f);
+
+		// Empty range
+		final float[] resultEmpty = a.clone();
+		kernel.apply(resultEmpty, resultEmpty, from, from);
+		Assert.assertArrayEquals(name + " on an empty range", a, resultEmpty, 0.0f);
+	}
+
+	private static float[] getValues(final long seed, final float shift) {
+		final Random random = new Random(seed);
+		final float[] values = new float[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			values[i] = shift + (float)random.nextGaussian();
+		}
+		return values;
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the single pass histogram against the histogram obtained by sorting.
+ *
+ * @author Christian Fries
+ */
+public class HistogramTest {
+
+	private final int threshold = ParallelChunkExecutor.getThreshold();
+	private final int chunkSize = ParallelChunkExecutor.getChunkSize();
+
+	@After
+	public void tearDown() {
+		ParallelChunkExecutor.setThreshold(threshold);
+		ParallelChunkExecutor.setChunkSize(chunkSize);
+	}
+
+	/*
+	 * The previous implementation: sort and sweep.
+	 */
+	private static double[] getHistogramBySorting(final float[] values, final double[] intervalPoints) {
+		final double[] histogramValues = new double[intervalPoints.length+1];
+		final float[] valuesSorted = values.clone();
+		Arrays.sort(valuesSorted);
+
+		int sampleIndex=0;
+		for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
+		{
+			int sampleCount = 0;
+			while (sampleIndex < valuesSorted.length && valuesSorted[sampleIndex] <= intervalPoints[intervalIndex])
+			{
+				sampleIndex++;
+				sampleCount++;
+			}
+			histogramValues[intervalIndex] = sampleCount;
+		}
+		histogramValues[intervalPoints.length] = valuesSorted.length-sampleIndex;
+
+		for(int i=0; i<histogramValues.length; i++) {
+			histogramValues[i] /= valuesSorted.length;
+		}
+		return histogramValues;
+	}
+
+	private static float[] createValues(final int numberOfValues) {
+		final Random random = new Random(3141);
+		final float[] values = new float[numberOfValues];
+		for(int i=0; i<numberOfValues; i++) {
+			// Some values on the grid points, some NaN
+			values[i] = i % 101 == 0 ? Float.NaN : (i % 7 == 0 ? (float)(0.25 * random.nextInt(17) - 2.0) : (float)random.nextGaussian());
+		}
+		return values;
+	}
+
+	@Test
+	public void testUniformGrid() {
+		ParallelChunkExecutor.setThreshold(1000);
+		ParallelChunkExecutor.setChunkSize(1000);
+		final float[] values = createValues(100000);
+		final double[] intervalPoints = new double[17];
+		for(int i=0; i<intervalPoints.length; i++) {
+			intervalPoints[i] = -2.0 + 0.25 * i;
+		}
+		Assert.assertArrayEquals(getHistogramBySorting(values, intervalPoints), Histogram.getHistogram(values, intervalPoints), 0.0);
+	}
+
+	@Test
+	public void testNonUniformGrid() {
+		final float[] values = createValues(100000);
+		final double[] intervalPoints = new double[] { -3.0, -1.0, -0.5, 0.0, 0.1, 0.2, 1.0, 2.5 };
+		Assert.assertArrayEquals(getHistogramBySorting(values, intervalPoints), Histogram.getHistogram(values, intervalPoints), 0.0);
+	}
+
+	@Test
+	public void testUnsortedGrid() {
+		final float[] values = createValues(10000);
+		final double[] intervalPoints = new double[] { 0.5, -1.0, 1.0, Double.NaN, 0.0, 2.0 };
+		Assert.assertArrayEquals(getHistogramBySorting(values, intervalPoints), Histogram.getHistogram(values, intervalPoints), 0.0);
+	}
+
+	@Test
+	public void testRandomVariableHistogram() {
+		final Random random = new Random(2718);
+		final float[] values = new float[10000];
+		for(int i=0; i<values.length; i++) {
+			values[i] = (float)random.nextGaussian();
+		}
+		final RandomVariableFromFloatArray randomVariable = new RandomVariableFromFloatArray(0.0, values);
+		final double[][] histogram = randomVariable.getHistogram(20, 3.0);
+
+		// The uniform grid used by getHistogram(int, double)
+		final double center	= randomVariable.getAverage();
+		final double radius	= 3.0 * randomVariable.getStandardDeviation();
+		final double stepSize	= (20-1) / 2.0;
+		final double[] intervalPoints = new double[20];
+		for(int i=0; i<intervalPoints.length; i++) {
+			intervalPoints[i] = center + (-(double)(20-1) / 2.0 + i) / stepSize * radius;
+		}
+		Assert.assertEquals(1.0, Arrays.stream(histogram[1]).sum(), 1E-12);
+		Assert.assertArrayEquals(getHistogramBySorting(values, intervalPoints), histogram[1], 0.0);
+	}
+}
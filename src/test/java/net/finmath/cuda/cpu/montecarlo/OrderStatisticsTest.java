@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the selection based order statistics and quantiles against sorting.
+ *
+ * @author Christian Fries
+ */
+public class OrderStatisticsTest {
+
+	private static float[] createValues(final int numberOfValues, final long seed) {
+		final Random random = new Random(seed);
+		final float[] values = new float[numberOfValues];
+		for(int i=0; i<numberOfValues; i++) {
+			values[i] = (float)random.nextGaussian();
+		}
+		return values;
+	}
+
+	@Test
+	public void testValuesOfRanks() {
+		final float[] values = createValues(100001, 3141);
+		final float[] valuesSorted = values.clone();
+		Arrays.sort(valuesSorted);
+
+		final int[] ranks = new int[] { 99999, 0, 50000, 94999, 100000, 12, 50000 };
+		final double[] valuesOfRanks = OrderStatistics.getValuesOfRanks(values, ranks);
+		for(int i=0; i<ranks.length; i++) {
+			Assert.assertEquals("rank " + ranks[i], valuesSorted[ranks[i]], valuesOfRanks[i], 0.0);
+		}
+
+		// The argument is not modified
+		Assert.assertArrayEquals(createValues(100001, 3141), values, 0.0f);
+	}
+
+	@Test
+	public void testDuplicatesAndNaN() {
+		final Random random = new Random(2718);
+		final float[] values = new float[10000];
+		for(int i=0; i<values.length; i++) {
+			// Many duplicates (like a floored payoff) and some NaNs
+			values[i] = i % 97 == 0 ? Float.NaN : Math.max(random.nextInt(20) - 10, 0);
+		}
+		final float[] valuesSorted = values.clone();
+		Arrays.sort(valuesSorted);
+
+		for(int rank=0; rank<values.length; rank+=37) {
+			Assert.assertEquals("rank " + rank, valuesSorted[rank], OrderStatistics.getValuesOfRanks(values, rank)[0], 0.0);
+		}
+		Assert.assertTrue(Double.isNaN(OrderStatistics.getValuesOfRanks(values, values.length-1)[0]));
+	}
+
+	@Test
+	public void testQuantiles() {
+		final float[] values = createValues(200000, 1618);
+		final float[] valuesSorted = values.clone();
+		Arrays.sort(valuesSorted);
+
+		final RandomVariableFromFloatArray randomVariable = new RandomVariableFromFloatArray(0.0, values);
+		final double[] quantileLevels = new double[] { 0.95, 0.975, 0.99, 0.999 };
+		final double[] quantiles = randomVariable.getQuantiles(quantileLevels);
+		for(int i=0; i<quantileLevels.length; i++) {
+			final int index = Math.min(Math.max((int)Math.round((values.length+1) * quantileLevels[i] - 1), 0), values.length-1);
+			Assert.assertEquals(valuesSorted[index], quantiles[i], 0.0);
+			Assert.assertEquals(quantiles[i], randomVariable.getQuantile(quantileLevels[i]), 0.0);
+		}
+
+		final int indexStart = Math.min(Math.max((int)Math.round((values.length+1) * 0.975 - 1), 0), values.length-1);
+		double expectedShortfall = 0.0;
+		for(int i=indexStart; i<values.length; i++) {
+			expectedShortfall += valuesSorted[i];
+		}
+		expectedShortfall /= values.length-indexStart;
+		Assert.assertEquals(expectedShortfall, randomVariable.getQuantileExpectation(0.975, 1.0), 1E-12);
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Tests the parallel execution of RandomVariableFromFloatArray against the sequential execution.
+ *
+ * @author Christian Fries
+ */
+public class ParallelChunkExecutorTest {
+
+	private static final int numberOfPaths = 100003;
+
+	private int threshold;
+	private int chunkSize;
+	private ForkJoinPool forkJoinPool;
+
+	private RandomVariable x;
+	private RandomVariable y;
+	private RandomVariable z;
+
+	@Before
+	public void setUp() {
+		threshold = ParallelChunkExecutor.getThreshold();
+		chunkSize = ParallelChunkExecutor.getChunkSize();
+		forkJoinPool = ParallelChunkExecutor.getForkJoinPool();
+
+		final Random random = new Random(3141);
+		final double[] valuesX = new double[numberOfPaths];
+		final double[] valuesY = new double[numberOfPaths];
+		final double[] valuesZ = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			valuesX[i] = random.nextGaussian();
+			valuesY[i] = 0.5 + Math.abs(random.nextGaussian());
+			valuesZ[i] = random.nextGaussian();
+		}
+		x = new RandomVariableFromFloatArray(0.0, valuesX);
+		y = new RandomVariableFromFloatArray(0.0, valuesY);
+		z = new RandomVariableFromFloatArray(0.0, valuesZ);
+	}
+
+	@After
+	public void tearDown() {
+		ParallelChunkExecutor.setThreshold(threshold);
+		ParallelChunkExecutor.setChunkSize(chunkSize);
+		ParallelChunkExecutor.setForkJoinPool(forkJoinPool);
+	}
+
+	@Test
+	public void testElementwiseOperationsAreIdentical() {
+		final UnaryOperator<RandomVariable> calculation = x -> x.mult(y).add(z).div(y).sub(0.5).cap(2.0).floor(-2.0)
+				.exp().log().sqrt().addProduct(y, z).addRatio(z, y).accrue(y, 0.5).discount(z.abs(), 0.25)
+				.apply(v -> v * v + 1.0);
+
+		ParallelChunkExecutor.setThreshold(Integer.MAX_VALUE);
+		final RandomVariable valueSequential = calculation.apply(x);
+
+		ParallelChunkExecutor.setThreshold(1000);
+		ParallelChunkExecutor.setChunkSize(1000);
+		ParallelChunkExecutor.setForkJoinPool(new ForkJoinPool(4));
+		final RandomVariable valueParallel = calculation.apply(x);
+
+		Assert.assertArrayEquals(valueSequential.getRealizations(), valueParallel.getRealizations(), 0.0);
+	}
+
+	@Test
+	public void testReductions() {
+		ParallelChunkExecutor.setThreshold(Integer.MAX_VALUE);
+		final double averageSequential = x.getAverage();
+		final double varianceSequential = x.getVariance();
+		final double minSequential = x.getMin();
+		final double maxSequential = x.getMax();
+
+		ParallelChunkExecutor.setThreshold(1000);
+		ParallelChunkExecutor.setChunkSize(1000);
+		ParallelChunkExecutor.setForkJoinPool(new ForkJoinPool(4));
+
+		Assert.assertEquals("average", averageSequential, x.getAverage(), 1E-15);
+		Assert.assertEquals("variance", varianceSequential, x.getVariance(), 1E-14);
+		Assert.assertEquals("min", minSequential, x.getMin(), 0.0);
+		Assert.assertEquals("max", maxSequential, x.getMax(), 0.0);
+
+		// Reductions are reproducible for a given chunk size, independent of the parallelism
+		final double average = x.getAverage();
+		Assert.assertEquals("average reproducible", average, x.getAverage(), 0.0);
+		ParallelChunkExecutor.setForkJoinPool(new ForkJoinPool(1));
+		Assert.assertEquals(101, ParallelChunkExecutor.getNumberOfChunks(numberOfPaths));
+		Assert.assertEquals("average independent of parallelism", average, x.getAverage(), 0.0);
+	}
+}
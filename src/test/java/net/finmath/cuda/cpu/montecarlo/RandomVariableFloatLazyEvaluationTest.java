@@ -0,0 +1,107 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.RandomVariableFactory;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Tests the fused evaluation of RandomVariableFloatLazyEvaluation against RandomVariableFromFloatArray.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableFloatLazyEvaluationTest {
+
+	private static final int numberOfPaths = 10007;
+
+	private static double[][] createValues() {
+		final Random random = new Random(3141);
+		final double[][] values = new double[3][numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			values[0][i] = random.nextGaussian();
+			values[1][i] = 0.5 + Math.abs(random.nextGaussian());
+			values[2][i] = random.nextGaussian();
+		}
+		return values;
+	}
+
+	private static RandomVariable calculate(final RandomVariableFactory randomVariableFactory, final Function<RandomVariable[], RandomVariable> calculation) {
+		final double[][] values = createValues();
+		final RandomVariable[] arguments = new RandomVariable[] {
+				randomVariableFactory.createRandomVariable(0.0, values[0]),
+				randomVariableFactory.createRandomVariable(0.5, values[1]),
+				randomVariableFactory.createRandomVariable(1.0, values[2]),
+				randomVariableFactory.createRandomVariable(0.0, 0.25)
+		};
+		return calculation.apply(arguments);
+	}
+
+	private static void assertEqualToEager(final Function<RandomVariable[], RandomVariable> calculation) {
+		final RandomVariable valueEager = calculate(new RandomVariableFloatFactory(), calculation);
+		final RandomVariable valueLazy = calculate(new RandomVariableFloatLazyEvaluationFactory(), calculation);
+
+		Assert.assertTrue("lazy type", valueLazy instanceof RandomVariableFloatLazyEvaluation);
+		Assert.assertEquals("filtration time", valueEager.getFiltrationTime(), valueLazy.getFiltrationTime(), 0.0);
+		Assert.assertArrayEquals("realizations", valueEager.getRealizations(), valueLazy.getRealizations(), 0.0);
+		Assert.assertEquals("average", valueEager.getAverage(), valueLazy.getAverage(), 0.0);
+	}
+
+	@Test
+	public void testArithmetic() {
+		assertEqualToEager(x -> x[0].mult(x[1]).add(x[2]).sub(x[3]).div(x[1]).bus(x[2]).vid(x[1]).add(1.0).mult(0.7).sub(0.2).div(3.0));
+	}
+
+	@Test
+	public void testFunctions() {
+		assertEqualToEager(x -> x[0].mult(0.1).exp().log().abs().sqrt().squared().pow(1.5).invert().sin().cos().cap(0.9).floor(0.1).cap(x[1]).floor(x[2]));
+	}
+
+	@Test
+	public void testCompoundOperations() {
+		assertEqualToEager(x -> x[0].accrue(x[1], 0.5).discount(x[1], 0.25).accrue(x[3], 2.0)
+				.addProduct(x[1], x[2]).addProduct(x[2], 0.3).addRatio(x[2], x[1]).subRatio(x[0], x[1])
+				.add(x[0].choose(x[1], x[2])));
+	}
+
+	@Test
+	public void testEulerScheme() {
+		// A log-normal Euler scheme with a long chain of operations, sharing the increments
+		assertEqualToEager(x -> {
+			RandomVariable value = x[1];
+			for(int timeIndex=0; timeIndex<200; timeIndex++) {
+				value = value.addProduct(value.mult(x[0]), 0.01).add(value.mult(0.001));
+			}
+			return value;
+		});
+	}
+
+	@Test
+	public void testConstantFolding() {
+		final RandomVariable value = new RandomVariableFloatLazyEvaluation(2.0).mult(3.0).add(new RandomVariableFloatLazyEvaluation(1.0)).exp();
+		Assert.assertTrue(value.isDeterministic());
+		Assert.assertEquals(Math.exp(7.0), value.doubleValue(), 0.0);
+	}
+
+	@Test
+	public void testSharedSubexpressionIsEvaluatedOnce() {
+		final RandomVariableFloatLazyEvaluation x = (RandomVariableFloatLazyEvaluation)calculate(new RandomVariableFloatLazyEvaluationFactory(), v -> v[0]);
+		final RandomVariableFloatLazyEvaluation shared = (RandomVariableFloatLazyEvaluation)x.mult(2.0).exp();
+		final RandomVariableFloatLazyEvaluation value = (RandomVariableFloatLazyEvaluation)shared.add(shared.squared());
+
+		Assert.assertFalse(shared.getExpression().isEvaluated());
+		value.getAverage();
+		Assert.assertTrue(value.getExpression().isEvaluated());
+		// The shared node was fused into the evaluation of value, not materialized
+		Assert.assertFalse(shared.getExpression().isEvaluated());
+		Assert.assertEquals(FloatExpression.Operator.VALUES, value.getExpression().getOperator());
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Test of the fused <code>addSumProduct</code> of {@link RandomVariableFromFloatArray}.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableFromFloatArrayAddSumProductTest {
+
+	private static final int numberOfPaths = 100000;
+
+	private static double[] getValues(final Random random) {
+		final double[] values = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			values[i] = random.nextGaussian();
+		}
+		return values;
+	}
+
+	@Test
+	public void testAddSumProductEqualsSequenceOfAddProduct() {
+		final Random random = new Random(3141);
+
+		final RandomVariable value = new RandomVariableFromFloatArray(0.0, getValues(random));
+
+		final List<RandomVariable> factor1 = new ArrayList<>();
+		final List<RandomVariable> factor2 = new ArrayList<>();
+		for(int k=0; k<20; k++) {
+			switch(k % 4) {
+			case 0:
+				factor1.add(new RandomVariableFromFloatArray(k, getValues(random)));
+				factor2.add(new RandomVariableFromFloatArray(0.0, getValues(random)));
+				break;
+			case 1:
+				factor1.add(new RandomVariableFromDoubleArray(0.0, getValues(random)));
+				factor2.add(new RandomVariableFromFloatArray(0.0, 0.1 * k));
+				break;
+			case 2:
+				factor1.add(new RandomVariableFromFloatArray(0.0, 0.3));
+				factor2.add(new RandomVariableFromDoubleArray(0.0, getValues(random)));
+				break;
+			default:
+				factor1.add(new RandomVariableFromFloatArray(0.0, 0.5));
+				factor2.add(new RandomVariableFromFloatArray(0.0, 1.0 * k));
+				break;
+			}
+		}
+
+		RandomVariable expected = value;
+		for(int k=0; k<factor1.size(); k++) {
+			expected = expected.addProduct(factor1.get(k), factor2.get(k));
+		}
+
+		final RandomVariable result = value.addSumProduct(factor1, factor2);
+
+		Assert.assertEquals(expected.getFiltrationTime(), result.getFiltrationTime(), 0.0);
+		Assert.assertArrayEquals(expected.getRealizations(), result.getRealizations(), 0.0);
+	}
+
+	@Test
+	public void testAddSumProductOfDeterministicEqualsSequenceOfAddProduct() {
+		final Random random = new Random(3141);
+
+		final RandomVariable value = new RandomVariableFromFloatArray(0.0, 0.1);
+		final List<RandomVariable> factor1 = List.of(new RandomVariableFromFloatArray(0.7), new RandomVariableFromFloatArray(0.0, getValues(random)), new RandomVariableFromFloatArray(0.3));
+		final List<RandomVariable> factor2 = List.of(new RandomVariableFromFloatArray(1.3), new RandomVariableFromFloatArray(0.0, getValues(random)), new RandomVariableFromFloatArray(1.1));
+
+		RandomVariable expected = value;
+		for(int k=0; k<factor1.size(); k++) {
+			expected = expected.addProduct(factor1.get(k), factor2.get(k));
+		}
+
+		final RandomVariable result = value.addSumProduct(factor1, factor2);
+
+		Assert.assertArrayEquals(expected.getRealizations(), result.getRealizations(), 0.0);
+
+		// The first term is stochastic
+		final List<RandomVariable> factor1Permuted = List.of(factor1.get(1), factor1.get(0), factor1.get(2));
+		final List<RandomVariable> factor2Permuted = List.of(factor2.get(1), factor2.get(0), factor2.get(2));
+
+		RandomVariable expectedPermuted = value;
+		for(int k=0; k<factor1Permuted.size(); k++) {
+			expectedPermuted = expectedPermuted.addProduct(factor1Permuted.get(k), factor2Permuted.get(k));
+		}
+
+		final RandomVariable resultPermuted = value.addSumProduct(factor1Permuted, factor2Permuted);
+
+		Assert.assertArrayEquals(expectedPermuted.getRealizations(), resultPermuted.getRealizations(), 0.0);
+	}
+
+	@Test
+	public void testAddSumProductDeterministic() {
+		final RandomVariable value = new RandomVariableFromFloatArray(0.0, 1.0);
+		final List<RandomVariable> factor1 = List.of(new RandomVariableFromFloatArray(2.0), new RandomVariableFromFloatArray(3.0));
+		final List<RandomVariable> factor2 = List.of(new RandomVariableFromFloatArray(4.0), new RandomVariableFromFloatArray(5.0));
+
+		final RandomVariable result = value.addSumProduct(factor1, factor2);
+
+		Assert.assertTrue(result.isDeterministic());
+		Assert.assertEquals(1.0 + 2.0 * 4.0 + 3.0 * 5.0, result.doubleValue(), 0.0);
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Test of the float operator overloads of {@link RandomVariableFromFloatArray}.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableFromFloatArrayApplyTest {
+
+	private static final int numberOfPaths = 100000;
+
+	private static double[] getValues(final long seed) {
+		final Random random = new Random(seed);
+		final double[] values = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			values[i] = random.nextGaussian();
+		}
+		return values;
+	}
+
+	@Test
+	public void testApplyFloatUnary() {
+		final RandomVariableFromFloatArray value = new RandomVariableFromFloatArray(0.0, getValues(3141));
+
+		final RandomVariable result = value.applyFloat(x -> x * x + 1.0f);
+		final RandomVariable expected = value.squared().add(1.0);
+
+		Assert.assertArrayEquals(expected.getRealizations(), result.getRealizations(), 0.0);
+
+		final RandomVariable resultDeterministic = new RandomVariableFromFloatArray(2.0).applyFloat(x -> x * x + 1.0f);
+		Assert.assertTrue(resultDeterministic.isDeterministic());
+		Assert.assertEquals(5.0, resultDeterministic.doubleValue(), 0.0);
+	}
+
+	@Test
+	public void testApplyFloatBinaryAndTernary() {
+		final RandomVariableFromFloatArray value = new RandomVariableFromFloatArray(0.0, getValues(3141));
+		final RandomVariable argumentFloat = new RandomVariableFromFloatArray(1.0, getValues(2718));
+		final RandomVariable argumentDouble = new RandomVariableFromDoubleArray(1.0, getValues(2718));
+		final RandomVariableFromFloatArray argumentDeterministic = new RandomVariableFromFloatArray(0.5);
+
+		final RandomVariable expectedBinary = value.mult(argumentFloat);
+		Assert.assertArrayEquals(expectedBinary.getRealizations(), value.applyFloat((x, y) -> x * y, argumentFloat).getRealizations(), 0.0);
+		Assert.assertArrayEquals(expectedBinary.getRealizations(), value.applyFloat((x, y) -> x * y, argumentDouble).getRealizations(), 0.0);
+		Assert.assertEquals(1.0, value.applyFloat((x, y) -> x * y, argumentFloat).getFiltrationTime(), 0.0);
+
+		final RandomVariable expectedTernary = value.addProduct(argumentFloat, argumentDeterministic);
+		final RandomVariable resultTernary = value.applyFloat((x, y, z) -> x + y * z, argumentDouble, argumentDeterministic);
+		Assert.assertArrayEquals(expectedTernary.getRealizations(), resultTernary.getRealizations(), 0.0);
+
+		// Deterministic this, stochastic argument
+		final RandomVariable resultFromDeterministic = argumentDeterministic.applyFloat((x, y) -> x - y, value);
+		Assert.assertArrayEquals(argumentDeterministic.sub(value).getRealizations(), resultFromDeterministic.getRealizations(), 0.0);
+	}
+}
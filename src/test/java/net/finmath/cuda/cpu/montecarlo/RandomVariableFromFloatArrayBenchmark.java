@@ -0,0 +1,119 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * JMH benchmark comparing the element-wise multiplication of a RandomVariableFromFloatArray by
+ * <ul>
+ * 	<li>a loop calling <code>get(i)</code> through the <code>RandomVariable</code> interface (the generic code path, where the call site
+ * 		has seen several implementations, i.e., is megamorphic),</li>
+ * 	<li><code>mult</code> with a RandomVariableFromFloatArray operand (typed fast path on the raw arrays),</li>
+ * 	<li><code>mult</code> with a RandomVariableFromDoubleArray operand (typed conversion, then fast path).</li>
+ * </ul>
+ *
+ * Run with <code>main</code> (from the test class path) or via the JMH command line.
+ * The benchmark is not a unit test and is not run by the build.
+ *
+ * @author Christian Fries
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RandomVariableFromFloatArrayBenchmark {
+
+	@Param({ "100000", "1000000" })
+	private int numberOfPaths;
+
+	private RandomVariableFromFloatArray value;
+	private RandomVariable operandFloat;
+	private RandomVariable operandDouble;
+	private RandomVariable operandLazy;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(3141);
+		final double[] values = new double[numberOfPaths];
+		final double[] operandValues = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			values[i] = random.nextGaussian();
+			operandValues[i] = random.nextGaussian();
+		}
+		value = new RandomVariableFromFloatArray(0.0, values);
+		operandFloat = new RandomVariableFromFloatArray(0.0, operandValues);
+		operandDouble = new RandomVariableFromDoubleArray(0.0, operandValues);
+		operandLazy = new RandomVariableFloatLazyEvaluation(operandFloat).mult(1.0).cache();
+
+		// Pollute the type profile of the generic loop, as in an application using several implementations
+		for(int i=0; i<20; i++) {
+			multGeneric(value, operandFloat);
+			multGeneric(value, operandDouble);
+			multGeneric(value, operandLazy);
+		}
+	}
+
+	/*
+	 * The generic loop (as used for operands of unknown type).
+	 */
+	private static float[] multGeneric(final RandomVariableFromFloatArray value, final RandomVariable operand) {
+		final float[] realizations = new float[value.size()];
+		for(int i=0; i<realizations.length; i++) {
+			realizations[i] = (float)value.get(i) * (float)operand.get(i);
+		}
+		return realizations;
+	}
+
+	@Benchmark
+	public float[] multGenericFloatOperand() {
+		return multGeneric(value, operandFloat);
+	}
+
+	@Benchmark
+	public float[] multGenericDoubleOperand() {
+		return multGeneric(value, operandDouble);
+	}
+
+	@Benchmark
+	public RandomVariable multTypedFloatOperand() {
+		return value.mult(operandFloat);
+	}
+
+	@Benchmark
+	public RandomVariable multTypedDoubleOperand() {
+		return value.mult(operandDouble);
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+		final Options options = new OptionsBuilder()
+				.include(RandomVariableFromFloatArrayBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.RandomVariableFromDoubleArray;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Test of the operations of {@link RandomVariableFromFloatArray} with operands of other types: the typed path
+ * (for operands of type {@link RandomVariableFromFloatArray} or {@link RandomVariableFromDoubleArray}) gives exactly the same
+ * results as the generic path (reading the operand through <code>get(i)</code>).
+ *
+ * The generic path is triggered by wrapping the operand in a proxy implementing only the interface {@link RandomVariable}.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableFromFloatArrayOperandTypeTest {
+
+	private static final int numberOfPaths = 100000;
+
+	private static double[] getValues(final long seed, final double shift) {
+		final Random random = new Random(seed);
+		final double[] values = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			values[i] = shift + random.nextGaussian();
+		}
+		return values;
+	}
+
+	/**
+	 * Returns a random variable of a type unknown to {@link RandomVariableFromFloatArray}, delegating to the given random variable.
+	 *
+	 * @param randomVariable The random variable.
+	 * @return A proxy of the random variable.
+	 */
+	private static RandomVariable getGeneric(final RandomVariable randomVariable) {
+		return (RandomVariable)Proxy.newProxyInstance(RandomVariable.class.getClassLoader(), new Class<?>[] { RandomVariable.class }, (proxy, method, arguments) -> {
+			try {
+				return method.invoke(randomVariable, arguments);
+			}
+			catch(final InvocationTargetException e) {
+				throw e.getCause();
+			}
+		});
+	}
+
+	@Test
+	public void testBinaryOperations() {
+		final RandomVariable operandDouble = new RandomVariableFromDoubleArray(1.0, getValues(2718, 2.0));
+		final RandomVariable operandFloat = new RandomVariableFromFloatArray(1.0, getValues(2718, 2.0));
+
+		for(final RandomVariable value : new RandomVariable[] { new RandomVariableFromFloatArray(0.0, getValues(3141, 0.0)), new RandomVariableFromFloatArray(0.0, 0.7) }) {
+			for(final RandomVariable operand : new RandomVariable[] { operandDouble, operandFloat }) {
+				assertTypedEqualsGeneric("add", value, operand, RandomVariable::add);
+				assertTypedEqualsGeneric("sub", value, operand, RandomVariable::sub);
+				assertTypedEqualsGeneric("bus", value, operand, RandomVariable::bus);
+				assertTypedEqualsGeneric("mult", value, operand, RandomVariable::mult);
+				assertTypedEqualsGeneric("div", value, operand, RandomVariable::div);
+				assertTypedEqualsGeneric("vid", value, operand, RandomVariable::vid);
+				assertTypedEqualsGeneric("cap", value, operand, RandomVariable::cap);
+				assertTypedEqualsGeneric("floor", value, operand, RandomVariable::floor);
+				assertTypedEqualsGeneric("accrue", value, operand, (x, y) -> x.accrue(y, 0.5));
+				assertTypedEqualsGeneric("discount", value, operand, (x, y) -> x.discount(y, 0.5));
+				assertTypedEqualsGeneric("addProduct", value, operand, (x, y) -> x.addProduct(y, 0.5));
+			}
+		}
+	}
+
+	@Test
+	public void testTernaryOperations() {
+		final RandomVariable value = new RandomVariableFromFloatArray(0.0, getValues(3141, 0.0));
+		final RandomVariable factorDouble = new RandomVariableFromDoubleArray(1.0, getValues(2718, 0.0));
+		final RandomVariable factorFloat = new RandomVariableFromFloatArray(2.0, getValues(1618, 2.0));
+
+		// Mixed operand types: a float and a double operand
+		for(final RandomVariable[] operands : new RandomVariable[][] { { factorDouble, factorFloat }, { factorFloat, factorDouble }, { factorDouble, factorDouble } }) {
+			final RandomVariable factor1 = operands[0];
+			final RandomVariable factor2 = operands[1];
+			assertTypedEqualsGeneric("addProduct", value.addProduct(factor1, factor2), value.addProduct(getGeneric(factor1), getGeneric(factor2)));
+			assertTypedEqualsGeneric("addRatio", value.addRatio(factor1, factor2), value.addRatio(getGeneric(factor1), getGeneric(factor2)));
+			assertTypedEqualsGeneric("subRatio", value.subRatio(factor1, factor2), value.subRatio(getGeneric(factor1), getGeneric(factor2)));
+		}
+	}
+
+	private static void assertTypedEqualsGeneric(final String message, final RandomVariable value, final RandomVariable operand, final BiFunction<RandomVariable, RandomVariable, RandomVariable> operation) {
+		assertTypedEqualsGeneric(message + " with " + operand.getClass().getSimpleName(), operation.apply(value, operand), operation.apply(value, getGeneric(operand)));
+	}
+
+	private static void assertTypedEqualsGeneric(final String message, final RandomVariable typed, final RandomVariable generic) {
+		Assert.assertTrue(message, typed instanceof RandomVariableFromFloatArray);
+		Assert.assertTrue(message, generic instanceof RandomVariableFromFloatArray);
+		Assert.assertEquals(message, generic.getFiltrationTime(), typed.getFiltrationTime(), 0.0);
+		Assert.assertArrayEquals(message, generic.getRealizations(), typed.getRealizations(), 0.0);
+	}
+}
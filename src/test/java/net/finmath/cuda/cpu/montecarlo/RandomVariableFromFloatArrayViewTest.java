@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.nio.FloatBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test of the (zero-copy) views on the realizations of {@link RandomVariableFromFloatArray}.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableFromFloatArrayViewTest {
+
+	@Test
+	public void testFloatBufferView() {
+		final float[] values = new float[] { 1.0f, -2.5f, 3.25f, Float.NaN };
+		final RandomVariableFromFloatArray randomVariable = new RandomVariableFromFloatArray(0.0, values);
+
+		final FloatBuffer buffer = randomVariable.getRealizationsAsFloatBuffer();
+		Assert.assertTrue(buffer.isReadOnly());
+		Assert.assertEquals(values.length, buffer.remaining());
+		for(int i=0; i<values.length; i++) {
+			Assert.assertEquals(values[i], buffer.get(i), 0.0);
+		}
+
+		try {
+			buffer.put(0, 0.0f);
+			Assert.fail("Expected the view to be read-only.");
+		}
+		catch(final ReadOnlyBufferException e) {
+			// expected
+		}
+		Assert.assertEquals(1.0, randomVariable.get(0), 0.0);
+
+		final FloatBuffer bufferDeterministic = new RandomVariableFromFloatArray(0.0, 2.0).getRealizationsAsFloatBuffer();
+		Assert.assertEquals(1, bufferDeterministic.remaining());
+		Assert.assertEquals(2.0f, bufferDeterministic.get(0), 0.0);
+	}
+
+	@Test
+	public void testRealizationsStream() {
+		final double[] values = new double[200000];
+		for(int i=0; i<values.length; i++) {
+			values[i] = Math.sin(i);
+		}
+		final RandomVariableFromFloatArray randomVariable = new RandomVariableFromFloatArray(0.0, values);
+
+		Assert.assertArrayEquals(randomVariable.getRealizations(), randomVariable.getRealizationsStream().toArray(), 0.0);
+		Assert.assertEquals(randomVariable.getRealizationsStream().sum(), randomVariable.getRealizationsStream().parallel().sum(), 1E-8);
+		Assert.assertEquals(3, new RandomVariableFromFloatArray(0.0, 2.0).getRealizationsStream().limit(3).count());
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.cpu.montecarlo;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the single pass moments of RandomVariableFromFloatArray against an exact calculation.
+ *
+ * @author Christian Fries
+ */
+public class RandomVariableMomentsTest {
+
+	private final int threshold = ParallelChunkExecutor.getThreshold();
+	private final int chunkSize = ParallelChunkExecutor.getChunkSize();
+
+	@After
+	public void tearDown() {
+		ParallelChunkExecutor.setThreshold(threshold);
+		ParallelChunkExecutor.setChunkSize(chunkSize);
+	}
+
+	private static float[] createValues(final int numberOfValues, final double offset, final double scale) {
+		final Random random = new Random(3141);
+		final float[] values = new float[numberOfValues];
+		for(int i=0; i<numberOfValues; i++) {
+			values[i] = (float)(offset + scale * random.nextGaussian());
+		}
+		return values;
+	}
+
+	private static void assertMoments(final float[] values, final RandomVariableMoments moments) {
+		final MathContext mathContext = MathContext.DECIMAL128;
+		BigDecimal sum = BigDecimal.ZERO;
+		float min = Float.MAX_VALUE;
+		float max = -Float.MAX_VALUE;
+		for(final float value : values) {
+			sum = sum.add(new BigDecimal(value));
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+		final BigDecimal average = sum.divide(new BigDecimal(values.length), mathContext);
+		BigDecimal sumOfSquaredDeviations = BigDecimal.ZERO;
+		for(final float value : values) {
+			final BigDecimal deviation = new BigDecimal(value).subtract(average);
+			sumOfSquaredDeviations = sumOfSquaredDeviations.add(deviation.multiply(deviation));
+		}
+		final double variance = sumOfSquaredDeviations.divide(new BigDecimal(values.length), mathContext).doubleValue();
+
+		Assert.assertEquals("number of values", values.length, moments.getNumberOfValues());
+		Assert.assertEquals("average", average.doubleValue(), moments.getAverage(), 1E-15 * Math.abs(average.doubleValue()));
+		Assert.assertEquals("variance", variance, moments.getVariance(), 1E-12 * variance);
+		Assert.assertEquals("min", min, moments.getMin(), 0.0);
+		Assert.assertEquals("max", max, moments.getMax(), 0.0);
+	}
+
+	@Test
+	public void testSequential() {
+		ParallelChunkExecutor.setThreshold(Integer.MAX_VALUE);
+		final float[] values = createValues(100000, 0.0, 1.0);
+		assertMoments(values, RandomVariableMoments.of(values));
+	}
+
+	@Test
+	public void testParallelChunks() {
+		ParallelChunkExecutor.setThreshold(1000);
+		ParallelChunkExecutor.setChunkSize(777);
+		final float[] values = createValues(100000, 0.0, 1.0);
+		assertMoments(values, RandomVariableMoments.of(values));
+	}
+
+	@Test
+	public void testLargeAverage() {
+		// The naive E(X^2)-E(X)^2 suffers from cancellation for this sample
+		ParallelChunkExecutor.setThreshold(1000);
+		ParallelChunkExecutor.setChunkSize(1000);
+		final float[] values = createValues(100000, 1E4, 1E-1);
+		assertMoments(values, RandomVariableMoments.of(values));
+	}
+
+	@Test
+	public void testRandomVariableGetters() {
+		final float[] values = createValues(10000, 1.0, 2.0);
+		final RandomVariableFromFloatArray randomVariable = new RandomVariableFromFloatArray(0.0, values);
+		final RandomVariableMoments moments = randomVariable.getMoments();
+
+		Assert.assertEquals(moments.getAverage(), randomVariable.getAverage(), 0.0);
+		Assert.assertEquals(moments.getVariance(), randomVariable.getVariance(), 0.0);
+		Assert.assertEquals(moments.getSampleVariance(), randomVariable.getSampleVariance(), 1E-15);
+		Assert.assertEquals(moments.getStandardError(), randomVariable.getStandardError(), 0.0);
+		Assert.assertEquals(moments.getMin(), randomVariable.getMin(), 0.0);
+		Assert.assertEquals(moments.getMax(), randomVariable.getMax(), 0.0);
+
+		final RandomVariableMoments momentsOfConstant = new RandomVariableFromFloatArray(0.0, 3.0).getMoments();
+		Assert.assertEquals(3.0, momentsOfConstant.getAverage(), 0.0);
+		Assert.assertEquals(0.0, momentsOfConstant.getVariance(), 0.0);
+	}
+}
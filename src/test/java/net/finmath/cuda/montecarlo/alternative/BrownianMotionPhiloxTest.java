@@ -0,0 +1,97 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.alternative;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.RandomVariableFromArrayFactory;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests the streaming mode of {@link BrownianMotionPhilox}: time slices generated on demand agree with the eagerly generated
+ * increments and the cache of time slices is bounded.
+ *
+ * @author Christian Fries
+ */
+public class BrownianMotionPhiloxTest {
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 20, 0.05);
+	private final int numberOfFactors = 3;
+	private final int numberOfPaths = 10007;
+
+	@Test
+	public void testStreamingAgreesWithEager() {
+		final BrownianMotion eager = new BrownianMotionPhilox(timeDiscretization, numberOfFactors, numberOfPaths, 3141);
+		final BrownianMotionPhilox streaming = new BrownianMotionPhilox(timeDiscretization, numberOfFactors, numberOfPaths, 3141,
+				new RandomVariableFromArrayFactory(), 4);
+
+		// Backward order, such that the time slices are evicted and some are regenerated
+		for(int timeIndex=timeDiscretization.getNumberOfTimeSteps()-1; timeIndex>=0; timeIndex--) {
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				Assert.assertArrayEquals(
+						eager.getBrownianIncrement(timeIndex, factor).getRealizations(),
+						streaming.getBrownianIncrement(timeIndex, factor).getRealizations(), 0.0);
+				Assert.assertEquals(timeDiscretization.getTime(timeIndex+1), streaming.getBrownianIncrement(timeIndex, factor).getFiltrationTime(), 0.0);
+			}
+			Assert.assertTrue(streaming.getNumberOfCachedTimeSlicesInUse() <= 4);
+		}
+		Assert.assertEquals(timeDiscretization.getNumberOfTimeSteps(), streaming.getNumberOfGeneratedTimeSlices());
+
+		// The cached slices are reused, the evicted slice is regenerated identically
+		final double[] lastIncrement = streaming.getBrownianIncrement(0, 2).getRealizations();
+		streaming.getBrownianIncrement(1, 0);
+		Assert.assertEquals(timeDiscretization.getNumberOfTimeSteps(), streaming.getNumberOfGeneratedTimeSlices());
+		streaming.getBrownianIncrement(10, 0);
+		Assert.assertEquals(timeDiscretization.getNumberOfTimeSteps() + 1, streaming.getNumberOfGeneratedTimeSlices());
+		Assert.assertArrayEquals(eager.getBrownianIncrement(10, 0).getRealizations(), streaming.getBrownianIncrement(10, 0).getRealizations(), 0.0);
+		Assert.assertArrayEquals(lastIncrement, streaming.getBrownianIncrement(0, 2).getRealizations(), 0.0);
+
+		// The mode is preserved by clones
+		Assert.assertEquals(4, ((BrownianMotionPhilox)streaming.getCloneWithModifiedSeed(7)).getNumberOfCachedTimeSlices());
+	}
+
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		final BrownianMotion eager = new BrownianMotionPhilox(timeDiscretization, numberOfFactors, numberOfPaths, 2718);
+		final BrownianMotionPhilox streaming = new BrownianMotionPhilox(timeDiscretization, numberOfFactors, numberOfPaths, 2718,
+				new RandomVariableFromArrayFactory(), 8);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Callable<Boolean>> tasks = new ArrayList<>();
+			for(int task=0; task<16; task++) {
+				final int offset = task;
+				tasks.add(() -> {
+					for(int i=0; i<timeDiscretization.getNumberOfTimeSteps(); i++) {
+						final int timeIndex = (i + offset) % timeDiscretization.getNumberOfTimeSteps();
+						final int factor = i % numberOfFactors;
+						if(streaming.getBrownianIncrement(timeIndex, factor).get(offset) != eager.getBrownianIncrement(timeIndex, factor).get(offset)) {
+							return false;
+						}
+					}
+					return true;
+				});
+			}
+			for(final Future<Boolean> result : executor.invokeAll(tasks)) {
+				Assert.assertTrue(result.get());
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		Assert.assertTrue(streaming.getNumberOfCachedTimeSlicesInUse() <= 8);
+	}
+}
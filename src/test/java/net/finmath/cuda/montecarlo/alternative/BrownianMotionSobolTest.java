@@ -0,0 +1,126 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.alternative;
+
+import org.apache.commons.math3.random.SobolSequenceGenerator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor;
+import net.finmath.cuda.cpu.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.cuda.montecarlo.alternative.BrownianMotionSobol.PathConstruction;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests the {@link ScrambledSobolSequence} and the quasi random {@link BrownianMotionSobol}.
+ *
+ * @author Christian Fries
+ */
+public class BrownianMotionSobolTest {
+
+	private final int threshold = ParallelChunkExecutor.getThreshold();
+	private final int chunkSize = ParallelChunkExecutor.getChunkSize();
+
+	@After
+	public void tearDown() {
+		ParallelChunkExecutor.setThreshold(threshold);
+		ParallelChunkExecutor.setChunkSize(chunkSize);
+	}
+
+	@Test
+	public void testSobolSequence() {
+		final int dimension = 50;
+
+		// Without scrambling, the sequence agrees with the 52 bit sequence of commons-math3
+		final ScrambledSobolSequence sobolSequence = new ScrambledSobolSequence(dimension, 0, false);
+		final SobolSequenceGenerator reference = new SobolSequenceGenerator(dimension);
+		final int[] point = new int[dimension];
+		for(int index=0; index<4096; index++) {
+			if(index == 0) {
+				sobolSequence.skipTo(0, point);
+			}
+			else {
+				sobolSequence.next(index-1, point);
+			}
+			final double[] expected = reference.nextVector();
+			for(int j=0; j<dimension; j++) {
+				Assert.assertEquals("point " + index + ", coordinate " + j, expected[j], (point[j] & 0xFFFFFFFFL) / 4294967296.0, 0.0);
+			}
+		}
+
+		// Scrambling preserves the stratification: each interval of length 1/1024 contains one of the first 1024 points
+		final ScrambledSobolSequence scrambledSequence = new ScrambledSobolSequence(dimension, 3141);
+		final int[][] counts = new int[dimension][1024];
+		for(int index=0; index<1024; index++) {
+			scrambledSequence.skipTo(index, point);
+			for(int j=0; j<dimension; j++) {
+				counts[j][(int)(ScrambledSobolSequence.toUniformDouble(point[j]) * 1024)]++;
+			}
+		}
+		for(int j=0; j<dimension; j++) {
+			for(int i=0; i<1024; i++) {
+				Assert.assertEquals(1, counts[j][i]);
+			}
+		}
+	}
+
+	@Test
+	public void testBrownianMotion() {
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 12, 1.0/12.0);
+		final int numberOfPaths = 1 << 14;
+
+		for(final PathConstruction pathConstruction : PathConstruction.values()) {
+			ParallelChunkExecutor.setThreshold(Integer.MAX_VALUE);
+			final BrownianMotion sequential = new BrownianMotionSobol(timeDiscretization, 2, numberOfPaths, 3141, pathConstruction);
+
+			ParallelChunkExecutor.setThreshold(0);
+			ParallelChunkExecutor.setChunkSize(1000);
+			final BrownianMotion brownianMotion = new BrownianMotionSobol(timeDiscretization, 2, numberOfPaths, 3141, pathConstruction);
+
+			RandomVariable value = brownianMotion.getRandomVariableForConstant(0.0);
+			for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+				for(int factor=0; factor<2; factor++) {
+					final RandomVariable increment = brownianMotion.getBrownianIncrement(timeIndex, factor);
+					Assert.assertTrue(increment instanceof RandomVariableFromFloatArray);
+					Assert.assertArrayEquals(sequential.getBrownianIncrement(timeIndex, factor).getRealizations(), increment.getRealizations(), 0.0);
+
+					final double dt = timeDiscretization.getTimeStep(timeIndex);
+					Assert.assertEquals(pathConstruction + " mean", 0.0, increment.getAverage(), 1E-3 * Math.sqrt(dt));
+					Assert.assertEquals(pathConstruction + " variance", dt, increment.getVariance(), 2E-2 * dt);
+				}
+				value = value.add(brownianMotion.getBrownianIncrement(timeIndex, 0));
+			}
+
+			// E[exp(W(T) - T/2)] = 1: the error is far below the Monte-Carlo error 1.3 / sqrt(numberOfPaths) = 1E-2
+			final double expectation = value.sub(0.5).exp().getAverage();
+			Assert.assertEquals(pathConstruction + " expectation", 1.0, expectation, 1E-3);
+		}
+	}
+
+	@Test
+	public void testPaddingOfHighDimensions() {
+		// 400 time steps and 3 factors exceed the dimension of the Sobol sequence
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 400, 0.01);
+		final int numberOfPaths = 4096;
+		final BrownianMotion brownianMotion = new BrownianMotionSobol(timeDiscretization, 3, numberOfPaths, 2718);
+
+		for(final int timeIndex : new int[] { 0, 333, 399 }) {
+			for(int factor=0; factor<3; factor++) {
+				final RandomVariable increment = brownianMotion.getBrownianIncrement(timeIndex, factor);
+				Assert.assertEquals(0.0, increment.getAverage(), 4.0 * Math.sqrt(0.01 / numberOfPaths));
+				Assert.assertEquals(0.01, increment.getVariance(), 4.0 * 0.01 * Math.sqrt(2.0 / numberOfPaths));
+			}
+		}
+
+		Assert.assertNotEquals(
+				brownianMotion.getBrownianIncrement(0, 0).get(0),
+				brownianMotion.getCloneWithModifiedSeed(2719).getBrownianIncrement(0, 0).get(0), 0.0);
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.alternative;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests the construction of a Brownian motion on a modified time discretization from the increments of a given
+ * Brownian motion (here {@link BrownianMotionPhilox}, i.e., without a GPU).
+ *
+ * @author Christian Fries
+ */
+public class BrownianMotionWithModifiedTimeDiscretizationTest {
+
+	private static final int NUMBER_OF_FACTORS = 2;
+	private static final int NUMBER_OF_PATHS = 50000;
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 8, 0.25);
+	private final BrownianMotion brownianMotion = new BrownianMotionPhilox(timeDiscretization, NUMBER_OF_FACTORS, NUMBER_OF_PATHS, 3141);
+
+	@Test
+	public void testCoarsening() {
+		final TimeDiscretization coarseTimeDiscretization = new TimeDiscretizationFromArray(0.0, 0.5, 1.25, 2.0);
+		final BrownianMotion coarse = new BrownianMotionWithModifiedTimeDiscretization(brownianMotion, coarseTimeDiscretization, 3141);
+
+		// The increments are the sums of the given increments
+		final int[] givenTimeIndices = { 0, 2, 5, 8 };
+		for(int timeIndex=0; timeIndex<coarseTimeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+			for(int factor=0; factor<NUMBER_OF_FACTORS; factor++) {
+				RandomVariable sum = brownianMotion.getRandomVariableForConstant(0.0);
+				for(int givenTimeIndex=givenTimeIndices[timeIndex]; givenTimeIndex<givenTimeIndices[timeIndex+1]; givenTimeIndex++) {
+					sum = sum.add(brownianMotion.getBrownianIncrement(givenTimeIndex, factor));
+				}
+				Assert.assertArrayEquals(sum.getRealizations(), coarse.getBrownianIncrement(timeIndex, factor).getRealizations(), 1E-5);
+			}
+		}
+	}
+
+	@Test
+	public void testRefinementAndExtension() {
+		// Refines the given time steps, contains a given time (1.0) and extends the time horizon (2.0) to 3.0
+		final TimeDiscretization fineTimeDiscretization = new TimeDiscretizationFromArray(0.0, 30, 0.1);
+		final BrownianMotion refined = new BrownianMotionWithModifiedTimeDiscretization(brownianMotion, fineTimeDiscretization, 2718);
+
+		Assert.assertEquals(fineTimeDiscretization, refined.getTimeDiscretization());
+		Assert.assertEquals(NUMBER_OF_FACTORS, refined.getNumberOfFactors());
+		Assert.assertEquals(NUMBER_OF_PATHS, refined.getNumberOfPaths());
+
+		for(int factor=0; factor<NUMBER_OF_FACTORS; factor++) {
+			// The values at the common times 1.0 and 2.0 are preserved
+			for(final int[] timeIndices : new int[][] { { 4, 10 }, { 8, 20 } }) {
+				RandomVariable value = brownianMotion.getRandomVariableForConstant(0.0);
+				for(int timeIndex=0; timeIndex<timeIndices[0]; timeIndex++) {
+					value = value.add(brownianMotion.getBrownianIncrement(timeIndex, factor));
+				}
+				RandomVariable refinedValue = brownianMotion.getRandomVariableForConstant(0.0);
+				for(int timeIndex=0; timeIndex<timeIndices[1]; timeIndex++) {
+					refinedValue = refinedValue.add(refined.getBrownianIncrement(timeIndex, factor));
+				}
+				Assert.assertArrayEquals(value.getRealizations(), refinedValue.getRealizations(), 1E-5);
+			}
+
+			// The bridged and extended increments have variance dt and are uncorrelated
+			for(int timeIndex=0; timeIndex<fineTimeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+				final double dt = fineTimeDiscretization.getTimeStep(timeIndex);
+				final RandomVariable increment = refined.getBrownianIncrement(timeIndex, factor);
+				Assert.assertEquals(0.0, increment.getAverage(), 4.0 * Math.sqrt(dt / NUMBER_OF_PATHS));
+				Assert.assertEquals(dt, increment.getVariance(), 4.0 * dt * Math.sqrt(2.0 / NUMBER_OF_PATHS));
+				if(timeIndex > 0) {
+					final RandomVariable previousIncrement = refined.getBrownianIncrement(timeIndex-1, factor);
+					Assert.assertEquals(0.0, increment.mult(previousIncrement).getAverage(), 4.0 * dt / Math.sqrt(NUMBER_OF_PATHS));
+				}
+			}
+		}
+
+		// Reproducible and depending on the seed
+		final BrownianMotion clone = new BrownianMotionWithModifiedTimeDiscretization(brownianMotion, fineTimeDiscretization, 2718);
+		Assert.assertEquals(refined, clone);
+		Assert.assertArrayEquals(refined.getBrownianIncrement(1, 1).getRealizations(), clone.getBrownianIncrement(1, 1).getRealizations(), 0.0);
+		Assert.assertNotEquals(
+				refined.getBrownianIncrement(1, 1).get(0),
+				new BrownianMotionWithModifiedTimeDiscretization(brownianMotion, fineTimeDiscretization, 2719).getBrownianIncrement(1, 1).get(0), 0.0);
+
+		// A further clone is constructed from the given increments
+		final BrownianMotion coarse = ((BrownianMotionWithModifiedTimeDiscretization)refined).getCloneWithModifiedTimeDiscretization(timeDiscretization);
+		Assert.assertArrayEquals(brownianMotion.getBrownianIncrement(3, 0).getRealizations(), coarse.getBrownianIncrement(3, 0).getRealizations(), 1E-6);
+	}
+
+	@Test
+	public void testRefinementIsIndependentOfGivenIncrementsWithSameSeed() {
+		// The given Brownian motion uses the same generator and seed as the refinement
+		final TimeDiscretization fineTimeDiscretization = new TimeDiscretizationFromArray(0.0, 20, 0.1);
+		final BrownianMotion refined = new BrownianMotionWithModifiedTimeDiscretization(brownianMotion, fineTimeDiscretization, 3141);
+
+		final double dt = timeDiscretization.getTimeStep(0);
+		for(int factor=0; factor<NUMBER_OF_FACTORS; factor++) {
+			RandomVariable refinedValue = brownianMotion.getRandomVariableForConstant(0.0);
+			for(int timeIndex=1; timeIndex<=fineTimeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+				refinedValue = refinedValue.add(refined.getBrownianIncrement(timeIndex-1, factor));
+
+				// The noise of the bridge: the refined value minus the interpolation of the given values
+				final double time = fineTimeDiscretization.getTime(timeIndex);
+				final int givenTimeIndex = Math.min(timeDiscretization.getTimeIndexNearestLessOrEqual(time), timeDiscretization.getNumberOfTimeSteps()-1);
+				final double weight = (time - timeDiscretization.getTime(givenTimeIndex)) / dt;
+				RandomVariable previousValue = brownianMotion.getRandomVariableForConstant(0.0);
+				for(int k=0; k<givenTimeIndex; k++) {
+					previousValue = previousValue.add(brownianMotion.getBrownianIncrement(k, factor));
+				}
+				final RandomVariable noise = refinedValue.sub(previousValue).sub(brownianMotion.getBrownianIncrement(givenTimeIndex, factor).mult(weight));
+
+				// The noise is uncorrelated with all given increments
+				for(int k=0; k<timeDiscretization.getNumberOfTimeSteps(); k++) {
+					final RandomVariable givenIncrement = brownianMotion.getBrownianIncrement(k, factor);
+					Assert.assertEquals("Covariance of the noise at time " + time + " and the given increment " + k,
+							0.0, noise.mult(givenIncrement).getAverage(), 4.0 * Math.sqrt(dt / 4.0 * dt / NUMBER_OF_PATHS));
+				}
+			}
+		}
+	}
+}
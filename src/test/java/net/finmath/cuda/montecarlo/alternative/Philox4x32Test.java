@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.alternative;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.cuda.cpu.montecarlo.ParallelChunkExecutor;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Tests the generator {@link Philox4x32} against the known answer tests of Random123 and the
+ * reproducibility of {@link BrownianMotionPhilox} (does not require a GPU).
+ *
+ * @author Christian Fries
+ */
+public class Philox4x32Test {
+
+	private final int threshold = ParallelChunkExecutor.getThreshold();
+	private final int chunkSize = ParallelChunkExecutor.getChunkSize();
+
+	@After
+	public void tearDown() {
+		ParallelChunkExecutor.setThreshold(threshold);
+		ParallelChunkExecutor.setChunkSize(chunkSize);
+	}
+
+	@Test
+	public void testKnownAnswers() {
+		// Known answer tests of Random123 (kat_vectors, philox4x32 with 10 rounds)
+		Assert.assertArrayEquals(
+				new int[] { 0x6627e8d5, 0xe169c58d, 0xbc57ac4c, 0x9b00dbd8 },
+				Philox4x32.philox4x32(new int[] { 0, 0, 0, 0 }, new int[] { 0, 0 }));
+		Assert.assertArrayEquals(
+				new int[] { 0x408f276d, 0x41c83b0e, 0xa20bc7c6, 0x6d5451fd },
+				Philox4x32.philox4x32(new int[] { 0xffffffff, 0xffffffff, 0xffffffff, 0xffffffff }, new int[] { 0xffffffff, 0xffffffff }));
+		Assert.assertArrayEquals(
+				new int[] { 0xd16cfe09, 0x94fdcceb, 0x5001e420, 0x24126ea1 },
+				Philox4x32.philox4x32(new int[] { 0x243f6a88, 0x85a308d3, 0x13198a2e, 0x03707344 }, new int[] { 0xa4093822, 0x299f31d0 }));
+	}
+
+	@Test
+	public void testSubsequences() {
+		final Philox4x32 generator = new Philox4x32(0xa4093822299f31d0L);
+
+		// The counter is (index / 4, subsequence), the key is the seed
+		final long subsequence = 0x0370734413198a2eL;
+		final int[] block = Philox4x32.philox4x32(new int[] { 0x243f6a88 + 1, 0, 0x13198a2e, 0x03707344 }, new int[] { 0x299f31d0, 0xa4093822 });
+		for(int k=0; k<4; k++) {
+			Assert.assertEquals(block[k], generator.getInt(subsequence, 4L * (0x243f6a88 + 1) + k));
+		}
+
+		// Two integers per double, filled from any offset
+		for(final int offset : new int[] { 0, 1, 2, 5 }) {
+			final double[] values = new double[7];
+			generator.fillUniformDouble(3, offset, values);
+			for(int i=0; i<values.length; i++) {
+				Assert.assertEquals(generator.getUniformDouble(3, offset + i), values[i], 0.0);
+				Assert.assertTrue(values[i] > 0.0 && values[i] < 1.0);
+			}
+		}
+		Assert.assertNotEquals(generator.getUniformDouble(3, 0), generator.getUniformDouble(4, 0), 0.0);
+	}
+
+	@Test
+	public void testBrownianMotionIsReproducible() {
+		final TimeDiscretizationFromArray timeDiscretization = new TimeDiscretizationFromArray(0.0, 10, 0.1);
+		final int numberOfFactors = 3;
+		final int numberOfPaths = 100003;
+
+		ParallelChunkExecutor.setThreshold(Integer.MAX_VALUE);
+		final BrownianMotion sequential = new BrownianMotionPhilox(timeDiscretization, numberOfFactors, numberOfPaths, 3141);
+
+		ParallelChunkExecutor.setThreshold(0);
+		ParallelChunkExecutor.setChunkSize(997);
+		final BrownianMotion parallel = new BrownianMotionPhilox(timeDiscretization, numberOfFactors, numberOfPaths, 3141);
+
+		for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				final RandomVariable increment = parallel.getBrownianIncrement(timeIndex, factor);
+				Assert.assertArrayEquals(sequential.getBrownianIncrement(timeIndex, factor).getRealizations(), increment.getRealizations(), 0.0);
+
+				final double dt = timeDiscretization.getTimeStep(timeIndex);
+				Assert.assertEquals("Mean", 0.0, increment.getAverage(), 4.0 * Math.sqrt(dt / numberOfPaths));
+				Assert.assertEquals("Variance", dt, increment.getVariance(), 4.0 * dt * Math.sqrt(2.0 / numberOfPaths));
+			}
+		}
+
+		// Independent factors
+		final double covariance = parallel.getBrownianIncrement(0, 0).mult(parallel.getBrownianIncrement(0, 1)).getAverage();
+		Assert.assertEquals(0.0, covariance, 4.0 * 0.1 / Math.sqrt(numberOfPaths));
+
+		Assert.assertNotEquals(
+				parallel.getBrownianIncrement(0, 0).get(0),
+				parallel.getCloneWithModifiedSeed(3142).getBrownianIncrement(0, 0).get(0), 0.0);
+	}
+}
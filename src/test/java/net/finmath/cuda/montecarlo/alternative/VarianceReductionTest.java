@@ -0,0 +1,125 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.alternative;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.cuda.cpu.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.cuda.montecarlo.RandomVariableCuda;
+import net.finmath.cuda.montecarlo.RandomVariableCuda.DevicePointerReference;
+import net.finmath.cuda.montecarlo.backend.HostComputeBackend;
+import net.finmath.cuda.montecarlo.backend.Kernel;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Tests the antithetic pairing and the moment matching of {@link VarianceReduction}, on the host float arrays
+ * (as used by {@link BrownianMotionCudaWithHostRandomVariable}) and through a {@link HostComputeBackend} emulating the device
+ * (as used by {@link BrownianMotionCudaWithRandomVariableCuda}), i.e., without a GPU.
+ *
+ * @author Christian Fries
+ */
+public class VarianceReductionTest {
+
+	private static final double STANDARD_DEVIATION = Math.sqrt(0.25);
+
+	@Test
+	public void testHostFloatArrays() {
+		for(final int numberOfPaths : new int[] { 100000, 100001 }) {
+			for(final VarianceReduction varianceReduction : VarianceReduction.values()) {
+				final int numberOfDraws = varianceReduction.getNumberOfDraws(numberOfPaths);
+				final float[] values = createDraws(numberOfPaths, numberOfDraws);
+				varianceReduction.apply(values, STANDARD_DEVIATION);
+
+				final RandomVariable increment = new RandomVariableFromFloatArray(0.0, values);
+				final String message = varianceReduction + " with " + numberOfPaths + " paths";
+				if(varianceReduction.isAntithetic()) {
+					Assert.assertEquals(message, (numberOfPaths+1)/2, numberOfDraws);
+					// Re-centering shifts the pairs by the (small) mean of the unpaired path (odd number of paths) or the rounding
+					final double tolerance = varianceReduction.isMomentMatching() ? 4.0 * STANDARD_DEVIATION / numberOfPaths : 0.0;
+					final int half = (numberOfPaths+1)/2;
+					for(int i=0; i<numberOfPaths-half; i++) {
+						Assert.assertEquals(message, -values[i], values[half+i], tolerance);
+					}
+				}
+				else {
+					Assert.assertEquals(message, numberOfPaths, numberOfDraws);
+				}
+
+				if(varianceReduction.isMomentMatching()) {
+					Assert.assertEquals(message, 0.0, increment.getAverage(), 1E-7 * STANDARD_DEVIATION);
+					Assert.assertEquals(message, STANDARD_DEVIATION * STANDARD_DEVIATION, increment.getVariance(), 1E-6 * STANDARD_DEVIATION * STANDARD_DEVIATION);
+				}
+				else if(varianceReduction.isAntithetic() && numberOfPaths % 2 == 0) {
+					Assert.assertEquals(message, 0.0, increment.getAverage(), 1E-12);
+				}
+				else {
+					Assert.assertEquals(message, 0.0, increment.getAverage(), 4.0 * STANDARD_DEVIATION / Math.sqrt(numberOfPaths));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testEmulatedDevice() {
+		final HostComputeBackend backend = new HostComputeBackend(16L * 1024 * 1024);
+		final int numberOfPaths = 100001;
+		final int numberOfDraws = VarianceReduction.ANTITHETIC.getNumberOfDraws(numberOfPaths);
+		final float[] draws = createDraws(numberOfPaths, numberOfDraws);
+
+		// The antithetic kernel agrees with the host implementation
+		final float[] expected = draws.clone();
+		VarianceReduction.mirror(expected);
+		try(DevicePointerReference drawsOnDevice = backend.getDevicePointer(draws);
+				DevicePointerReference realizations = backend.callFunction(Kernel.ANTITHETIC, numberOfPaths, new DevicePointerReference[] { drawsOnDevice }, new float[0])) {
+			Assert.assertArrayEquals(expected, backend.getValuesAsFloat(realizations, numberOfPaths), 0.0f);
+		}
+
+		// Moment matching with the device reduction and device operations
+		final RandomVariable increment = new RandomVariableCuda(backend, 0.0, expected);
+		final RandomVariable matched = VarianceReduction.matchMoments(increment, STANDARD_DEVIATION);
+		Assert.assertTrue(matched instanceof RandomVariableCuda);
+		Assert.assertEquals(0.0, matched.getAverage(), 1E-7 * STANDARD_DEVIATION);
+		Assert.assertEquals(STANDARD_DEVIATION * STANDARD_DEVIATION, matched.getVariance(), 1E-6 * STANDARD_DEVIATION * STANDARD_DEVIATION);
+
+		VarianceReduction.matchMoments(expected, STANDARD_DEVIATION);
+		Assert.assertArrayEquals(new RandomVariableFromFloatArray(0.0, expected).getRealizations(), matched.getRealizations(), 1E-6);
+	}
+
+	@Test
+	public void testDegenerateIncrements() {
+		final HostComputeBackend backend = new HostComputeBackend(16L * 1024 * 1024);
+
+		// A single path or constant draws have no variance: moment matching only re-centers the increment
+		for(final float[] draws : new float[][] { { 0.3f }, { 0.3f, 0.3f, 0.3f } }) {
+			final float[] values = draws.clone();
+			VarianceReduction.MOMENT_MATCHING.apply(values, STANDARD_DEVIATION);
+			Assert.assertArrayEquals(new float[draws.length], values, 0.0f);
+
+			final RandomVariable matched = VarianceReduction.matchMoments(new RandomVariableCuda(backend, 0.0, draws), STANDARD_DEVIATION);
+			Assert.assertArrayEquals(new double[draws.length], matched.getRealizations(), 0.0);
+		}
+
+		// Antithetic pairing of a single path
+		final float[] values = { 0.3f };
+		VarianceReduction.ANTITHETIC_AND_MOMENT_MATCHING.apply(values, STANDARD_DEVIATION);
+		Assert.assertArrayEquals(new float[] { 0.0f }, values, 0.0f);
+	}
+
+	private static float[] createDraws(final int numberOfPaths, final int numberOfDraws) {
+		final Random random = new Random(3141);
+		final float[] values = new float[numberOfPaths];
+		for(int i=0; i<numberOfDraws; i++) {
+			values[i] = (float)(STANDARD_DEVIATION * random.nextGaussian());
+		}
+		// Not drawn: to be overwritten by the antithetic paths
+		Arrays.fill(values, numberOfDraws, numberOfPaths, Float.NaN);
+		return values;
+	}
+}
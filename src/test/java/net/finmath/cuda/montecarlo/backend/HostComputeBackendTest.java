@@ -0,0 +1,165 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.backend;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.cuda.cpu.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.cuda.montecarlo.RandomVariableCuda;
+import net.finmath.cuda.montecarlo.RandomVariableCudaFactory;
+import net.finmath.cuda.montecarlo.memory.DevicePointerPoolStatistics;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Tests of the {@link HostComputeBackend}: random variables on the host backend give exactly the same results
+ * as {@link RandomVariableFromFloatArray} (does not require a GPU).
+ *
+ * @author Christian Fries
+ */
+public class HostComputeBackendTest {
+
+	private static final int numberOfPaths = 100000;
+
+	private final HostComputeBackend backend = new HostComputeBackend(64L * 1024 * 1024);
+	private final RandomVariableCudaFactory factory = new RandomVariableCudaFactory(backend);
+
+	@Test
+	public void testOperations() {
+		final Random random = new Random(3141);
+		final float[] values1 = new float[numberOfPaths];
+		final float[] values2 = new float[numberOfPaths];
+		final float[] values3 = new float[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			values1[i] = (float)random.nextGaussian();
+			values2[i] = 0.5f + random.nextFloat();
+			values3[i] = (float)random.nextGaussian();
+		}
+
+		final RandomVariable x = new RandomVariableCuda(backend, 0.0, values1);
+		final RandomVariable y = new RandomVariableCuda(backend, 0.0, values2);
+		final RandomVariable z = new RandomVariableCuda(backend, 0.0, values3);
+		final RandomVariable xHost = new RandomVariableFromFloatArray(0.0, values1);
+		final RandomVariable yHost = new RandomVariableFromFloatArray(0.0, values2);
+		final RandomVariable zHost = new RandomVariableFromFloatArray(0.0, values3);
+
+		assertEqualsOnPaths("cap", x.cap(0.3), xHost.cap(0.3));
+		assertEqualsOnPaths("floor", x.floor(-0.3), xHost.floor(-0.3));
+		assertEqualsOnPaths("add", x.add(1.7), xHost.add(1.7));
+		assertEqualsOnPaths("sub", x.sub(1.7), xHost.sub(1.7));
+		assertEqualsOnPaths("bus", x.bus(1.7), xHost.bus(1.7));
+		assertEqualsOnPaths("mult", x.mult(1.7), xHost.mult(1.7));
+		assertEqualsOnPaths("div", x.div(1.7), xHost.div(1.7));
+		assertEqualsOnPaths("vid", y.vid(1.7), new RandomVariableFromFloatArray(0.0, 1.7).div(yHost));
+		assertEqualsOnPaths("pow", y.pow(1.5), yHost.pow(1.5));
+		assertEqualsOnPaths("squared", x.squared(), xHost.squared());
+		assertEqualsOnPaths("sqrt", y.sqrt(), yHost.sqrt());
+		assertEqualsOnPaths("exp", x.exp(), xHost.exp());
+		assertEqualsOnPaths("log", y.log(), yHost.log());
+		assertEqualsOnPaths("invert", y.invert(), yHost.invert());
+		assertEqualsOnPaths("abs", x.abs(), xHost.abs());
+
+		assertEqualsOnPaths("cap", x.cap(z), xHost.cap(zHost));
+		assertEqualsOnPaths("floor", x.floor(z), xHost.floor(zHost));
+		assertEqualsOnPaths("add", x.add(z), xHost.add(zHost));
+		assertEqualsOnPaths("sub", x.sub(z), xHost.sub(zHost));
+		assertEqualsOnPaths("bus", x.bus(z), xHost.bus(zHost));
+		assertEqualsOnPaths("mult", x.mult(z), xHost.mult(zHost));
+		assertEqualsOnPaths("div", x.div(y), xHost.div(yHost));
+		assertEqualsOnPaths("vid", x.vid(y), xHost.vid(yHost));
+		assertEqualsOnPaths("accrue", x.accrue(y, 0.5), xHost.accrue(yHost, 0.5));
+		assertEqualsOnPaths("discount", x.discount(y, 0.5), xHost.discount(yHost, 0.5));
+		assertEqualsOnPaths("addProduct", x.addProduct(y, 0.5), xHost.addProduct(yHost, 0.5));
+		assertEqualsOnPaths("addProduct", x.addProduct(y, z), xHost.addProduct(yHost, zHost));
+
+		// Single pass accumulation of a sum of products (terms in the order: products of vectors, vectors times scalars)
+		final RandomVariable scalar = factory.createRandomVariable(0.0, 0.25);
+		final RandomVariable sumProduct = x.addSumProduct(List.of(y, z, scalar), List.of(z, scalar, scalar));
+		final RandomVariable sumProductHost = xHost.add(0.25 * 0.25).addProduct(yHost, zHost).addProduct(zHost, 0.25);
+		assertEqualsOnPaths("addSumProduct", sumProduct, sumProductHost);
+
+		// Operations with random variables of other types are performed on the backend of this random variable
+		assertEqualsOnPaths("mixed", x.add(zHost), xHost.add(zHost));
+
+		// Statistics
+		Assert.assertEquals(xHost.getAverage(), x.getAverage(), 1E-12);
+		Assert.assertEquals(xHost.getVariance(), x.getVariance(), 1E-12);
+
+		// Quantiles (getQuantile of RandomVariableCuda returns the quantile for the level 1-quantile)
+		final double[] quantileLevels = { 0.01, 0.5, 0.99 };
+		Assert.assertArrayEquals(((RandomVariableFromFloatArray)xHost).getQuantiles(quantileLevels), ((RandomVariableCuda)x).getQuantiles(quantileLevels), 0.0);
+		Assert.assertEquals(xHost.getQuantile(0.01), x.getQuantile(0.99), 0.0);
+	}
+
+	@Test
+	public void testSumAndPool() {
+		final float[] values = new float[numberOfPaths];
+		double sum = 0.0;
+		for(int i=0; i<numberOfPaths; i++) {
+			values[i] = 1.0f / (1 + i % 17);
+			sum += values[i];
+		}
+
+		try(RandomVariableCuda.DevicePointerReference vector = backend.getDevicePointer(values)) {
+			Assert.assertEquals(sum, backend.sum(vector, numberOfPaths), 1E-10 * numberOfPaths);
+			Assert.assertArrayEquals(values, backend.getValuesAsFloat(vector, numberOfPaths), 0.0f);
+		}
+
+		// Vectors released explicitly are recycled
+		final long launches = backend.getNumberOfLaunches();
+		final BinaryOperator<RandomVariable> operation = (a, b) -> a.mult(b).add(1.0);
+		final RandomVariableCuda x = new RandomVariableCuda(backend, 0.0, values);
+		for(int k=0; k<10; k++) {
+			final RandomVariableCuda result = (RandomVariableCuda)operation.apply(x, x);
+			result.release();
+		}
+		Assert.assertEquals(launches + 20, backend.getNumberOfLaunches());
+
+		final DevicePointerPoolStatistics statistics = backend.getStatistics();
+		Assert.assertTrue("Recycling hits", statistics.getNumberOfRecyclingHits() >= 9);
+
+		// Exhausting the memory budget fails gracefully
+		final HostComputeBackend smallBackend = new HostComputeBackend(1024);
+		try {
+			smallBackend.getDevicePointer(numberOfPaths);
+			Assert.fail("Expected an OutOfMemoryError");
+		}
+		catch(final OutOfMemoryError e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testAddSumProductReleasesCopiesOfOtherTypes() {
+		final Random random = new Random(3141);
+		final float[] values1 = new float[numberOfPaths];
+		final float[] values2 = new float[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			values1[i] = (float)random.nextGaussian();
+			values2[i] = (float)random.nextGaussian();
+		}
+
+		final RandomVariable x = new RandomVariableCuda(backend, 0.0, values1);
+		final RandomVariable xHost = new RandomVariableFromFloatArray(0.0, values1);
+		final RandomVariable yHost = new RandomVariableFromFloatArray(0.0, values2);
+
+		// The factors which are not on the backend are copied to the device and the copies are released after the launch
+		final long releases = backend.getStatistics().getNumberOfExplicitReleases();
+		final RandomVariable sumProduct = x.addSumProduct(List.of(yHost, yHost), List.of(yHost, xHost.average()));
+		Assert.assertEquals(releases + 3, backend.getStatistics().getNumberOfExplicitReleases());
+
+		assertEqualsOnPaths("addSumProduct", sumProduct, xHost.addProduct(yHost, yHost).addProduct(yHost, xHost.getAverage()));
+	}
+
+	private static void assertEqualsOnPaths(final String message, final RandomVariable actual, final RandomVariable expected) {
+		Assert.assertTrue(message + " is stochastic", !actual.isDeterministic());
+		Assert.assertArrayEquals(message, expected.getRealizations(), actual.getRealizations(), 0.0);
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.backend;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jcuda.driver.CUdeviceptr;
+import net.finmath.cuda.montecarlo.RandomVariableCuda.DevicePointerReference;
+
+/**
+ * Tests of the {@link KernelLaunchQueue}, using a plain single thread executor as device thread (does not require a GPU).
+ *
+ * @author Christian Fries
+ */
+public class KernelLaunchQueueTest {
+
+	@Test
+	public void testOrderAndBatching() throws Exception {
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final KernelLaunchQueue queue = new KernelLaunchQueue(executor);
+			final List<Integer> executed = new CopyOnWriteArrayList<>();
+			final DevicePointerReference result = new DevicePointerReference(new CUdeviceptr());
+
+			// Block the device thread, such that the launches below accumulate in the queue
+			final CountDownLatch release = new CountDownLatch(1);
+			executor.execute(() -> {
+				try {
+					release.await();
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			final int numberOfLaunches = 1000;
+			for(int i=0; i<numberOfLaunches; i++) {
+				final int index = i;
+				queue.enqueue(() -> executed.add(index), result);
+			}
+			// Enqueue did not block and nothing was executed yet
+			Assert.assertTrue(executed.isEmpty());
+
+			release.countDown();
+
+			// A synchronizing task sees all launches enqueued before
+			final int numberExecuted = queue.submit(executed::size).get(10, TimeUnit.SECONDS);
+			Assert.assertEquals(numberOfLaunches, numberExecuted);
+			for(int i=0; i<numberOfLaunches; i++) {
+				Assert.assertEquals(i, (int)executed.get(i));
+			}
+
+			Assert.assertEquals(numberOfLaunches, queue.getNumberOfLaunches());
+			Assert.assertTrue("Launches are batched", queue.getNumberOfBatches() <= 1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testFailedLaunchIsRethrownAtSynchronizationOfItsResult() throws Exception {
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final KernelLaunchQueue queue = new KernelLaunchQueue(executor);
+			final List<Integer> executed = new CopyOnWriteArrayList<>();
+
+			final DevicePointerReference a = new DevicePointerReference(new CUdeviceptr());
+			final DevicePointerReference b = new DevicePointerReference(new CUdeviceptr());
+			final DevicePointerReference c = new DevicePointerReference(new CUdeviceptr());
+
+			// The launch writing a fails, the launch writing c reads a, the launch writing b is unrelated
+			queue.enqueue(() -> { throw new IllegalStateException("Simulated launch failure."); }, a);
+			queue.enqueue(() -> executed.add(1), c, a);
+			queue.enqueue(() -> executed.add(2), b);
+
+			// The caller synchronizing b does not see the failure
+			queue.submit(() -> {
+				KernelLaunchQueue.rethrowFailure(b);
+				executed.add(3);
+			}).get(10, TimeUnit.SECONDS);
+
+			// The callers synchronizing a or c (depending on a) see the failure
+			for(final DevicePointerReference failed : new DevicePointerReference[] { a, c }) {
+				try {
+					queue.submit(() -> {
+						KernelLaunchQueue.rethrowFailure(failed);
+						executed.add(4);
+					}).get(10, TimeUnit.SECONDS);
+					Assert.fail("The failure of the launch has not been rethrown.");
+				}
+				catch(final ExecutionException e) {
+					Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+					Assert.assertEquals("Simulated launch failure.", e.getCause().getCause().getMessage());
+				}
+			}
+
+			// The launch reading a has been skipped, subsequent launches are not affected
+			queue.enqueue(() -> executed.add(5), b, b);
+			queue.submit(() -> {
+				KernelLaunchQueue.rethrowFailure(b);
+				executed.add(6);
+			}).get(10, TimeUnit.SECONDS);
+
+			Assert.assertArrayEquals(new Integer[] { 2, 3, 5, 6 }, executed.toArray(new Integer[0]));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+}
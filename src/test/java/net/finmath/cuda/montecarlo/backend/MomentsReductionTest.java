@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.backend;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.cuda.cpu.montecarlo.RandomVariableMoments;
+
+/**
+ * Tests the host emulation of the two stage device reduction of the moments (the block/grid logic of the kernels
+ * <code>reduceMoments</code> and <code>reduceMomentsPartials</code>) against {@link RandomVariableMoments#of(float[])}.
+ *
+ * @author Christian Fries
+ */
+public class MomentsReductionTest {
+
+	@Test
+	public void testReduction() {
+		// Sizes below, at and above the boundaries of a block (two elements per thread) and of the second stage
+		final int[] blockSizes = { 1, 4, 64, MomentsReduction.BLOCK_SIZE };
+		final int[] sizes = { 1, 2, 7, 127, 128, 129, 1023, 1024, 1025, 100003 };
+
+		for(final int blockSize : blockSizes) {
+			for(final int size : sizes) {
+				final float[] values = createValues(size, 10.0, 2.0);
+				final RandomVariableMoments expected = RandomVariableMoments.of(values);
+				final RandomVariableMoments actual = MomentsReduction.reduce(FloatBuffer.wrap(values), size, blockSize);
+
+				final String message = "size " + size + ", block size " + blockSize;
+				Assert.assertEquals(message, size, actual.getNumberOfValues());
+				Assert.assertEquals(message, expected.getAverage(), actual.getAverage(), 1E-14 * Math.abs(expected.getAverage()));
+				Assert.assertEquals(message, expected.getVariance(), actual.getVariance(), 1E-12 * expected.getVariance());
+				Assert.assertEquals(message, expected.getMin(), actual.getMin(), 0.0);
+				Assert.assertEquals(message, expected.getMax(), actual.getMax(), 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testEmptyAndConstant() {
+		final RandomVariableMoments empty = MomentsReduction.reduce(FloatBuffer.allocate(0), 0, MomentsReduction.BLOCK_SIZE);
+		Assert.assertEquals(0, empty.getNumberOfValues());
+		Assert.assertTrue(Double.isNaN(empty.getAverage()));
+
+		// A large offset: the compensated sum and the update of the squared deviations do not lose the variance
+		final float[] values = new float[100003];
+		Arrays.fill(values, 1E6f);
+		final RandomVariableMoments constant = MomentsReduction.reduce(FloatBuffer.wrap(values), values.length, MomentsReduction.BLOCK_SIZE);
+		Assert.assertEquals(1E6, constant.getAverage(), 0.0);
+		Assert.assertEquals(0.0, constant.getVariance(), 0.0);
+	}
+
+	@Test
+	public void testCompensatedSum() {
+		// The compensation of the Kahan sum is subtracted from the sum
+		final RandomVariableMoments moments = MomentsReduction.getMoments(new double[] { 4.0, 1.0, -Math.ulp(1.0), 0.0, 0.25, 0.25 });
+		Assert.assertEquals((1.0 + Math.ulp(1.0)) / 4.0, moments.getAverage(), 0.0);
+	}
+
+	@Test
+	public void testCombine() {
+		final float[] values = createValues(10007, -3.0, 0.5);
+		final int split = 4001;
+		final RandomVariableMoments expected = RandomVariableMoments.of(values);
+		final RandomVariableMoments combined = RandomVariableMoments.of(Arrays.copyOfRange(values, 0, split))
+				.combine(RandomVariableMoments.of(new float[0]))
+				.combine(RandomVariableMoments.of(Arrays.copyOfRange(values, split, values.length)));
+
+		Assert.assertEquals(expected.getNumberOfValues(), combined.getNumberOfValues());
+		Assert.assertEquals(expected.getAverage(), combined.getAverage(), 1E-14 * Math.abs(expected.getAverage()));
+		Assert.assertEquals(expected.getVariance(), combined.getVariance(), 1E-12 * expected.getVariance());
+		Assert.assertEquals(expected.getMin(), combined.getMin(), 0.0);
+		Assert.assertEquals(expected.getMax(), combined.getMax(), 0.0);
+	}
+
+	private static float[] createValues(final int numberOfValues, final double offset, final double scale) {
+		final Random random = new Random(3141);
+		final float[] values = new float[numberOfValues];
+		for(int i=0; i<numberOfValues; i++) {
+			values[i] = (float)(offset + scale * random.nextGaussian());
+		}
+		return values;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.backend;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.cuda.cpu.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.cuda.montecarlo.ExpressionRecorder;
+import net.finmath.cuda.montecarlo.RandomVariableCuda;
+import net.finmath.cuda.montecarlo.RandomVariableCuda.DevicePointerReference;
+import net.finmath.cuda.montecarlo.fusion.KernelExpression;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Tests of the {@link ShardedComputeBackend}, using emulated devices ({@link HostComputeBackend}): the sharded
+ * random variables give exactly the same results as {@link RandomVariableFromFloatArray} (does not require a GPU).
+ *
+ * @author Christian Fries
+ */
+public class ShardedComputeBackendTest {
+
+	private final List<HostComputeBackend> devices = List.of(
+			new HostComputeBackend(16L * 1024 * 1024),
+			new HostComputeBackend(16L * 1024 * 1024),
+			new HostComputeBackend(16L * 1024 * 1024));
+	private final ShardedComputeBackend backend = new ShardedComputeBackend(devices);
+
+	@Test
+	public void testOperations() {
+		// The size is not a multiple of the number of shards
+		final int numberOfPaths = 100003;
+
+		final Random random = new Random(3141);
+		final float[] values1 = new float[numberOfPaths];
+		final float[] values2 = new float[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			values1[i] = (float)random.nextGaussian();
+			values2[i] = 0.5f + random.nextFloat();
+		}
+
+		final RandomVariableCuda x = new RandomVariableCuda(backend, 0.0, values1);
+		final RandomVariableCuda y = new RandomVariableCuda(backend, 0.0, values2);
+		final RandomVariable xHost = new RandomVariableFromFloatArray(0.0, values1);
+		final RandomVariable yHost = new RandomVariableFromFloatArray(0.0, values2);
+
+		assertEqualsOnPaths(x, xHost);
+
+		assertEqualsOnPaths(x.exp().mult(y).add(0.5).cap(2.0), xHost.exp().mult(yHost).add(0.5).cap(2.0));
+		assertEqualsOnPaths(x.discount(y, 0.25).addProduct(x, y), xHost.discount(yHost, 0.25).addProduct(xHost, yHost));
+		assertEqualsOnPaths(x.addSumProduct(List.of(x, y), List.of(y, x.average())), xHost.addProduct(xHost, yHost).addProduct(yHost, x.getAverage()));
+
+		// Fused kernels are evaluated per shard
+		final ExpressionRecorder recorder = new ExpressionRecorder();
+		final KernelExpression expression = recorder.record(x).mult(0.5).exp().add(recorder.record(y));
+		assertEqualsOnPaths(recorder.evaluate(expression), xHost.mult(0.5).exp().add(yHost));
+
+		// The antithetic paths are paired across the shards
+		final float[] antithetic = values1.clone();
+		for(int i=(numberOfPaths+1)/2; i<numberOfPaths; i++) {
+			antithetic[i] = -antithetic[i-(numberOfPaths+1)/2];
+		}
+		try(DevicePointerReference vector = backend.getDevicePointer(values1);
+				DevicePointerReference result = backend.callFunction(Kernel.ANTITHETIC, numberOfPaths, new DevicePointerReference[] { vector }, new float[0])) {
+			Assert.assertArrayEquals(antithetic, backend.getValuesAsFloat(result, numberOfPaths), 0.0f);
+		}
+
+		// Reductions are combined on the host
+		Assert.assertEquals(xHost.getAverage(), x.getAverage(), 1E-12);
+		double sum = 0.0;
+		for(final float value : values2) {
+			sum += value;
+		}
+		try(DevicePointerReference vector = backend.getDevicePointer(values2)) {
+			Assert.assertEquals(sum, backend.sum(vector, numberOfPaths), 1E-12 * numberOfPaths);
+		}
+	}
+
+	@Test
+	public void testShardsAndPools() {
+		// Partition of the paths
+		Assert.assertEquals(3, backend.getNumberOfShards());
+		Assert.assertEquals(0, backend.getShardOffset(10, 0));
+		Assert.assertEquals(3, backend.getShardOffset(10, 1));
+		Assert.assertEquals(6, backend.getShardOffset(10, 2));
+		Assert.assertEquals(10, backend.getShardOffset(10, 3));
+
+		// Less paths than shards
+		final float[] values = new float[] { 1.0f, 2.0f };
+		final RandomVariableCuda small = new RandomVariableCuda(backend, 0.0, values);
+		Assert.assertArrayEquals(new double[] { 4.0, 7.0 }, small.mult(3.0).add(1.0).getRealizations(), 0.0);
+		Assert.assertEquals(1.5, small.getAverage(), 0.0);
+
+		// Each shard allocates on its own pool, the statistics are combined
+		final int numberOfPaths = 30000;
+		try(DevicePointerReference vector = backend.getDevicePointer(numberOfPaths)) {
+			for(final HostComputeBackend device : devices) {
+				Assert.assertTrue(device.getStatistics().getBytesInUse() >= numberOfPaths / 3 * Float.BYTES);
+			}
+			Assert.assertEquals(
+					devices.stream().mapToLong(device -> device.getStatistics().getTotalAllocatedBytes()).sum(),
+					backend.getStatistics().getTotalAllocatedBytes());
+		}
+
+		// Closing a sharded vector releases all shards
+		final long releases = backend.getStatistics().getNumberOfExplicitReleases();
+		backend.getDevicePointer(numberOfPaths).close();
+		Assert.assertEquals(releases + devices.size(), backend.getStatistics().getNumberOfExplicitReleases());
+
+		// Vectors of different sizes are not aligned
+		try(DevicePointerReference vector1 = backend.getDevicePointer(10); DevicePointerReference vector2 = backend.getDevicePointer(11)) {
+			backend.callFunction(Kernel.ADD, 10, new DevicePointerReference[] { vector1, vector2 }, new float[0]);
+			Assert.fail("Expected IllegalArgumentException");
+		}
+		catch(final IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private static void assertEqualsOnPaths(final RandomVariable actual, final RandomVariable expected) {
+		Assert.assertArrayEquals(expected.getRealizations(), actual.getRealizations(), 0.0);
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.fusion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.cuda.cpu.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.cuda.montecarlo.ExpressionRecorder;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Tests of the code generation, the kernel cache and the host evaluation of fused kernels (does not require a GPU).
+ *
+ * @author Christian Fries
+ */
+public class KernelProgramTest {
+
+	@Test
+	public void testSourceAndShape() {
+		final KernelExpression x = KernelExpression.input(0);
+		final KernelExpression y = KernelExpression.input(1);
+
+		// exp(x * 0.5) + y, where x * 0.5 is used twice (common sub-expression)
+		final KernelExpression scaled = x.mult(0.5);
+		final KernelExpression expression = scaled.exp().add(y).sub(scaled);
+		final KernelProgram program = KernelProgram.of(expression);
+
+		final String source = program.getSource();
+		Assert.assertTrue(source.contains("__global__ void fusedKernel(int n, float *input0, float *input1, float constant0, float *result)"));
+		Assert.assertTrue(source.contains("float t1 = x0 * t0;"));
+		Assert.assertTrue(source.contains("float t2 = expf(t1);"));
+		Assert.assertTrue(source.contains("result[i] = t4;"));
+		Assert.assertEquals("Common sub-expression evaluated once", 5, program.getNumberOfInstructions());
+		Assert.assertArrayEquals(new int[] { 0, 1 }, program.getInputIndices());
+		Assert.assertArrayEquals(new float[] { 0.5f }, program.getConstants(), 0.0f);
+
+		// Same structure, different constants: same shape (and source)
+		final KernelExpression scaled2 = x.mult(2.0);
+		final KernelProgram program2 = KernelProgram.of(scaled2.exp().add(y).sub(scaled2));
+		Assert.assertEquals(program.getShape(), program2.getShape());
+		Assert.assertEquals(program.getSource(), program2.getSource());
+
+		// Different structure: different shape
+		final KernelProgram program3 = KernelProgram.of(x.mult(0.5).exp().add(y).sub(x.mult(0.5)));
+		Assert.assertNotEquals(program.getShape(), program3.getShape());
+
+		// Constant folding
+		Assert.assertTrue(KernelExpression.constant(2.0).mult(3.0).isConstant());
+	}
+
+	@Test
+	public void testCache() {
+		final List<String> compiledSources = new ArrayList<>();
+		final FusedKernelCache<String> cache = new FusedKernelCache<>(source -> {
+			compiledSources.add(source);
+			return "kernel" + compiledSources.size();
+		});
+
+		final KernelExpression x = KernelExpression.input(0);
+		final String kernel1 = cache.get(KernelProgram.of(x.mult(1.0).exp()));
+		final String kernel2 = cache.get(KernelProgram.of(x.mult(2.0).exp()));
+		final String kernel3 = cache.get(KernelProgram.of(x.add(2.0).exp()));
+
+		Assert.assertEquals(kernel1, kernel2);
+		Assert.assertNotEquals(kernel1, kernel3);
+		Assert.assertEquals(2, cache.getNumberOfCompilations());
+		Assert.assertEquals(3, cache.getNumberOfRequests());
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(2, compiledSources.size());
+	}
+
+	@Test
+	public void testHostEvaluation() {
+		final Random random = new Random(3141);
+		final int numberOfPaths = 10000;
+		final double[] values1 = new double[numberOfPaths];
+		final double[] values2 = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			values1[i] = random.nextGaussian();
+			values2[i] = random.nextDouble() + 0.5;
+		}
+		final RandomVariable x = new RandomVariableFromFloatArray(0.0, values1);
+		final RandomVariable y = new RandomVariableFromFloatArray(1.0, values2);
+
+		final ExpressionRecorder recorder = new ExpressionRecorder();
+		final KernelExpression xe = recorder.record(x);
+		final KernelExpression ye = recorder.record(y);
+		final KernelExpression expression = xe.mult(0.2).exp().discount(ye, 0.5).floor(recorder.record(new RandomVariableFromFloatArray(0.7))).addProduct(ye, ye.log()).pow(1.5);
+
+		final RandomVariable fused = recorder.evaluate(expression);
+		final RandomVariable expected = x.mult(0.2).exp().discount(y, 0.5).floor(0.7).addProduct(y, y.log()).pow(1.5);
+
+		Assert.assertEquals(expected.getFiltrationTime(), fused.getFiltrationTime(), 0.0);
+		Assert.assertArrayEquals("Bit identical to the operations of RandomVariableFromFloatArray", expected.getRealizations(), fused.getRealizations(), 0.0);
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.memory;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jcuda.driver.CUdeviceptr;
+import net.finmath.cuda.montecarlo.RandomVariableCuda.DevicePointerReference;
+
+/**
+ * Tests of the {@link DevicePointerPool} logic, using a simulated device (does not require a GPU).
+ *
+ * @author Christian Fries
+ */
+public class DevicePointerPoolTest {
+
+	@Test
+	public void testSizeClassPolicies() {
+		Assert.assertEquals(100000, SizeClassPolicy.exact().getSizeClass(100000));
+
+		final SizeClassPolicy powerOfTwo = SizeClassPolicy.powerOfTwo(0, 256);
+		Assert.assertEquals(256, powerOfTwo.getSizeClass(1));
+		Assert.assertEquals(256, powerOfTwo.getSizeClass(256));
+		Assert.assertEquals(512, powerOfTwo.getSizeClass(257));
+		Assert.assertEquals(131072, powerOfTwo.getSizeClass(100000));
+
+		final SizeClassPolicy subdivided = SizeClassPolicy.of("powerOfTwo:2", 256);
+		Assert.assertEquals(114688, subdivided.getSizeClass(100000));		// 2^16 * 1.75
+		Assert.assertEquals(131072, subdivided.getSizeClass(131072));
+		for(long size = 1; size < 10000000; size = size * 3 + 1) {
+			final long sizeClass = subdivided.getSizeClass(size);
+			Assert.assertTrue(sizeClass >= size);
+			Assert.assertTrue(size < 256 || sizeClass < 1.25 * size);
+		}
+	}
+
+	@Test
+	public void testExplicitReleaseIsIdempotentAndRecycles() {
+		final HostMemoryAllocator allocator = new HostMemoryAllocator(1L << 30);
+		final DevicePointerPool pool = new DevicePointerPool(allocator, SizeClassPolicy.powerOfTwo(0, 256), MemoryPressurePolicy.watermark(0.9, 0.75, 0));
+
+		final DevicePointerReference reference1 = pool.getDevicePointer(1000);
+		final CUdeviceptr devicePointer1 = reference1.get();
+		Assert.assertEquals(1, pool.getNumberOfVectorsInUse());
+		Assert.assertEquals(1024 * Float.BYTES, allocator.getUsedMemoryBytes());
+
+		reference1.close();
+		reference1.close();
+		Assert.assertTrue(reference1.isReleased());
+		Assert.assertEquals(0, pool.getNumberOfVectorsInUse());
+		Assert.assertEquals(1, pool.getNumberOfVectorsToRecycle());
+
+		try {
+			reference1.get();
+			Assert.fail("Expected an exception when using a released reference.");
+		}
+		catch(final IllegalStateException e) {
+			// expected
+		}
+
+		// A different size of the same size class recycles the vector
+		try(DevicePointerReference reference2 = pool.getDevicePointer(1020)) {
+			Assert.assertSame(devicePointer1, reference2.get());
+			Assert.assertEquals(1, allocator.getNumberOfAllocations());
+		}
+
+		// A different size class allocates a new vector
+		try(DevicePointerReference reference3 = pool.getDevicePointer(2000)) {
+			Assert.assertNotSame(devicePointer1, reference3.get());
+			Assert.assertEquals(2, allocator.getNumberOfAllocations());
+		}
+
+		pool.clean();
+		Assert.assertEquals(0, allocator.getUsedMemoryBytes());
+		Assert.assertEquals(0, pool.getAllocatedBytes());
+		Assert.assertEquals(2, allocator.getNumberOfFrees());
+	}
+
+	@Test
+	public void testDereferencedVectorsAreRecycled() throws InterruptedException {
+		final HostMemoryAllocator allocator = new HostMemoryAllocator(1L << 30);
+		final DevicePointerPool pool = new DevicePointerPool(allocator, SizeClassPolicy.exact(), MemoryPressurePolicy.watermark(1.0, 1.0, 0));
+
+		DevicePointerReference reference = pool.getDevicePointer(1000);
+		reference = null;
+
+		// Wait for the garbage collector and the cleaner to recycle the vector
+		for(int i=0; i<100 && pool.getNumberOfVectorsToRecycle() == 0; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		Assert.assertEquals(1, pool.getNumberOfVectorsToRecycle());
+		Assert.assertEquals(0, pool.getNumberOfVectorsInUse());
+
+		pool.getDevicePointer(1000).close();
+		Assert.assertEquals(1, allocator.getNumberOfAllocations());
+	}
+
+	@Test
+	public void testAllocationFailureFreesOtherSizeClasses() {
+		final HostMemoryAllocator allocator = new HostMemoryAllocator(3000 * Float.BYTES);
+		final DevicePointerPool pool = new DevicePointerPool(allocator, SizeClassPolicy.exact(), MemoryPressurePolicy.watermark(1.0, 1.0, 0));
+
+		pool.getDevicePointer(1000).close();
+		pool.getDevicePointer(1500).close();
+
+		// Requires freeing the unused vectors of the other size classes
+		try(DevicePointerReference reference = pool.getDevicePointer(2500)) {
+			Assert.assertEquals(2500 * Float.BYTES, allocator.getUsedMemoryBytes());
+		}
+
+		try {
+			pool.getDevicePointer(4000);
+			Assert.fail("Expected an OutOfMemoryError.");
+		}
+		catch(final OutOfMemoryError e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testAllocationFailureReclaimsUnreachableVectors() {
+		final HostMemoryAllocator allocator = new HostMemoryAllocator(3000 * Float.BYTES);
+		final DevicePointerPool pool = new DevicePointerPool(allocator, SizeClassPolicy.exact(), MemoryPressurePolicy.watermark(1.0, 1.0, 0));
+
+		// Vectors which are neither closed nor reclaimed by the garbage collector yet
+		for(int i=0; i<10; i++) {
+			pool.getDevicePointer(2000);
+		}
+
+		Assert.assertEquals(1, allocator.getNumberOfAllocations() - allocator.getNumberOfFrees());
+		try(DevicePointerReference reference = pool.getDevicePointer(2500)) {
+			Assert.assertEquals(2500 * Float.BYTES, allocator.getUsedMemoryBytes());
+		}
+	}
+
+	@Test
+	public void testWatermarkPolicyEvictsUnusedVectors() {
+		final long memoryBudget = 100000;
+		final HostMemoryAllocator allocator = new HostMemoryAllocator(memoryBudget);
+		final DevicePointerPool pool = new DevicePointerPool(allocator, SizeClassPolicy.exact(), MemoryPressurePolicy.watermark(0.9, 0.75, 0));
+
+		pool.getDevicePointer(5000).close();
+		pool.getDevicePointer(6000).close();
+		pool.getDevicePointer(7000).close();
+		Assert.assertEquals(72000, pool.getAllocatedBytes());
+
+		// Requires 94000 bytes, above the high watermark: free (at least) 19000 bytes, starting with the largest unused vector
+		try(DevicePointerReference reference = pool.getDevicePointer(5500)) {
+			Assert.assertEquals(66000, allocator.getUsedMemoryBytes());
+			Assert.assertEquals(66000, pool.getAllocatedBytes());
+			Assert.assertEquals(1, allocator.getNumberOfFrees());
+			Assert.assertTrue(pool.hasVectorToRecycle(5000));
+			Assert.assertTrue(pool.hasVectorToRecycle(6000));
+			Assert.assertFalse(pool.hasVectorToRecycle(7000));
+		}
+
+		// Below the high watermark: no eviction
+		try(DevicePointerReference reference = pool.getDevicePointer(1000)) {
+			Assert.assertEquals(1, allocator.getNumberOfFrees());
+			Assert.assertEquals(70000, pool.getAllocatedBytes());
+		}
+	}
+
+	@Test
+	public void testStatistics() throws Exception {
+		final HostMemoryAllocator allocator = new HostMemoryAllocator(1L << 30);
+		final DevicePointerPool pool = new DevicePointerPool(allocator, SizeClassPolicy.exact(), MemoryPressurePolicy.watermark(0.9, 0.75, 0));
+
+		final DevicePointerReference reference1 = pool.getDevicePointer(1000);
+		pool.getDevicePointer(2000).close();
+		pool.getDevicePointer(2000).close();
+
+		final DevicePointerPoolStatistics statisticsWhileInUse = pool.getStatistics();
+		Assert.assertEquals(3000 * Float.BYTES, statisticsWhileInUse.getAllocatedBytes());
+		Assert.assertEquals(1000 * Float.BYTES, statisticsWhileInUse.getBytesInUse());
+		Assert.assertEquals(2000 * Float.BYTES, statisticsWhileInUse.getBytesToRecycle());
+		Assert.assertEquals(Long.valueOf(1000 * Float.BYTES), statisticsWhileInUse.getBytesInUseBySizeClass().get(1000L));
+		Assert.assertEquals(Long.valueOf(2000 * Float.BYTES), statisticsWhileInUse.getBytesToRecycleBySizeClass().get(2000L));
+		Assert.assertEquals(1, statisticsWhileInUse.getNumberOfRecyclingHits());
+		Assert.assertEquals(2, statisticsWhileInUse.getNumberOfRecyclingMisses());
+		Assert.assertEquals(1.0/3.0, statisticsWhileInUse.getRecyclingHitRate(), 1E-15);
+		Assert.assertEquals(2, statisticsWhileInUse.getNumberOfExplicitReleases());
+		Assert.assertEquals(0, statisticsWhileInUse.getNumberOfGarbageCollectorReclaims());
+		Assert.assertEquals(2, statisticsWhileInUse.getNumberOfMemoryPressurePolicyCalls());
+
+		reference1.close();
+		pool.clean();
+
+		final DevicePointerPoolStatistics statistics = pool.getStatistics();
+		Assert.assertEquals(0, statistics.getAllocatedBytes());
+		Assert.assertEquals(3000 * Float.BYTES, statistics.getTotalAllocatedBytes());
+		Assert.assertEquals(3000 * Float.BYTES, statistics.getTotalFreedBytes());
+		Assert.assertEquals(1, statistics.getNumberOfCleans());
+
+		// Access via JMX
+		final String objectName = "net.finmath.cuda:type=DeviceMemoryPool,name=" + DevicePointerPoolTest.class.getSimpleName();
+		pool.registerMXBean(objectName);
+		final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		Assert.assertEquals(3L * Float.BYTES * 1000, mBeanServer.getAttribute(new ObjectName(objectName), "TotalAllocatedBytes"));
+		Assert.assertEquals(1L, mBeanServer.getAttribute(new ObjectName(objectName), "NumberOfCleans"));
+		mBeanServer.unregisterMBean(new ObjectName(objectName));
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.cuda.montecarlo.memory;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import jcuda.driver.CUdeviceptr;
+
+/**
+ * A stand-in for a device memory allocator, simulating a device with a given memory budget
+ * (no memory is allocated, the returned pointers are only used as handles).
+ *
+ * @author Christian Fries
+ */
+public class HostMemoryAllocator implements DeviceMemoryAllocator {
+
+	private final long totalMemoryBytes;
+
+	private final Map<CUdeviceptr, Long> allocatedVectors = Collections.synchronizedMap(new IdentityHashMap<>());
+	private long usedMemoryBytes;
+	private int numberOfAllocations;
+	private int numberOfFrees;
+
+	/**
+	 * Create a simulated device with the given memory.
+	 *
+	 * @param totalMemoryBytes The memory of the simulated device in bytes.
+	 */
+	public HostMemoryAllocator(final long totalMemoryBytes) {
+		this.totalMemoryBytes = totalMemoryBytes;
+	}
+
+	@Override
+	public synchronized CUdeviceptr allocate(final long sizeInBytes) {
+		if(usedMemoryBytes + sizeInBytes > totalMemoryBytes) {
+			return null;
+		}
+		final CUdeviceptr devicePointer = new CUdeviceptr();
+		allocatedVectors.put(devicePointer, sizeInBytes);
+		usedMemoryBytes += sizeInBytes;
+		numberOfAllocations++;
+		return devicePointer;
+	}
+
+	@Override
+	public synchronized void free(final CUdeviceptr devicePointer, final long sizeInBytes) {
+		final Long allocatedSize = allocatedVectors.remove(devicePointer);
+		if(allocatedSize == null) {
+			throw new IllegalStateException("Freeing a pointer which is not allocated (or has already been freed).");
+		}
+		if(allocatedSize != sizeInBytes) {
+			throw new IllegalStateException("Freeing a pointer with size " + sizeInBytes + " allocated with size " + allocatedSize + ".");
+		}
+		usedMemoryBytes -= sizeInBytes;
+		numberOfFrees++;
+	}
+
+	@Override
+	public synchronized long getFreeMemoryBytes() {
+		return totalMemoryBytes - usedMemoryBytes;
+	}
+
+	@Override
+	public long getTotalMemoryBytes() {
+		return totalMemoryBytes;
+	}
+
+	public synchronized long getUsedMemoryBytes() {
+		return usedMemoryBytes;
+	}
+
+	public synchronized int getNumberOfAllocations() {
+		return numberOfAllocations;
+	}
+
+	public synchronized int getNumberOfFrees() {
+		return numberOfFrees;
+	}
+}
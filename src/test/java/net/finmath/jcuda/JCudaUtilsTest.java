@@ -0,0 +1,159 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.jcuda;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the PTX cache of {@link JCudaUtils}, using a fake compiler command (a shell script, does not require nvcc or a GPU).
+ *
+ * @author Christian Fries
+ */
+public class JCudaUtilsTest {
+
+	private static final String source = "extern \"C\" __global__ void kernel(int n, float *result) { }";
+
+	private Path directory;
+	private Path cacheDirectory;
+	private Path invocations;
+	private Path version;
+	private String compiler;
+	private String failingCompiler;
+
+	@Before
+	public void setUp() throws IOException {
+		Assume.assumeFalse("Fake compiler requires a POSIX shell", System.getProperty("os.name").toLowerCase().startsWith("windows"));
+
+		directory = Files.createTempDirectory("JCudaUtilsTest");
+		cacheDirectory = directory.resolve("cache");
+		invocations = directory.resolve("invocations");
+		version = directory.resolve("version");
+		Files.write(version, "release 11.0".getBytes(StandardCharsets.UTF_8));
+
+		// The fake compiler prints its version, or writes its arguments to the file following -o and counts its invocations
+		compiler = createScript("fake-nvcc",
+				"if [ \"$1\" = \"--version\" ]; then cat \"" + version + "\"; exit 0; fi\n"
+						+ "out=\"\"; previous=\"\"\n"
+						+ "for argument in \"$@\"; do\n"
+						+ "  if [ \"$previous\" = \"-o\" ]; then out=\"$argument\"; fi\n"
+						+ "  previous=\"$argument\"\n"
+						+ "done\n"
+						+ "echo \"// $*\" > \"$out\"\n"
+						+ "echo x >> \"" + invocations + "\"\n");
+		failingCompiler = createScript("failing-nvcc", "echo \"error: simulated failure\" 1>&2\nexit 1\n");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		if(directory != null) {
+			FileUtils.deleteDirectory(directory.toFile());
+		}
+	}
+
+	@Test
+	public void testCacheHitAndKeying() throws IOException {
+		final String ptxFile = prepare(source, "sm_61", compiler);
+		Assert.assertTrue(Files.readAllLines(Path.of(ptxFile)).get(0).contains("-arch sm_61"));
+		Assert.assertEquals(1, getNumberOfInvocations());
+
+		// Same source, arch and flags: the cached file is used
+		Assert.assertEquals(ptxFile, prepare(source, "sm_61", compiler));
+		Assert.assertEquals(1, getNumberOfInvocations());
+
+		// Different arch or different source: new key
+		final String ptxFileOtherArch = prepare(source, "sm_75", compiler);
+		final String ptxFileOtherSource = prepare(source + "\n", "sm_61", compiler);
+		Assert.assertEquals(3, getNumberOfInvocations());
+		Assert.assertEquals(3, new HashSet<>(List.of(ptxFile, ptxFileOtherArch, ptxFileOtherSource)).size());
+
+		// A new compiler version: new key
+		Files.write(version, "release 12.0".getBytes(StandardCharsets.UTF_8));
+		final String ptxFileOtherVersion = prepare(source, "sm_61", compiler);
+		Assert.assertNotEquals(ptxFile, ptxFileOtherVersion);
+		Assert.assertEquals(4, getNumberOfInvocations());
+
+		// No temporary files or lock files are left in the cache
+		try(var files = Files.list(cacheDirectory)) {
+			Assert.assertTrue(files.map(Path::toString).allMatch(name -> name.endsWith(".ptx")));
+		}
+	}
+
+	@Test
+	public void testInvalidation() throws IOException {
+		final String ptxFile = prepare(source, "sm_61", compiler);
+
+		// An empty (truncated) file is not a valid cache entry
+		Files.write(Path.of(ptxFile), new byte[0]);
+		Assert.assertEquals(ptxFile, prepare(source, "sm_61", compiler));
+		Assert.assertEquals(2, getNumberOfInvocations());
+		Assert.assertTrue(Files.size(Path.of(ptxFile)) > 0);
+
+		// A failed compilation does not leave an entry
+		try {
+			prepare(source, "sm_70", failingCompiler);
+			Assert.fail("Expected IOException");
+		}
+		catch(final IOException e) {
+			Assert.assertTrue(e.getMessage().contains("simulated failure"));
+		}
+		try(var files = Files.list(cacheDirectory)) {
+			Assert.assertEquals(1, files.filter(file -> file.toString().endsWith(".ptx")).count());
+		}
+	}
+
+	@Test
+	public void testConcurrentCompilation() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<String>> results = new ArrayList<>();
+			for(int i=0; i<16; i++) {
+				results.add(executor.submit(() -> prepare(source, "sm_61", compiler)));
+			}
+			final String ptxFile = results.get(0).get();
+			for(final Future<String> result : results) {
+				Assert.assertEquals(ptxFile, result.get());
+			}
+			Assert.assertEquals("Compiled once", 1, getNumberOfInvocations());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private String prepare(final String source, final String arch, final String compiler) throws IOException {
+		return JCudaUtils.preparePtxFile(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)), arch, cacheDirectory, compiler);
+	}
+
+	private long getNumberOfInvocations() throws IOException {
+		return Files.exists(invocations) ? Files.readAllLines(invocations).size() : 0;
+	}
+
+	private String createScript(final String name, final String body) throws IOException {
+		final Path script = directory.resolve(name);
+		Files.write(script, ("#!/bin/sh\n" + body).getBytes(StandardCharsets.UTF_8));
+		if(!script.toFile().setExecutable(true)) {
+			throw new IOException("Unable to make " + script + " executable.");
+		}
+		return script.toString();
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 18.10.2026
+ */
+package net.finmath.jcuda;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the selection of precompiled PTX resources and of the fallback to the compilation (does not require nvcc or a GPU).
+ *
+ * @author Christian Fries
+ */
+public class PtxResourceLoaderTest {
+
+	private static final String kernelName = "/net/finmath/cuda/montecarlo/RandomVariableCudaKernel";
+
+	private final Map<String, String> resources = new HashMap<>();
+	private final List<String> compiledArchitectures = new ArrayList<>();
+
+	private PtxResourceLoader createLoader(final boolean usePrecompiledPtx) {
+		return new PtxResourceLoader(
+				name -> resources.containsKey(name) ? new ByteArrayInputStream(resources.get(name).getBytes(StandardCharsets.UTF_8)) : null,
+				(cuFileStream, arch) -> {
+					compiledArchitectures.add(arch);
+					final Path ptxFile = Files.createTempFile("compiled", ".ptx");
+					ptxFile.toFile().deleteOnExit();
+					Files.write(ptxFile, ("compiled " + arch + " from " + IOUtils.toString(cuFileStream, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8));
+					return ptxFile.toString();
+				},
+				usePrecompiledPtx);
+	}
+
+	@Test
+	public void testSelection() throws IOException {
+		resources.put(kernelName + ".cu", "source");
+		resources.put(kernelName + ".sm_52.ptx", "ptx 52");
+		resources.put(kernelName + ".sm_61.ptx", "ptx 61");
+		resources.put(kernelName + ".sm_75.ptx", "ptx 75");
+
+		final PtxResourceLoader loader = createLoader(true);
+
+		// Exact match
+		Assert.assertEquals(kernelName + ".sm_61.ptx", loader.getPrecompiledResourceName(kernelName, "sm_61"));
+		Assert.assertEquals("ptx 61", read(loader.preparePtxFile(kernelName, "sm_61")));
+
+		// Best match below the device architecture (forward compatible PTX)
+		Assert.assertEquals(kernelName + ".sm_61.ptx", loader.getPrecompiledResourceName(kernelName, "sm_70"));
+		Assert.assertEquals(kernelName + ".sm_75.ptx", loader.getPrecompiledResourceName(kernelName, "sm_86"));
+		Assert.assertEquals("ptx 75", read(loader.preparePtxFile(kernelName, "sm_86")));
+
+		// No compilation required so far
+		Assert.assertTrue(compiledArchitectures.isEmpty());
+
+		// Device below all precompiled architectures: fall back to the compilation
+		Assert.assertNull(loader.getPrecompiledResourceName(kernelName, "sm_35"));
+		Assert.assertEquals("compiled sm_35 from source", read(loader.preparePtxFile(kernelName, "sm_35")));
+		Assert.assertEquals(List.of("sm_35"), compiledArchitectures);
+	}
+
+	@Test
+	public void testFallback() throws IOException {
+		resources.put(kernelName + ".cu", "source");
+		resources.put(kernelName + ".sm_61.ptx", "ptx 61");
+
+		// Precompiled resources disabled
+		Assert.assertEquals("compiled sm_61 from source", read(createLoader(false).preparePtxFile(kernelName, "sm_61")));
+
+		// No precompiled resources at all
+		resources.remove(kernelName + ".sm_61.ptx");
+		Assert.assertEquals("compiled sm_75 from source", read(createLoader(true).preparePtxFile(kernelName, "sm_75")));
+
+		// Neither precompiled resource nor source
+		resources.remove(kernelName + ".cu");
+		try {
+			createLoader(true).preparePtxFile(kernelName, "sm_75");
+			Assert.fail("Expected IOException");
+		}
+		catch(final IOException e) {
+			Assert.assertTrue(e.getMessage().contains("not found"));
+		}
+
+		Assert.assertEquals(61, PtxResourceLoader.getComputeCapability("compute_61"));
+		Assert.assertEquals(100, PtxResourceLoader.getComputeCapability("sm_100"));
+	}
+
+	private static String read(final String fileName) throws IOException {
+		return new String(Files.readAllBytes(Path.of(fileName)), StandardCharsets.UTF_8);
+	}
+}